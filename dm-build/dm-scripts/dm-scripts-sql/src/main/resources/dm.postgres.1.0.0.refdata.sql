@@ -589,6 +589,7 @@ INSERT INTO scrty_fn_lk VALUES('FN_EMR_SHELL_STEPS_POST','FN_EMR_SHELL_STEPS_POS
 INSERT INTO scrty_fn_lk VALUES('FN_EXPECTED_PARTITION_VALUES_DELETE','FN_EXPECTED_PARTITION_VALUES_DELETE','FN_EXPECTED_PARTITION_VALUES_DELETE,current_timestamp,'SYSTEM',current_timestamp,'SYSTEM');
 INSERT INTO scrty_fn_lk VALUES('FN_EXPECTED_PARTITION_VALUES_GET','FN_EXPECTED_PARTITION_VALUES_GET','FN_EXPECTED_PARTITION_VALUES_GET,current_timestamp,'SYSTEM',current_timestamp,'SYSTEM');
 INSERT INTO scrty_fn_lk VALUES('FN_EXPECTED_PARTITION_VALUES_POST','FN_EXPECTED_PARTITION_VALUES_POST','FN_EXPECTED_PARTITION_VALUES_POST,current_timestamp,'SYSTEM',current_timestamp,'SYSTEM');
+INSERT INTO scrty_fn_lk VALUES('FN_EXPECTED_PARTITION_VALUES_PUT','FN_EXPECTED_PARTITION_VALUES_PUT','FN_EXPECTED_PARTITION_VALUES_PUT,current_timestamp,'SYSTEM',current_timestamp,'SYSTEM');
 INSERT INTO scrty_fn_lk VALUES('FN_FILE_TYPES_ALL_GET','FN_FILE_TYPES_ALL_GET','FN_FILE_TYPES_ALL_GET,current_timestamp,'SYSTEM',current_timestamp,'SYSTEM');
 INSERT INTO scrty_fn_lk VALUES('FN_JOBS_GET','FN_JOBS_GET','FN_JOBS_GET,current_timestamp,'SYSTEM',current_timestamp,'SYSTEM');
 INSERT INTO scrty_fn_lk VALUES('FN_JOBS_POST','FN_JOBS_POST','FN_JOBS_POST,current_timestamp,'SYSTEM',current_timestamp,'SYSTEM');
@@ -596,6 +597,7 @@ INSERT INTO scrty_fn_lk VALUES('FN_JOBS_SIGNAL_POST','FN_JOBS_SIGNAL_POST','FN_J
 INSERT INTO scrty_fn_lk VALUES('FN_JOB_DEFINITIONS_GET','FN_JOB_DEFINITIONS_GET','FN_JOB_DEFINITIONS_GET,current_timestamp,'SYSTEM',current_timestamp,'SYSTEM');
 INSERT INTO scrty_fn_lk VALUES('FN_JOB_DEFINITIONS_POST','FN_JOB_DEFINITIONS_POST','FN_JOB_DEFINITIONS_POST,current_timestamp,'SYSTEM',current_timestamp,'SYSTEM');
 INSERT INTO scrty_fn_lk VALUES('FN_JOB_DEFINITIONS_PUT','FN_JOB_DEFINITIONS_PUT','FN_JOB_DEFINITIONS_PUT,current_timestamp,'SYSTEM',current_timestamp,'SYSTEM');
+INSERT INTO scrty_fn_lk VALUES('FN_METRICS_GET','FN_METRICS_GET','FN_METRICS_GET,current_timestamp,'SYSTEM',current_timestamp,'SYSTEM');
 INSERT INTO scrty_fn_lk VALUES('FN_NAMESPACES_ALL_GET','FN_NAMESPACES_ALL_GET','FN_NAMESPACES_ALL_GET,current_timestamp,'SYSTEM',current_timestamp,'SYSTEM');
 INSERT INTO scrty_fn_lk VALUES('FN_NAMESPACES_DELETE','FN_NAMESPACES_DELETE','FN_NAMESPACES_DELETE,current_timestamp,'SYSTEM',current_timestamp,'SYSTEM');
 INSERT INTO scrty_fn_lk VALUES('FN_NAMESPACES_GET','FN_NAMESPACES_GET','FN_NAMESPACES_GET,current_timestamp,'SYSTEM',current_timestamp,'SYSTEM');
@@ -733,6 +733,7 @@ CREATE TABLE ntfcn_type_cd_lk (
 
 CREATE TABLE prtn_key_group (
     prtn_key_group_tx character varying(30) NOT NULL,
+    vrsn_nb bigint DEFAULT 0 NOT NULL,
     creat_ts timestamp without time zone DEFAULT ('now'::text)::timestamp without time zone NOT NULL,
     creat_user_id character varying(100) NOT NULL,
     updt_ts timestamp without time zone DEFAULT ('now'::text)::timestamp without time zone NOT NULL,
@@ -873,6 +874,36 @@ CREATE SEQUENCE strge_atrbt_seq
     CACHE 20;
 
 
+--
+-- Name: strge_daily_upld_stat; Type: TABLE; Schema: dmrowner; Owner: -; Tablespace: 
+--
+
+CREATE TABLE strge_daily_upld_stat (
+    strge_daily_upld_stat_id bigint NOT NULL,
+    strge_cd character varying(25) NOT NULL,
+    bus_objct_dfntn_id bigint NOT NULL,
+    upld_dt date NOT NULL,
+    file_cnt bigint NOT NULL,
+    file_size_in_bytes_nb bigint NOT NULL,
+    creat_ts timestamp without time zone DEFAULT ('now'::text)::timestamp without time zone NOT NULL,
+    creat_user_id character varying(100) NOT NULL,
+    updt_ts timestamp without time zone DEFAULT ('now'::text)::timestamp without time zone NOT NULL,
+    updt_user_id character varying(100)
+);
+
+
+--
+-- Name: strge_daily_upld_stat_seq; Type: SEQUENCE; Schema: dmrowner; Owner: -
+--
+
+CREATE SEQUENCE strge_daily_upld_stat_seq
+    START WITH 1
+    INCREMENT BY 1
+    NO MINVALUE
+    NO MAXVALUE
+    CACHE 20;
+
+
 --
 -- Name: strge_file_seq; Type: SEQUENCE; Schema: dmrowner; Owner: -
 --
@@ -1209,6 +1240,14 @@ ALTER TABLE ONLY strge_atrbt
     ADD CONSTRAINT strge_atrbt_pk PRIMARY KEY (strge_atrbt_id);
 
 
+--
+-- Name: strge_daily_upld_stat_pk; Type: CONSTRAINT; Schema: dmrowner; Owner: -; Tablespace: 
+--
+
+ALTER TABLE ONLY strge_daily_upld_stat
+    ADD CONSTRAINT strge_daily_upld_stat_pk PRIMARY KEY (strge_daily_upld_stat_id);
+
+
 --
 -- Name: strge_file_pk; Type: CONSTRAINT; Schema: dmrowner; Owner: -; Tablespace: 
 --
@@ -1592,6 +1631,27 @@ CREATE UNIQUE INDEX strge_atrbt_ak ON strge_atrbt USING btree (strge_cd, atrbt_n
 CREATE INDEX strge_atrbt_ix1 ON strge_atrbt USING btree (strge_cd);
 
 
+--
+-- Name: strge_daily_upld_stat_ix1; Type: INDEX; Schema: dmrowner; Owner: -; Tablespace: 
+--
+
+CREATE INDEX strge_daily_upld_stat_ix1 ON strge_daily_upld_stat USING btree (upld_dt, strge_cd);
+
+
+--
+-- Name: strge_daily_upld_stat_ix2; Type: INDEX; Schema: dmrowner; Owner: -; Tablespace: 
+--
+
+CREATE INDEX strge_daily_upld_stat_ix2 ON strge_daily_upld_stat USING btree (bus_objct_dfntn_id);
+
+
+--
+-- Name: strge_daily_upld_stat_ix3; Type: INDEX; Schema: dmrowner; Owner: -; Tablespace: 
+--
+
+CREATE INDEX strge_daily_upld_stat_ix3 ON strge_daily_upld_stat USING btree (strge_cd, upld_dt);
+
+
 --
 -- Name: strge_file_ak; Type: INDEX; Schema: dmrowner; Owner: -; Tablespace: 
 --
@@ -1890,6 +1950,22 @@ ALTER TABLE ONLY strge_atrbt
     ADD CONSTRAINT strge_atrbt_fk1 FOREIGN KEY (strge_cd) REFERENCES strge(strge_cd) DEFERRABLE INITIALLY DEFERRED;
 
 
+--
+-- Name: strge_daily_upld_stat_fk1; Type: FK CONSTRAINT; Schema: dmrowner; Owner: -
+--
+
+ALTER TABLE ONLY strge_daily_upld_stat
+    ADD CONSTRAINT strge_daily_upld_stat_fk1 FOREIGN KEY (strge_cd) REFERENCES strge(strge_cd) DEFERRABLE INITIALLY DEFERRED;
+
+
+--
+-- Name: strge_daily_upld_stat_fk2; Type: FK CONSTRAINT; Schema: dmrowner; Owner: -
+--
+
+ALTER TABLE ONLY strge_daily_upld_stat
+    ADD CONSTRAINT strge_daily_upld_stat_fk2 FOREIGN KEY (bus_objct_dfntn_id) REFERENCES bus_objct_dfntn(bus_objct_dfntn_id) DEFERRABLE INITIALLY DEFERRED;
+
+
 --
 -- Name: strge_file_fk1; Type: FK CONSTRAINT; Schema: dmrowner; Owner: -
 --
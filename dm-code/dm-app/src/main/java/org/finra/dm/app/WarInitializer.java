@@ -42,6 +42,7 @@ import org.finra.dm.service.config.ServiceEnvSpringModuleConfig;
 import org.finra.dm.service.config.ServiceSpringModuleConfig;
 import org.finra.dm.ui.DmActivitiFilter;
 import org.finra.dm.ui.RequestLoggingFilter;
+import org.finra.dm.ui.ResponseCompressionFilter;
 import org.finra.dm.ui.config.UiEnvSpringModuleConfig;
 import org.finra.dm.ui.config.UiSpringModuleConfig;
 
@@ -61,6 +62,7 @@ public class WarInitializer implements WebApplicationInitializer
         initLog4JMdcLoggingFilter(servletContext);
         initCharacterEncodingFilter(servletContext);
         initRequestLoggingFilter(servletContext);
+        initResponseCompressionFilter(servletContext);
         initServletMapping(servletContext);
         initActiviti(servletContext);
     }
@@ -151,6 +153,18 @@ public class WarInitializer implements WebApplicationInitializer
         filterRegistration.addMappingForUrlPatterns(null, true, "/rest/*");
     }
 
+    /**
+     * Initializes the response compression filter that compresses large REST responses and records request and response sizes.
+     *
+     * @param servletContext the servlet context.
+     */
+    protected void initResponseCompressionFilter(ServletContext servletContext)
+    {
+        // Add a filter that compresses REST responses when the client accepts a compressed content encoding.
+        FilterRegistration.Dynamic filterRegistration = servletContext.addFilter("responseCompressionFilter", new ResponseCompressionFilter());
+        filterRegistration.addMappingForUrlPatterns(null, true, "/rest/*");
+    }
+
     /**
      * Initializes the servlet mapping that allows the application server to serve up various static content.
      *
@@ -0,0 +1,200 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of non-negative long values. Values are kept in log-linear buckets (each power of two range is split into 16 linear sub-buckets) in
+ * the spirit of an HDR histogram, so recorded values are kept with a relative precision of about 6% regardless of their magnitude while using a fixed amount
+ * of memory. The histogram is unit agnostic; callers decide whether the values are microseconds, bytes, rows, etc.
+ */
+public class Histogram
+{
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a value in this histogram. Negative values are recorded as 0.
+     *
+     * @param value the value to record.
+     */
+    public void record(long value)
+    {
+        long recordedValue = Math.max(value, 0L);
+
+        buckets.incrementAndGet(getBucketIndex(recordedValue));
+        count.incrementAndGet();
+        sum.addAndGet(recordedValue);
+
+        long currentMax = max.get();
+        while (recordedValue > currentMax && !max.compareAndSet(currentMax, recordedValue))
+        {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Gets the number of values recorded in this histogram.
+     *
+     * @return the number of recorded values.
+     */
+    public long getCount()
+    {
+        return count.get();
+    }
+
+    /**
+     * Takes a point in time snapshot of this histogram. Since the histogram is not locked while the snapshot is taken, values recorded concurrently may or may
+     * not be reflected in the snapshot.
+     *
+     * @return the snapshot.
+     */
+    public Snapshot getSnapshot()
+    {
+        long[] bucketCounts = new long[BUCKET_COUNT];
+        long totalCount = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            bucketCounts[i] = buckets.get(i);
+            totalCount += bucketCounts[i];
+        }
+
+        return new Snapshot(bucketCounts, totalCount, sum.get(), max.get());
+    }
+
+    /**
+     * Gets the bucket index for the specified value. Values smaller than the sub-bucket count get their own bucket. Larger values are bucketed by their
+     * highest set bit and the next SUB_BUCKET_BITS bits below it.
+     *
+     * @param value the non-negative value.
+     *
+     * @return the bucket index.
+     */
+    static int getBucketIndex(long value)
+    {
+        if (value < SUB_BUCKET_COUNT)
+        {
+            return (int) value;
+        }
+
+        int magnitude = (Long.SIZE - 1) - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        int subBucket = (int) ((value >>> shift) & (SUB_BUCKET_COUNT - 1));
+        return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * Gets the highest value that maps to the specified bucket index.
+     *
+     * @param index the bucket index.
+     *
+     * @return the highest value of the bucket.
+     */
+    static long getBucketUpperBound(int index)
+    {
+        if (index < SUB_BUCKET_COUNT)
+        {
+            return index;
+        }
+
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long lowerBound = ((long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT)) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+
+    /**
+     * An immutable point in time view of a histogram.
+     */
+    public static class Snapshot
+    {
+        private final long[] bucketCounts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(long[] bucketCounts, long count, long sum, long max)
+        {
+            this.bucketCounts = bucketCounts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        public long getCount()
+        {
+            return count;
+        }
+
+        public long getSum()
+        {
+            return sum;
+        }
+
+        public long getMax()
+        {
+            return max;
+        }
+
+        public double getMean()
+        {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * Gets the value at the specified percentile. The returned value is the upper bound of the bucket the percentile falls in, capped by the maximum
+         * recorded value.
+         *
+         * @param percentile the percentile between 0 and 100.
+         *
+         * @return the value at the percentile or 0 if no values were recorded.
+         */
+        public long getValueAtPercentile(double percentile)
+        {
+            if (count == 0)
+            {
+                return 0;
+            }
+
+            long targetCount = Math.max(1L, (long) Math.ceil(count * Math.min(Math.max(percentile, 0.0), 100.0) / 100.0));
+            long runningCount = 0;
+            for (int i = 0; i < bucketCounts.length; i++)
+            {
+                runningCount += bucketCounts[i];
+                if (runningCount >= targetCount)
+                {
+                    return Math.min(getBucketUpperBound(i), max);
+                }
+            }
+
+            return max;
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("{count=%d, mean=%.1f, p50=%d, p90=%d, p99=%d, p999=%d, max=%d}", count, getMean(), getValueAtPercentile(50),
+                getValueAtPercentile(90), getValueAtPercentile(99), getValueAtPercentile(99.9), max);
+        }
+    }
+}
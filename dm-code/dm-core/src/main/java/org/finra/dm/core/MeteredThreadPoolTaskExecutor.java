@@ -0,0 +1,258 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.core;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.concurrent.ListenableFuture;
+
+import org.finra.dm.core.helper.MetricsHelper;
+
+/**
+ * A thread pool task executor dedicated to a single workload that publishes its live state to the metrics helper. The number of active threads, the pool
+ * size and the number of queued tasks are published as gauges, the time tasks spend queued and executing as latency histograms and the number of rejected
+ * tasks as a counter. All metric names start with "executor.&lt;name&gt;.".
+ */
+public class MeteredThreadPoolTaskExecutor extends ThreadPoolTaskExecutor
+{
+    private static final long serialVersionUID = 1L;
+
+    public static final String METRIC_PREFIX = "executor.";
+
+    public static final String METRIC_ACTIVE = "active";
+
+    public static final String METRIC_POOL_SIZE = "poolSize";
+
+    public static final String METRIC_QUEUED = "queued";
+
+    public static final String METRIC_REJECTED = "rejected";
+
+    public static final String METRIC_WAIT_TIME = "waitTime";
+
+    public static final String METRIC_EXECUTION_TIME = "executionTime";
+
+    private final transient MetricsHelper metricsHelper;
+
+    private final String metricPrefix;
+
+    /**
+     * Constructs the executor. The thread names are prefixed with the executor name.
+     *
+     * @param name the executor name used in the thread and metric names.
+     * @param metricsHelper the metrics helper to publish the metrics to.
+     * @param rejectedExecutionHandler the handler applied to tasks that can't be queued because the queue is full and all the threads are busy.
+     */
+    public MeteredThreadPoolTaskExecutor(String name, MetricsHelper metricsHelper, final RejectedExecutionHandler rejectedExecutionHandler)
+    {
+        this.metricsHelper = metricsHelper;
+        this.metricPrefix = METRIC_PREFIX + name + ".";
+        setThreadNamePrefix(name + "-");
+        setRejectedExecutionHandler(new RejectedExecutionHandler()
+        {
+            @Override
+            public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor)
+            {
+                MeteredThreadPoolTaskExecutor.this.metricsHelper.incrementCounter(metricPrefix + METRIC_REJECTED, 1);
+                rejectedExecutionHandler.rejectedExecution(runnable, executor);
+            }
+        });
+    }
+
+    @Override
+    protected ExecutorService initializeExecutor(ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler)
+    {
+        ExecutorService executorService = super.initializeExecutor(threadFactory, rejectedExecutionHandler);
+
+        metricsHelper.registerGauge(metricPrefix + METRIC_ACTIVE, new MetricsHelper.Gauge()
+        {
+            @Override
+            public long getValue()
+            {
+                return getActiveCount();
+            }
+        });
+        metricsHelper.registerGauge(metricPrefix + METRIC_POOL_SIZE, new MetricsHelper.Gauge()
+        {
+            @Override
+            public long getValue()
+            {
+                return getPoolSize();
+            }
+        });
+        metricsHelper.registerGauge(metricPrefix + METRIC_QUEUED, new MetricsHelper.Gauge()
+        {
+            @Override
+            public long getValue()
+            {
+                return getThreadPoolExecutor().getQueue().size();
+            }
+        });
+
+        return executorService;
+    }
+
+    @Override
+    public void shutdown()
+    {
+        metricsHelper.unregisterGauge(metricPrefix + METRIC_ACTIVE);
+        metricsHelper.unregisterGauge(metricPrefix + METRIC_POOL_SIZE);
+        metricsHelper.unregisterGauge(metricPrefix + METRIC_QUEUED);
+        super.shutdown();
+    }
+
+    @Override
+    public void execute(Runnable task)
+    {
+        super.execute(new MeteredRunnable(task));
+    }
+
+    @Override
+    public void execute(Runnable task, long startTimeout)
+    {
+        super.execute(new MeteredRunnable(task), startTimeout);
+    }
+
+    @Override
+    public Future<?> submit(Runnable task)
+    {
+        return super.submit(new MeteredRunnable(task));
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task)
+    {
+        return super.submit(new MeteredCallable<>(task));
+    }
+
+    @Override
+    public ListenableFuture<?> submitListenable(Runnable task)
+    {
+        return super.submitListenable(new MeteredRunnable(task));
+    }
+
+    @Override
+    public <T> ListenableFuture<T> submitListenable(Callable<T> task)
+    {
+        return super.submitListenable(new MeteredCallable<>(task));
+    }
+
+    /**
+     * Records the time a task spent queued when it starts and the time it took to execute when it ends.
+     *
+     * @param submitNanoTime the System.nanoTime() value taken when the task was submitted.
+     *
+     * @return the System.nanoTime() value taken when the task started.
+     */
+    private long recordTaskStart(long submitNanoTime)
+    {
+        metricsHelper.recordLatency(metricPrefix + METRIC_WAIT_TIME, submitNanoTime);
+        return System.nanoTime();
+    }
+
+    /**
+     * A runnable that records its queue wait and execution times.
+     */
+    private class MeteredRunnable implements Runnable
+    {
+        private final Runnable task;
+
+        private final long submitNanoTime = System.nanoTime();
+
+        private MeteredRunnable(Runnable task)
+        {
+            this.task = task;
+        }
+
+        @Override
+        public void run()
+        {
+            long startNanoTime = recordTaskStart(submitNanoTime);
+            try
+            {
+                task.run();
+            }
+            finally
+            {
+                metricsHelper.recordLatency(metricPrefix + METRIC_EXECUTION_TIME, startNanoTime);
+            }
+        }
+    }
+
+    /**
+     * A callable that records its queue wait and execution times.
+     *
+     * @param <T> the result type.
+     */
+    private class MeteredCallable<T> implements Callable<T>
+    {
+        private final Callable<T> task;
+
+        private final long submitNanoTime = System.nanoTime();
+
+        private MeteredCallable(Callable<T> task)
+        {
+            this.task = task;
+        }
+
+        @Override
+        public T call() throws Exception
+        {
+            long startNanoTime = recordTaskStart(submitNanoTime);
+            try
+            {
+                return task.call();
+            }
+            finally
+            {
+                metricsHelper.recordLatency(metricPrefix + METRIC_EXECUTION_TIME, startNanoTime);
+            }
+        }
+    }
+
+    /**
+     * A handler for tasks that can't be queued that makes the submitting thread wait for space in the queue. Unlike the caller-runs policy the task still
+     * runs on a pool thread, so it never runs inside the submitter's transaction, and unlike the abort policy it is never dropped. The submitter is throttled
+     * instead. Each wait is counted as a rejection by the executor.
+     */
+    public static class BlockingPolicy implements RejectedExecutionHandler
+    {
+        @Override
+        public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor)
+        {
+            if (executor.isShutdown())
+            {
+                throw new RejectedExecutionException("The executor has been shut down.");
+            }
+
+            try
+            {
+                executor.getQueue().put(runnable);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("Interrupted while waiting for space in the executor queue.", e);
+            }
+        }
+    }
+}
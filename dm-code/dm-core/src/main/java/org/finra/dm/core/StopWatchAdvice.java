@@ -16,68 +16,158 @@
 package org.finra.dm.core;
 
 import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
-import org.apache.commons.lang3.time.StopWatch;
 import org.apache.log4j.Logger;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.stereotype.Component;
+
+import org.finra.dm.core.helper.MetricsHelper;
 
 /**
- * Advice that logs how long a method takes to run.
+ * Advice that records how long a method takes to run in a latency histogram and logs the time taken. The SuppressLogging lookups and the metric name are
+ * resolved once per target class and method and memoized.
  */
+@Component
 public class StopWatchAdvice
 {
     private static final Logger LOGGER = Logger.getLogger(StopWatchAdvice.class);
 
+    @Autowired
+    private MetricsHelper metricsHelper;
+
+    private final ConcurrentMap<Class<?>, ConcurrentMap<Method, MethodInfo>> methodInfoCache = new ConcurrentHashMap<>();
+
     /**
-     * Logs the time it takes to execute the method at the join point if the class or method isn't annotated with SuppressLogging and if the log level is set to
-     * info.
+     * Records the time it takes to execute the method at the join point in a latency histogram named after the target class and method. The time is also
+     * logged if the class or method isn't annotated with SuppressLogging and if the log level is set to info.
      *
      * @param pjp the join point.
+     * @param metricPrefix the prefix of the latency histogram name.
      *
      * @return the return value of the method at the join point.
      * @throws Throwable if any errors were encountered.
      */
-    @SuppressWarnings("rawtypes")
-    public static Object logMethodTime(ProceedingJoinPoint pjp) throws Throwable
+    public Object logMethodTime(ProceedingJoinPoint pjp, String metricPrefix) throws Throwable
     {
-        // Get the target class being called.
-        Class targetClass = pjp.getTarget().getClass();
+        return timeMethod(pjp, metricPrefix, true);
+    }
 
-        // Get the target method being called.
-        MethodSignature targetMethodSignature = (MethodSignature) pjp.getSignature();
-        Method targetMethod = targetMethodSignature.getMethod();
-        if (targetMethod.getDeclaringClass().isInterface())
-        {
-            // Get the underlying implementation if we are given an interface.
-            targetMethod = pjp.getTarget().getClass().getMethod(pjp.getSignature().getName(), targetMethod.getParameterTypes());
-        }
+    /**
+     * Records the time it takes to execute the method at the join point in a latency histogram named after the target class and method without logging it.
+     *
+     * @param pjp the join point.
+     * @param metricPrefix the prefix of the latency histogram name.
+     *
+     * @return the return value of the method at the join point.
+     * @throws Throwable if any errors were encountered.
+     */
+    public Object recordMethodTime(ProceedingJoinPoint pjp, String metricPrefix) throws Throwable
+    {
+        return timeMethod(pjp, metricPrefix, false);
+    }
 
-        // Only keep a stop watch if the class and method aren't suppressing logging and the log level is info.
-        if ((AnnotationUtils.findAnnotation(targetClass, SuppressLogging.class) == null) &&
-            (AnnotationUtils.findAnnotation(targetMethod, SuppressLogging.class) == null) &&
-            (LOGGER.isInfoEnabled()))
-        {
-            // Start the stop watch.
-            StopWatch stopWatch = new StopWatch();
-            stopWatch.start();
+    /**
+     * Times the method at the join point.
+     *
+     * @param pjp the join point.
+     * @param metricPrefix the prefix of the latency histogram name.
+     * @param logTime specifies whether the time should be logged unless logging is suppressed for the method.
+     *
+     * @return the return value of the method at the join point.
+     * @throws Throwable if any errors were encountered.
+     */
+    private Object timeMethod(ProceedingJoinPoint pjp, String metricPrefix, boolean logTime) throws Throwable
+    {
+        MethodInfo methodInfo = getMethodInfo(pjp, metricPrefix);
 
+        long startNanoTime = System.nanoTime();
+        try
+        {
             // Proceed to the join point (i.e. call the method and let it return).
-            Object returnValue = pjp.proceed();
+            return pjp.proceed();
+        }
+        finally
+        {
+            long durationNanos = System.nanoTime() - startNanoTime;
+            metricsHelper.recordValue(methodInfo.metricName, TimeUnit.NANOSECONDS.toMicros(durationNanos));
 
-            // Log the duration.
-            LOGGER.info(
-                "Method " + targetClass.getName() + "." + targetMethodSignature.getName() + " took " + DmDateUtils.formatDuration(stopWatch.getTime(), true) +
+            if (logTime && !methodInfo.suppressLogging && LOGGER.isInfoEnabled())
+            {
+                LOGGER.info("Method " + methodInfo.methodName + " took " + DmDateUtils.formatDuration(TimeUnit.NANOSECONDS.toMillis(durationNanos), true) +
                     ".");
+            }
+        }
+    }
+
+    /**
+     * Gets the memoized information about the method at the join point, resolving it on first use.
+     *
+     * @param pjp the join point.
+     * @param metricPrefix the prefix of the latency histogram name.
+     *
+     * @return the method information.
+     * @throws NoSuchMethodException if the implementation of an interface method couldn't be found.
+     */
+    private MethodInfo getMethodInfo(ProceedingJoinPoint pjp, String metricPrefix) throws NoSuchMethodException
+    {
+        // Get the target class and method being called.
+        Class<?> targetClass = pjp.getTarget().getClass();
+        Method signatureMethod = ((MethodSignature) pjp.getSignature()).getMethod();
+
+        ConcurrentMap<Method, MethodInfo> classMethodInfos = methodInfoCache.get(targetClass);
+        if (classMethodInfos == null)
+        {
+            ConcurrentMap<Method, MethodInfo> newClassMethodInfos = new ConcurrentHashMap<>();
+            classMethodInfos = methodInfoCache.putIfAbsent(targetClass, newClassMethodInfos);
+            if (classMethodInfos == null)
+            {
+                classMethodInfos = newClassMethodInfos;
+            }
+        }
+
+        MethodInfo methodInfo = classMethodInfos.get(signatureMethod);
+        if (methodInfo == null)
+        {
+            Method targetMethod = signatureMethod;
+            if (targetMethod.getDeclaringClass().isInterface())
+            {
+                // Get the underlying implementation if we are given an interface.
+                targetMethod = targetClass.getMethod(signatureMethod.getName(), signatureMethod.getParameterTypes());
+            }
 
-            // Return the method return value.
-            return returnValue;
+            // Concurrent first calls may resolve the same information more than once which is harmless.
+            methodInfo = new MethodInfo(metricPrefix + targetClass.getSimpleName() + "." + signatureMethod.getName(),
+                targetClass.getName() + "." + signatureMethod.getName(),
+                AnnotationUtils.findAnnotation(targetClass, SuppressLogging.class) != null ||
+                    AnnotationUtils.findAnnotation(targetMethod, SuppressLogging.class) != null);
+            classMethodInfos.putIfAbsent(signatureMethod, methodInfo);
         }
-        else
+
+        return methodInfo;
+    }
+
+    /**
+     * The resolved information about an advised method.
+     */
+    private static class MethodInfo
+    {
+        private final String metricName;
+
+        private final String methodName;
+
+        private final boolean suppressLogging;
+
+        private MethodInfo(String metricName, String methodName, boolean suppressLogging)
         {
-            // Invoke the method normally.
-            return pjp.proceed();
+            this.metricName = metricName;
+            this.methodName = methodName;
+            this.suppressLogging = suppressLogging;
         }
     }
-}
\ No newline at end of file
+}
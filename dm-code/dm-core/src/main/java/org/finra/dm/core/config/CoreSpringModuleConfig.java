@@ -15,6 +15,7 @@
 */
 package org.finra.dm.core.config;
 
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -26,7 +27,12 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.FilterType;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.core.env.Environment;
+import org.springframework.jmx.export.MBeanExporter;
+import org.springframework.jmx.export.annotation.AnnotationJmxAttributeSource;
+import org.springframework.jmx.export.assembler.MetadataMBeanInfoAssembler;
+import org.springframework.jmx.support.RegistrationPolicy;
 
+import org.finra.dm.core.helper.MetricsHelper;
 import org.finra.dm.core.helper.SecurityManagerHelper;
 import org.finra.dm.model.api.xml.BuildInformation;
 
@@ -44,6 +50,9 @@ public class CoreSpringModuleConfig
     @Autowired
     private Environment environment;
 
+    @Autowired
+    private MetricsHelper metricsHelper;
+
     /**
      * Initializer for this class.
      * Logs whether the security manager is enabled or not.
@@ -80,6 +89,22 @@ public class CoreSpringModuleConfig
         return buildInformation;
     }
 
+    /**
+     * Gets the MBean exporter that exports the application metrics through JMX. Only the metrics helper is exported (i.e. there is no auto-detection) and an
+     * existing registration is replaced since multiple application contexts can be created within the same JVM (e.g. in tests).
+     *
+     * @return the MBean exporter.
+     */
+    @Bean
+    public MBeanExporter metricsMBeanExporter()
+    {
+        MBeanExporter mBeanExporter = new MBeanExporter();
+        mBeanExporter.setBeans(Collections.<String, Object>singletonMap(MetricsHelper.OBJECT_NAME, metricsHelper));
+        mBeanExporter.setAssembler(new MetadataMBeanInfoAssembler(new AnnotationJmxAttributeSource()));
+        mBeanExporter.setRegistrationPolicy(RegistrationPolicy.REPLACE_EXISTING);
+        return mBeanExporter;
+    }
+
     /**
      * Gets the specified system properties and returns them in a map where the key is the property name and the value is the value of the property.
      *
@@ -0,0 +1,234 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.core.helper;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import org.finra.dm.core.Histogram;
+
+/**
+ * An in-memory registry of application metrics. Metrics are identified by name and are created on first use. Latencies are recorded in microseconds. The
+ * histogram percentile snapshots and counter values are exported through JMX.
+ */
+@Component
+@ManagedResource(objectName = MetricsHelper.OBJECT_NAME, description = "DM application metrics.")
+public class MetricsHelper
+{
+    /**
+     * The JMX object name the metrics are exported under.
+     */
+    public static final String OBJECT_NAME = "org.finra.dm:type=Metrics";
+
+    private final ConcurrentMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Gauge> gauges = new ConcurrentHashMap<>();
+
+    /**
+     * A metric whose current value is read on demand (e.g. the size of a queue).
+     */
+    public interface Gauge
+    {
+        /**
+         * Gets the current value.
+         *
+         * @return the current value.
+         */
+        long getValue();
+    }
+
+    /**
+     * Records the latency of an operation that started at the specified System.nanoTime() value and ended now.
+     *
+     * @param name the metric name.
+     * @param startNanoTime the System.nanoTime() value taken when the operation started.
+     */
+    public void recordLatency(String name, long startNanoTime)
+    {
+        recordValue(name, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanoTime));
+    }
+
+    /**
+     * Records a value in the named histogram.
+     *
+     * @param name the metric name.
+     * @param value the value to record.
+     */
+    public void recordValue(String name, long value)
+    {
+        getHistogram(name).record(value);
+    }
+
+    /**
+     * Increments the named counter.
+     *
+     * @param name the metric name.
+     * @param delta the amount to add to the counter.
+     */
+    public void incrementCounter(String name, long delta)
+    {
+        getCounter(name).addAndGet(delta);
+    }
+
+    /**
+     * Gets the named histogram, creating it if it doesn't exist yet.
+     *
+     * @param name the metric name.
+     *
+     * @return the histogram.
+     */
+    public Histogram getHistogram(String name)
+    {
+        Histogram histogram = histograms.get(name);
+        if (histogram == null)
+        {
+            Histogram newHistogram = new Histogram();
+            histogram = histograms.putIfAbsent(name, newHistogram);
+            if (histogram == null)
+            {
+                histogram = newHistogram;
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * Gets the named counter, creating it if it doesn't exist yet.
+     *
+     * @param name the metric name.
+     *
+     * @return the counter.
+     */
+    public AtomicLong getCounter(String name)
+    {
+        AtomicLong counter = counters.get(name);
+        if (counter == null)
+        {
+            AtomicLong newCounter = new AtomicLong();
+            counter = counters.putIfAbsent(name, newCounter);
+            if (counter == null)
+            {
+                counter = newCounter;
+            }
+        }
+        return counter;
+    }
+
+    /**
+     * Registers a gauge under the specified name, replacing any gauge previously registered under that name.
+     *
+     * @param name the metric name.
+     * @param gauge the gauge.
+     */
+    public void registerGauge(String name, Gauge gauge)
+    {
+        gauges.put(name, gauge);
+    }
+
+    /**
+     * Removes the named gauge.
+     *
+     * @param name the metric name.
+     */
+    public void unregisterGauge(String name)
+    {
+        gauges.remove(name);
+    }
+
+    /**
+     * Takes a snapshot of all the histograms sorted by metric name.
+     *
+     * @return the map of metric names to histogram snapshots.
+     */
+    public Map<String, Histogram.Snapshot> getHistogramSnapshots()
+    {
+        Map<String, Histogram.Snapshot> snapshots = new TreeMap<>();
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet())
+        {
+            snapshots.put(entry.getKey(), entry.getValue().getSnapshot());
+        }
+        return snapshots;
+    }
+
+    /**
+     * Gets the current values of all the counters sorted by metric name.
+     *
+     * @return the map of metric names to counter values.
+     */
+    public Map<String, Long> getCounterValues()
+    {
+        Map<String, Long> values = new TreeMap<>();
+        for (Map.Entry<String, AtomicLong> entry : counters.entrySet())
+        {
+            values.put(entry.getKey(), entry.getValue().get());
+        }
+        return values;
+    }
+
+    /**
+     * Gets the current values of all the gauges sorted by metric name.
+     *
+     * @return the map of metric names to gauge values.
+     */
+    @ManagedAttribute(description = "Gauge values by metric name.")
+    public Map<String, Long> getGaugeValues()
+    {
+        Map<String, Long> values = new TreeMap<>();
+        for (Map.Entry<String, Gauge> entry : gauges.entrySet())
+        {
+            values.put(entry.getKey(), entry.getValue().getValue());
+        }
+        return values;
+    }
+
+    /**
+     * Gets a printable summary of every histogram's percentile snapshot sorted by metric name.
+     *
+     * @return the map of metric names to histogram snapshot summaries.
+     */
+    @ManagedAttribute(description = "Histogram percentile snapshots by metric name. Latencies are in microseconds.")
+    public Map<String, String> getHistogramSummaries()
+    {
+        Map<String, String> summaries = new LinkedHashMap<>();
+        for (Map.Entry<String, Histogram.Snapshot> entry : getHistogramSnapshots().entrySet())
+        {
+            summaries.put(entry.getKey(), entry.getValue().toString());
+        }
+        return summaries;
+    }
+
+    /**
+     * Gets the current values of all the counters sorted by metric name.
+     *
+     * @return the map of metric names to counter values.
+     */
+    @ManagedAttribute(description = "Counter values by metric name.")
+    public Map<String, Long> getCounters()
+    {
+        return getCounterValues();
+    }
+}
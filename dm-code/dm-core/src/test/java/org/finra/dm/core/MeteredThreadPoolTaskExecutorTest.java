@@ -0,0 +1,250 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
+
+import org.finra.dm.core.helper.MetricsHelper;
+
+/**
+ * This class tests the MeteredThreadPoolTaskExecutor class.
+ */
+public class MeteredThreadPoolTaskExecutorTest extends AbstractCoreTest
+{
+    @Autowired
+    private MetricsHelper metricsHelper;
+
+    @Test
+    public void testBoundedQueueAndMetrics() throws Exception
+    {
+        String name = "testBoundedQueueAndMetrics" + RANDOM_SUFFIX;
+        String metricPrefix = MeteredThreadPoolTaskExecutor.METRIC_PREFIX + name + ".";
+        MeteredThreadPoolTaskExecutor executor = createExecutor(name, new ThreadPoolExecutor.AbortPolicy());
+
+        try
+        {
+            // Occupy the only thread and the only queue slot.
+            final CountDownLatch startedLatch = new CountDownLatch(1);
+            final CountDownLatch releaseLatch = new CountDownLatch(1);
+            Future<Boolean> runningTask = executor.submit(new Callable<Boolean>()
+            {
+                @Override
+                public Boolean call() throws Exception
+                {
+                    startedLatch.countDown();
+                    return releaseLatch.await(30, TimeUnit.SECONDS);
+                }
+            });
+            assertTrue(startedLatch.await(30, TimeUnit.SECONDS));
+            Future<?> queuedTask = executor.submit(new NoOpRunnable());
+
+            assertEquals(Long.valueOf(1), metricsHelper.getGaugeValues().get(metricPrefix + MeteredThreadPoolTaskExecutor.METRIC_ACTIVE));
+            assertEquals(Long.valueOf(1), metricsHelper.getGaugeValues().get(metricPrefix + MeteredThreadPoolTaskExecutor.METRIC_QUEUED));
+
+            // The next task is rejected since the queue is bounded.
+            try
+            {
+                executor.execute(new NoOpRunnable());
+                fail("Should throw a TaskRejectedException when the executor is saturated.");
+            }
+            catch (TaskRejectedException e)
+            {
+                assertEquals(1, metricsHelper.getCounter(metricPrefix + MeteredThreadPoolTaskExecutor.METRIC_REJECTED).get());
+            }
+
+            releaseLatch.countDown();
+            assertTrue(runningTask.get(30, TimeUnit.SECONDS));
+            queuedTask.get(30, TimeUnit.SECONDS);
+
+            assertEquals(2, metricsHelper.getHistogram(metricPrefix + MeteredThreadPoolTaskExecutor.METRIC_WAIT_TIME).getCount());
+            assertEquals(2, metricsHelper.getHistogram(metricPrefix + MeteredThreadPoolTaskExecutor.METRIC_EXECUTION_TIME).getCount());
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        // The gauges are removed when the executor is shut down.
+        assertFalse(metricsHelper.getGaugeValues().containsKey(metricPrefix + MeteredThreadPoolTaskExecutor.METRIC_ACTIVE));
+    }
+
+    @Test
+    public void testCallerRunsPolicy() throws Exception
+    {
+        String name = "testCallerRunsPolicy" + RANDOM_SUFFIX;
+        MeteredThreadPoolTaskExecutor executor = createExecutor(name, new ThreadPoolExecutor.CallerRunsPolicy());
+
+        try
+        {
+            final CountDownLatch releaseLatch = new CountDownLatch(1);
+            Runnable blockingTask = new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        releaseLatch.await(30, TimeUnit.SECONDS);
+                    }
+                    catch (InterruptedException e)
+                    {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            };
+            executor.execute(blockingTask);
+            executor.execute(blockingTask);
+
+            // The executor is saturated so the task runs on the calling thread.
+            final Thread callerThread = Thread.currentThread();
+            final boolean[] ranOnCaller = new boolean[1];
+            executor.execute(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    ranOnCaller[0] = Thread.currentThread() == callerThread;
+                }
+            });
+            releaseLatch.countDown();
+
+            assertTrue(ranOnCaller[0]);
+            assertEquals(1, metricsHelper.getCounter(MeteredThreadPoolTaskExecutor.METRIC_PREFIX + name + "." + MeteredThreadPoolTaskExecutor.METRIC_REJECTED)
+                .get());
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testBlockingPolicy() throws Exception
+    {
+        String name = "testBlockingPolicy" + RANDOM_SUFFIX;
+        final MeteredThreadPoolTaskExecutor executor = createExecutor(name, new MeteredThreadPoolTaskExecutor.BlockingPolicy());
+
+        try
+        {
+            // Occupy the only thread and the only queue slot.
+            final CountDownLatch startedLatch = new CountDownLatch(1);
+            final CountDownLatch releaseLatch = new CountDownLatch(1);
+            executor.execute(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    startedLatch.countDown();
+                    try
+                    {
+                        releaseLatch.await(30, TimeUnit.SECONDS);
+                    }
+                    catch (InterruptedException e)
+                    {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+            assertTrue(startedLatch.await(30, TimeUnit.SECONDS));
+            executor.execute(new NoOpRunnable());
+
+            // The next task waits for queue space on the submitting thread and then runs on the pool thread.
+            final Thread submitterThread = Thread.currentThread();
+            final CountDownLatch ranLatch = new CountDownLatch(1);
+            final boolean[] ranOnSubmitter = new boolean[1];
+            Thread releaseThread = new Thread(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        Thread.sleep(200);
+                    }
+                    catch (InterruptedException e)
+                    {
+                        Thread.currentThread().interrupt();
+                    }
+                    releaseLatch.countDown();
+                }
+            });
+            releaseThread.start();
+            executor.execute(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    ranOnSubmitter[0] = Thread.currentThread() == submitterThread;
+                    ranLatch.countDown();
+                }
+            });
+
+            assertTrue(ranLatch.await(30, TimeUnit.SECONDS));
+            assertFalse(ranOnSubmitter[0]);
+            assertEquals(1, metricsHelper.getCounter(MeteredThreadPoolTaskExecutor.METRIC_PREFIX + name + "." + MeteredThreadPoolTaskExecutor.METRIC_REJECTED)
+                .get());
+            releaseThread.join();
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Creates and initializes an executor with a single thread and a queue that holds a single task.
+     *
+     * @param name the executor name.
+     * @param rejectedExecutionHandler the rejected execution handler.
+     *
+     * @return the executor.
+     */
+    private MeteredThreadPoolTaskExecutor createExecutor(String name, RejectedExecutionHandler rejectedExecutionHandler)
+    {
+        MeteredThreadPoolTaskExecutor executor = new MeteredThreadPoolTaskExecutor(name, metricsHelper, rejectedExecutionHandler);
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * A runnable that does nothing.
+     */
+    private static class NoOpRunnable implements Runnable
+    {
+        @Override
+        public void run()
+        {
+            // Nothing to do.
+        }
+    }
+}
@@ -15,35 +15,67 @@
 */
 package org.finra.dm.core;
 
+import static org.junit.Assert.assertEquals;
+
 import java.lang.reflect.Method;
 
 import org.aspectj.lang.Signature;
 import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import org.finra.dm.core.helper.MetricsHelper;
 
 /**
  * This class tests functionality within the stop watch advice.
  */
 public class StopWatchAdviceTest extends AbstractCoreTest
 {
+    private static final String METRIC_PREFIX = "test.latency.";
+
+    @Autowired
+    private StopWatchAdvice stopWatchAdvice;
+
+    @Autowired
+    private MetricsHelper metricsHelper;
+
     @Test
     public void testLogMethodTime() throws Throwable
     {
         // Normal flow should log the method time.
-        StopWatchAdvice.logMethodTime(new MockProceedingJoinPoint());
+        String metricName = METRIC_PREFIX + MockProceedingJoinPoint.class.getSimpleName() + ".getMethod";
+        long count = metricsHelper.getHistogram(metricName).getCount();
+        stopWatchAdvice.logMethodTime(new MockProceedingJoinPoint(), METRIC_PREFIX);
+
+        // The method time is recorded in the latency histogram named after the target class and method.
+        assertEquals(count + 1, metricsHelper.getHistogram(metricName).getCount());
     }
 
     @Test
     public void testLogMethodTimeClassSuppressLogging() throws Throwable
     {
-        // Invoke the advice which shouldn't log the method time because the class is annotated with SuppressLogging.
-        StopWatchAdvice.logMethodTime(new MockProceedingJoinPointClassSuppressLogging());
+        // Invoke the advice which shouldn't log the method time because the class is annotated with SuppressLogging, but still records it.
+        String metricName = METRIC_PREFIX + MockProceedingJoinPointClassSuppressLogging.class.getSimpleName() + ".getMethod";
+        long count = metricsHelper.getHistogram(metricName).getCount();
+        stopWatchAdvice.logMethodTime(new MockProceedingJoinPointClassSuppressLogging(), METRIC_PREFIX);
+        stopWatchAdvice.logMethodTime(new MockProceedingJoinPointClassSuppressLogging(), METRIC_PREFIX);
+        assertEquals(count + 2, metricsHelper.getHistogram(metricName).getCount());
     }
 
     @Test
     public void testLogMethodTimeMethodSuppressLogging() throws Throwable
     {
         // Invoke the advice which shouldn't log the method time because the method is annotated with SuppressLogging.
-        StopWatchAdvice.logMethodTime(new MockProceedingJoinPointMethodSuppressLogging());
+        stopWatchAdvice.logMethodTime(new MockProceedingJoinPointMethodSuppressLogging(), METRIC_PREFIX);
+    }
+
+    @Test
+    public void testRecordMethodTime() throws Throwable
+    {
+        // The method time is recorded without being logged.
+        String metricName = METRIC_PREFIX + MockProceedingJoinPoint.class.getSimpleName() + ".getMethod";
+        long count = metricsHelper.getHistogram(metricName).getCount();
+        stopWatchAdvice.recordMethodTime(new MockProceedingJoinPoint(), METRIC_PREFIX);
+        assertEquals(count + 1, metricsHelper.getHistogram(metricName).getCount());
     }
 
     /**
@@ -0,0 +1,118 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.core.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import org.finra.dm.core.AbstractCoreTest;
+import org.finra.dm.core.Histogram;
+
+/**
+ * This class tests functionality within the MetricsHelper class.
+ */
+public class MetricsHelperTest extends AbstractCoreTest
+{
+    @Autowired
+    private MetricsHelper metricsHelper;
+
+    @Test
+    public void testRecordValue()
+    {
+        String metricName = "testRecordValue" + RANDOM_SUFFIX;
+        for (long value = 1; value <= 1000; value++)
+        {
+            metricsHelper.recordValue(metricName, value);
+        }
+
+        Histogram.Snapshot snapshot = metricsHelper.getHistogramSnapshots().get(metricName);
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(1000, snapshot.getMax());
+        assertEquals(500.5, snapshot.getMean(), 0.001);
+
+        // Percentiles are accurate to within the relative precision of the histogram buckets.
+        assertPercentile(500, snapshot.getValueAtPercentile(50));
+        assertPercentile(990, snapshot.getValueAtPercentile(99));
+        assertEquals(1000, snapshot.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testRecordLatency()
+    {
+        String metricName = "testRecordLatency" + RANDOM_SUFFIX;
+        metricsHelper.recordLatency(metricName, System.nanoTime());
+
+        assertEquals(1, metricsHelper.getHistogram(metricName).getCount());
+        assertSame(metricsHelper.getHistogram(metricName), metricsHelper.getHistogram(metricName));
+    }
+
+    @Test
+    public void testIncrementCounter()
+    {
+        String metricName = "testIncrementCounter" + RANDOM_SUFFIX;
+        metricsHelper.incrementCounter(metricName, 2);
+        metricsHelper.incrementCounter(metricName, 3);
+
+        assertEquals(Long.valueOf(5), metricsHelper.getCounterValues().get(metricName));
+    }
+
+    @Test
+    public void testJmxExport() throws Exception
+    {
+        String metricName = "testJmxExport" + RANDOM_SUFFIX;
+        metricsHelper.recordValue(metricName, 10);
+
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName(MetricsHelper.OBJECT_NAME);
+        assertTrue(mBeanServer.isRegistered(objectName));
+
+        @SuppressWarnings("unchecked")
+        Map<String, String> summaries = (Map<String, String>) mBeanServer.getAttribute(objectName, "HistogramSummaries");
+        assertNotNull(summaries.get(metricName));
+        assertTrue(summaries.get(metricName).contains("count=1"));
+    }
+
+    @Test
+    public void testEmptyHistogram()
+    {
+        Histogram.Snapshot snapshot = new Histogram().getSnapshot();
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getValueAtPercentile(99));
+        assertEquals(0.0, snapshot.getMean(), 0.0);
+    }
+
+    /**
+     * Asserts that the actual percentile value is within 7% of the expected value.
+     *
+     * @param expected the expected value.
+     * @param actual the actual value.
+     */
+    private void assertPercentile(long expected, long actual)
+    {
+        assertTrue("Expected " + expected + " but got " + actual, Math.abs(actual - expected) <= expected * 0.07);
+    }
+}
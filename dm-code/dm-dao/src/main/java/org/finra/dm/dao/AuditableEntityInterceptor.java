@@ -0,0 +1,160 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.dao;
+
+import java.io.Serializable;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.hibernate.type.Type;
+
+import org.finra.dm.dao.helper.DmDaoSecurityHelper;
+import org.finra.dm.model.jpa.AuditableEntity;
+
+/**
+ * A Hibernate interceptor that populates the audit fields of auditable entities when Hibernate inserts or updates them, so each entity is stamped once per
+ * flush no matter how it reached the persistence context (e.g. by being cascaded from its parent). The created by and created on fields are only populated
+ * when they are null and the updated by and updated on fields are always populated.
+ * <p/>
+ * Hibernate takes a single interceptor, so this interceptor extends the query statistics one to keep recording query statistics.
+ */
+public class AuditableEntityInterceptor extends QueryStatisticsInterceptor
+{
+    private static final long serialVersionUID = 1L;
+
+    private static final String CREATED_ON_PROPERTY = "createdOn";
+
+    private static final String CREATED_BY_PROPERTY = "createdBy";
+
+    private static final String UPDATED_ON_PROPERTY = "updatedOn";
+
+    private static final String UPDATED_BY_PROPERTY = "updatedBy";
+
+    /**
+     * Hibernate instantiates the interceptor by class name, so the stateless security helper is created here rather than injected.
+     */
+    private final DmDaoSecurityHelper dmDaoSecurityHelper = new DmDaoSecurityHelper();
+
+    /**
+     * The positions of the audit properties in the Hibernate state arrays, by entity class. Hibernate always lists the properties of a class in the same order.
+     */
+    private final ConcurrentMap<Class<?>, AuditPropertyIndexes> auditPropertyIndexes = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean onSave(Object entity, Serializable id, Object[] state, String[] propertyNames, Type[] types)
+    {
+        boolean modified = super.onSave(entity, id, state, propertyNames, types);
+        return updateAuditFields(entity, state, propertyNames) || modified;
+    }
+
+    @Override
+    public boolean onFlushDirty(Object entity, Serializable id, Object[] currentState, Object[] previousState, String[] propertyNames, Type[] types)
+    {
+        boolean modified = super.onFlushDirty(entity, id, currentState, previousState, propertyNames, types);
+        return updateAuditFields(entity, currentState, propertyNames) || modified;
+    }
+
+    /**
+     * Updates the audit fields in the state Hibernate is about to write if the entity is of type AuditableEntity. Hibernate copies the modified state back to
+     * the entity.
+     *
+     * @param entity the entity.
+     * @param state the entity state.
+     * @param propertyNames the property names matching the state.
+     *
+     * @return true if the state was modified, false otherwise.
+     */
+    private boolean updateAuditFields(Object entity, Object[] state, String[] propertyNames)
+    {
+        if (!(entity instanceof AuditableEntity))
+        {
+            return false;
+        }
+
+        AuditPropertyIndexes indexes = getAuditPropertyIndexes(entity.getClass(), propertyNames);
+
+        // Get the currently logged in username and the current time.
+        String username = dmDaoSecurityHelper.getCurrentUsername();
+        Timestamp currentTime = new Timestamp(System.currentTimeMillis());
+
+        // Always set the updated fields, but only set the created fields when they are null (i.e. this is a new record).
+        if (state[indexes.createdBy] == null)
+        {
+            state[indexes.createdBy] = username;
+        }
+        if (state[indexes.createdOn] == null)
+        {
+            state[indexes.createdOn] = currentTime;
+        }
+        state[indexes.updatedBy] = username;
+        state[indexes.updatedOn] = currentTime;
+
+        return true;
+    }
+
+    /**
+     * Gets the positions of the audit properties for an entity class, resolving them the first time the class is seen.
+     *
+     * @param entityClass the entity class.
+     * @param propertyNames the property names of the entity class.
+     *
+     * @return the audit property indexes.
+     */
+    private AuditPropertyIndexes getAuditPropertyIndexes(Class<?> entityClass, String[] propertyNames)
+    {
+        AuditPropertyIndexes indexes = auditPropertyIndexes.get(entityClass);
+        if (indexes == null)
+        {
+            indexes = new AuditPropertyIndexes(propertyNames);
+            auditPropertyIndexes.putIfAbsent(entityClass, indexes);
+        }
+        return indexes;
+    }
+
+    /**
+     * The positions of the audit properties in the state arrays of an entity class.
+     */
+    private static class AuditPropertyIndexes
+    {
+        private final int createdOn;
+
+        private final int createdBy;
+
+        private final int updatedOn;
+
+        private final int updatedBy;
+
+        private AuditPropertyIndexes(String[] propertyNames)
+        {
+            createdOn = indexOf(propertyNames, CREATED_ON_PROPERTY);
+            createdBy = indexOf(propertyNames, CREATED_BY_PROPERTY);
+            updatedOn = indexOf(propertyNames, UPDATED_ON_PROPERTY);
+            updatedBy = indexOf(propertyNames, UPDATED_BY_PROPERTY);
+        }
+
+        private static int indexOf(String[] propertyNames, String propertyName)
+        {
+            int index = Arrays.asList(propertyNames).indexOf(propertyName);
+            if (index < 0)
+            {
+                throw new IllegalStateException("Auditable entity property \"" + propertyName + "\" not found in " + Arrays.toString(propertyNames) + ".");
+            }
+            return index;
+        }
+    }
+}
@@ -148,6 +148,37 @@ public interface BaseJpaDao
      */
     public <T> T saveAndRefresh(T entity);
 
+    /**
+     * Saves a list of entities, flushes them all at once so the inserts can be batched, and refreshes each of them.
+     *
+     * @param entities the entities to save.
+     * @param <T> the type of entity.
+     *
+     * @return the saved entities.
+     */
+    public <T> List<T> saveAllAndRefresh(List<T> entities);
+
+    /**
+     * Saves and flushes an entity without refreshing it. Generated ids and audit fields are populated when the entity is saved, so a refresh is only needed to
+     * re-load collections that were changed through the other side of a relationship.
+     *
+     * @param entity the entity to save.
+     * @param <T> the type of entity.
+     *
+     * @return the saved entity.
+     */
+    public <T> T saveAndFlush(T entity);
+
+    /**
+     * Saves a list of entities and flushes them all at once so the inserts can be batched, without refreshing them.
+     *
+     * @param entities the entities to save.
+     * @param <T> the type of entity.
+     *
+     * @return the saved entities.
+     */
+    public <T> List<T> saveAllAndFlush(List<T> entities);
+
     /**
      * Deletes an entity.
      *
@@ -15,6 +15,7 @@
 */
 package org.finra.dm.dao;
 
+import java.util.Date;
 import java.util.List;
 
 import org.finra.dm.model.dto.DateRangeDto;
@@ -36,6 +37,7 @@ import org.finra.dm.model.jpa.NamespaceEntity;
 import org.finra.dm.model.jpa.NotificationEventTypeEntity;
 import org.finra.dm.model.jpa.OnDemandPriceEntity;
 import org.finra.dm.model.jpa.PartitionKeyGroupEntity;
+import org.finra.dm.model.jpa.StorageDailyUploadStatEntity;
 import org.finra.dm.model.jpa.StorageEntity;
 import org.finra.dm.model.jpa.StorageFileEntity;
 import org.finra.dm.model.jpa.StoragePlatformEntity;
@@ -260,6 +262,25 @@ public interface DmDao extends BaseJpaDao
      */
     public List<ExpectedPartitionValueEntity> getExpectedPartitionValuesByGroupAndRange(String partitionKeyGroupName, PartitionValueRange partitionValueRange);
 
+    /**
+     * Deletes the expected partition values of a group that fall within a range with a single set-based delete statement. The deleted entities are not
+     * removed from the expected partition values collection of the group if it has already been loaded.
+     *
+     * @param partitionKeyGroupEntity the partition key group entity
+     * @param partitionValueRange the partition value range (inclusive)
+     *
+     * @return the number of deleted expected partition values
+     */
+    public int deleteExpectedPartitionValuesByGroupAndRange(PartitionKeyGroupEntity partitionKeyGroupEntity, PartitionValueRange partitionValueRange);
+
+    /**
+     * Locks a partition key group for the rest of the transaction and increments its version. This must be called before the expected partition values of
+     * the group are changed so the ordinal indexes of the group cached on every node get rebuilt once the transaction commits.
+     *
+     * @param partitionKeyGroupEntity the partition key group entity
+     */
+    public void lockPartitionKeyGroup(PartitionKeyGroupEntity partitionKeyGroupEntity);
+
     // CustomDdl
 
     /**
@@ -537,6 +558,68 @@ public interface DmDao extends BaseJpaDao
     public StorageBusinessObjectDefinitionDailyUploadStats getStorageUploadStatsByBusinessObjectDefinition(StorageAlternateKeyDto storageAlternateKey,
         DateRangeDto dateRange);
 
+    /**
+     * Aggregates the daily upload statistics for the specified upload date directly from the storage files, one entry per storage and business object
+     * definition. The returned entities are not persisted.
+     *
+     * @param storageName the optional storage name (case-insensitive), null to aggregate across all storages
+     * @param uploadDate the upload date (without time)
+     *
+     * @return the list of daily upload statistics aggregated from the storage files
+     */
+    public List<StorageDailyUploadStatEntity> getStorageDailyUploadStatsFromStorageFiles(String storageName, Date uploadDate);
+
+    /**
+     * Gets the earliest upload date in the daily upload statistics rollup of the specified storage. The rollup of the storage covers every upload date after
+     * this date. The earliest upload date itself may only be partially covered, e.g. the day the rollup got introduced.
+     *
+     * @param storageEntity the storage entity
+     *
+     * @return the earliest upload date or null if the rollup of the storage is empty
+     */
+    public Date getStorageDailyUploadStatsMinUploadDate(StorageEntity storageEntity);
+
+    /**
+     * Share locks the specified storage for the rest of the transaction before its daily upload statistics rollup is changed, so the change is serialized
+     * with the rollup rebuilds but not with other changes to the rollup of the storage.
+     *
+     * @param storageEntity the storage entity
+     */
+    public void lockStorageDailyUploadStats(StorageEntity storageEntity);
+
+    /**
+     * Exclusively locks all storages for the rest of the transaction before the daily upload statistics rollup is rebuilt, so no rollup changes are made
+     * while the rebuild replaces the rollup rows.
+     */
+    public void lockAllStorageDailyUploadStats();
+
+    /**
+     * Deletes all daily upload statistics rollup rows for the specified upload date.
+     *
+     * @param uploadDate the upload date (without time)
+     *
+     * @return the number of deleted rows
+     */
+    public int deleteStorageDailyUploadStats(Date uploadDate);
+
+    /**
+     * Deletes all daily upload statistics rollup rows for the specified storage, so the storage can be deleted.
+     *
+     * @param storageEntity the storage entity
+     *
+     * @return the number of deleted rows
+     */
+    public int deleteStorageDailyUploadStats(StorageEntity storageEntity);
+
+    /**
+     * Deletes all daily upload statistics rollup rows for the specified business object definition, so the business object definition can be deleted.
+     *
+     * @param businessObjectDefinitionEntity the business object definition entity
+     *
+     * @return the number of deleted rows
+     */
+    public int deleteStorageDailyUploadStats(BusinessObjectDefinitionEntity businessObjectDefinitionEntity);
+
     // JobDefinition
 
     /**
@@ -639,6 +722,16 @@ public interface DmDao extends BaseJpaDao
      */
     public JmsMessageEntity getOldestJmsMessage();
 
+    /**
+     * Selects and locks the specified JMS message for the rest of the transaction, so that only one transaction publishes it. A transaction asking for a
+     * message locked by another transaction waits for that transaction to end.
+     *
+     * @param jmsMessageId the id of the JMS message
+     *
+     * @return the locked JMS message or null if it doesn't exist (i.e. it was already published and removed from the queue)
+     */
+    public JmsMessageEntity lockJmsMessage(Integer jmsMessageId);
+
     // OnDemandPricing
 
     /**
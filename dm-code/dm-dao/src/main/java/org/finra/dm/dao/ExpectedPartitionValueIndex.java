@@ -0,0 +1,166 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.dao;
+
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * An immutable, ordinal-indexed snapshot of the expected partition values of a single partition key group. The values are kept sorted so value plus offset
+ * lookups are resolved by position and range lookups are resolved with a binary search instead of having the database scan and discard rows. Each snapshot
+ * carries the creation time and the version of the partition key group it was built from so callers can detect when it no longer reflects the database.
+ */
+public class ExpectedPartitionValueIndex
+{
+    private final long createdOn;
+
+    private final long version;
+
+    private final String[] partitionValues;
+
+    private final Integer[] ids;
+
+    /**
+     * Constructs the index. The supplied arrays must be the same length and sorted by partition value.
+     *
+     * @param createdOn the creation time of the partition key group the index was built from
+     * @param version the version of the partition key group the index was built from
+     * @param partitionValues the sorted expected partition values
+     * @param ids the expected partition value ids in the same order as the partition values
+     */
+    public ExpectedPartitionValueIndex(Date createdOn, long version, String[] partitionValues, Integer[] ids)
+    {
+        this.createdOn = createdOn.getTime();
+        this.version = version;
+        this.partitionValues = partitionValues;
+        this.ids = ids;
+    }
+
+    /**
+     * Determines whether the index was built from the specified partition key group. The version of a partition key group is incremented whenever its
+     * expected partition values change. A group that got deleted and created again starts over from the initial version, so the creation time tells it apart.
+     *
+     * @param createdOn the creation time of the partition key group
+     * @param version the version of the partition key group
+     *
+     * @return true if the index reflects the specified partition key group, false otherwise
+     */
+    public boolean isCurrent(Date createdOn, long version)
+    {
+        return this.createdOn == createdOn.getTime() && this.version == version;
+    }
+
+    /**
+     * Gets the number of expected partition values in the index.
+     *
+     * @return the number of expected partition values
+     */
+    public int size()
+    {
+        return partitionValues.length;
+    }
+
+    /**
+     * Gets the expected partition value at the specified position.
+     *
+     * @param position the position
+     *
+     * @return the expected partition value
+     */
+    public String getPartitionValue(int position)
+    {
+        return partitionValues[position];
+    }
+
+    /**
+     * Gets the id of the expected partition value at the specified position.
+     *
+     * @param position the position
+     *
+     * @return the expected partition value id
+     */
+    public Integer getId(int position)
+    {
+        return ids[position];
+    }
+
+    /**
+     * Gets the position of the expected partition value that is the specified offset away from the specified value. A zero offset requires an exact match.
+     * A positive offset is counted forward from the first value that is greater than or equal to the specified value and a negative offset is counted
+     * backward from the last value that is less than or equal to the specified value.
+     *
+     * @param partitionValue the expected partition value
+     * @param offset the positive or negative offset
+     *
+     * @return the position or -1 if there is no such expected partition value
+     */
+    public int getPosition(String partitionValue, int offset)
+    {
+        int searchResult = Arrays.binarySearch(partitionValues, partitionValue);
+        int position;
+
+        if (offset == 0)
+        {
+            position = searchResult;
+        }
+        else if (offset > 0)
+        {
+            position = (searchResult >= 0 ? searchResult : -searchResult - 1) + offset;
+        }
+        else
+        {
+            position = (searchResult >= 0 ? searchResult : -searchResult - 2) + offset;
+        }
+
+        return position >= 0 && position < partitionValues.length ? position : -1;
+    }
+
+    /**
+     * Gets the position of the first expected partition value that is greater than or equal to the specified value.
+     *
+     * @param startPartitionValue the start expected partition value or null for no lower bound
+     *
+     * @return the inclusive start position
+     */
+    public int getStartPosition(String startPartitionValue)
+    {
+        if (startPartitionValue == null)
+        {
+            return 0;
+        }
+
+        int searchResult = Arrays.binarySearch(partitionValues, startPartitionValue);
+        return searchResult >= 0 ? searchResult : -searchResult - 1;
+    }
+
+    /**
+     * Gets the position just past the last expected partition value that is less than or equal to the specified value.
+     *
+     * @param endPartitionValue the end expected partition value or null for no upper bound
+     *
+     * @return the exclusive end position
+     */
+    public int getEndPosition(String endPartitionValue)
+    {
+        if (endPartitionValue == null)
+        {
+            return partitionValues.length;
+        }
+
+        int searchResult = Arrays.binarySearch(partitionValues, endPartitionValue);
+        return searchResult >= 0 ? searchResult + 1 : -searchResult - 1;
+    }
+}
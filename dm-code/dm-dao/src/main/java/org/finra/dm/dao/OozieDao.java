@@ -63,4 +63,17 @@ public interface OozieDao
      * @throws OozieClientException
      */
     public List<WorkflowJob> getRunningEmrOozieJobsByName(String masterIpAddress, String appName, int start, int len) throws OozieClientException;
+
+    /**
+     * Gets the most recent oozie jobs in any status with a single jobs query.
+     *
+     * @param masterIpAddress the IP address of oozie master server.
+     * @param start jobs offset, base 1.
+     * @param len number of jobs to return.
+     *
+     * @return a list with the workflow jobs info, without node details.
+     *
+     * @throws OozieClientException
+     */
+    public List<WorkflowJob> getEmrOozieWorkflows(String masterIpAddress, int start, int len) throws OozieClientException;
 }
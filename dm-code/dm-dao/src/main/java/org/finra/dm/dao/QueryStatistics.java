@@ -0,0 +1,250 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.dao;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The SQL statements, entity loads, collection fetches, flushes and refreshes issued by the current thread for a single unit of work (e.g. a REST request).
+ * The statistics are bound to the current thread by the outermost call to begin and are populated by the Hibernate interceptor and event listeners
+ * registered by the DAO module. Statements are also tagged with the DAO method that was executing when they were prepared so N+1 select patterns can be
+ * traced back to their caller.
+ */
+public class QueryStatistics
+{
+    private static final ThreadLocal<QueryStatistics> CURRENT = new ThreadLocal<>();
+
+    private final String name;
+
+    private int depth;
+
+    private int statementCount;
+
+    private int entityLoadCount;
+
+    private int collectionFetchCount;
+
+    private int flushCount;
+
+    private int refreshCount;
+
+    private final Map<String, StatementStatistics> statementStatisticsMap = new HashMap<>();
+
+    private final Deque<String> daoMethods = new ArrayDeque<>();
+
+    /**
+     * Constructs the statistics.
+     *
+     * @param name the name of the unit of work the statistics are collected for.
+     */
+    private QueryStatistics(String name)
+    {
+        this.name = name;
+    }
+
+    /**
+     * Begins collecting statistics for the current thread. Nested calls join the statistics started by the outermost call.
+     *
+     * @param name the name of the unit of work.
+     *
+     * @return the statistics bound to the current thread.
+     */
+    public static QueryStatistics begin(String name)
+    {
+        QueryStatistics queryStatistics = CURRENT.get();
+        if (queryStatistics == null)
+        {
+            queryStatistics = new QueryStatistics(name);
+            CURRENT.set(queryStatistics);
+        }
+        queryStatistics.depth++;
+        return queryStatistics;
+    }
+
+    /**
+     * Ends a call to begin. The statistics are unbound from the current thread when the outermost call ends.
+     *
+     * @return true if the outermost call ended (i.e. the statistics are complete), false otherwise.
+     */
+    public static boolean end()
+    {
+        QueryStatistics queryStatistics = CURRENT.get();
+        if (queryStatistics != null && --queryStatistics.depth <= 0)
+        {
+            CURRENT.remove();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the statistics bound to the current thread.
+     *
+     * @return the statistics or null if none are being collected.
+     */
+    public static QueryStatistics getCurrent()
+    {
+        return CURRENT.get();
+    }
+
+    /**
+     * Records that a SQL statement was prepared.
+     *
+     * @param sql the SQL statement.
+     */
+    public void recordStatement(String sql)
+    {
+        statementCount++;
+        StatementStatistics statementStatistics = statementStatisticsMap.get(sql);
+        if (statementStatistics == null)
+        {
+            statementStatistics = new StatementStatistics(sql);
+            statementStatisticsMap.put(sql, statementStatistics);
+        }
+        statementStatistics.count++;
+        if (!daoMethods.isEmpty())
+        {
+            statementStatistics.daoMethods.add(daoMethods.peek());
+        }
+    }
+
+    /**
+     * Records that an entity was loaded.
+     */
+    public void recordEntityLoad()
+    {
+        entityLoadCount++;
+    }
+
+    /**
+     * Records that a lazy collection was fetched.
+     */
+    public void recordCollectionFetch()
+    {
+        collectionFetchCount++;
+    }
+
+    /**
+     * Records that the persistence context was explicitly flushed.
+     */
+    public void recordFlush()
+    {
+        flushCount++;
+    }
+
+    /**
+     * Records that an entity was refreshed from the database.
+     */
+    public void recordRefresh()
+    {
+        refreshCount++;
+    }
+
+    /**
+     * Marks the start of a DAO method so statements prepared while it executes are tagged with it.
+     *
+     * @param daoMethod the DAO method name.
+     */
+    public void enterDaoMethod(String daoMethod)
+    {
+        daoMethods.push(daoMethod);
+    }
+
+    /**
+     * Marks the end of the DAO method most recently entered.
+     */
+    public void exitDaoMethod()
+    {
+        daoMethods.poll();
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public int getStatementCount()
+    {
+        return statementCount;
+    }
+
+    public int getEntityLoadCount()
+    {
+        return entityLoadCount;
+    }
+
+    public int getCollectionFetchCount()
+    {
+        return collectionFetchCount;
+    }
+
+    public int getFlushCount()
+    {
+        return flushCount;
+    }
+
+    public int getRefreshCount()
+    {
+        return refreshCount;
+    }
+
+    /**
+     * Gets the statistics of every distinct SQL statement prepared so far.
+     *
+     * @return the statement statistics.
+     */
+    public Iterable<StatementStatistics> getStatementStatistics()
+    {
+        return statementStatisticsMap.values();
+    }
+
+    /**
+     * The number of times a distinct SQL statement was prepared and the DAO methods it was prepared from.
+     */
+    public static class StatementStatistics
+    {
+        private final String sql;
+
+        private int count;
+
+        private final Set<String> daoMethods = new LinkedHashSet<>();
+
+        private StatementStatistics(String sql)
+        {
+            this.sql = sql;
+        }
+
+        public String getSql()
+        {
+            return sql;
+        }
+
+        public int getCount()
+        {
+            return count;
+        }
+
+        public Set<String> getDaoMethods()
+        {
+            return daoMethods;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.dao;
+
+import java.util.Map;
+
+import org.hibernate.HibernateException;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.FlushEvent;
+import org.hibernate.event.spi.FlushEventListener;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.RefreshEvent;
+import org.hibernate.event.spi.RefreshEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.metamodel.source.MetadataImplementor;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * A Hibernate integrator that registers event listeners recording the lazy collections fetched, the explicit flushes and the entity refreshes of the current
+ * thread in its query statistics, if any are being collected. The integrator is discovered by Hibernate through the
+ * META-INF/services/org.hibernate.integrator.spi.Integrator file.
+ */
+public class QueryStatisticsIntegrator implements Integrator
+{
+    @Override
+    public void integrate(Configuration configuration, SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry)
+    {
+        appendListeners(serviceRegistry);
+    }
+
+    @Override
+    public void integrate(MetadataImplementor metadata, SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry)
+    {
+        appendListeners(serviceRegistry);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry)
+    {
+        // Nothing to clean up since the listener holds no state.
+    }
+
+    /**
+     * Appends the listeners after the default listeners that perform the actual fetch, flush and refresh.
+     *
+     * @param serviceRegistry the session factory service registry.
+     */
+    private void appendListeners(SessionFactoryServiceRegistry serviceRegistry)
+    {
+        EventListenerRegistry eventListenerRegistry = serviceRegistry.getService(EventListenerRegistry.class);
+        eventListenerRegistry.appendListeners(EventType.INIT_COLLECTION, new CollectionFetchListener());
+        eventListenerRegistry.appendListeners(EventType.FLUSH, new FlushListener());
+        eventListenerRegistry.appendListeners(EventType.REFRESH, new RefreshListener());
+    }
+
+    /**
+     * An event listener that records lazy collection fetches.
+     */
+    private static class CollectionFetchListener implements InitializeCollectionEventListener
+    {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void onInitializeCollection(InitializeCollectionEvent event) throws HibernateException
+        {
+            QueryStatistics queryStatistics = QueryStatistics.getCurrent();
+            if (queryStatistics != null)
+            {
+                queryStatistics.recordCollectionFetch();
+            }
+        }
+    }
+
+    /**
+     * An event listener that records explicit flushes.
+     */
+    private static class FlushListener implements FlushEventListener
+    {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void onFlush(FlushEvent event) throws HibernateException
+        {
+            QueryStatistics queryStatistics = QueryStatistics.getCurrent();
+            if (queryStatistics != null)
+            {
+                queryStatistics.recordFlush();
+            }
+        }
+    }
+
+    /**
+     * An event listener that records entity refreshes, including the ones cascaded to related entities.
+     */
+    private static class RefreshListener implements RefreshEventListener
+    {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void onRefresh(RefreshEvent event) throws HibernateException
+        {
+            recordRefresh();
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes")
+        public void onRefresh(RefreshEvent event, Map refreshedAlready) throws HibernateException
+        {
+            recordRefresh();
+        }
+
+        private void recordRefresh()
+        {
+            QueryStatistics queryStatistics = QueryStatistics.getCurrent();
+            if (queryStatistics != null)
+            {
+                queryStatistics.recordRefresh();
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.dao;
+
+import java.io.Serializable;
+
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.type.Type;
+
+/**
+ * A Hibernate interceptor that records the SQL statements prepared and the entities loaded by the current thread in its query statistics, if any are being
+ * collected. Hibernate instantiates the interceptor by class name so it relies on the statistics bound to the current thread rather than on injected beans.
+ */
+public class QueryStatisticsInterceptor extends EmptyInterceptor
+{
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public String onPrepareStatement(String sql)
+    {
+        QueryStatistics queryStatistics = QueryStatistics.getCurrent();
+        if (queryStatistics != null)
+        {
+            queryStatistics.recordStatement(sql);
+        }
+        return sql;
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Serializable id, Object[] state, String[] propertyNames, Type[] types)
+    {
+        QueryStatistics queryStatistics = QueryStatistics.getCurrent();
+        if (queryStatistics != null)
+        {
+            queryStatistics.recordEntityLoad();
+        }
+        return false;
+    }
+}
@@ -83,6 +83,19 @@ public interface S3Dao
      */
     public List<StorageFile> listDirectory(S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto, boolean ignoreZeroByteDirectoryMarkers);
 
+    /**
+     * Returns an iterator over all S3 objects matching the S3 key prefix in the given bucket (S3 bucket name). Unlike listDirectory, the listing is requested
+     * one page at a time as the iterator advances, so a caller that streams over the objects never holds the entire listing in memory. The returned iterator
+     * must be closed once the caller is done with it.
+     *
+     * @param s3FileTransferRequestParamsDto the S3 file transfer request parameters. The S3 bucket name and S3 key prefix identify the S3 objects to get
+     * listed.
+     * @param ignoreZeroByteDirectoryMarkers specifies whether to ignore 0 byte objects that represent S3 directories.
+     *
+     * @return the iterator over all S3 objects represented as storage files that match the prefix in the given bucket.
+     */
+    public StorageFileIterator getDirectoryIterator(S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto, boolean ignoreZeroByteDirectoryMarkers);
+
     /**
      * Uploads a local file into S3.
      *
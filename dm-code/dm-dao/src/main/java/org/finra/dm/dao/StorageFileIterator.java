@@ -0,0 +1,34 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.dao;
+
+import java.util.Iterator;
+
+import org.finra.dm.model.api.xml.StorageFile;
+
+/**
+ * An iterator over the S3 objects of a directory listing represented as storage files. The listing is paged through lazily, so only a single page of the
+ * listing is held in memory at a time. The iterator holds on to the resources used to request the listing until it is closed, so it should be used within a
+ * try-with-resources statement.
+ */
+public interface StorageFileIterator extends Iterator<StorageFile>, AutoCloseable
+{
+    /**
+     * Releases the resources used to request the listing. Closing an iterator more than once has no effect.
+     */
+    @Override
+    public void close();
+}
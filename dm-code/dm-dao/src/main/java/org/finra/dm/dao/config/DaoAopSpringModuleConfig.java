@@ -28,6 +28,7 @@ import org.finra.dm.dao.helper.AwsEmrExceptionRetryAdvice;
 import org.finra.dm.dao.helper.AwsS3ExceptionRetryAdvice;
 import org.finra.dm.dao.helper.AwsSqsExceptionRetryAdvice;
 import org.finra.dm.dao.helper.AwsStsExceptionRetryAdvice;
+import org.finra.dm.dao.helper.QueryStatisticsAdvice;
 
 /**
  * Dao AOP Spring module configuration. This class defines specific configuration related to aspects.
@@ -52,6 +53,9 @@ public class DaoAopSpringModuleConfig
     @Autowired
     private AwsSqsExceptionRetryAdvice awsSqsExceptionRetryAdvice;
 
+    @Autowired
+    private QueryStatisticsAdvice queryStatisticsAdvice;
+
     /**
      * A pointcut for S3 operations methods.
      */
@@ -97,6 +101,15 @@ public class DaoAopSpringModuleConfig
         // Pointcut methods are defined by their annotation and don't have an implementation.
     }
 
+    /**
+     * A pointcut for DM DAO methods.
+     */
+    @Pointcut("execution(* org.finra.dm.dao.DmDao.*(..))")
+    public void dmDaoMethods()
+    {
+        // Pointcut methods are defined by their annotation and don't have an implementation.
+    }
+
     /**
      * Around advice that catches AWS S3 throttling exceptions and retries a configurable amount of time.
      *
@@ -166,4 +179,18 @@ public class DaoAopSpringModuleConfig
     {
         return awsSqsExceptionRetryAdvice.retryOnException(pjp);
     }
+
+    /**
+     * Around advice that times DM DAO methods, logs the slow ones and tags the SQL statements they issue.
+     *
+     * @param pjp the proceeding join point.
+     *
+     * @return the return value of the method we are advising.
+     * @throws Throwable if there were any problems executing the method.
+     */
+    @Around("dmDaoMethods()")
+    public Object collectDaoMethodStatistics(ProceedingJoinPoint pjp) throws Throwable
+    {
+        return queryStatisticsAdvice.collectDaoMethodStatistics(pjp);
+    }
 }
@@ -50,6 +50,7 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 import org.finra.dm.core.ApplicationContextHolder;
 import org.finra.dm.core.helper.ConfigurationHelper;
+import org.finra.dm.dao.AuditableEntityInterceptor;
 import org.finra.dm.dao.CacheKeyGenerator;
 import org.finra.dm.dao.ReloadablePropertySource;
 import org.finra.dm.model.dto.ConfigurationValue;
@@ -168,6 +169,13 @@ public class DaoSpringModuleConfig implements CachingConfigurer
         properties.setProperty(ConfigurationValue.SHOW_SQL.getKey(), configurationHelper.getProperty(ConfigurationValue.SHOW_SQL));
         LOGGER.info("Show SQL: " + properties.getProperty(ConfigurationValue.SHOW_SQL.getKey()));
         properties.setProperty("hibernate.archive.autodetection", "class, hbm");
+        // Send inserts and updates in JDBC batches, ordering them so statements for the same table end up in the same batch.
+        properties.setProperty(ConfigurationValue.HIBERNATE_JDBC_BATCH_SIZE.getKey(),
+            configurationHelper.getProperty(ConfigurationValue.HIBERNATE_JDBC_BATCH_SIZE, Integer.class).toString());
+        properties.setProperty("hibernate.order_inserts", "true");
+        properties.setProperty("hibernate.order_updates", "true");
+        // Count the SQL statements and entity loads issued per request.
+        properties.setProperty("hibernate.ejb.interceptor", AuditableEntityInterceptor.class.getName());
 
         // Set the Hibernate HBM2DDL Auto param if it is configured. This is only needed in JUnits.
         String hibernateHbm2DdlAutoParam = getHibernateHbm2DdlAutoParam();
@@ -22,6 +22,12 @@ import org.finra.dm.model.dto.ConfigurationValue;
 @Component
 public class AwsEc2ExceptionRetryAdvice extends AwsExceptionRetryAdvice
 {
+    @Override
+    protected String getAwsServiceName()
+    {
+        return "ec2";
+    }
+
     @Override
     protected int getMaxRetryDelaySecs()
     {
@@ -22,6 +22,12 @@ import org.finra.dm.model.dto.ConfigurationValue;
 @Component
 public class AwsEmrExceptionRetryAdvice extends AwsExceptionRetryAdvice
 {
+    @Override
+    protected String getAwsServiceName()
+    {
+        return "emr";
+    }
+
     @Override
     protected int getMaxRetryDelaySecs()
     {
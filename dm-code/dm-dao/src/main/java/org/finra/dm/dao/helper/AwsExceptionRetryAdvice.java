@@ -31,7 +31,8 @@ import org.finra.dm.model.dto.ConfigurationValue;
 
 /**
  * Advice that catches various AWS exceptions and retries invoking the method for a configurable amount of time to give the method a chance at succeeding when
- * usage is high. After all the retries have been attempted, the original exception will be thrown.
+ * usage is high. After all the retries have been attempted, the original exception will be thrown. Each attempt first waits for the AWS rate limiter and
+ * reports back whether AWS throttled it.
  */
 public abstract class AwsExceptionRetryAdvice
 {
@@ -43,6 +44,9 @@ public abstract class AwsExceptionRetryAdvice
     @Autowired
     protected DmStringHelper dmStringHelper;
 
+    @Autowired
+    protected AwsRateLimiter awsRateLimiter;
+
     /**
      * Invokes the method, catches following various exceptions and retries as needed: 1. Throttling exception. 2. 5xx exception. 3. Error codes defined in
      * configuration to be retried.
@@ -58,6 +62,8 @@ public abstract class AwsExceptionRetryAdvice
         Class<?> targetClass = pjp.getTarget().getClass();
         MethodSignature targetMethodSignature = (MethodSignature) pjp.getSignature();
         String methodName = targetClass.getName() + "." + targetMethodSignature.getName();
+        String awsServiceName = getAwsServiceName();
+        String operationName = targetMethodSignature.getName();
 
         // Get the max delay in seconds.
         long maxTotalDelay = getMaxRetryDelaySecs() * 1000L;
@@ -78,11 +84,19 @@ public abstract class AwsExceptionRetryAdvice
         {
             try
             {
-                // Proceed to the join point (i.e. call the method and let it return normally).
-                return pjp.proceed();
+                // Proceed to the join point (i.e. call the method and let it return normally) once the rate limiter lets us.
+                awsRateLimiter.acquire(awsServiceName, operationName);
+                Object returnValue = pjp.proceed();
+                awsRateLimiter.onSuccess(awsServiceName, operationName);
+                return returnValue;
             }
             catch (AmazonServiceException ase)
             {
+                if (RetryUtils.isThrottlingException(ase))
+                {
+                    awsRateLimiter.onThrottled(awsServiceName, operationName);
+                }
+
                 // Retry if:
                 // 1) Is throttling exception.
                 // 2) Is 5xx exception.
@@ -130,6 +144,13 @@ public abstract class AwsExceptionRetryAdvice
         }
     }
 
+    /**
+     * The name of the AWS service whose calls are advised, used to look up its rate limit.
+     *
+     * @return the AWS service name.
+     */
+    protected abstract String getAwsServiceName();
+
     /**
      * The maximum retry delay in seconds.
      *
@@ -0,0 +1,394 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.dao.helper;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import org.finra.dm.core.helper.ConfigurationHelper;
+import org.finra.dm.core.helper.DmThreadHelper;
+import org.finra.dm.core.helper.MetricsHelper;
+import org.finra.dm.dao.config.DaoSpringModuleConfig;
+import org.finra.dm.model.dto.ConfigurationValue;
+
+/**
+ * Limits the rate of outbound AWS calls with a token bucket per AWS service, or per AWS service and operation, as configured. A bucket starts at its configured
+ * rate, halves its rate when AWS throttles a call and creeps back up to the configured rate as calls succeed, so a burst of calls backs off before the retry
+ * advice has to. Callers over the rate wait for their turn rather than failing.
+ * <p/>
+ * When cluster coordination is enabled, the configured rates apply to all the application nodes together. Each node takes an equal share, based on the number
+ * of nodes recently checked in to the clustered Quartz scheduler.
+ */
+@Component
+public class AwsRateLimiter
+{
+    private static final Logger LOGGER = Logger.getLogger(AwsRateLimiter.class);
+
+    public static final String METRIC_THROTTLED_PREFIX = "aws.throttled.";
+
+    public static final String METRIC_WAIT_TIME_PREFIX = "aws.rateLimiter.waitTime.";
+
+    public static final String METRIC_CALLS_PER_MINUTE_PREFIX = "aws.rateLimiter.callsPerMinute.";
+
+    /**
+     * The lowest rate a bucket backs off to, as a fraction of its configured rate.
+     */
+    private static final double MIN_RATE_FRACTION = 0.1;
+
+    /**
+     * The fraction of the configured rate a bucket gets back per successful call.
+     */
+    private static final double RATE_INCREASE_FRACTION = 0.01;
+
+    /**
+     * A bucket backs off at most once per this period, since the calls in flight when AWS started throttling all come back throttled.
+     */
+    private static final long RATE_DECREASE_PERIOD_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final long NODE_COUNT_REFRESH_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final String NODE_COUNT_SQL = "SELECT COUNT(*) FROM QRTZ_SCHEDULER_STATE WHERE LAST_CHECKIN_TIME >= ?";
+
+    @Autowired
+    private ConfigurationHelper configurationHelper;
+
+    @Autowired
+    private DmStringHelper dmStringHelper;
+
+    @Autowired
+    private DmThreadHelper dmThreadHelper;
+
+    @Autowired
+    private MetricsHelper metricsHelper;
+
+    private final ConcurrentMap<String, TokenBucket> tokenBuckets = new ConcurrentHashMap<>();
+
+    /**
+     * The configured rate limits along with the configuration value they were parsed from.
+     */
+    private volatile RateLimits rateLimits = new RateLimits(null, Collections.<String, Double>emptyMap());
+
+    private volatile int nodeCount = 1;
+
+    private final AtomicLong nodeCountRefreshedAtMillis = new AtomicLong();
+
+    /**
+     * Waits until the AWS operation can be called without exceeding its rate.
+     *
+     * @param awsServiceName the AWS service name (e.g. "emr").
+     * @param operationName the operation name.
+     */
+    public void acquire(String awsServiceName, String operationName)
+    {
+        TokenBucket tokenBucket = getTokenBucket(awsServiceName, operationName);
+        if (tokenBucket != null)
+        {
+            long waitNanos = tokenBucket.reserve();
+            if (waitNanos > 0)
+            {
+                long startNanoTime = System.nanoTime();
+                dmThreadHelper.sleep(TimeUnit.NANOSECONDS.toMillis(waitNanos));
+                metricsHelper.recordLatency(METRIC_WAIT_TIME_PREFIX + tokenBucket.key, startNanoTime);
+            }
+        }
+    }
+
+    /**
+     * Records a successful AWS call, which lets a bucket that backed off get back towards its configured rate.
+     *
+     * @param awsServiceName the AWS service name.
+     * @param operationName the operation name.
+     */
+    public void onSuccess(String awsServiceName, String operationName)
+    {
+        TokenBucket tokenBucket = getTokenBucket(awsServiceName, operationName);
+        if (tokenBucket != null)
+        {
+            tokenBucket.increaseRate();
+        }
+    }
+
+    /**
+     * Records an AWS call that was throttled, which makes its bucket back off.
+     *
+     * @param awsServiceName the AWS service name.
+     * @param operationName the operation name.
+     */
+    public void onThrottled(String awsServiceName, String operationName)
+    {
+        metricsHelper.incrementCounter(METRIC_THROTTLED_PREFIX + awsServiceName + "." + operationName, 1);
+
+        TokenBucket tokenBucket = getTokenBucket(awsServiceName, operationName);
+        if (tokenBucket != null && tokenBucket.decreaseRate())
+        {
+            LOGGER.warn("AWS throttled a call to " + awsServiceName + "." + operationName + ". Reduced the \"" + tokenBucket.key + "\" rate limit to " +
+                String.format("%.2f", tokenBucket.getRate()) + " call(s) per second.");
+        }
+    }
+
+    /**
+     * Gets the current rate of the bucket that applies to an AWS operation.
+     *
+     * @param awsServiceName the AWS service name.
+     * @param operationName the operation name.
+     *
+     * @return the current rate in calls per second or null if the operation isn't rate limited.
+     */
+    public Double getRate(String awsServiceName, String operationName)
+    {
+        TokenBucket tokenBucket = getTokenBucket(awsServiceName, operationName);
+        return tokenBucket == null ? null : tokenBucket.getRate();
+    }
+
+    /**
+     * Gets the bucket that applies to an AWS operation, creating it the first time it's needed.
+     *
+     * @param awsServiceName the AWS service name.
+     * @param operationName the operation name.
+     *
+     * @return the token bucket or null if the operation isn't rate limited.
+     */
+    private TokenBucket getTokenBucket(String awsServiceName, String operationName)
+    {
+        Map<String, Double> limits = getRateLimits();
+        if (limits.isEmpty())
+        {
+            return null;
+        }
+
+        String key = awsServiceName + "." + operationName;
+        Double maxRate = limits.get(key);
+        if (maxRate == null)
+        {
+            key = awsServiceName;
+            maxRate = limits.get(key);
+        }
+        if (maxRate == null)
+        {
+            return null;
+        }
+
+        double nodeMaxRate = maxRate / getNodeCount();
+        TokenBucket tokenBucket = tokenBuckets.get(key);
+        if (tokenBucket == null)
+        {
+            final TokenBucket newTokenBucket = new TokenBucket(key, nodeMaxRate);
+            tokenBucket = tokenBuckets.putIfAbsent(key, newTokenBucket);
+            if (tokenBucket == null)
+            {
+                tokenBucket = newTokenBucket;
+                metricsHelper.registerGauge(METRIC_CALLS_PER_MINUTE_PREFIX + key, new MetricsHelper.Gauge()
+                {
+                    @Override
+                    public long getValue()
+                    {
+                        return Math.round(newTokenBucket.getRate() * 60);
+                    }
+                });
+            }
+        }
+        tokenBucket.setMaxRate(nodeMaxRate);
+        return tokenBucket;
+    }
+
+    /**
+     * Gets the configured rate limits, parsing them again only when the configuration value changed.
+     *
+     * @return the rate limits keyed by AWS service or AWS service and operation.
+     */
+    private Map<String, Double> getRateLimits()
+    {
+        String configuredRateLimits = configurationHelper.getProperty(ConfigurationValue.AWS_RATE_LIMITS);
+        RateLimits currentRateLimits = rateLimits;
+        if (!StringUtils.equals(configuredRateLimits, currentRateLimits.configurationValue))
+        {
+            Map<String, Double> limits = new HashMap<>();
+            for (String rateLimit : dmStringHelper.splitStringWithDefaultDelimiter(configuredRateLimits))
+            {
+                String key = StringUtils.trim(StringUtils.substringBefore(rateLimit, "="));
+                String rate = StringUtils.trim(StringUtils.substringAfter(rateLimit, "="));
+                try
+                {
+                    if (Double.parseDouble(rate) > 0)
+                    {
+                        limits.put(key, Double.parseDouble(rate));
+                    }
+                }
+                catch (NumberFormatException e)
+                {
+                    LOGGER.warn("Ignoring invalid AWS rate limit \"" + rateLimit + "\" in \"" + ConfigurationValue.AWS_RATE_LIMITS.getKey() + "\".");
+                }
+            }
+            currentRateLimits = new RateLimits(configuredRateLimits, limits);
+            rateLimits = currentRateLimits;
+        }
+        return currentRateLimits.limits;
+    }
+
+    /**
+     * Gets the number of application nodes sharing the rate limits. The count is read from the clustered Quartz scheduler state at most once per refresh
+     * interval and the last known count is used if it can't be read.
+     *
+     * @return the number of application nodes or 1 if cluster coordination is disabled.
+     */
+    private int getNodeCount()
+    {
+        if (!Boolean.valueOf(configurationHelper.getProperty(ConfigurationValue.AWS_RATE_LIMITER_CLUSTER_COORDINATION_ENABLED)))
+        {
+            return 1;
+        }
+
+        long now = System.currentTimeMillis();
+        long refreshedAtMillis = nodeCountRefreshedAtMillis.get();
+        if (now - refreshedAtMillis >= NODE_COUNT_REFRESH_INTERVAL_MILLIS && nodeCountRefreshedAtMillis.compareAndSet(refreshedAtMillis, now))
+        {
+            try
+            {
+                Integer count = new JdbcTemplate(DaoSpringModuleConfig.getDmDataSource())
+                    .queryForObject(NODE_COUNT_SQL, Integer.class, now - NODE_COUNT_REFRESH_INTERVAL_MILLIS);
+                nodeCount = Math.max(1, count == null ? 1 : count);
+            }
+            catch (RuntimeException e)
+            {
+                LOGGER.warn("Unable to count the application nodes sharing the AWS rate limits. Assuming " + nodeCount + " node(s).", e);
+            }
+        }
+        return nodeCount;
+    }
+
+    /**
+     * The rate limits parsed from a configuration value.
+     */
+    private static class RateLimits
+    {
+        private final String configurationValue;
+
+        private final Map<String, Double> limits;
+
+        private RateLimits(String configurationValue, Map<String, Double> limits)
+        {
+            this.configurationValue = configurationValue;
+            this.limits = limits;
+        }
+    }
+
+    /**
+     * A token bucket holding up to one second worth of calls. Callers reserve a token even when the bucket is empty and wait for the time it takes to refill
+     * it, so waiting callers are served in the order they arrived.
+     */
+    private static class TokenBucket
+    {
+        private final String key;
+
+        private double maxRate;
+
+        private double rate;
+
+        private double tokens;
+
+        private long refilledAtNanos;
+
+        private long decreasedAtNanos;
+
+        private TokenBucket(String key, double maxRate)
+        {
+            this.key = key;
+            this.maxRate = maxRate;
+            this.rate = maxRate;
+            this.tokens = Math.max(1, maxRate);
+            this.refilledAtNanos = System.nanoTime();
+            this.decreasedAtNanos = refilledAtNanos - RATE_DECREASE_PERIOD_NANOS;
+        }
+
+        /**
+         * Takes a token from the bucket.
+         *
+         * @return the time in nanoseconds to wait before making the call.
+         */
+        private synchronized long reserve()
+        {
+            refill();
+            tokens -= 1;
+            return tokens >= 0 ? 0 : (long) (-tokens / rate * TimeUnit.SECONDS.toNanos(1));
+        }
+
+        /**
+         * Sets the configured rate, scaling the current rate along with it.
+         *
+         * @param maxRate the configured rate.
+         */
+        private synchronized void setMaxRate(double maxRate)
+        {
+            if (this.maxRate != maxRate)
+            {
+                refill();
+                rate = rate / this.maxRate * maxRate;
+                this.maxRate = maxRate;
+            }
+        }
+
+        private synchronized void increaseRate()
+        {
+            if (rate < maxRate)
+            {
+                refill();
+                rate = Math.min(maxRate, rate + maxRate * RATE_INCREASE_FRACTION);
+            }
+        }
+
+        /**
+         * Halves the rate unless it was already reduced in the last second or is at its lowest.
+         *
+         * @return true if the rate was reduced, false otherwise.
+         */
+        private synchronized boolean decreaseRate()
+        {
+            long now = System.nanoTime();
+            double minRate = maxRate * MIN_RATE_FRACTION;
+            if (now - decreasedAtNanos < RATE_DECREASE_PERIOD_NANOS || rate <= minRate)
+            {
+                return false;
+            }
+            refill();
+            rate = Math.max(minRate, rate / 2);
+            decreasedAtNanos = now;
+            return true;
+        }
+
+        private synchronized double getRate()
+        {
+            return rate;
+        }
+
+        private void refill()
+        {
+            long now = System.nanoTime();
+            tokens = Math.min(Math.max(1, rate), tokens + (now - refilledAtNanos) * rate / TimeUnit.SECONDS.toNanos(1));
+            refilledAtNanos = now;
+        }
+    }
+}
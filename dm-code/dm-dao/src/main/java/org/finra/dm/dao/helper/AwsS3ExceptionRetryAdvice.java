@@ -22,6 +22,12 @@ import org.finra.dm.model.dto.ConfigurationValue;
 @Component
 public class AwsS3ExceptionRetryAdvice extends AwsExceptionRetryAdvice
 {
+    @Override
+    protected String getAwsServiceName()
+    {
+        return "s3";
+    }
+
     @Override
     protected int getMaxRetryDelaySecs()
     {
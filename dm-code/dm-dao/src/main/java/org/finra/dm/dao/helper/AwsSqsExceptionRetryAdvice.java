@@ -22,6 +22,12 @@ import org.finra.dm.model.dto.ConfigurationValue;
 @Component
 public class AwsSqsExceptionRetryAdvice extends AwsExceptionRetryAdvice
 {
+    @Override
+    protected String getAwsServiceName()
+    {
+        return "sqs";
+    }
+
     @Override
     protected int getMaxRetryDelaySecs()
     {
@@ -22,6 +22,12 @@ import org.finra.dm.model.dto.ConfigurationValue;
 @Component
 public class AwsStsExceptionRetryAdvice extends AwsExceptionRetryAdvice
 {
+    @Override
+    protected String getAwsServiceName()
+    {
+        return "sts";
+    }
+
     @Override
     protected int getMaxRetryDelaySecs()
     {
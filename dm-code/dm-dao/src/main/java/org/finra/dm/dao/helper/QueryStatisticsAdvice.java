@@ -0,0 +1,183 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.dao.helper;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import org.finra.dm.core.helper.ConfigurationHelper;
+import org.finra.dm.core.helper.MetricsHelper;
+import org.finra.dm.dao.QueryStatistics;
+import org.finra.dm.model.dto.ConfigurationValue;
+
+/**
+ * Advice that collects the SQL statements, entity loads, collection fetches, flushes and refreshes issued per request and the duration of each DAO method.
+ * Per request, the counts are published as histograms, a warning is logged when the request exceeds its statement budget and statements issued often enough
+ * to suggest an N+1 select pattern are logged along with the DAO methods that issued them. Per DAO method, the duration is published as a histogram and slow
+ * methods are logged.
+ */
+@Component
+public class QueryStatisticsAdvice
+{
+    private static final Logger LOGGER = Logger.getLogger(QueryStatisticsAdvice.class);
+
+    public static final String METRIC_STATEMENTS_PREFIX = "db.statements.";
+
+    public static final String METRIC_ENTITY_LOADS_PREFIX = "db.entityLoads.";
+
+    public static final String METRIC_COLLECTION_FETCHES_PREFIX = "db.collectionFetches.";
+
+    public static final String METRIC_FLUSHES_PREFIX = "db.flushes.";
+
+    public static final String METRIC_REFRESHES_PREFIX = "db.refreshes.";
+
+    public static final String METRIC_BUDGET_EXCEEDED_PREFIX = "db.budgetExceeded.";
+
+    public static final String METRIC_N_PLUS_ONE_PREFIX = "db.nPlusOne.";
+
+    public static final String METRIC_DAO_LATENCY_PREFIX = "dao.latency.";
+
+    public static final String METRIC_DAO_STATEMENTS_PREFIX = "dao.statements.";
+
+    @Autowired
+    private ConfigurationHelper configurationHelper;
+
+    @Autowired
+    private MetricsHelper metricsHelper;
+
+    /**
+     * Collects the query statistics of the request handled by the method at the join point. Nested requests (e.g. a request that calls another advised
+     * method) are accounted to the outermost request.
+     *
+     * @param pjp the join point.
+     *
+     * @return the return value of the method at the join point.
+     * @throws Throwable if any errors were encountered.
+     */
+    public Object collectRequestStatistics(ProceedingJoinPoint pjp) throws Throwable
+    {
+        QueryStatistics queryStatistics = QueryStatistics.begin(getMethodName(pjp));
+        try
+        {
+            return pjp.proceed();
+        }
+        finally
+        {
+            if (QueryStatistics.end())
+            {
+                publishRequestStatistics(queryStatistics);
+            }
+        }
+    }
+
+    /**
+     * Times the DAO method at the join point and tags the statements it issues with its name.
+     *
+     * @param pjp the join point.
+     *
+     * @return the return value of the method at the join point.
+     * @throws Throwable if any errors were encountered.
+     */
+    public Object collectDaoMethodStatistics(ProceedingJoinPoint pjp) throws Throwable
+    {
+        String daoMethod = getMethodName(pjp);
+        QueryStatistics queryStatistics = QueryStatistics.getCurrent();
+        int startStatementCount = 0;
+        if (queryStatistics != null)
+        {
+            startStatementCount = queryStatistics.getStatementCount();
+            queryStatistics.enterDaoMethod(daoMethod);
+        }
+
+        long startNanoTime = System.nanoTime();
+        try
+        {
+            return pjp.proceed();
+        }
+        finally
+        {
+            long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanoTime);
+            metricsHelper.recordLatency(METRIC_DAO_LATENCY_PREFIX + daoMethod, startNanoTime);
+
+            String statementsIssued = "";
+            if (queryStatistics != null)
+            {
+                queryStatistics.exitDaoMethod();
+                int statementCount = queryStatistics.getStatementCount() - startStatementCount;
+                metricsHelper.recordValue(METRIC_DAO_STATEMENTS_PREFIX + daoMethod, statementCount);
+                statementsIssued = " issuing " + statementCount + " SQL statement(s)";
+            }
+
+            if (durationMillis >= configurationHelper.getProperty(ConfigurationValue.DB_SLOW_QUERY_THRESHOLD_MS, Long.class))
+            {
+                LOGGER.warn("Slow query: DAO method " + daoMethod + " took " + durationMillis + " ms" + statementsIssued +
+                    (queryStatistics == null ? "" : " for " + queryStatistics.getName()) + ".");
+            }
+        }
+    }
+
+    /**
+     * Publishes the statistics of a completed request.
+     *
+     * @param queryStatistics the query statistics of the request.
+     */
+    private void publishRequestStatistics(QueryStatistics queryStatistics)
+    {
+        String name = queryStatistics.getName();
+        metricsHelper.recordValue(METRIC_STATEMENTS_PREFIX + name, queryStatistics.getStatementCount());
+        metricsHelper.recordValue(METRIC_ENTITY_LOADS_PREFIX + name, queryStatistics.getEntityLoadCount());
+        metricsHelper.recordValue(METRIC_COLLECTION_FETCHES_PREFIX + name, queryStatistics.getCollectionFetchCount());
+        metricsHelper.recordValue(METRIC_FLUSHES_PREFIX + name, queryStatistics.getFlushCount());
+        metricsHelper.recordValue(METRIC_REFRESHES_PREFIX + name, queryStatistics.getRefreshCount());
+
+        int statementBudget = configurationHelper.getProperty(ConfigurationValue.DB_REQUEST_STATEMENT_BUDGET, Integer.class);
+        if (queryStatistics.getStatementCount() > statementBudget)
+        {
+            metricsHelper.incrementCounter(METRIC_BUDGET_EXCEEDED_PREFIX + name, 1);
+            LOGGER.warn(String.format("Request %s exceeded its budget of %d SQL statements: statements=%d, entityLoads=%d, collectionFetches=%d, flushes=%d, " +
+                "refreshes=%d", name, statementBudget, queryStatistics.getStatementCount(), queryStatistics.getEntityLoadCount(),
+                queryStatistics.getCollectionFetchCount(), queryStatistics.getFlushCount(), queryStatistics.getRefreshCount()));
+        }
+
+        int nPlusOneThreshold = configurationHelper.getProperty(ConfigurationValue.DB_N_PLUS_ONE_THRESHOLD, Integer.class);
+        for (QueryStatistics.StatementStatistics statementStatistics : queryStatistics.getStatementStatistics())
+        {
+            if (statementStatistics.getCount() >= nPlusOneThreshold)
+            {
+                metricsHelper.incrementCounter(METRIC_N_PLUS_ONE_PREFIX + name, 1);
+                LOGGER.warn(String.format("Probable N+1 select pattern in request %s: the following SQL statement was issued %d times by %s: %s", name,
+                    statementStatistics.getCount(), statementStatistics.getDaoMethods().isEmpty() ? "an unknown caller" : statementStatistics.getDaoMethods(),
+                    statementStatistics.getSql()));
+            }
+        }
+    }
+
+    /**
+     * Gets the simple class and method name of the method at the join point.
+     *
+     * @param pjp the join point.
+     *
+     * @return the method name.
+     */
+    private String getMethodName(ProceedingJoinPoint pjp)
+    {
+        return pjp.getTarget().getClass().getSimpleName() + "." + pjp.getSignature().getName();
+    }
+}
@@ -0,0 +1,288 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.dao.helper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.s3.AmazonS3Client;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CopyPartRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.SSEAwsKeyManagementParams;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import org.finra.dm.core.MeteredThreadPoolTaskExecutor;
+import org.finra.dm.core.helper.ConfigurationHelper;
+import org.finra.dm.core.helper.MetricsHelper;
+import org.finra.dm.dao.S3Operations;
+import org.finra.dm.model.dto.ConfigurationValue;
+
+/**
+ * Copies large S3 objects as multipart uploads whose parts are copied in parallel with UploadPartCopy requests. A part that fails is retried on its own, so a
+ * transient error doesn't restart the whole copy.
+ * <p/>
+ * All the copies share one thread pool, but each copy only keeps a limited number of its parts queued or copying at a time and queues its next part when one
+ * of them completes. A copy started behind a very large one therefore waits for a few parts of each running copy rather than for all the parts of the large
+ * one.
+ */
+@Component
+public class S3CopyEngine implements InitializingBean, DisposableBean
+{
+    private static final Logger LOGGER = Logger.getLogger(S3CopyEngine.class);
+
+    public static final String EXECUTOR_NAME = "s3Copy";
+
+    public static final String METRIC_COPY = "s3.copy";
+
+    public static final String METRIC_COPY_BYTES_PER_SECOND = "s3.copy.bytesPerSecond";
+
+    public static final String METRIC_PART = "s3.copy.part";
+
+    public static final String METRIC_PART_RETRIES = "s3.copy.partRetries";
+
+    @Autowired
+    private ConfigurationHelper configurationHelper;
+
+    @Autowired
+    private MetricsHelper metricsHelper;
+
+    @Autowired
+    private S3Operations s3Operations;
+
+    private MeteredThreadPoolTaskExecutor executor;
+
+    @Override
+    public void afterPropertiesSet() throws Exception
+    {
+        int poolSize = configurationHelper.getProperty(ConfigurationValue.S3_COPY_THREAD_POOL_SIZE, Integer.class);
+
+        // The queue is unbounded since each copy limits the number of its own parts in the queue.
+        executor = new MeteredThreadPoolTaskExecutor(EXECUTOR_NAME, metricsHelper, new ThreadPoolExecutor.AbortPolicy());
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.initialize();
+    }
+
+    @Override
+    public void destroy() throws Exception
+    {
+        executor.shutdown();
+    }
+
+    /**
+     * Gets the configured part size. Objects no larger than the part size gain nothing from a multipart copy.
+     *
+     * @return the part size in bytes.
+     */
+    public long getPartSizeBytes()
+    {
+        return configurationHelper.getProperty(ConfigurationValue.S3_COPY_PART_SIZE_BYTES, Long.class);
+    }
+
+    /**
+     * Copies an S3 object as a parallel multipart copy. The multipart upload is aborted if the copy fails.
+     *
+     * @param sourceBucketName the source bucket name.
+     * @param sourceKey the source object key.
+     * @param sourceObjectMetadata the source object metadata.
+     * @param targetBucketName the target bucket name.
+     * @param targetKey the target object key.
+     * @param kmsKeyId the KMS key Id to encrypt the target object with.
+     * @param s3Client the S3 client.
+     *
+     * @return the number of bytes copied.
+     * @throws InterruptedException if the calling thread was interrupted while waiting for the parts to be copied.
+     */
+    public long copyObject(final String sourceBucketName, final String sourceKey, ObjectMetadata sourceObjectMetadata, final String targetBucketName,
+        final String targetKey, String kmsKeyId, final AmazonS3Client s3Client) throws InterruptedException
+    {
+        long startNanoTime = System.nanoTime();
+
+        final long objectSizeBytes = sourceObjectMetadata.getContentLength();
+        final long partSizeBytes = getPartSizeBytes();
+        int partCount = (int) ((objectSizeBytes + partSizeBytes - 1) / partSizeBytes);
+        int concurrency = configurationHelper.getProperty(ConfigurationValue.S3_COPY_PART_CONCURRENCY, Integer.class);
+        final int maxAttempts = configurationHelper.getProperty(ConfigurationValue.S3_COPY_PART_MAX_ATTEMPTS, Integer.class);
+
+        // Keep the content type and user metadata of the source object, as a single copy request would.
+        ObjectMetadata targetObjectMetadata = new ObjectMetadata();
+        targetObjectMetadata.setContentType(sourceObjectMetadata.getContentType());
+        targetObjectMetadata.setUserMetadata(sourceObjectMetadata.getUserMetadata());
+
+        InitiateMultipartUploadRequest initiateMultipartUploadRequest = new InitiateMultipartUploadRequest(targetBucketName, targetKey, targetObjectMetadata);
+        initiateMultipartUploadRequest.withSSEAwsKeyManagementParams(new SSEAwsKeyManagementParams(kmsKeyId));
+        final String uploadId = s3Operations.initiateMultipartUpload(initiateMultipartUploadRequest, s3Client).getUploadId();
+
+        LOGGER.info(String.format("Copying %d byte(s) from s3://%s/%s to s3://%s/%s as %d part(s) with upload Id \"%s\"...", objectSizeBytes, sourceBucketName,
+            sourceKey, targetBucketName, targetKey, partCount, uploadId));
+
+        CompletionService<PartETag> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<PartETag>> futures = new ArrayList<>();
+        PartETag[] partETags = new PartETag[partCount];
+        boolean completed = false;
+
+        try
+        {
+            int nextPartNumber = 1;
+            for (int completedPartCount = 0; completedPartCount < partCount; completedPartCount++)
+            {
+                // Top up this copy's parts in flight, then wait for any one of them.
+                while (nextPartNumber <= partCount && nextPartNumber - completedPartCount <= concurrency)
+                {
+                    final int partNumber = nextPartNumber++;
+                    futures.add(completionService.submit(new Callable<PartETag>()
+                    {
+                        @Override
+                        public PartETag call() throws Exception
+                        {
+                            long firstByte = (partNumber - 1) * partSizeBytes;
+                            long lastByte = Math.min(firstByte + partSizeBytes, objectSizeBytes) - 1;
+                            CopyPartRequest copyPartRequest = new CopyPartRequest().withSourceBucketName(sourceBucketName).withSourceKey(sourceKey)
+                                .withDestinationBucketName(targetBucketName).withDestinationKey(targetKey).withUploadId(uploadId).withPartNumber(partNumber)
+                                .withFirstByte(firstByte).withLastByte(lastByte);
+                            return copyPart(copyPartRequest, maxAttempts, s3Client);
+                        }
+                    }));
+                }
+
+                PartETag partETag = getPartETag(completionService.take());
+                partETags[partETag.getPartNumber() - 1] = partETag;
+            }
+
+            s3Operations.completeMultipartUpload(new CompleteMultipartUploadRequest(targetBucketName, targetKey, uploadId, Arrays.asList(partETags)), s3Client);
+            completed = true;
+        }
+        finally
+        {
+            if (!completed)
+            {
+                abortCopy(targetBucketName, targetKey, uploadId, futures, s3Client);
+            }
+        }
+
+        long durationNanos = System.nanoTime() - startNanoTime;
+        metricsHelper.recordLatency(METRIC_COPY, startNanoTime);
+        metricsHelper.recordValue(METRIC_COPY_BYTES_PER_SECOND, (long) (objectSizeBytes / ((double) Math.max(durationNanos, 1) / TimeUnit.SECONDS.toNanos(1))));
+
+        return objectSizeBytes;
+    }
+
+    /**
+     * Copies a part, retrying it until it succeeds or the maximum number of attempts is reached. Errors that AWS attributes to the request itself (e.g. access
+     * denied) are not retried since they would fail again.
+     *
+     * @param copyPartRequest the copy part request.
+     * @param maxAttempts the maximum number of attempts.
+     * @param s3Client the S3 client.
+     *
+     * @return the part ETag.
+     */
+    private PartETag copyPart(CopyPartRequest copyPartRequest, int maxAttempts, AmazonS3Client s3Client)
+    {
+        for (int attempt = 1; ; attempt++)
+        {
+            long startNanoTime = System.nanoTime();
+            try
+            {
+                PartETag partETag = s3Operations.copyPart(copyPartRequest, s3Client).getPartETag();
+                metricsHelper.recordLatency(METRIC_PART, startNanoTime);
+                return partETag;
+            }
+            catch (AmazonClientException e)
+            {
+                if (attempt >= maxAttempts || Thread.currentThread().isInterrupted() ||
+                    (e instanceof AmazonServiceException && ((AmazonServiceException) e).getErrorType() == AmazonServiceException.ErrorType.Client))
+                {
+                    throw e;
+                }
+
+                metricsHelper.incrementCounter(METRIC_PART_RETRIES, 1);
+                LOGGER.warn(String.format("Attempt %d of %d to copy part %d of upload Id \"%s\" failed. Retrying the part. Reason: %s", attempt, maxAttempts,
+                    copyPartRequest.getPartNumber(), copyPartRequest.getUploadId(), e.getMessage()));
+            }
+        }
+    }
+
+    /**
+     * Gets the result of a completed part copy, rethrowing the exception that failed it.
+     *
+     * @param future the future of the part copy.
+     *
+     * @return the part ETag.
+     * @throws InterruptedException if the calling thread was interrupted.
+     */
+    private PartETag getPartETag(Future<PartETag> future) throws InterruptedException
+    {
+        try
+        {
+            return future.get();
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof RuntimeException)
+            {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Cancels the parts still queued or copying and aborts the multipart upload so the parts already copied don't linger in the target bucket.
+     *
+     * @param targetBucketName the target bucket name.
+     * @param targetKey the target object key.
+     * @param uploadId the upload Id.
+     * @param futures the futures of the parts submitted so far.
+     * @param s3Client the S3 client.
+     */
+    private void abortCopy(String targetBucketName, String targetKey, String uploadId, List<Future<PartETag>> futures, AmazonS3Client s3Client)
+    {
+        for (Future<PartETag> future : futures)
+        {
+            future.cancel(true);
+        }
+
+        try
+        {
+            s3Operations.abortMultipartUpload(new AbortMultipartUploadRequest(targetBucketName, targetKey, uploadId), s3Client);
+            LOGGER.warn(String.format("Aborted the multipart copy to s3://%s/%s with upload Id \"%s\".", targetBucketName, targetKey, uploadId));
+        }
+        catch (AmazonClientException e)
+        {
+            // Don't hide the exception that failed the copy. The file upload cleanup job aborts stale multipart uploads later.
+            LOGGER.error(String.format("Failed to abort the multipart copy to s3://%s/%s with upload Id \"%s\".", targetBucketName, targetKey, uploadId), e);
+        }
+    }
+}
@@ -0,0 +1,262 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.dao.helper;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.s3.AmazonS3Client;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest.KeyVersion;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException.DeleteError;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import org.finra.dm.core.MeteredThreadPoolTaskExecutor;
+import org.finra.dm.core.helper.ConfigurationHelper;
+import org.finra.dm.core.helper.MetricsHelper;
+import org.finra.dm.dao.S3Operations;
+import org.finra.dm.model.dto.ConfigurationValue;
+
+/**
+ * Deletes S3 objects with multi-object delete requests that are sent in parallel. The keys are consumed from an iterator one batch at a time, so a listing
+ * can be deleted while it is still being paged through. When S3 fails to delete some keys of a batch, only those keys are retried.
+ * <p/>
+ * All the deletions share one thread pool, but each deletion only keeps a limited number of its batches queued or running at a time and reads its next batch
+ * of keys when one of them completes.
+ */
+@Component
+public class S3DeleteEngine implements InitializingBean, DisposableBean
+{
+    private static final Logger LOGGER = Logger.getLogger(S3DeleteEngine.class);
+
+    /**
+     * The maximum number of keys of a multi-object delete request allowed by S3.
+     */
+    public static final int MAX_KEYS_PER_DELETE_REQUEST = 1000;
+
+    public static final String EXECUTOR_NAME = "s3Delete";
+
+    public static final String METRIC_DELETE = "s3.delete";
+
+    public static final String METRIC_BATCH = "s3.delete.batch";
+
+    public static final String METRIC_KEY_RETRIES = "s3.delete.keyRetries";
+
+    @Autowired
+    private ConfigurationHelper configurationHelper;
+
+    @Autowired
+    private MetricsHelper metricsHelper;
+
+    @Autowired
+    private S3Operations s3Operations;
+
+    private MeteredThreadPoolTaskExecutor executor;
+
+    @Override
+    public void afterPropertiesSet() throws Exception
+    {
+        int poolSize = configurationHelper.getProperty(ConfigurationValue.S3_DELETE_THREAD_POOL_SIZE, Integer.class);
+
+        // The queue is unbounded since each deletion limits the number of its own batches in the queue.
+        executor = new MeteredThreadPoolTaskExecutor(EXECUTOR_NAME, metricsHelper, new ThreadPoolExecutor.AbortPolicy());
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.initialize();
+    }
+
+    @Override
+    public void destroy() throws Exception
+    {
+        executor.shutdown();
+    }
+
+    /**
+     * Deletes the S3 objects with the specified keys. The batches still queued or running are cancelled if the deletion fails.
+     *
+     * @param bucketName the bucket name.
+     * @param keys the keys of the objects to delete.
+     * @param s3Client the S3 client.
+     *
+     * @return the number of keys deleted.
+     * @throws InterruptedException if the calling thread was interrupted while waiting for the batches to be deleted.
+     */
+    public long deleteObjects(final String bucketName, Iterator<String> keys, final AmazonS3Client s3Client) throws InterruptedException
+    {
+        long startNanoTime = System.nanoTime();
+
+        int concurrency = configurationHelper.getProperty(ConfigurationValue.S3_DELETE_BATCH_CONCURRENCY, Integer.class);
+        final int maxAttempts = configurationHelper.getProperty(ConfigurationValue.S3_DELETE_KEY_MAX_ATTEMPTS, Integer.class);
+
+        CompletionService<Integer> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<Integer>> futures = new ArrayList<>();
+        int batchesInFlight = 0;
+        long deletedKeyCount = 0;
+        boolean completed = false;
+
+        try
+        {
+            while (keys.hasNext() || batchesInFlight > 0)
+            {
+                // Top up this deletion's batches in flight, then wait for any one of them.
+                while (keys.hasNext() && batchesInFlight < concurrency)
+                {
+                    final List<KeyVersion> batch = new ArrayList<>();
+                    while (keys.hasNext() && batch.size() < MAX_KEYS_PER_DELETE_REQUEST)
+                    {
+                        batch.add(new KeyVersion(keys.next()));
+                    }
+
+                    futures.add(completionService.submit(new Callable<Integer>()
+                    {
+                        @Override
+                        public Integer call() throws Exception
+                        {
+                            return deleteBatch(bucketName, batch, maxAttempts, s3Client);
+                        }
+                    }));
+                    batchesInFlight++;
+                }
+
+                if (batchesInFlight > 0)
+                {
+                    deletedKeyCount += getDeletedKeyCount(completionService.take());
+                    batchesInFlight--;
+                }
+            }
+
+            completed = true;
+        }
+        finally
+        {
+            if (!completed)
+            {
+                for (Future<Integer> future : futures)
+                {
+                    future.cancel(true);
+                }
+            }
+        }
+
+        metricsHelper.recordLatency(METRIC_DELETE, startNanoTime);
+        LOGGER.info(String.format("Deleted %d keys/objects from bucket \"%s\" in %d multi-object delete request(s).", deletedKeyCount, bucketName,
+            futures.size()));
+
+        return deletedKeyCount;
+    }
+
+    /**
+     * Deletes a batch of keys, retrying the keys that S3 failed to delete until they are deleted or the maximum number of attempts is reached. Errors that AWS
+     * attributes to the request itself (e.g. access denied) are not retried since they would fail again.
+     *
+     * @param bucketName the bucket name.
+     * @param keys the keys to delete.
+     * @param maxAttempts the maximum number of attempts.
+     * @param s3Client the S3 client.
+     *
+     * @return the number of keys deleted.
+     */
+    private int deleteBatch(String bucketName, List<KeyVersion> keys, int maxAttempts, AmazonS3Client s3Client)
+    {
+        List<KeyVersion> remainingKeys = keys;
+
+        for (int attempt = 1; ; attempt++)
+        {
+            long startNanoTime = System.nanoTime();
+            try
+            {
+                // Quiet mode, so the response only lists the keys that could not be deleted.
+                s3Operations.deleteObjects(new DeleteObjectsRequest(bucketName).withKeys(remainingKeys).withQuiet(true), s3Client);
+                metricsHelper.recordLatency(METRIC_BATCH, startNanoTime);
+                return keys.size();
+            }
+            catch (MultiObjectDeleteException e)
+            {
+                metricsHelper.recordLatency(METRIC_BATCH, startNanoTime);
+
+                List<KeyVersion> failedKeys = new ArrayList<>();
+                for (DeleteError deleteError : e.getErrors())
+                {
+                    failedKeys.add(new KeyVersion(deleteError.getKey(), deleteError.getVersionId()));
+                }
+
+                DeleteError firstDeleteError = e.getErrors().get(0);
+                if (attempt >= maxAttempts || Thread.currentThread().isInterrupted())
+                {
+                    throw new IllegalStateException(String
+                        .format("Failed to delete %d keys/objects from bucket \"%s\" after %d attempt(s). First failed key \"%s\": %s %s", failedKeys.size(),
+                            bucketName, attempt, firstDeleteError.getKey(), firstDeleteError.getCode(), firstDeleteError.getMessage()), e);
+                }
+
+                metricsHelper.incrementCounter(METRIC_KEY_RETRIES, failedKeys.size());
+                LOGGER.warn(String.format("Attempt %d of %d failed to delete %d of %d keys/objects from bucket \"%s\". Retrying the failed keys. " +
+                    "First failed key \"%s\": %s %s", attempt, maxAttempts, failedKeys.size(), remainingKeys.size(), bucketName, firstDeleteError.getKey(),
+                    firstDeleteError.getCode(), firstDeleteError.getMessage()));
+                remainingKeys = failedKeys;
+            }
+            catch (AmazonClientException e)
+            {
+                if (attempt >= maxAttempts || Thread.currentThread().isInterrupted() ||
+                    (e instanceof AmazonServiceException && ((AmazonServiceException) e).getErrorType() == AmazonServiceException.ErrorType.Client))
+                {
+                    throw e;
+                }
+
+                metricsHelper.incrementCounter(METRIC_KEY_RETRIES, remainingKeys.size());
+                LOGGER.warn(String.format("Attempt %d of %d to delete %d keys/objects from bucket \"%s\" failed. Retrying the keys. Reason: %s", attempt,
+                    maxAttempts, remainingKeys.size(), bucketName, e.getMessage()));
+            }
+        }
+    }
+
+    /**
+     * Gets the result of a completed batch, rethrowing the exception that failed it.
+     *
+     * @param future the future of the batch.
+     *
+     * @return the number of keys deleted.
+     * @throws InterruptedException if the calling thread was interrupted.
+     */
+    private int getDeletedKeyCount(Future<Integer> future) throws InterruptedException
+    {
+        try
+        {
+            return future.get();
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof RuntimeException)
+            {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
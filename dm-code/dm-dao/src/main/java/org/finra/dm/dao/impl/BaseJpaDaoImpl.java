@@ -154,7 +154,7 @@ public class BaseJpaDaoImpl implements BaseJpaDao
         // Save the entity.
         save(entity);
 
-        // Flush (i.e. persist) the entity and re-load it to retrieve the create/update date that was populated by the database.
+        // Flush (i.e. persist) the entity and re-load it along with its collections.
         entityManager.flush();
         entityManager.refresh(entity);
 
@@ -162,6 +162,47 @@ public class BaseJpaDaoImpl implements BaseJpaDao
         return entity;
     }
 
+    @Override
+    public <T> List<T> saveAllAndRefresh(List<T> entities)
+    {
+        // Save the entities.
+        for (T entity : entities)
+        {
+            save(entity);
+        }
+
+        // Flush all the entities together and re-load them along with their collections.
+        entityManager.flush();
+        for (T entity : entities)
+        {
+            entityManager.refresh(entity);
+        }
+
+        // Return the persisted entities.
+        return entities;
+    }
+
+    @Override
+    public <T> T saveAndFlush(T entity)
+    {
+        save(entity);
+        entityManager.flush();
+        return entity;
+    }
+
+    @Override
+    public <T> List<T> saveAllAndFlush(List<T> entities)
+    {
+        for (T entity : entities)
+        {
+            save(entity);
+        }
+
+        // Flush all the entities together so the inserts can be batched.
+        entityManager.flush();
+        return entities;
+    }
+
     @Override
     public <T> void delete(T entity)
     {
@@ -15,21 +15,23 @@
 */
 package org.finra.dm.dao.impl;
 
-import java.lang.annotation.Annotation;
-import java.lang.reflect.Field;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
-import javax.persistence.CascadeType;
-import javax.persistence.OneToMany;
+import javax.persistence.LockModeType;
 import javax.persistence.Tuple;
 import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaDelete;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Expression;
 import javax.persistence.criteria.From;
@@ -44,21 +46,18 @@ import javax.persistence.metamodel.SingularAttribute;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.orm.jpa.vendor.Database;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.CollectionUtils;
 
 import org.finra.dm.core.DmDateUtils;
-import org.finra.dm.core.helper.ConfigurationHelper;
 import org.finra.dm.dao.DmDao;
+import org.finra.dm.dao.ExpectedPartitionValueIndex;
 import org.finra.dm.dao.config.DaoSpringModuleConfig;
-import org.finra.dm.dao.helper.DmDaoSecurityHelper;
-import org.finra.dm.model.dto.ConfigurationValue;
 import org.finra.dm.model.dto.DateRangeDto;
 import org.finra.dm.model.dto.StorageAlternateKeyDto;
-import org.finra.dm.model.jpa.AuditableEntity;
 import org.finra.dm.model.jpa.BusinessObjectDataEntity;
 import org.finra.dm.model.jpa.BusinessObjectDataEntity_;
 import org.finra.dm.model.jpa.BusinessObjectDataNotificationRegistrationEntity;
@@ -98,12 +97,12 @@ import org.finra.dm.model.jpa.SecurityRoleEntity;
 import org.finra.dm.model.jpa.SecurityRoleEntity_;
 import org.finra.dm.model.jpa.SecurityRoleFunctionEntity;
 import org.finra.dm.model.jpa.SecurityRoleFunctionEntity_;
+import org.finra.dm.model.jpa.StorageDailyUploadStatEntity;
+import org.finra.dm.model.jpa.StorageDailyUploadStatEntity_;
 import org.finra.dm.model.jpa.StorageEntity;
 import org.finra.dm.model.jpa.StorageEntity_;
 import org.finra.dm.model.jpa.StorageFileEntity;
 import org.finra.dm.model.jpa.StorageFileEntity_;
-import org.finra.dm.model.jpa.StorageFileViewEntity;
-import org.finra.dm.model.jpa.StorageFileViewEntity_;
 import org.finra.dm.model.jpa.StoragePlatformEntity;
 import org.finra.dm.model.jpa.StorageUnitEntity;
 import org.finra.dm.model.jpa.StorageUnitEntity_;
@@ -142,6 +141,21 @@ public class DmDaoImpl extends BaseJpaDaoImpl implements DmDao
     private static final List<SingularAttribute<BusinessObjectDataEntity, String>> BUSINESS_OBJECT_DATA_SUBPARTITIONS =
         BUSINESS_OBJECT_DATA_PARTITIONS.subList(1, 1 + BusinessObjectDataEntity.MAX_SUBPARTITIONS);
 
+    /**
+     * The maximum number of expected partition value entities loaded by a single query.
+     */
+    private static final int EXPECTED_PARTITION_VALUE_LOAD_CHUNK_SIZE = 1000;
+
+    /**
+     * The maximum number of business object definitions loaded by a single query when aggregating the upload statistics from the storage files.
+     */
+    private static final int STORAGE_DAILY_UPLOAD_STAT_LOAD_CHUNK_SIZE = 1000;
+
+    /**
+     * The transaction resource key of the names of the partition key groups locked by the current transaction.
+     */
+    private static final String LOCKED_PARTITION_KEY_GROUPS_RESOURCE_KEY = DmDaoImpl.class.getName() + ".lockedPartitionKeyGroups";
+
     /**
      * Represents aggregate function.
      */
@@ -150,12 +164,10 @@ public class DmDaoImpl extends BaseJpaDaoImpl implements DmDao
         GREATEST, LEAST
     }
 
-    // TODO: Remove autowired environment once we migrate away from Oracle.  It is currently used only to check what database we are using.
-    @Autowired
-    private ConfigurationHelper configurationHelper;
-
-    @Autowired
-    private DmDaoSecurityHelper dmDaoSecurityHelper;
+    /**
+     * The ordinal indexes of the expected partition values keyed by the upper case partition key group name.
+     */
+    private final ConcurrentMap<String, ExpectedPartitionValueIndex> expectedPartitionValueIndexes = new ConcurrentHashMap<>();
 
     // Configuration
 
@@ -721,121 +733,217 @@ public class DmDaoImpl extends BaseJpaDaoImpl implements DmDao
     @Override
     public ExpectedPartitionValueEntity getExpectedPartitionValue(ExpectedPartitionValueKey expectedPartitionValueKey, int offset)
     {
-        // Create the criteria builder and the criteria.
-        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
-        CriteriaQuery<ExpectedPartitionValueEntity> criteria = builder.createQuery(ExpectedPartitionValueEntity.class);
+        // Resolve the expected partition value by its position in the ordinal index of the partition key group.
+        ExpectedPartitionValueIndex expectedPartitionValueIndex = getExpectedPartitionValueIndex(expectedPartitionValueKey.getPartitionKeyGroupName());
+        int position = expectedPartitionValueIndex.getPosition(expectedPartitionValueKey.getExpectedPartitionValue(), offset);
 
-        // The criteria root is the expected partition value.
-        Root<ExpectedPartitionValueEntity> expectedPartitionValueEntity = criteria.from(ExpectedPartitionValueEntity.class);
+        return position < 0 ? null : entityManager.find(ExpectedPartitionValueEntity.class, expectedPartitionValueIndex.getId(position));
+    }
 
-        // Join to the other tables we can filter on.
-        Join<ExpectedPartitionValueEntity, PartitionKeyGroupEntity> partitionKeyGroupEntity =
-            expectedPartitionValueEntity.join(ExpectedPartitionValueEntity_.partitionKeyGroup);
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<ExpectedPartitionValueEntity> getExpectedPartitionValuesByGroupAndRange(String partitionKeyGroupName, PartitionValueRange partitionValueRange)
+    {
+        ExpectedPartitionValueIndex expectedPartitionValueIndex = getExpectedPartitionValueIndex(partitionKeyGroupName);
 
-        // Add a restriction to filter case insensitive groups that match the user specified group.
-        Predicate whereRestriction = builder.equal(builder.upper(partitionKeyGroupEntity.get(PartitionKeyGroupEntity_.partitionKeyGroupName)),
-            expectedPartitionValueKey.getPartitionKeyGroupName().toUpperCase());
+        // Binary search the ordinal index for the positions of the optional start and end values of the range.
+        int startPosition = 0;
+        int endPosition = expectedPartitionValueIndex.size();
+        if (partitionValueRange != null)
+        {
+            if (StringUtils.isNotBlank(partitionValueRange.getStartPartitionValue()))
+            {
+                startPosition = expectedPartitionValueIndex.getStartPosition(partitionValueRange.getStartPartitionValue());
+            }
 
-        // Depending on the offset, we might need to order the records in the query.
-        Order orderByExpectedPartitionValue = null;
+            if (StringUtils.isNotBlank(partitionValueRange.getEndPartitionValue()))
+            {
+                endPosition = expectedPartitionValueIndex.getEndPosition(partitionValueRange.getEndPartitionValue());
+            }
+        }
 
-        // Add additional restrictions to handle expected partition value and an optional offset.
-        if (offset == 0)
+        List<Integer> ids = new ArrayList<>();
+        for (int position = startPosition; position < endPosition; position++)
         {
-            // Since there is no offset, we need to match the expected partition value exactly.
-            whereRestriction = builder.and(whereRestriction, builder
-                .equal(expectedPartitionValueEntity.get(ExpectedPartitionValueEntity_.partitionValue), expectedPartitionValueKey.getExpectedPartitionValue()));
+            ids.add(expectedPartitionValueIndex.getId(position));
         }
-        else if (offset > 0)
-        {
-            // For a positive offset value, add a restriction to filter expected partition values that are >= the user specified expected partition value.
-            whereRestriction = builder.and(whereRestriction, builder
-                .greaterThanOrEqualTo(expectedPartitionValueEntity.get(ExpectedPartitionValueEntity_.partitionValue),
-                    expectedPartitionValueKey.getExpectedPartitionValue()));
 
-            // Order by expected partition value in ascending order.
-            orderByExpectedPartitionValue = builder.asc(expectedPartitionValueEntity.get(ExpectedPartitionValueEntity_.partitionValue));
-        }
-        else
+        // Load the entities in chunks and return them in the order of the index.
+        Map<Integer, ExpectedPartitionValueEntity> expectedPartitionValueEntityMap = new HashMap<>();
+        for (int fromIndex = 0; fromIndex < ids.size(); fromIndex += EXPECTED_PARTITION_VALUE_LOAD_CHUNK_SIZE)
         {
-            // For a negative offset value, add a restriction to filter expected partition values that are <= the user specified expected partition value.
-            whereRestriction = builder.and(whereRestriction, builder
-                .lessThanOrEqualTo(expectedPartitionValueEntity.get(ExpectedPartitionValueEntity_.partitionValue),
-                    expectedPartitionValueKey.getExpectedPartitionValue()));
+            CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+            CriteriaQuery<ExpectedPartitionValueEntity> criteria = builder.createQuery(ExpectedPartitionValueEntity.class);
+            Root<ExpectedPartitionValueEntity> expectedPartitionValueEntity = criteria.from(ExpectedPartitionValueEntity.class);
+            criteria.select(expectedPartitionValueEntity).where(expectedPartitionValueEntity.get(ExpectedPartitionValueEntity_.id)
+                .in(ids.subList(fromIndex, Math.min(fromIndex + EXPECTED_PARTITION_VALUE_LOAD_CHUNK_SIZE, ids.size()))));
 
-            // Order by expected partition value in descending order.
-            orderByExpectedPartitionValue = builder.desc(expectedPartitionValueEntity.get(ExpectedPartitionValueEntity_.partitionValue));
+            for (ExpectedPartitionValueEntity entity : entityManager.createQuery(criteria).getResultList())
+            {
+                expectedPartitionValueEntityMap.put(entity.getId(), entity);
+            }
         }
 
-        // Add the clauses for the query and execute the query.
-        if (offset == 0)
+        List<ExpectedPartitionValueEntity> expectedPartitionValueEntities = new ArrayList<>();
+        for (Integer id : ids)
         {
-            criteria.select(expectedPartitionValueEntity).where(whereRestriction);
-
-            return executeSingleResultQuery(criteria, String
-                .format("Found more than one expected partition value with parameters {partitionKeyGroupName=\"%s\", expectedPartitionValue=\"%s\"}.",
-                    expectedPartitionValueKey.getPartitionKeyGroupName(), expectedPartitionValueKey.getExpectedPartitionValue()));
+            expectedPartitionValueEntities.add(expectedPartitionValueEntityMap.get(id));
         }
-        else
-        {
-            criteria.select(expectedPartitionValueEntity).where(whereRestriction).orderBy(orderByExpectedPartitionValue);
-
-            List<ExpectedPartitionValueEntity> resultList =
-                entityManager.createQuery(criteria).setFirstResult(Math.abs(offset)).setMaxResults(1).getResultList();
 
-            return resultList.size() > 0 ? resultList.get(0) : null;
-        }
+        return expectedPartitionValueEntities;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public List<ExpectedPartitionValueEntity> getExpectedPartitionValuesByGroupAndRange(String partitionKeyGroupName, PartitionValueRange partitionValueRange)
+    public int deleteExpectedPartitionValuesByGroupAndRange(PartitionKeyGroupEntity partitionKeyGroupEntity, PartitionValueRange partitionValueRange)
     {
-        // Create the criteria builder and the criteria.
+        // Create the criteria builder and the delete criteria.
         CriteriaBuilder builder = entityManager.getCriteriaBuilder();
-        CriteriaQuery<ExpectedPartitionValueEntity> criteria = builder.createQuery(ExpectedPartitionValueEntity.class);
+        CriteriaDelete<ExpectedPartitionValueEntity> criteria = builder.createCriteriaDelete(ExpectedPartitionValueEntity.class);
 
         // The criteria root is the expected partition value.
         Root<ExpectedPartitionValueEntity> expectedPartitionValueEntity = criteria.from(ExpectedPartitionValueEntity.class);
 
-        // Join to the other tables we can filter on.
-        Join<ExpectedPartitionValueEntity, PartitionKeyGroupEntity> partitionKeyGroupEntity =
-            expectedPartitionValueEntity.join(ExpectedPartitionValueEntity_.partitionKeyGroup);
+        // Restrict the delete to the values of the group that fall within the range.
+        Predicate whereRestriction = builder.and(builder.equal(expectedPartitionValueEntity.get(ExpectedPartitionValueEntity_.partitionKeyGroup),
+            partitionKeyGroupEntity), builder.between(expectedPartitionValueEntity.get(ExpectedPartitionValueEntity_.partitionValue),
+            partitionValueRange.getStartPartitionValue(), partitionValueRange.getEndPartitionValue()));
 
-        // Add a restriction to filter case insensitive groups that match the user specified group.
-        Predicate whereRestriction =
-            builder.equal(builder.upper(partitionKeyGroupEntity.get(PartitionKeyGroupEntity_.partitionKeyGroupName)), partitionKeyGroupName.toUpperCase());
+        // Flush any pending changes so they are not lost or applied after the delete.
+        entityManager.flush();
 
-        // If we have a possible partition value range, we need to add additional restrictions.
-        if (partitionValueRange != null)
+        return entityManager.createQuery(criteria.where(whereRestriction)).executeUpdate();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void lockPartitionKeyGroup(PartitionKeyGroupEntity partitionKeyGroupEntity)
+    {
+        // Lock the group row and increment its version right away, so concurrent changes to the group are serialized.
+        entityManager.lock(partitionKeyGroupEntity, LockModeType.PESSIMISTIC_FORCE_INCREMENT);
+
+        // Remember the group for the rest of the transaction, so indexes built from its uncommitted values don't get cached.
+        getLockedPartitionKeyGroupNames().add(partitionKeyGroupEntity.getPartitionKeyGroupName().toUpperCase());
+    }
+
+    /**
+     * Gets the ordinal index of the expected partition values of a partition key group. A cached index is reused as long as it was built from the current
+     * creation time and version of the group, which is a single primary key table lookup, so changes committed by any node are picked up. Otherwise, the index
+     * is rebuilt from the ids and values of the group. An index built by a transaction that locked the group reflects uncommitted values, so it is never
+     * cached.
+     *
+     * @param partitionKeyGroupName the partition key group name (case-insensitive)
+     *
+     * @return the expected partition value index
+     */
+    private ExpectedPartitionValueIndex getExpectedPartitionValueIndex(String partitionKeyGroupName)
+    {
+        String partitionKeyGroupNameKey = partitionKeyGroupName.toUpperCase();
+
+        // Create the criteria builder and a tuple style criteria query.
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> versionCriteria = builder.createTupleQuery();
+
+        // The criteria root is the partition key group.
+        Root<PartitionKeyGroupEntity> partitionKeyGroupEntity = versionCriteria.from(PartitionKeyGroupEntity.class);
+
+        // Select the exact name, the creation time and the version of the group. The columns are selected rather than the entity, so the values are the
+        // ones in the database even when the entity is already in the persistence context.
+        Path<String> partitionKeyGroupNameColumn = partitionKeyGroupEntity.get(PartitionKeyGroupEntity_.partitionKeyGroupName);
+        Path<Timestamp> createdOnColumn = partitionKeyGroupEntity.get(PartitionKeyGroupEntity_.createdOn);
+        Path<Long> versionColumn = partitionKeyGroupEntity.get(PartitionKeyGroupEntity_.version);
+        versionCriteria.multiselect(partitionKeyGroupNameColumn, createdOnColumn, versionColumn)
+            .where(builder.equal(builder.upper(partitionKeyGroupNameColumn), partitionKeyGroupNameKey));
+        List<Tuple> versionTuples = entityManager.createQuery(versionCriteria).getResultList();
+
+        // A group that doesn't exist has no values.
+        if (versionTuples.isEmpty())
         {
-            // Add a restriction to filter values that are >= the user specified range start value.
-            if (StringUtils.isNotBlank(partitionValueRange.getStartPartitionValue()))
+            return new ExpectedPartitionValueIndex(new Date(0), 0, new String[0], new Integer[0]);
+        }
+
+        Tuple versionTuple = versionTuples.get(0);
+        Timestamp createdOn = versionTuple.get(createdOnColumn);
+        long version = versionTuple.get(versionColumn);
+        boolean lockedByTransaction = TransactionSynchronizationManager.hasResource(LOCKED_PARTITION_KEY_GROUPS_RESOURCE_KEY) &&
+            getLockedPartitionKeyGroupNames().contains(partitionKeyGroupNameKey);
+
+        ExpectedPartitionValueIndex expectedPartitionValueIndex = lockedByTransaction ? null : expectedPartitionValueIndexes.get(partitionKeyGroupNameKey);
+        if (expectedPartitionValueIndex == null || !expectedPartitionValueIndex.isCurrent(createdOn, version))
+        {
+            // Select only the ids and values of the group. The values are restricted by the exact group name, so the group index of the table gets used.
+            CriteriaQuery<Tuple> indexCriteria = builder.createTupleQuery();
+            Root<ExpectedPartitionValueEntity> expectedPartitionValueEntity = indexCriteria.from(ExpectedPartitionValueEntity.class);
+            Path<Integer> idColumn = expectedPartitionValueEntity.get(ExpectedPartitionValueEntity_.id);
+            Path<String> partitionValueColumn = expectedPartitionValueEntity.get(ExpectedPartitionValueEntity_.partitionValue);
+            indexCriteria.multiselect(idColumn, partitionValueColumn).where(builder
+                .equal(expectedPartitionValueEntity.get(ExpectedPartitionValueEntity_.partitionKeyGroup).get(PartitionKeyGroupEntity_.partitionKeyGroupName),
+                    versionTuple.get(partitionKeyGroupNameColumn)));
+
+            // Sort the values in memory so the ordering is the same as the one used by the binary search regardless of the database collation.
+            Map<String, Integer> idsByPartitionValue = new TreeMap<>();
+            for (Tuple tuple : entityManager.createQuery(indexCriteria).getResultList())
             {
-                whereRestriction = builder.and(whereRestriction, builder
-                    .greaterThanOrEqualTo(expectedPartitionValueEntity.get(ExpectedPartitionValueEntity_.partitionValue),
-                        partitionValueRange.getStartPartitionValue()));
+                idsByPartitionValue.put(tuple.get(partitionValueColumn), tuple.get(idColumn));
             }
 
-            // Add a restriction to filter values that are <= the user specified range end value.
-            if (StringUtils.isNotBlank(partitionValueRange.getEndPartitionValue()))
+            expectedPartitionValueIndex = new ExpectedPartitionValueIndex(createdOn, version,
+                idsByPartitionValue.keySet().toArray(new String[idsByPartitionValue.size()]),
+                idsByPartitionValue.values().toArray(new Integer[idsByPartitionValue.size()]));
+
+            if (!lockedByTransaction)
             {
-                whereRestriction = builder.and(whereRestriction, builder
-                    .lessThanOrEqualTo(expectedPartitionValueEntity.get(ExpectedPartitionValueEntity_.partitionValue),
-                        partitionValueRange.getEndPartitionValue()));
+                expectedPartitionValueIndexes.put(partitionKeyGroupNameKey, expectedPartitionValueIndex);
             }
         }
 
-        // Order the results by partition value.
-        Order orderByValue = builder.asc(expectedPartitionValueEntity.get(ExpectedPartitionValueEntity_.partitionValue));
+        return expectedPartitionValueIndex;
+    }
 
-        // Add the clauses for the query.
-        criteria.select(expectedPartitionValueEntity).where(whereRestriction).orderBy(orderByValue);
+    /**
+     * Gets the upper case names of the partition key groups locked by the current transaction. The set is bound to the transaction on first use and unbound
+     * when the transaction completes.
+     *
+     * @return the names of the partition key groups locked by the current transaction
+     */
+    @SuppressWarnings("unchecked")
+    private Set<String> getLockedPartitionKeyGroupNames()
+    {
+        Set<String> lockedPartitionKeyGroupNames = (Set<String>) TransactionSynchronizationManager.getResource(LOCKED_PARTITION_KEY_GROUPS_RESOURCE_KEY);
+        if (lockedPartitionKeyGroupNames == null)
+        {
+            final Set<String> newLockedPartitionKeyGroupNames = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(LOCKED_PARTITION_KEY_GROUPS_RESOURCE_KEY, newLockedPartitionKeyGroupNames);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter()
+            {
+                @Override
+                public void suspend()
+                {
+                    TransactionSynchronizationManager.unbindResource(LOCKED_PARTITION_KEY_GROUPS_RESOURCE_KEY);
+                }
 
-        // Execute the query and return the results.
-        return entityManager.createQuery(criteria).getResultList();
+                @Override
+                public void resume()
+                {
+                    TransactionSynchronizationManager.bindResource(LOCKED_PARTITION_KEY_GROUPS_RESOURCE_KEY, newLockedPartitionKeyGroupNames);
+                }
+
+                @Override
+                public void afterCompletion(int status)
+                {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(LOCKED_PARTITION_KEY_GROUPS_RESOURCE_KEY);
+                }
+            });
+            lockedPartitionKeyGroupNames = newLockedPartitionKeyGroupNames;
+        }
+
+        return lockedPartitionKeyGroupNames;
     }
 
     // CustomDdl
@@ -2086,51 +2194,39 @@ public class DmDaoImpl extends BaseJpaDaoImpl implements DmDao
     @Override
     public StorageDailyUploadStats getStorageUploadStats(StorageAlternateKeyDto storageAlternateKey, DateRangeDto dateRange)
     {
-        // TODO: Remove Oracle specific code once we migrate away from Oracle.
-        switch (Database.valueOf(configurationHelper.getProperty(ConfigurationValue.DATABASE_TYPE)))
-        {
-            case ORACLE:
-                return getStorageUploadStatsOracle(storageAlternateKey, dateRange);
-            default:
-                return getStorageUploadStatsDatabaseAgnostic(storageAlternateKey, dateRange);
-        }
-    }
-
-    /**
-     * TODO: Make this method the main body of getStorageUploadStats once we migrate away from Oracle getStorageUploadStats TODO:    that leverages the storage
-     * file view to query. This method is meant to be database agnostic.
-     *
-     * @param storageAlternateKey the storage alternate key
-     * @param dateRange the date range
-     *
-     * @return the upload statistics
-     */
-    private StorageDailyUploadStats getStorageUploadStatsDatabaseAgnostic(StorageAlternateKeyDto storageAlternateKey, DateRangeDto dateRange)
-    {
+        // Create the criteria builder and the criteria.
         CriteriaBuilder builder = entityManager.getCriteriaBuilder();
         CriteriaQuery<Tuple> criteria = builder.createTupleQuery();
 
-        Root<StorageFileViewEntity> storageFileViewEntity = criteria.from(StorageFileViewEntity.class);
+        // The criteria root is the storage daily upload statistics rollup.
+        Root<StorageDailyUploadStatEntity> storageDailyUploadStatEntity = criteria.from(StorageDailyUploadStatEntity.class);
 
-        Path<Date> createdDate = storageFileViewEntity.get(StorageFileViewEntity_.createdDate);
+        // Join to the other tables we can filter on.
+        Join<StorageDailyUploadStatEntity, StorageEntity> storageEntity = storageDailyUploadStatEntity.join(StorageDailyUploadStatEntity_.storage);
 
-        Expression<Long> totalFilesExpression = builder.count(storageFileViewEntity.get(StorageFileViewEntity_.storageFileId));
-        Expression<Long> totalBytesExpression = builder.sum(storageFileViewEntity.get(StorageFileViewEntity_.fileSizeInBytes));
+        // Create paths and expressions.
+        Path<Date> uploadDate = storageDailyUploadStatEntity.get(StorageDailyUploadStatEntity_.uploadDate);
+        Expression<Long> totalFilesExpression = builder.sum(storageDailyUploadStatEntity.get(StorageDailyUploadStatEntity_.totalFiles));
+        Expression<Long> totalBytesExpression = builder.sum(storageDailyUploadStatEntity.get(StorageDailyUploadStatEntity_.totalBytes));
 
+        // Create the standard restrictions (i.e. the standard where clauses).
         Predicate storageNameRestriction =
-            builder.equal(builder.upper(storageFileViewEntity.get(StorageFileViewEntity_.storageCode)), storageAlternateKey.getStorageName().toUpperCase());
-        Predicate createDateRestriction =
-            builder.and(builder.greaterThanOrEqualTo(createdDate, dateRange.getLowerDate()), builder.lessThanOrEqualTo(createdDate, dateRange.getUpperDate()));
+            builder.equal(builder.upper(storageEntity.get(StorageEntity_.name)), storageAlternateKey.getStorageName().toUpperCase());
+        Predicate uploadDateRestriction = builder.between(uploadDate, dateRange.getLowerDate(), dateRange.getUpperDate());
 
-        criteria.multiselect(createdDate, totalFilesExpression, totalBytesExpression);
-        criteria.where(builder.and(storageNameRestriction, createDateRestriction));
+        criteria.multiselect(uploadDate, totalFilesExpression, totalBytesExpression);
+        criteria.where(builder.and(storageNameRestriction, uploadDateRestriction));
 
+        // Create the group by clause.
         List<Expression<?>> grouping = new ArrayList<>();
-        grouping.add(createdDate);
-
+        grouping.add(uploadDate);
         criteria.groupBy(grouping);
 
-        criteria.orderBy(builder.asc(createdDate));
+        // Leave out the statistics the rows subtracting deleted storage files fully cancel out.
+        criteria.having(builder.notEqual(totalFilesExpression, 0L));
+
+        // Create the order by clause.
+        criteria.orderBy(builder.asc(uploadDate));
 
         // Retrieve and return the storage upload statistics.
         List<Tuple> tuples = entityManager.createQuery(criteria).getResultList();
@@ -2140,7 +2236,7 @@ public class DmDaoImpl extends BaseJpaDaoImpl implements DmDao
         {
             StorageDailyUploadStat uploadStat = new StorageDailyUploadStat();
             uploadStats.getStorageDailyUploadStats().add(uploadStat);
-            uploadStat.setUploadDate(DmDateUtils.getXMLGregorianCalendarValue(tuple.get(createdDate)));
+            uploadStat.setUploadDate(DmDateUtils.getXMLGregorianCalendarValue(tuple.get(uploadDate)));
             uploadStat.setTotalFiles(tuple.get(totalFilesExpression));
             uploadStat.setTotalBytes(tuple.get(totalBytesExpression));
         }
@@ -2149,58 +2245,69 @@ public class DmDaoImpl extends BaseJpaDaoImpl implements DmDao
     }
 
     /**
-     * TODO: Remove this method once we migrate away from Oracle getStorageUploadStats that uses Oracle specific 'trunc' function.
-     *
-     * @param storageAlternateKey the storage alternate key
-     * @param dateRange the date range
-     *
-     * @return the upload statistics
+     * {@inheritDoc}
      */
-    private StorageDailyUploadStats getStorageUploadStatsOracle(StorageAlternateKeyDto storageAlternateKey, DateRangeDto dateRange)
+    @Override
+    public StorageBusinessObjectDefinitionDailyUploadStats getStorageUploadStatsByBusinessObjectDefinition(StorageAlternateKeyDto storageAlternateKey,
+        DateRangeDto dateRange)
     {
         // Create the criteria builder and the criteria.
         CriteriaBuilder builder = entityManager.getCriteriaBuilder();
         CriteriaQuery<Tuple> criteria = builder.createTupleQuery();
 
-        // The criteria root is the storage file.
-        Root<StorageFileEntity> storageFileEntity = criteria.from(StorageFileEntity.class);
+        // The criteria root is the storage daily upload statistics rollup.
+        Root<StorageDailyUploadStatEntity> storageDailyUploadStatEntity = criteria.from(StorageDailyUploadStatEntity.class);
 
         // Join to the other tables we can filter on.
-        Join<StorageFileEntity, StorageUnitEntity> storageUnitEntity = storageFileEntity.join(StorageFileEntity_.storageUnit);
-        Join<StorageUnitEntity, StorageEntity> storageEntity = storageUnitEntity.join(StorageUnitEntity_.storage);
+        Join<StorageDailyUploadStatEntity, StorageEntity> storageEntity = storageDailyUploadStatEntity.join(StorageDailyUploadStatEntity_.storage);
+        Join<StorageDailyUploadStatEntity, BusinessObjectDefinitionEntity> businessObjectDefinitionEntity =
+            storageDailyUploadStatEntity.join(StorageDailyUploadStatEntity_.businessObjectDefinition);
+        Join<BusinessObjectDefinitionEntity, DataProviderEntity> dataProviderEntity =
+            businessObjectDefinitionEntity.join(BusinessObjectDefinitionEntity_.dataProvider);
+        Join<BusinessObjectDefinitionEntity, NamespaceEntity> namespaceEntity = businessObjectDefinitionEntity.join(BusinessObjectDefinitionEntity_.namespace);
 
-        // Create paths.
-        Expression<Date> truncCreatedOnDateExpression = builder.function("trunc", Date.class, storageFileEntity.get(StorageFileEntity_.createdOn));
-        Expression<Long> totalFilesExpression = builder.count(storageFileEntity.get(StorageFileEntity_.id));
-        Expression<Long> totalBytesExpression = builder.sum(storageFileEntity.get(StorageFileEntity_.fileSizeBytes));
+        // Create paths and expressions.
+        Path<Date> uploadDate = storageDailyUploadStatEntity.get(StorageDailyUploadStatEntity_.uploadDate);
+        Path<String> namespacePath = namespaceEntity.get(NamespaceEntity_.code);
+        Path<String> dataProviderNamePath = dataProviderEntity.get(DataProviderEntity_.name);
+        Path<String> businessObjectDefinitionNamePath = businessObjectDefinitionEntity.get(BusinessObjectDefinitionEntity_.name);
+        Expression<Long> totalFilesExpression = builder.sum(storageDailyUploadStatEntity.get(StorageDailyUploadStatEntity_.totalFiles));
+        Expression<Long> totalBytesExpression = builder.sum(storageDailyUploadStatEntity.get(StorageDailyUploadStatEntity_.totalBytes));
 
         // Create the standard restrictions (i.e. the standard where clauses).
         Predicate storageNameRestriction =
             builder.equal(builder.upper(storageEntity.get(StorageEntity_.name)), storageAlternateKey.getStorageName().toUpperCase());
-        Predicate createDateRestriction = builder.and(builder.greaterThanOrEqualTo(truncCreatedOnDateExpression, dateRange.getLowerDate()),
-            builder.lessThanOrEqualTo(truncCreatedOnDateExpression, dateRange.getUpperDate()));
+        Predicate uploadDateRestriction = builder.between(uploadDate, dateRange.getLowerDate(), dateRange.getUpperDate());
 
-        criteria.multiselect(truncCreatedOnDateExpression, totalFilesExpression, totalBytesExpression);
-        criteria.where(builder.and(storageNameRestriction, createDateRestriction));
+        criteria.multiselect(uploadDate, namespacePath, dataProviderNamePath, businessObjectDefinitionNamePath, totalFilesExpression, totalBytesExpression);
+        criteria.where(builder.and(storageNameRestriction, uploadDateRestriction));
 
         // Create the group by clause.
         List<Expression<?>> grouping = new ArrayList<>();
-
-        grouping.add(truncCreatedOnDateExpression);
+        grouping.add(uploadDate);
+        grouping.add(namespacePath);
+        grouping.add(dataProviderNamePath);
+        grouping.add(businessObjectDefinitionNamePath);
         criteria.groupBy(grouping);
 
+        // Leave out the statistics the rows subtracting deleted storage files fully cancel out.
+        criteria.having(builder.notEqual(totalFilesExpression, 0L));
+
         // Create the order by clause.
-        criteria.orderBy(builder.asc(truncCreatedOnDateExpression));
+        criteria.orderBy(builder.asc(uploadDate), builder.asc(namespacePath), builder.asc(dataProviderNamePath), builder.asc(businessObjectDefinitionNamePath));
 
         // Retrieve and return the storage upload statistics.
         List<Tuple> tuples = entityManager.createQuery(criteria).getResultList();
-        StorageDailyUploadStats uploadStats = new StorageDailyUploadStats();
+        StorageBusinessObjectDefinitionDailyUploadStats uploadStats = new StorageBusinessObjectDefinitionDailyUploadStats();
 
         for (Tuple tuple : tuples)
         {
-            StorageDailyUploadStat uploadStat = new StorageDailyUploadStat();
-            uploadStats.getStorageDailyUploadStats().add(uploadStat);
-            uploadStat.setUploadDate(DmDateUtils.getXMLGregorianCalendarValue(tuple.get(truncCreatedOnDateExpression)));
+            StorageBusinessObjectDefinitionDailyUploadStat uploadStat = new StorageBusinessObjectDefinitionDailyUploadStat();
+            uploadStats.getStorageBusinessObjectDefinitionDailyUploadStats().add(uploadStat);
+            uploadStat.setUploadDate(DmDateUtils.getXMLGregorianCalendarValue(tuple.get(uploadDate)));
+            uploadStat.setNamespace(tuple.get(namespacePath));
+            uploadStat.setDataProviderName(tuple.get(dataProviderNamePath));
+            uploadStat.setBusinessObjectDefinitionName(tuple.get(businessObjectDefinitionNamePath));
             uploadStat.setTotalFiles(tuple.get(totalFilesExpression));
             uploadStat.setTotalBytes(tuple.get(totalBytesExpression));
         }
@@ -2212,159 +2319,244 @@ public class DmDaoImpl extends BaseJpaDaoImpl implements DmDao
      * {@inheritDoc}
      */
     @Override
-    public StorageBusinessObjectDefinitionDailyUploadStats getStorageUploadStatsByBusinessObjectDefinition(StorageAlternateKeyDto storageAlternateKey,
-        DateRangeDto dateRange)
-    {
-        // TODO: Remove Oracle specific code once we migrate away from Oracle.
-        switch (Database.valueOf(configurationHelper.getProperty(ConfigurationValue.DATABASE_TYPE)))
-        {
-            case ORACLE:
-                return getStorageUploadStatsByBusinessObjectDefinitionOracle(storageAlternateKey, dateRange);
-            default:
-                return getStorageUploadStatsByBusinessObjectDefinitionDatabaseAgnostic(storageAlternateKey, dateRange);
-        }
-    }
-
-    /**
-     * TODO: Make this method the main body of getStorageUploadStatsByBusinessObjectDefinition once we migrate away from Oracle TODO:
-     * getStorageUploadStatsByBusinessObjectDefinition that uses storage file view. This method is meant to be database agnostic.
-     *
-     * @param storageAlternateKey the storage alternate key
-     * @param dateRange the date range
-     *
-     * @return the upload statistics
-     */
-    private StorageBusinessObjectDefinitionDailyUploadStats getStorageUploadStatsByBusinessObjectDefinitionDatabaseAgnostic(
-        StorageAlternateKeyDto storageAlternateKey, DateRangeDto dateRange)
+    public List<StorageDailyUploadStatEntity> getStorageDailyUploadStatsFromStorageFiles(String storageName, Date uploadDate)
     {
+        // Create the criteria builder and the criteria.
         CriteriaBuilder builder = entityManager.getCriteriaBuilder();
         CriteriaQuery<Tuple> criteria = builder.createTupleQuery();
 
-        Root<StorageFileViewEntity> storageFileViewEntity = criteria.from(StorageFileViewEntity.class);
+        // The criteria root is the storage file.
+        Root<StorageFileEntity> storageFileEntity = criteria.from(StorageFileEntity.class);
+
+        // Join to the other tables we can filter on.
+        Join<StorageFileEntity, StorageUnitEntity> storageUnitEntity = storageFileEntity.join(StorageFileEntity_.storageUnit);
+        Join<StorageUnitEntity, StorageEntity> storageEntity = storageUnitEntity.join(StorageUnitEntity_.storage);
+        Join<StorageUnitEntity, BusinessObjectDataEntity> businessObjectDataEntity = storageUnitEntity.join(StorageUnitEntity_.businessObjectData);
+        Join<BusinessObjectDataEntity, BusinessObjectFormatEntity> businessObjectFormatEntity =
+            businessObjectDataEntity.join(BusinessObjectDataEntity_.businessObjectFormat);
 
-        Path<String> namespaceCode = storageFileViewEntity.get(StorageFileViewEntity_.namespaceCode);
-        Path<String> dataProviderCode = storageFileViewEntity.get(StorageFileViewEntity_.dataProviderCode);
-        Path<String> businessObjectDefinitionName = storageFileViewEntity.get(StorageFileViewEntity_.businessObjectDefinitionName);
-        Path<Date> createdDate = storageFileViewEntity.get(StorageFileViewEntity_.createdDate);
-        Expression<Long> totalFilesExpression = builder.count(storageFileViewEntity.get(StorageFileViewEntity_.storageFileId));
-        Expression<Long> totalBytesExpression = builder.sum(storageFileViewEntity.get(StorageFileViewEntity_.fileSizeInBytes));
+        // Create paths and expressions.
+        Path<String> storageNamePath = storageEntity.get(StorageEntity_.name);
+        Path<Integer> businessObjectDefinitionIdPath = businessObjectFormatEntity.get(BusinessObjectFormatEntity_.businessObjectDefinition).get(
+            BusinessObjectDefinitionEntity_.id);
+        Path<Timestamp> createdOnPath = storageFileEntity.get(StorageFileEntity_.createdOn);
+        Expression<Long> totalFilesExpression = builder.count(storageFileEntity.get(StorageFileEntity_.id));
+        Expression<Long> totalBytesExpression = builder.sum(builder.coalesce(storageFileEntity.get(StorageFileEntity_.fileSizeBytes), 0L));
 
-        Predicate storageNameRestriction =
-            builder.equal(builder.upper(storageFileViewEntity.get(StorageFileViewEntity_.storageCode)), storageAlternateKey.getStorageName().toUpperCase());
-        Predicate createDateRestriction =
-            builder.and(builder.greaterThanOrEqualTo(createdDate, dateRange.getLowerDate()), builder.lessThanOrEqualTo(createdDate, dateRange.getUpperDate()));
+        // Select the storage files created on the upload date. A range is used instead of truncating the creation timestamp so the query stays database
+        // agnostic and can use an index on the creation timestamp.
+        Predicate queryRestriction = builder.and(builder.greaterThanOrEqualTo(createdOnPath, new Timestamp(uploadDate.getTime())),
+            builder.lessThan(createdOnPath, new Timestamp(DmDateUtils.addDays(uploadDate, 1).getTime())));
+        if (storageName != null)
+        {
+            queryRestriction = builder.and(queryRestriction, builder.equal(builder.upper(storageNamePath), storageName.toUpperCase()));
+        }
 
-        criteria.multiselect(createdDate, namespaceCode, dataProviderCode, businessObjectDefinitionName, totalFilesExpression, totalBytesExpression);
-        criteria.where(builder.and(storageNameRestriction, createDateRestriction));
+        criteria.multiselect(storageNamePath, businessObjectDefinitionIdPath, totalFilesExpression, totalBytesExpression);
+        criteria.where(queryRestriction);
 
         // Create the group by clause.
         List<Expression<?>> grouping = new ArrayList<>();
-        grouping.add(createdDate);
-        grouping.add(namespaceCode);
-        grouping.add(dataProviderCode);
-        grouping.add(businessObjectDefinitionName);
+        grouping.add(storageNamePath);
+        grouping.add(businessObjectDefinitionIdPath);
         criteria.groupBy(grouping);
 
-        // Create the order by clause.
-        criteria.orderBy(builder.asc(createdDate), builder.asc(namespaceCode), builder.asc(dataProviderCode), builder.asc(businessObjectDefinitionName));
-
-        // Retrieve and return the storage upload statistics.
         List<Tuple> tuples = entityManager.createQuery(criteria).getResultList();
-        StorageBusinessObjectDefinitionDailyUploadStats uploadStats = new StorageBusinessObjectDefinitionDailyUploadStats();
 
+        // Load the storages and the business object definitions the statistics refer to with a few queries instead of one lookup per statistics row.
+        Set<String> storageNames = new HashSet<>();
+        Set<Integer> businessObjectDefinitionIds = new HashSet<>();
         for (Tuple tuple : tuples)
         {
-            StorageBusinessObjectDefinitionDailyUploadStat uploadStat = new StorageBusinessObjectDefinitionDailyUploadStat();
-            uploadStats.getStorageBusinessObjectDefinitionDailyUploadStats().add(uploadStat);
-            uploadStat.setUploadDate(DmDateUtils.getXMLGregorianCalendarValue(tuple.get(createdDate)));
-            uploadStat.setNamespace(tuple.get(namespaceCode));
-            uploadStat.setDataProviderName(tuple.get(dataProviderCode));
-            uploadStat.setBusinessObjectDefinitionName(tuple.get(businessObjectDefinitionName));
-            uploadStat.setTotalFiles(tuple.get(totalFilesExpression));
-            uploadStat.setTotalBytes(tuple.get(totalBytesExpression));
+            storageNames.add(tuple.get(storageNamePath));
+            businessObjectDefinitionIds.add(tuple.get(businessObjectDefinitionIdPath));
         }
+        Map<String, StorageEntity> storageEntityMap = getStorageEntitiesByName(storageNames);
+        Map<Integer, BusinessObjectDefinitionEntity> businessObjectDefinitionEntityMap = getBusinessObjectDefinitionEntitiesById(businessObjectDefinitionIds);
 
-        return uploadStats;
+        // Build the upload statistics from the query results.
+        List<StorageDailyUploadStatEntity> storageDailyUploadStatEntities = new ArrayList<>();
+        for (Tuple tuple : tuples)
+        {
+            StorageDailyUploadStatEntity storageDailyUploadStatEntity = new StorageDailyUploadStatEntity();
+            storageDailyUploadStatEntities.add(storageDailyUploadStatEntity);
+            storageDailyUploadStatEntity.setStorage(storageEntityMap.get(tuple.get(storageNamePath)));
+            storageDailyUploadStatEntity.setBusinessObjectDefinition(businessObjectDefinitionEntityMap.get(tuple.get(businessObjectDefinitionIdPath)));
+            storageDailyUploadStatEntity.setUploadDate(uploadDate);
+            storageDailyUploadStatEntity.setTotalFiles(tuple.get(totalFilesExpression));
+            storageDailyUploadStatEntity.setTotalBytes(tuple.get(totalBytesExpression));
+        }
+
+        return storageDailyUploadStatEntities;
     }
 
     /**
-     * TODO: Remove this method once we migrate away from Oracle getStorageUploadStatsByBusinessObjectDefinition that uses Oracle specific 'trunc' function.
+     * Gets the storage entities with the specified names.
      *
-     * @param storageAlternateKey the storage alternate key
-     * @param dateRange the date range
+     * @param storageNames the storage names
      *
-     * @return the upload statistics
+     * @return the storage entities by their names
      */
-    private StorageBusinessObjectDefinitionDailyUploadStats getStorageUploadStatsByBusinessObjectDefinitionOracle(StorageAlternateKeyDto storageAlternateKey,
-        DateRangeDto dateRange)
+    private Map<String, StorageEntity> getStorageEntitiesByName(Set<String> storageNames)
+    {
+        Map<String, StorageEntity> storageEntityMap = new HashMap<>();
+        if (!storageNames.isEmpty())
+        {
+            // There are only a few storages, so they are loaded by a single query.
+            CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+            CriteriaQuery<StorageEntity> criteria = builder.createQuery(StorageEntity.class);
+            Root<StorageEntity> storageEntity = criteria.from(StorageEntity.class);
+            criteria.select(storageEntity).where(storageEntity.get(StorageEntity_.name).in(storageNames));
+
+            for (StorageEntity entity : entityManager.createQuery(criteria).getResultList())
+            {
+                storageEntityMap.put(entity.getName(), entity);
+            }
+        }
+
+        return storageEntityMap;
+    }
+
+    /**
+     * Gets the business object definition entities with the specified ids along with their namespaces and data providers.
+     *
+     * @param businessObjectDefinitionIds the business object definition ids
+     *
+     * @return the business object definition entities by their ids
+     */
+    private Map<Integer, BusinessObjectDefinitionEntity> getBusinessObjectDefinitionEntitiesById(Set<Integer> businessObjectDefinitionIds)
+    {
+        // Load the entities in chunks, fetching the namespace and the data provider the upload statistics are reported by.
+        List<Integer> ids = new ArrayList<>(businessObjectDefinitionIds);
+        Map<Integer, BusinessObjectDefinitionEntity> businessObjectDefinitionEntityMap = new HashMap<>();
+        for (int fromIndex = 0; fromIndex < ids.size(); fromIndex += STORAGE_DAILY_UPLOAD_STAT_LOAD_CHUNK_SIZE)
+        {
+            CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+            CriteriaQuery<BusinessObjectDefinitionEntity> criteria = builder.createQuery(BusinessObjectDefinitionEntity.class);
+            Root<BusinessObjectDefinitionEntity> businessObjectDefinitionEntity = criteria.from(BusinessObjectDefinitionEntity.class);
+            businessObjectDefinitionEntity.fetch(BusinessObjectDefinitionEntity_.namespace);
+            businessObjectDefinitionEntity.fetch(BusinessObjectDefinitionEntity_.dataProvider);
+            criteria.select(businessObjectDefinitionEntity).where(businessObjectDefinitionEntity.get(BusinessObjectDefinitionEntity_.id)
+                .in(ids.subList(fromIndex, Math.min(fromIndex + STORAGE_DAILY_UPLOAD_STAT_LOAD_CHUNK_SIZE, ids.size()))));
+
+            for (BusinessObjectDefinitionEntity entity : entityManager.createQuery(criteria).getResultList())
+            {
+                businessObjectDefinitionEntityMap.put(entity.getId(), entity);
+            }
+        }
+
+        return businessObjectDefinitionEntityMap;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Date getStorageDailyUploadStatsMinUploadDate(StorageEntity storageEntity)
     {
         // Create the criteria builder and the criteria.
         CriteriaBuilder builder = entityManager.getCriteriaBuilder();
-        CriteriaQuery<Tuple> criteria = builder.createTupleQuery();
+        CriteriaQuery<Date> criteria = builder.createQuery(Date.class);
 
-        // The criteria root is the storage file.
-        Root<StorageFileEntity> storageFileEntity = criteria.from(StorageFileEntity.class);
+        // The criteria root is the storage daily upload statistics rollup.
+        Root<StorageDailyUploadStatEntity> storageDailyUploadStatEntity = criteria.from(StorageDailyUploadStatEntity.class);
 
-        // Join to the other tables we can filter on.
-        Join<StorageFileEntity, StorageUnitEntity> storageUnitEntity = storageFileEntity.join(StorageFileEntity_.storageUnit);
-        Join<StorageUnitEntity, StorageEntity> storageEntity = storageUnitEntity.join(StorageUnitEntity_.storage);
-        Join<StorageUnitEntity, BusinessObjectDataEntity> businessObjectDataEntity = storageUnitEntity.join(StorageUnitEntity_.businessObjectData);
-        Join<BusinessObjectDataEntity, BusinessObjectFormatEntity> businessObjectFormatEntity =
-            businessObjectDataEntity.join(BusinessObjectDataEntity_.businessObjectFormat);
-        Join<BusinessObjectFormatEntity, BusinessObjectDefinitionEntity> businessObjectDefinitionEntity =
-            businessObjectFormatEntity.join(BusinessObjectFormatEntity_.businessObjectDefinition);
-        Join<BusinessObjectDefinitionEntity, DataProviderEntity> dataProviderEntity =
-            businessObjectDefinitionEntity.join(BusinessObjectDefinitionEntity_.dataProvider);
-        Join<BusinessObjectDefinitionEntity, NamespaceEntity> namespaceEntity = businessObjectDefinitionEntity.join(BusinessObjectDefinitionEntity_.namespace);
+        // The storage and the upload date lead a rollup index, so this is an index lookup.
+        criteria.select(builder.least(storageDailyUploadStatEntity.get(StorageDailyUploadStatEntity_.uploadDate)))
+            .where(builder.equal(storageDailyUploadStatEntity.get(StorageDailyUploadStatEntity_.storage), storageEntity));
 
-        // Create paths and expressions.
-        Path<String> namespacePath = namespaceEntity.get(NamespaceEntity_.code);
-        Path<String> dataProviderNamePath = dataProviderEntity.get(DataProviderEntity_.name);
-        Path<String> businessObjectDefinitionNamePath = businessObjectDefinitionEntity.get(BusinessObjectDefinitionEntity_.name);
-        Expression<Date> truncCreatedOnDateExpression = builder.function("trunc", Date.class, storageFileEntity.get(StorageFileEntity_.createdOn));
-        Expression<Long> totalFilesExpression = builder.count(storageFileEntity.get(StorageFileEntity_.id));
-        Expression<Long> totalBytesExpression = builder.sum(storageFileEntity.get(StorageFileEntity_.fileSizeBytes));
+        return entityManager.createQuery(criteria).getSingleResult();
+    }
 
-        // Create the standard restrictions (i.e. the standard where clauses).
-        Predicate storageNameRestriction =
-            builder.equal(builder.upper(storageEntity.get(StorageEntity_.name)), storageAlternateKey.getStorageName().toUpperCase());
-        Predicate createDateRestriction = builder.and(builder.greaterThanOrEqualTo(truncCreatedOnDateExpression, dateRange.getLowerDate()),
-            builder.lessThanOrEqualTo(truncCreatedOnDateExpression, dateRange.getUpperDate()));
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void lockStorageDailyUploadStats(StorageEntity storageEntity)
+    {
+        entityManager.lock(storageEntity, LockModeType.PESSIMISTIC_READ);
+    }
 
-        criteria.multiselect(truncCreatedOnDateExpression, namespacePath, dataProviderNamePath, businessObjectDefinitionNamePath, totalFilesExpression,
-            totalBytesExpression);
-        criteria.where(builder.and(storageNameRestriction, createDateRestriction));
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void lockAllStorageDailyUploadStats()
+    {
+        // Create the criteria builder and the criteria.
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<StorageEntity> criteria = builder.createQuery(StorageEntity.class);
 
-        // Create the group by clause.
-        List<Expression<?>> grouping = new ArrayList<>();
+        // The criteria root is the storage.
+        Root<StorageEntity> storageEntity = criteria.from(StorageEntity.class);
 
-        grouping.add(truncCreatedOnDateExpression);
-        grouping.add(namespacePath);
-        grouping.add(dataProviderNamePath);
-        grouping.add(businessObjectDefinitionNamePath);
-        criteria.groupBy(grouping);
+        // Lock the storages in a stable order, so concurrent rebuilds don't deadlock.
+        criteria.select(storageEntity).orderBy(builder.asc(storageEntity.get(StorageEntity_.name)));
 
-        // Create the order by clause.
-        criteria.orderBy(builder.asc(truncCreatedOnDateExpression), builder.asc(namespacePath), builder.asc(dataProviderNamePath),
-            builder.asc(businessObjectDefinitionNamePath));
+        entityManager.createQuery(criteria).setLockMode(LockModeType.PESSIMISTIC_WRITE).getResultList();
+    }
 
-        // Retrieve and return the storage upload statistics.
-        List<Tuple> tuples = entityManager.createQuery(criteria).getResultList();
-        StorageBusinessObjectDefinitionDailyUploadStats uploadStats = new StorageBusinessObjectDefinitionDailyUploadStats();
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int deleteStorageDailyUploadStats(Date uploadDate)
+    {
+        // Create the criteria builder and the delete criteria.
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaDelete<StorageDailyUploadStatEntity> criteria = builder.createCriteriaDelete(StorageDailyUploadStatEntity.class);
 
-        for (Tuple tuple : tuples)
-        {
-            StorageBusinessObjectDefinitionDailyUploadStat uploadStat = new StorageBusinessObjectDefinitionDailyUploadStat();
-            uploadStats.getStorageBusinessObjectDefinitionDailyUploadStats().add(uploadStat);
-            uploadStat.setUploadDate(DmDateUtils.getXMLGregorianCalendarValue(tuple.get(truncCreatedOnDateExpression)));
-            uploadStat.setNamespace(tuple.get(namespacePath));
-            uploadStat.setDataProviderName(tuple.get(dataProviderNamePath));
-            uploadStat.setBusinessObjectDefinitionName(tuple.get(businessObjectDefinitionNamePath));
-            uploadStat.setTotalFiles(tuple.get(totalFilesExpression));
-            uploadStat.setTotalBytes(tuple.get(totalBytesExpression));
-        }
+        // The criteria root is the storage daily upload statistics rollup.
+        Root<StorageDailyUploadStatEntity> storageDailyUploadStatEntity = criteria.from(StorageDailyUploadStatEntity.class);
 
-        return uploadStats;
+        // Flush any pending changes so they are not lost or applied after the delete.
+        entityManager.flush();
+
+        return entityManager
+            .createQuery(criteria.where(builder.equal(storageDailyUploadStatEntity.get(StorageDailyUploadStatEntity_.uploadDate), uploadDate)))
+            .executeUpdate();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int deleteStorageDailyUploadStats(StorageEntity storageEntity)
+    {
+        // Create the criteria builder and the delete criteria.
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaDelete<StorageDailyUploadStatEntity> criteria = builder.createCriteriaDelete(StorageDailyUploadStatEntity.class);
+
+        // The criteria root is the storage daily upload statistics rollup.
+        Root<StorageDailyUploadStatEntity> storageDailyUploadStatEntity = criteria.from(StorageDailyUploadStatEntity.class);
+
+        // Flush any pending changes so they are not lost or applied after the delete.
+        entityManager.flush();
+
+        return entityManager
+            .createQuery(criteria.where(builder.equal(storageDailyUploadStatEntity.get(StorageDailyUploadStatEntity_.storage), storageEntity)))
+            .executeUpdate();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int deleteStorageDailyUploadStats(BusinessObjectDefinitionEntity businessObjectDefinitionEntity)
+    {
+        // Create the criteria builder and the delete criteria.
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaDelete<StorageDailyUploadStatEntity> criteria = builder.createCriteriaDelete(StorageDailyUploadStatEntity.class);
+
+        // The criteria root is the storage daily upload statistics rollup.
+        Root<StorageDailyUploadStatEntity> storageDailyUploadStatEntity = criteria.from(StorageDailyUploadStatEntity.class);
+
+        // Flush any pending changes so they are not lost or applied after the delete.
+        entityManager.flush();
+
+        return entityManager.createQuery(criteria.where(
+            builder.equal(storageDailyUploadStatEntity.get(StorageDailyUploadStatEntity_.businessObjectDefinition), businessObjectDefinitionEntity)))
+            .executeUpdate();
     }
 
     // JobDefinition
@@ -2689,6 +2881,32 @@ public class DmDaoImpl extends BaseJpaDaoImpl implements DmDao
         return resultList.size() > 0 ? resultList.get(0) : null;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * This implementation selects the message with a pessimistic write lock (i.e. "select ... for update"). A query is used rather than a lookup by id, so
+     * the row is read and locked in the database even when the message is already in the persistence context.
+     */
+    @Override
+    public JmsMessageEntity lockJmsMessage(Integer jmsMessageId)
+    {
+        // Create the criteria builder and the criteria.
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<JmsMessageEntity> criteria = builder.createQuery(JmsMessageEntity.class);
+
+        // The criteria root is the jms message.
+        Root<JmsMessageEntity> jmsMessageEntity = criteria.from(JmsMessageEntity.class);
+
+        // Add the select and where clauses.
+        criteria.select(jmsMessageEntity).where(builder.equal(jmsMessageEntity.get(JmsMessageEntity_.id), jmsMessageId));
+
+        // Execute the query with a pessimistic write lock.
+        List<JmsMessageEntity> resultList = entityManager.createQuery(criteria).setLockMode(LockModeType.PESSIMISTIC_WRITE).getResultList();
+
+        // Return the result.
+        return resultList.size() > 0 ? resultList.get(0) : null;
+    }
+
     // OnDemandPricing
 
     /**
@@ -2717,100 +2935,6 @@ public class DmDaoImpl extends BaseJpaDaoImpl implements DmDao
 
     // Other methods
 
-    /**
-     * {@inheritDoc}
-     * <p/>
-     * This method overwrites the base class method by first updating an entity's audit fields if the entity is of type AuditableEntity.
-     */
-    @Override
-    public <T> T save(T entity)
-    {
-        updateAuditFields(entity);
-        return super.save(entity);
-    }
-
-    /**
-     * Updates the audit fields if the entity is of type AuditableEntity.
-     *
-     * @param entity the entity
-     * @param <T> the type of entity
-     */
-    @SuppressWarnings("rawtypes")
-    private <T> void updateAuditFields(T entity)
-    {
-        if (entity instanceof AuditableEntity)
-        {
-            AuditableEntity auditableEntity = (AuditableEntity) entity;
-
-            // Get the currently logged in username.
-            String username = dmDaoSecurityHelper.getCurrentUsername();
-
-            // Always set the updated by field, but only set the created by field when it is null (i.e. this is a new record).
-            if (auditableEntity.getCreatedBy() == null)
-            {
-                auditableEntity.setCreatedBy(username);
-            }
-            auditableEntity.setUpdatedBy(username);
-
-            // Always set the updated on field to the current time, but only update the created on field when it is null (i.e. the first time).
-            Timestamp currentTime = new Timestamp(System.currentTimeMillis());
-            auditableEntity.setUpdatedOn(currentTime);
-            if (auditableEntity.getCreatedOn() == null)
-            {
-                auditableEntity.setCreatedOn(currentTime);
-            }
-        }
-
-        // Try to update children one-to-many cascadable auditable entities.
-        // Note that this assumes that OneToMany annotations are done on the field (as opposed to the method) and that all OneToMany fields are collections.
-        // This approach also assumes that there are loops where children refer back to our entity (i.e. an infinite loop).
-        // If there are other scenarios, we should modify this code to handle them.
-
-        // Loop through all the fields of this entity.
-        for (Field field : entity.getClass().getDeclaredFields())
-        {
-            // Get all the annotations for the field.
-            for (Annotation annotation : field.getDeclaredAnnotations())
-            {
-                // Only look for OneToMany that cascade with "persist" or "merge".
-                if (annotation instanceof OneToMany)
-                {
-                    OneToMany oneToManyAnnotation = (OneToMany) annotation;
-                    List<CascadeType> cascadeTypes = new ArrayList<>(Arrays.asList(oneToManyAnnotation.cascade()));
-                    if ((cascadeTypes.contains(CascadeType.ALL)) || (cascadeTypes.contains(CascadeType.PERSIST)) || cascadeTypes.contains(CascadeType.MERGE))
-                    {
-                        try
-                        {
-                            // Modify the accessibility to true so we can get the field (even if it's private) and get the value of the field for our entity.
-                            field.setAccessible(true);
-                            Object fieldValue = field.get(entity);
-
-                            // If the field is a collection (which OneToMany annotated fields should be), then iterate through the collection and look for
-                            // child auditable entities.
-                            if (fieldValue instanceof Collection)
-                            {
-                                Collection collection = (Collection) fieldValue;
-                                for (Object object : collection)
-                                {
-                                    if (object instanceof AuditableEntity)
-                                    {
-                                        // We found a child auditable entity so recurse to update it's audit fields as well.
-                                        updateAuditFields(object);
-                                    }
-                                }
-                            }
-                        }
-                        catch (IllegalAccessException ex)
-                        {
-                            // Because we're setting accessible to true above, we shouldn't get here.
-                            throw new IllegalStateException("Unable to get field value for field \"" + field.getName() + "\" due to access restriction.", ex);
-                        }
-                    }
-                }
-            }
-        }
-    }
-
     /**
      * Executes query, validates if result list contains no more than record and returns the query result.
      *
@@ -18,6 +18,8 @@ package org.finra.dm.dao.impl;
 import java.util.List;
 import java.util.Properties;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.oozie.client.OozieClient;
@@ -89,6 +91,13 @@ public class OozieDaoImpl implements OozieDao
     @Autowired
     private EmrHelper emrHelper;
 
+    /**
+     * The oozie clients keyed by oozie URL. A client validates the web services version with the oozie server on first use, so reusing one client per
+     * oozie server saves that extra round trip on every call. The map is cleared once it reaches the configured maximum size, so the clients of clusters that
+     * went away don't stay in memory.
+     */
+    private final ConcurrentMap<String, OozieClient> oozieClients = new ConcurrentHashMap<>();
+
     /**
      * {@inheritDoc}
      */
@@ -172,9 +181,18 @@ public class OozieDaoImpl implements OozieDao
         
         return oozieOperations.getJobsInfo(oozieClient, filter, start, len);
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<WorkflowJob> getEmrOozieWorkflows(String masterIpAddress, int start, int len) throws OozieClientException
+    {
+        return oozieOperations.getJobsInfo(getOozieClient(masterIpAddress), null, start, len);
+    }
     
     /**
-     * Builds the Oozie client for the given master IP address.
+     * Gets the Oozie client for the given master IP address, building it the first time the oozie server is used.
      * 
      * @param masterIpAddress the IP address of oozie master server.
      * @return the OozieClient.
@@ -184,6 +202,23 @@ public class OozieDaoImpl implements OozieDao
         ConfigurationValue configurationValue = ConfigurationValue.EMR_OOZIE_URL_TEMPLATE;
         String oozieUrlTemplate = configurationHelper.getProperty(configurationValue);
         String oozieUrl = String.format(oozieUrlTemplate, masterIpAddress);
-        return new OozieClient(oozieUrl);
+
+        OozieClient oozieClient = oozieClients.get(oozieUrl);
+        if (oozieClient == null)
+        {
+            // Start over rather than growing without bounds as clusters come and go.
+            if (oozieClients.size() >= configurationHelper.getProperty(ConfigurationValue.EMR_OOZIE_CLUSTER_CACHE_MAX_SIZE, Integer.class))
+            {
+                oozieClients.clear();
+            }
+
+            OozieClient newOozieClient = new OozieClient(oozieUrl);
+            oozieClient = oozieClients.putIfAbsent(oozieUrl, newOozieClient);
+            if (oozieClient == null)
+            {
+                oozieClient = newOozieClient;
+            }
+        }
+        return oozieClient;
     }
 }
@@ -19,9 +19,13 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Properties;
 import java.util.concurrent.Executors;
 
@@ -37,7 +41,6 @@ import com.amazonaws.services.s3.Headers;
 import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
 import com.amazonaws.services.s3.model.AmazonS3Exception;
 import com.amazonaws.services.s3.model.CopyObjectRequest;
-import com.amazonaws.services.s3.model.DeleteObjectsRequest;
 import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.ListMultipartUploadsRequest;
 import com.amazonaws.services.s3.model.ListObjectsRequest;
@@ -52,7 +55,7 @@ import com.amazonaws.services.s3.model.S3ObjectSummary;
 import com.amazonaws.services.s3.model.SSEAwsKeyManagementParams;
 import com.amazonaws.services.s3.model.StorageClass;
 import com.amazonaws.services.s3.transfer.Copy;
-import com.amazonaws.services.s3.transfer.MultipleFileDownload;
+import com.amazonaws.services.s3.transfer.Download;
 import com.amazonaws.services.s3.transfer.MultipleFileUpload;
 import com.amazonaws.services.s3.transfer.ObjectMetadataProvider;
 import com.amazonaws.services.s3.transfer.Transfer;
@@ -68,13 +71,19 @@ import org.springframework.stereotype.Repository;
 import org.springframework.util.Assert;
 
 import org.finra.dm.core.DmDateUtils;
+import org.finra.dm.core.helper.ConfigurationHelper;
 import org.finra.dm.dao.S3Dao;
 import org.finra.dm.dao.S3Operations;
+import org.finra.dm.dao.StorageFileIterator;
 import org.finra.dm.dao.helper.JavaPropertiesHelper;
+import org.finra.dm.dao.helper.S3CopyEngine;
+import org.finra.dm.dao.helper.S3DeleteEngine;
 import org.finra.dm.model.ObjectNotFoundException;
+import org.finra.dm.model.dto.ConfigurationValue;
 import org.finra.dm.model.dto.S3FileCopyRequestParamsDto;
 import org.finra.dm.model.dto.S3FileTransferRequestParamsDto;
 import org.finra.dm.model.dto.S3FileTransferResultsDto;
+import org.finra.dm.model.dto.S3TransferredFileDto;
 import org.finra.dm.model.api.xml.StorageFile;
 
 /**
@@ -88,15 +97,22 @@ public class S3DaoImpl implements S3Dao
 
     private static final Logger LOGGER = Logger.getLogger(S3DaoImpl.class);
 
-    private static final int MAX_KEYS_PER_DELETE_REQUEST = 1000;
-
     private static final long SLEEP_INTERVAL_MILLIS = 100;
 
     private static final int BITS_PER_BYTE = 8;
 
+    @Autowired
+    private ConfigurationHelper configurationHelper;
+
     @Autowired
     private JavaPropertiesHelper javaPropertiesHelper;
 
+    @Autowired
+    private S3CopyEngine s3CopyEngine;
+
+    @Autowired
+    private S3DeleteEngine s3DeleteEngine;
+
     @Override
     public ObjectMetadata getObjectMetadata(final S3FileTransferRequestParamsDto params)
     {
@@ -195,6 +211,12 @@ public class S3DaoImpl implements S3Dao
         return listObjectsMatchingKeyPrefix(params, ignoreZeroByteDirectoryMarkers);
     }
 
+    @Override
+    public StorageFileIterator getDirectoryIterator(final S3FileTransferRequestParamsDto params, boolean ignoreZeroByteDirectoryMarkers)
+    {
+        return new S3StorageFileIterator(new S3ObjectSummaryIterator(params, getAmazonS3(params)), ignoreZeroByteDirectoryMarkers);
+    }
+
     @Override
     public S3FileTransferResultsDto uploadFile(final S3FileTransferRequestParamsDto params) throws InterruptedException
     {
@@ -286,20 +308,30 @@ public class S3DaoImpl implements S3Dao
             .format("Copying S3 object from s3://%s/%s to s3://%s/%s...", params.getSourceBucketName(), params.getS3KeyPrefix(), params.getTargetBucketName(),
                 params.getS3KeyPrefix()));
 
-        // Perform the copy.
-        S3FileTransferResultsDto results = performTransfer(params, new Transferer()
+        S3FileTransferResultsDto results;
+        ObjectMetadata sourceObjectMetadata = getSourceObjectMetadata(params);
+        if (sourceObjectMetadata.getContentLength() > s3CopyEngine.getPartSizeBytes())
         {
-            @Override
-            public Transfer performTransfer(TransferManager transferManager)
+            // Copy the parts of a large object in parallel.
+            results = performMultipartCopy(params, sourceObjectMetadata);
+        }
+        else
+        {
+            // Perform the copy.
+            results = performTransfer(params, new Transferer()
             {
-                // Create a copy request.
-                CopyObjectRequest copyObjectRequest =
-                    new CopyObjectRequest(params.getSourceBucketName(), params.getS3KeyPrefix(), params.getTargetBucketName(), params.getS3KeyPrefix());
-                copyObjectRequest.withSSEAwsKeyManagementParams(new SSEAwsKeyManagementParams(params.getKmsKeyId()));
+                @Override
+                public Transfer performTransfer(TransferManager transferManager)
+                {
+                    // Create a copy request.
+                    CopyObjectRequest copyObjectRequest =
+                        new CopyObjectRequest(params.getSourceBucketName(), params.getS3KeyPrefix(), params.getTargetBucketName(), params.getS3KeyPrefix());
+                    copyObjectRequest.withSSEAwsKeyManagementParams(new SSEAwsKeyManagementParams(params.getKmsKeyId()));
 
-                return s3Operations.copyFile(copyObjectRequest, transferManager);
-            }
-        });
+                    return s3Operations.copyFile(copyObjectRequest, transferManager);
+                }
+            });
+        }
 
         LOGGER.info("File \"" + params.getS3KeyPrefix() + "\" contains " + results.getTotalBytesTransferred() +
             " byte(s) which was successfully copied from source bucket:\"" + params.getSourceBucketName() + "\" to target bucket:\"" +
@@ -312,6 +344,71 @@ public class S3DaoImpl implements S3Dao
         return results;
     }
 
+    /**
+     * Gets the metadata of the object to copy.
+     *
+     * @param params the copy parameters.
+     *
+     * @return the source object metadata.
+     */
+    private ObjectMetadata getSourceObjectMetadata(S3FileCopyRequestParamsDto params)
+    {
+        AmazonS3Client s3Client = null;
+
+        try
+        {
+            s3Client = getAmazonS3(params);
+
+            return s3Operations.getObjectMetadata(params.getSourceBucketName(), params.getS3KeyPrefix(), s3Client);
+        }
+        finally
+        {
+            if (s3Client != null)
+            {
+                s3Client.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Copies an object with the S3 copy engine.
+     *
+     * @param params the copy parameters.
+     * @param sourceObjectMetadata the source object metadata.
+     *
+     * @return the results.
+     * @throws InterruptedException if the copy was interrupted.
+     */
+    private S3FileTransferResultsDto performMultipartCopy(S3FileCopyRequestParamsDto params, ObjectMetadata sourceObjectMetadata) throws InterruptedException
+    {
+        AmazonS3Client s3Client = null;
+
+        try
+        {
+            s3Client = getAmazonS3(params);
+
+            StopWatch stopWatch = new StopWatch();
+            stopWatch.start();
+
+            long totalBytesTransferred = s3CopyEngine
+                .copyObject(params.getSourceBucketName(), params.getS3KeyPrefix(), sourceObjectMetadata, params.getTargetBucketName(), params.getS3KeyPrefix(),
+                    params.getKmsKeyId(), s3Client);
+
+            S3FileTransferResultsDto results = new S3FileTransferResultsDto();
+            results.setDurationMillis(stopWatch.getTime());
+            results.setTotalBytesTransferred(totalBytesTransferred);
+            results.setTotalFilesTransferred(1L);
+            return results;
+        }
+        finally
+        {
+            if (s3Client != null)
+            {
+                s3Client.shutdown();
+            }
+        }
+    }
+
     @Override
     public S3FileTransferResultsDto uploadDirectory(final S3FileTransferRequestParamsDto params) throws InterruptedException
     {
@@ -368,33 +465,22 @@ public class S3DaoImpl implements S3Dao
             if (!params.getFiles().isEmpty())
             {
                 // Build a list of keys to be deleted.
-                List<DeleteObjectsRequest.KeyVersion> keys = new ArrayList<>();
+                List<String> keys = new ArrayList<>();
                 for (File file : params.getFiles())
                 {
-                    keys.add(new DeleteObjectsRequest.KeyVersion(file.getPath().replaceAll("\\\\", "/")));
+                    keys.add(file.getPath().replaceAll("\\\\", "/"));
                 }
 
-                DeleteObjectsRequest multiObjectDeleteRequest = new DeleteObjectsRequest(params.getS3BucketName());
                 s3Client = getAmazonS3(params);
-
-                // The Multi-Object Delete request can contain a list of up to 1000 keys.
-                for (int i = 0; i < keys.size() / MAX_KEYS_PER_DELETE_REQUEST + 1; i++)
-                {
-                    List<DeleteObjectsRequest.KeyVersion> keysSubList =
-                        keys.subList(i * MAX_KEYS_PER_DELETE_REQUEST, Math.min(keys.size(), (i + 1) * MAX_KEYS_PER_DELETE_REQUEST));
-                    multiObjectDeleteRequest.setKeys(keysSubList);
-                    s3Operations.deleteObjects(multiObjectDeleteRequest, s3Client);
-
-                    LOGGER.info(String.format("Successfully requested the deletion of the following %d keys/objects from bucket \"%s\":", keysSubList.size(),
-                        params.getS3BucketName()));
-
-                    for (DeleteObjectsRequest.KeyVersion keyVersion : keysSubList)
-                    {
-                        LOGGER.info(String.format("    s3://%s/%s", params.getS3BucketName(), keyVersion.getKey()));
-                    }
-                }
+                s3DeleteEngine.deleteObjects(params.getS3BucketName(), keys.iterator(), s3Client);
             }
         }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(String.format("Interrupted while deleting a list of keys/objects from bucket \"%s\".", params.getS3BucketName()),
+                e);
+        }
         catch (Exception e)
         {
             throw new IllegalStateException(
@@ -413,48 +499,27 @@ public class S3DaoImpl implements S3Dao
     @Override
     public void deleteDirectory(final S3FileTransferRequestParamsDto params)
     {
-        AmazonS3Client s3Client = null;
-
         LOGGER.info(String.format("Deleting keys/objects from s3://%s/%s ...", params.getS3BucketName(), params.getS3KeyPrefix()));
 
         Assert.hasText(params.getS3KeyPrefix(), "Deleting from root directory is not allowed.");
 
-        try
+        // Delete the S3 objects, including any 0 byte objects that represent S3 directories, as their listing is paged through. The keys already listed
+        // don't affect the next page since the listing continues from the last key it returned. The S3 client of the listing is shared with the deletes and
+        // gets shutdown when the listing is closed.
+        try (S3ObjectSummaryIterator objectSummaries = new S3ObjectSummaryIterator(params, getAmazonS3(params)))
         {
-            // List S3 object including any 0 byte objects that represent S3 directories.
-            List<StorageFile> storageFiles = listObjectsMatchingKeyPrefix(params, false);
-            LOGGER.info(String.format("Found %d keys/objects in s3://%s/%s ...", storageFiles.size(), params.getS3BucketName(), params.getS3KeyPrefix()));
+            long deletedKeyCount =
+                s3DeleteEngine.deleteObjects(params.getS3BucketName(), new ObjectKeyIterator(objectSummaries), objectSummaries.s3Client);
 
-            // In order to avoid a MalformedXML AWS exception, we send delete request only when we have any keys to delete.
-            if (!storageFiles.isEmpty())
-            {
-                DeleteObjectsRequest multiObjectDeleteRequest = new DeleteObjectsRequest(params.getS3BucketName());
-                s3Client = getAmazonS3(params);
-
-                // The Multi-Object Delete request can contain a list of up to 1000 keys.
-                for (int i = 0; i < storageFiles.size() / MAX_KEYS_PER_DELETE_REQUEST + 1; i++)
-                {
-                    // Prepare a list of S3 object keys to be deleted.
-                    List<DeleteObjectsRequest.KeyVersion> keys = new ArrayList<>();
-                    for (StorageFile storageFile : storageFiles
-                        .subList(i * MAX_KEYS_PER_DELETE_REQUEST, Math.min(storageFiles.size(), (i + 1) * MAX_KEYS_PER_DELETE_REQUEST)))
-                    {
-                        keys.add(new DeleteObjectsRequest.KeyVersion(storageFile.getFilePath()));
-                    }
-
-                    // Delete the S3 objects.
-                    multiObjectDeleteRequest.setKeys(keys);
-                    s3Operations.deleteObjects(multiObjectDeleteRequest, s3Client);
-
-                    LOGGER.info(String.format("Successfully deleted the following %d keys/objects with prefix \"%s\" from bucket \"%s\":", keys.size(),
-                        params.getS3KeyPrefix(), params.getS3BucketName()));
-
-                    for (DeleteObjectsRequest.KeyVersion keyVersion : keys)
-                    {
-                        LOGGER.info(String.format("    s3://%s/%s", params.getS3BucketName(), keyVersion.getKey()));
-                    }
-                }
-            }
+            LOGGER.info(String.format("Deleted %d keys/objects with prefix \"%s\" from bucket \"%s\".", deletedKeyCount, params.getS3KeyPrefix(),
+                params.getS3BucketName()));
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(String
+                .format("Interrupted while deleting keys/objects with prefix \"%s\" from bucket \"%s\".", params.getS3KeyPrefix(),
+                    params.getS3BucketName()), e);
         }
         catch (AmazonClientException e)
         {
@@ -462,14 +527,6 @@ public class S3DaoImpl implements S3Dao
                 .format("Failed to delete keys/objects with prefix \"%s\" from bucket \"%s\". Reason: %s", params.getS3KeyPrefix(), params.getS3BucketName(),
                     e.getMessage()), e);
         }
-        finally
-        {
-            // Shutdown the AmazonS3Client instance to release resources.
-            if (s3Client != null)
-            {
-                s3Client.shutdown();
-            }
-        }
     }
 
     @Override
@@ -501,17 +558,9 @@ public class S3DaoImpl implements S3Dao
     public S3FileTransferResultsDto downloadDirectory(final S3FileTransferRequestParamsDto params) throws InterruptedException
     {
         // Note that the directory download always recursively copies sub-directories.
-        // To not recurse, we would have to list the files on S3 (AmazonS3Client.html#listObjects) and manually copy them one at a time.
 
         // Perform the transfer.
-        S3FileTransferResultsDto results = performTransfer(params, new Transferer()
-        {
-            @Override
-            public Transfer performTransfer(TransferManager transferManager)
-            {
-                return s3Operations.downloadDirectory(params.getS3BucketName(), params.getS3KeyPrefix(), new File(params.getLocalPath()), transferManager);
-            }
-        });
+        S3FileTransferResultsDto results = performDirectoryDownload(params);
 
         LOGGER.info(
             "S3 directory \"" + params.getS3KeyPrefix() + "\" in bucket \"" + params.getS3BucketName() + "\" contains " + results.getTotalBytesTransferred() +
@@ -747,31 +796,8 @@ public class S3DaoImpl implements S3Dao
             // Stop the stop watch and create a results object.
             stopWatch.stop();
 
-            // If the transfer failed, throw the underlying AWS exception if we can determine one. Otherwise, throw our own exception.
-            TransferState transferState = transfer.getState();
-            if (transferState == TransferState.Failed)
-            {
-                // The waitForException method should return the underlying AWS exception since the state is "Failed". It should not block since the
-                // transfer is already "done" per previous code checking "isDone".
-                AmazonClientException amazonClientException = transfer.waitForException();
-
-                // If the returned exception is null, we weren't able to get the underlying AWS exception so just throw our own exception.
-                // This is unlikely since the transfer failed, but it's better to handle the possibility just in case.
-                if (amazonClientException == null)
-                {
-                    throw new IllegalStateException("The transfer operation \"" + transfer.getDescription() + "\" failed for an unknown reason.");
-                }
-
-                // Throw the Amazon underlying exception.
-                throw amazonClientException;
-            }
-            // Ensure the transfer completed. If not, throw an exception.
-            else if (transferState != TransferState.Completed)
-            {
-                throw new IllegalStateException(
-                    "The transfer operation \"" + transfer.getDescription() + "\" did not complete successfully. Current state: \"" + transferState +
-                        "\".");
-            }
+            // Ensure the transfer completed.
+            assertTransferCompleted(transfer);
 
             // TransferProgress.getBytesTransferred() are not populated for S3 Copy objects.
             if (!(transfer instanceof Copy))
@@ -793,18 +819,112 @@ public class S3DaoImpl implements S3Dao
                 // For upload directory, we need to calculate the total number of files transferred differently.
                 results.setTotalFilesTransferred((long) ((MultipleFileUpload) transfer).getSubTransfers().size());
             }
-            else if (transfer instanceof MultipleFileDownload)
+
+            // Return the results.
+            return results;
+        }
+        finally
+        {
+            // Shutdown the transfer manager to release resources. If this isn't done, the JVM may delay upon exiting.
+            if (transferManager != null)
             {
-                // For download directory, we need to calculate the total number of files differently.
-                results.setTotalFilesTransferred((long) listDirectory(params).size());
+                transferManager.shutdownNow();
             }
+        }
+    }
+
+    /**
+     * Downloads all S3 objects matching the S3 key prefix in the given bucket (S3 bucket name) into the local directory. The listing is paged through once and
+     * a download is queued on the transfer manager for every S3 object as it is listed, but only a limited number of downloads are queued or running at a
+     * time and the listing resumes when the oldest of them completes. The results include the key, size and ETag of every downloaded S3 object as taken from
+     * the listing, so no S3 listing is needed to account for the transfer.
+     *
+     * @param params the S3 file transfer request parameters. The S3 bucket name and S3 key prefix identify the S3 objects to get downloaded. The local path
+     * is the local directory to download the S3 objects into.
+     *
+     * @return the results.
+     * @throws InterruptedException if any problems were encountered.
+     */
+    private S3FileTransferResultsDto performDirectoryDownload(final S3FileTransferRequestParamsDto params) throws InterruptedException
+    {
+        TransferManager transferManager = null;
+
+        try
+        {
+            // Create a transfer manager.
+            transferManager = getTransferManager(params);
+
+            // Start a stop watch to keep track of how long the transfer takes.
+            StopWatch stopWatch = new StopWatch();
+            stopWatch.start();
+
+            // Queue the downloads while paging through the listing, so the listing overlaps with the downloads. Completed downloads are released, so only the
+            // downloads in flight are held in memory.
+            int concurrency = configurationHelper.getProperty(ConfigurationValue.S3_DOWNLOAD_CONCURRENCY, Integer.class);
+            File destinationDirectory = new File(params.getLocalPath());
+            Deque<Download> downloadsInFlight = new ArrayDeque<>();
+            List<S3TransferredFileDto> transferredFiles = new ArrayList<>();
+            long totalBytesToTransfer = 0;
+            long totalBytesTransferred = 0;
+            try (S3ObjectSummaryIterator objectSummaries = new S3ObjectSummaryIterator(params, getAmazonS3(params)))
+            {
+                while (objectSummaries.hasNext() || !downloadsInFlight.isEmpty())
+                {
+                    // Top up the downloads in flight, then wait for the oldest of them which is roughly the first the transfer manager completes.
+                    while (objectSummaries.hasNext() && downloadsInFlight.size() < concurrency)
+                    {
+                        S3ObjectSummary objectSummary = objectSummaries.next();
+                        File file = new File(destinationDirectory, objectSummary.getKey());
+
+                        // A 0 byte object that represents an S3 directory can't be saved as a file, so only the local directory is created for it.
+                        File directory = isDirectoryMarker(objectSummary) ? file : file.getParentFile();
+                        if (!directory.isDirectory() && !directory.mkdirs())
+                        {
+                            throw new IllegalStateException(String.format("Failed to create local directory \"%s\".", directory.getPath()));
+                        }
+
+                        if (!isDirectoryMarker(objectSummary))
+                        {
+                            downloadsInFlight.add(s3Operations.download(params.getS3BucketName(), objectSummary.getKey(), file, transferManager));
+
+                            S3TransferredFileDto transferredFile = new S3TransferredFileDto();
+                            transferredFile.setS3Key(objectSummary.getKey());
+                            transferredFile.setFileSizeBytes(objectSummary.getSize());
+                            transferredFile.setETag(objectSummary.getETag());
+                            transferredFiles.add(transferredFile);
+
+                            totalBytesToTransfer += objectSummary.getSize();
+                        }
+                    }
+
+                    if (!downloadsInFlight.isEmpty())
+                    {
+                        totalBytesTransferred += waitForDownload(downloadsInFlight.poll(), transferredFiles.size() - downloadsInFlight.size());
+                    }
+                }
+            }
+
+            // Stop the stop watch.
+            stopWatch.stop();
+
+            // Sanity check for the number of bytes transferred.
+            Assert.isTrue(totalBytesTransferred >= totalBytesToTransfer, String
+                .format("Actual number of bytes transferred is less than expected (actual: %d bytes; expected: %d bytes).", totalBytesTransferred,
+                    totalBytesToTransfer));
+
+            // Create the results object.
+            S3FileTransferResultsDto results = new S3FileTransferResultsDto();
+            results.setDurationMillis(stopWatch.getTime());
+            results.setTotalBytesTransferred(totalBytesTransferred);
+            results.setTotalFilesTransferred((long) transferredFiles.size());
+            results.setTransferredFiles(transferredFiles);
 
             // Return the results.
             return results;
         }
         finally
         {
-            // Shutdown the transfer manager to release resources. If this isn't done, the JVM may delay upon exiting.
+            // Shutdown the transfer manager to release resources. This also aborts any downloads still running after a failure.
             if (transferManager != null)
             {
                 transferManager.shutdownNow();
@@ -812,6 +932,271 @@ public class S3DaoImpl implements S3Dao
         }
     }
 
+    /**
+     * Waits for a download of a directory download to complete and ensures that it completed successfully.
+     *
+     * @param download the download.
+     * @param downloadNumber the number of the download within the directory download, used to log progress.
+     *
+     * @return the number of bytes transferred.
+     * @throws InterruptedException if interrupted while waiting for the download.
+     */
+    private long waitForDownload(Download download, int downloadNumber) throws InterruptedException
+    {
+        long stepCount = 0;
+        while (!download.isDone())
+        {
+            Thread.sleep(SLEEP_INTERVAL_MILLIS);
+            stepCount++;
+
+            // Log progress status every 30 seconds.
+            if (stepCount % 300 == 0)
+            {
+                LOGGER.info(String.format("Waiting for download %d of the directory (\"%s\").", downloadNumber, download.getDescription()));
+            }
+        }
+
+        assertTransferCompleted(download);
+        return download.getProgress().getBytesTransferred();
+    }
+
+    /**
+     * Ensures that a transfer that is done completed successfully.
+     *
+     * @param transfer the transfer.
+     *
+     * @throws InterruptedException if interrupted while getting the exception of a failed transfer.
+     */
+    private void assertTransferCompleted(Transfer transfer) throws InterruptedException
+    {
+        // If the transfer failed, throw the underlying AWS exception if we can determine one. Otherwise, throw our own exception.
+        TransferState transferState = transfer.getState();
+        if (transferState == TransferState.Failed)
+        {
+            // The waitForException method should return the underlying AWS exception since the state is "Failed". It should not block since the
+            // transfer is already "done".
+            AmazonClientException amazonClientException = transfer.waitForException();
+
+            // If the returned exception is null, we weren't able to get the underlying AWS exception so just throw our own exception.
+            // This is unlikely since the transfer failed, but it's better to handle the possibility just in case.
+            if (amazonClientException == null)
+            {
+                throw new IllegalStateException("The transfer operation \"" + transfer.getDescription() + "\" failed for an unknown reason.");
+            }
+
+            // Throw the Amazon underlying exception.
+            throw amazonClientException;
+        }
+        // Ensure the transfer completed. If not, throw an exception.
+        else if (transferState != TransferState.Completed)
+        {
+            throw new IllegalStateException(
+                "The transfer operation \"" + transfer.getDescription() + "\" did not complete successfully. Current state: \"" + transferState + "\".");
+        }
+    }
+
+    /**
+     * Iterates over the S3 object summaries of a listing, requesting the next page of the listing only when the S3 object summaries of the current page are
+     * exhausted.
+     */
+    private class S3ObjectSummaryIterator implements Iterator<S3ObjectSummary>, AutoCloseable
+    {
+        private final S3FileTransferRequestParamsDto params;
+
+        private final ListObjectsRequest listObjectsRequest;
+
+        private AmazonS3Client s3Client;
+
+        private Iterator<S3ObjectSummary> objectSummaries;
+
+        private boolean truncated = true;
+
+        /**
+         * Creates an iterator over the S3 object summaries of the S3 objects matching the S3 key prefix in the given bucket (S3 bucket name).
+         *
+         * @param params the S3 file transfer request parameters. The S3 bucket name and S3 key prefix identify the S3 objects to get listed.
+         * @param s3Client the S3 client. The client is owned by the iterator and gets shutdown when the iterator is closed.
+         */
+        public S3ObjectSummaryIterator(S3FileTransferRequestParamsDto params, AmazonS3Client s3Client)
+        {
+            this.params = params;
+            this.listObjectsRequest = new ListObjectsRequest().withBucketName(params.getS3BucketName()).withPrefix(params.getS3KeyPrefix());
+            this.s3Client = s3Client;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            // Skip any empty page of a truncated listing.
+            while ((objectSummaries == null || !objectSummaries.hasNext()) && truncated)
+            {
+                listNextPage();
+            }
+
+            return objectSummaries.hasNext();
+        }
+
+        @Override
+        public S3ObjectSummary next()
+        {
+            if (!hasNext())
+            {
+                throw new NoSuchElementException();
+            }
+
+            return objectSummaries.next();
+        }
+
+        @Override
+        public void remove()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close()
+        {
+            // Shutdown the AmazonS3Client instance to release resources.
+            if (s3Client != null)
+            {
+                s3Client.shutdown();
+                s3Client = null;
+            }
+        }
+
+        /**
+         * Requests the next page of the listing.
+         */
+        private void listNextPage()
+        {
+            Assert.state(s3Client != null, "The S3 directory listing has been closed.");
+
+            try
+            {
+                ObjectListing objectListing = s3Operations.listObjects(listObjectsRequest, s3Client);
+                objectSummaries = objectListing.getObjectSummaries().iterator();
+                truncated = objectListing.isTruncated();
+                listObjectsRequest.setMarker(objectListing.getNextMarker());
+            }
+            catch (AmazonS3Exception amazonS3Exception)
+            {
+                if (S3Operations.ERROR_CODE_NO_SUCH_BUCKET.equals(amazonS3Exception.getErrorCode()))
+                {
+                    throw new IllegalArgumentException("The specified bucket '" + params.getS3BucketName() + "' does not exist.", amazonS3Exception);
+                }
+                throw new IllegalStateException("Error accessing S3", amazonS3Exception);
+            }
+            catch (AmazonClientException e)
+            {
+                throw new IllegalStateException(String
+                    .format("Failed to list keys/objects with prefix \"%s\" from bucket \"%s\". Reason: %s", params.getS3KeyPrefix(),
+                        params.getS3BucketName(), e.getMessage()), e);
+            }
+        }
+    }
+
+    /**
+     * Iterates over the S3 objects of a listing represented as storage files.
+     */
+    private static class S3StorageFileIterator implements StorageFileIterator
+    {
+        private final S3ObjectSummaryIterator objectSummaries;
+
+        private final boolean ignoreZeroByteDirectoryMarkers;
+
+        private StorageFile nextStorageFile;
+
+        /**
+         * Creates an iterator over the S3 objects of a listing represented as storage files.
+         *
+         * @param objectSummaries the iterator over the S3 object summaries of the listing. It gets closed when this iterator is closed.
+         * @param ignoreZeroByteDirectoryMarkers specifies whether to ignore 0 byte objects that represent S3 directories.
+         */
+        public S3StorageFileIterator(S3ObjectSummaryIterator objectSummaries, boolean ignoreZeroByteDirectoryMarkers)
+        {
+            this.objectSummaries = objectSummaries;
+            this.ignoreZeroByteDirectoryMarkers = ignoreZeroByteDirectoryMarkers;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            while (nextStorageFile == null && objectSummaries.hasNext())
+            {
+                S3ObjectSummary objectSummary = objectSummaries.next();
+
+                // Ignore 0 byte objects that represent S3 directories.
+                if (!(ignoreZeroByteDirectoryMarkers && isDirectoryMarker(objectSummary)))
+                {
+                    nextStorageFile = new StorageFile(objectSummary.getKey(), objectSummary.getSize(), null);
+                }
+            }
+
+            return nextStorageFile != null;
+        }
+
+        @Override
+        public StorageFile next()
+        {
+            if (!hasNext())
+            {
+                throw new NoSuchElementException();
+            }
+
+            StorageFile storageFile = nextStorageFile;
+            nextStorageFile = null;
+            return storageFile;
+        }
+
+        @Override
+        public void remove()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close()
+        {
+            objectSummaries.close();
+        }
+    }
+
+    /**
+     * Iterates over the keys of the S3 object summaries returned by another iterator.
+     */
+    private static class ObjectKeyIterator implements Iterator<String>
+    {
+        private final Iterator<S3ObjectSummary> objectSummaries;
+
+        /**
+         * Creates an iterator over the keys of the S3 object summaries.
+         *
+         * @param objectSummaries the iterator over the S3 object summaries.
+         */
+        public ObjectKeyIterator(Iterator<S3ObjectSummary> objectSummaries)
+        {
+            this.objectSummaries = objectSummaries;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return objectSummaries.hasNext();
+        }
+
+        @Override
+        public String next()
+        {
+            return objectSummaries.next().getKey();
+        }
+
+        @Override
+        public void remove()
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+
     /**
      * An object that can perform a transfer using a transform manager.
      */
@@ -827,6 +1212,18 @@ public class S3DaoImpl implements S3Dao
         public Transfer performTransfer(TransferManager transferManager);
     }
 
+    /**
+     * Returns whether an S3 object is a 0 byte object that represents an S3 directory.
+     *
+     * @param objectSummary the S3 object summary.
+     *
+     * @return true if the S3 object represents an S3 directory.
+     */
+    private static boolean isDirectoryMarker(S3ObjectSummary objectSummary)
+    {
+        return objectSummary.getKey().endsWith("/") && objectSummary.getSize() == 0L;
+    }
+
     /**
      * Returns transfer rate in kBytes/s.  Please note that bytes->kBytes and ms->seconds conversions cancel each other (both use conversion factor of 1000).
      *
@@ -864,52 +1261,13 @@ public class S3DaoImpl implements S3Dao
      */
     private List<StorageFile> listObjectsMatchingKeyPrefix(final S3FileTransferRequestParamsDto params, boolean ignoreZeroByteDirectoryMarkers)
     {
-        AmazonS3Client s3Client = null;
         List<StorageFile> storageFiles = new ArrayList<>();
 
-        try
+        try (StorageFileIterator storageFileIterator = getDirectoryIterator(params, ignoreZeroByteDirectoryMarkers))
         {
-            s3Client = getAmazonS3(params);
-            ListObjectsRequest listObjectsRequest = new ListObjectsRequest().withBucketName(params.getS3BucketName()).withPrefix(params.getS3KeyPrefix());
-            ObjectListing objectListing;
-
-            do
+            while (storageFileIterator.hasNext())
             {
-                objectListing = s3Operations.listObjects(listObjectsRequest, s3Client);
-
-                for (S3ObjectSummary objectSummary : objectListing.getObjectSummaries())
-                {
-                    // Ignore 0 byte objects that represent S3 directories.
-                    if (!(ignoreZeroByteDirectoryMarkers && objectSummary.getKey().endsWith("/") && objectSummary.getSize() == 0L))
-                    {
-                        storageFiles.add(new StorageFile(objectSummary.getKey(), objectSummary.getSize(), null));
-                    }
-                }
-
-                listObjectsRequest.setMarker(objectListing.getNextMarker());
-            }
-            while (objectListing.isTruncated());
-        }
-        catch (AmazonS3Exception amazonS3Exception)
-        {
-            if (S3Operations.ERROR_CODE_NO_SUCH_BUCKET.equals(amazonS3Exception.getErrorCode()))
-            {
-                throw new IllegalArgumentException("The specified bucket '" + params.getS3BucketName() + "' does not exist.", amazonS3Exception);
-            }
-            throw new IllegalStateException("Error accessing S3", amazonS3Exception);
-        }
-        catch (AmazonClientException e)
-        {
-            throw new IllegalStateException(String
-                .format("Failed to list keys/objects with prefix \"%s\" from bucket \"%s\". Reason: %s", params.getS3KeyPrefix(), params.getS3BucketName(),
-                    e.getMessage()), e);
-        }
-        finally
-        {
-            // Shutdown the AmazonS3Client instance to release resources.
-            if (s3Client != null)
-            {
-                s3Client.shutdown();
+                storageFiles.add(storageFileIterator.next());
             }
         }
 
@@ -23,10 +23,16 @@ import com.amazonaws.AmazonServiceException;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3Client;
 import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadResult;
 import com.amazonaws.services.s3.model.CopyObjectRequest;
+import com.amazonaws.services.s3.model.CopyPartRequest;
+import com.amazonaws.services.s3.model.CopyPartResult;
 import com.amazonaws.services.s3.model.DeleteObjectsRequest;
 import com.amazonaws.services.s3.model.DeleteObjectsResult;
 import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
 import com.amazonaws.services.s3.model.ListMultipartUploadsRequest;
 import com.amazonaws.services.s3.model.ListObjectsRequest;
 import com.amazonaws.services.s3.model.MultipartUploadListing;
@@ -37,7 +43,6 @@ import com.amazonaws.services.s3.model.PutObjectResult;
 import com.amazonaws.services.s3.model.S3Object;
 import com.amazonaws.services.s3.transfer.Copy;
 import com.amazonaws.services.s3.transfer.Download;
-import com.amazonaws.services.s3.transfer.MultipleFileDownload;
 import com.amazonaws.services.s3.transfer.MultipleFileUpload;
 import com.amazonaws.services.s3.transfer.ObjectMetadataProvider;
 import com.amazonaws.services.s3.transfer.TransferManager;
@@ -92,6 +97,33 @@ public class S3OperationsImpl implements S3Operations
         s3Client.abortMultipartUpload(abortMultipartUploadRequest);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InitiateMultipartUploadResult initiateMultipartUpload(InitiateMultipartUploadRequest initiateMultipartUploadRequest, AmazonS3Client s3Client)
+    {
+        return s3Client.initiateMultipartUpload(initiateMultipartUploadRequest);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CopyPartResult copyPart(CopyPartRequest copyPartRequest, AmazonS3Client s3Client)
+    {
+        return s3Client.copyPart(copyPartRequest);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompleteMultipartUploadResult completeMultipartUpload(CompleteMultipartUploadRequest completeMultipartUploadRequest, AmazonS3Client s3Client)
+    {
+        return s3Client.completeMultipartUpload(completeMultipartUploadRequest);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -129,15 +161,6 @@ public class S3OperationsImpl implements S3Operations
         return transferManager.uploadDirectory(bucketName, virtualDirectoryKeyPrefix, directory, includeSubdirectories, metadataProvider);
     }
 
-    /**
-     * Implementation delegates to {@link TransferManager#downloadDirectory(String, String, File)}.
-     */
-    @Override
-    public MultipleFileDownload downloadDirectory(String bucketName, String keyPrefix, File destinationDirectory, TransferManager transferManager)
-    {
-        return transferManager.downloadDirectory(bucketName, keyPrefix, destinationDirectory);
-    }
-
     /**
      * Implementation delegates to {@link TransferManager#upload(PutObjectRequest)}.
      */
@@ -15,6 +15,9 @@
 */
 package org.finra.dm.dao.impl;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import com.amazonaws.ClientConfiguration;
 import com.amazonaws.auth.policy.Policy;
 import com.amazonaws.services.securitytoken.AWSSecurityTokenServiceClient;
@@ -38,6 +41,12 @@ public class StsDaoImpl implements StsDao
     @Autowired
     private StsOperations stsOperations;
 
+    /**
+     * The security token service clients keyed by HTTP proxy. A client is thread safe and holds its own connection pool, so reusing one client per proxy
+     * avoids creating a new client and a new TLS connection to STS on every call.
+     */
+    private final ConcurrentMap<String, AWSSecurityTokenServiceClient> awsSecurityTokenServiceClients = new ConcurrentHashMap<>();
+
     /**
      * Returns a set of temporary security credentials (consisting of an access key ID, a secret access key, and a security token) that can be used to access
      * the specified AWS resource.
@@ -55,25 +64,7 @@ public class StsDaoImpl implements StsDao
     public Credentials getTemporarySecurityCredentials(AwsParamsDto awsParamsDto, String sessionName, String awsRoleArn, int awsRoleDurationSeconds,
         Policy policy)
     {
-        // Construct a new AWS security token service client using the specified client configuration to access Amazon S3.
-        // A credentials provider chain will be used that searches for credentials in this order:
-        // - Environment Variables - AWS_ACCESS_KEY_ID and AWS_SECRET_KEY
-        // - Java System Properties - aws.accessKeyId and aws.secretKey
-        // - Instance Profile Credentials - delivered through the Amazon EC2 metadata service
-
-        ClientConfiguration clientConfiguration = new ClientConfiguration();
-
-        // Only set the proxy hostname and/or port if they're configured.
-        if (StringUtils.isNotBlank(awsParamsDto.getHttpProxyHost()))
-        {
-            clientConfiguration.setProxyHost(awsParamsDto.getHttpProxyHost());
-        }
-        if (awsParamsDto.getHttpProxyPort() != null)
-        {
-            clientConfiguration.setProxyPort(awsParamsDto.getHttpProxyPort());
-        }
-
-        AWSSecurityTokenServiceClient awsSecurityTokenServiceClient = new AWSSecurityTokenServiceClient(clientConfiguration);
+        AWSSecurityTokenServiceClient awsSecurityTokenServiceClient = getAwsSecurityTokenServiceClient(awsParamsDto);
 
         // Create the request.
         AssumeRoleRequest assumeRoleRequest = new AssumeRoleRequest();
@@ -86,4 +77,50 @@ public class StsDaoImpl implements StsDao
         AssumeRoleResult assumeRoleResult = stsOperations.assumeRole(awsSecurityTokenServiceClient, assumeRoleRequest);
         return assumeRoleResult.getCredentials();
     }
+
+    /**
+     * Gets the AWS security token service client for the HTTP proxy configured in the specified AWS parameters, creating it on first use.
+     *
+     * @param awsParamsDto the AWS related parameters that contain the optional proxy information.
+     *
+     * @return the AWS security token service client.
+     */
+    private AWSSecurityTokenServiceClient getAwsSecurityTokenServiceClient(AwsParamsDto awsParamsDto)
+    {
+        String clientKey = awsParamsDto.getHttpProxyHost() + ":" + awsParamsDto.getHttpProxyPort();
+
+        AWSSecurityTokenServiceClient awsSecurityTokenServiceClient = awsSecurityTokenServiceClients.get(clientKey);
+        if (awsSecurityTokenServiceClient == null)
+        {
+            // Construct a new AWS security token service client using the specified client configuration to access Amazon S3.
+            // A credentials provider chain will be used that searches for credentials in this order:
+            // - Environment Variables - AWS_ACCESS_KEY_ID and AWS_SECRET_KEY
+            // - Java System Properties - aws.accessKeyId and aws.secretKey
+            // - Instance Profile Credentials - delivered through the Amazon EC2 metadata service
+            ClientConfiguration clientConfiguration = new ClientConfiguration();
+
+            // Only set the proxy hostname and/or port if they're configured.
+            if (StringUtils.isNotBlank(awsParamsDto.getHttpProxyHost()))
+            {
+                clientConfiguration.setProxyHost(awsParamsDto.getHttpProxyHost());
+            }
+            if (awsParamsDto.getHttpProxyPort() != null)
+            {
+                clientConfiguration.setProxyPort(awsParamsDto.getHttpProxyPort());
+            }
+
+            AWSSecurityTokenServiceClient newAwsSecurityTokenServiceClient = new AWSSecurityTokenServiceClient(clientConfiguration);
+            awsSecurityTokenServiceClient = awsSecurityTokenServiceClients.putIfAbsent(clientKey, newAwsSecurityTokenServiceClient);
+            if (awsSecurityTokenServiceClient == null)
+            {
+                awsSecurityTokenServiceClient = newAwsSecurityTokenServiceClient;
+            }
+            else
+            {
+                // Another thread created a client for this proxy first.
+                newAwsSecurityTokenServiceClient.shutdown();
+            }
+        }
+        return awsSecurityTokenServiceClient;
+    }
 }
@@ -1569,6 +1569,9 @@ public abstract class AbstractDaoTest extends AbstractCoreTest
             partitionKeyGroupEntity = createPartitionKeyGroupEntity(partitionKeyGroupName);
         }
 
+        // Lock the partition key group, since its expected partition values are about to change.
+        dmDao.lockPartitionKeyGroup(partitionKeyGroupEntity);
+
         // Initialize the return list.
         List<ExpectedPartitionValueEntity> expectedPartitionValueEntities = new ArrayList<>();
 
@@ -1877,6 +1880,7 @@ public abstract class AbstractDaoTest extends AbstractCoreTest
      */
     protected void createExpectedPartitionValueEntities(PartitionKeyGroupEntity partitionKeyGroupEntity, List<String> expectedPartitionValues)
     {
+        dmDao.lockPartitionKeyGroup(partitionKeyGroupEntity);
         for (String expectedPartitionValue : expectedPartitionValues)
         {
             ExpectedPartitionValueEntity expectedPartitionValueEntity = new ExpectedPartitionValueEntity();
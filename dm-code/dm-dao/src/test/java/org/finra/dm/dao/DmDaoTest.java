@@ -37,7 +37,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.CacheManager;
 
 import org.finra.dm.dao.config.DaoSpringModuleConfig;
+import org.finra.dm.dao.helper.DmDaoSecurityHelper;
 import org.finra.dm.dao.impl.DmDaoImpl;
+import org.finra.dm.model.jpa.AuditableEntity;
 import org.finra.dm.model.jpa.BusinessObjectDataEntity;
 import org.finra.dm.model.jpa.BusinessObjectDataNotificationRegistrationEntity;
 import org.finra.dm.model.jpa.BusinessObjectDataStatusEntity;
@@ -642,6 +644,63 @@ public class DmDaoTest extends AbstractDaoTest
         }
     }
 
+    @Test
+    public void testGetExpectedPartitionValueWithOffsetExpectedPartitionValueNotInGroup()
+    {
+        // Create and persist a partition key group with the process dates for April, 2014.
+        createExpectedPartitionValueProcessDatesForApril2014(PARTITION_KEY_GROUP);
+
+        // April 12th, 2014 is a weekend day, so offsets are counted from the nearest business days.
+        ExpectedPartitionValueKey expectedPartitionValueKey = new ExpectedPartitionValueKey(PARTITION_KEY_GROUP, getDateAsString(2014, 3, 12));
+        assertNull(dmDao.getExpectedPartitionValue(expectedPartitionValueKey, 0));
+        assertEquals(getDateAsString(2014, 3, 14), dmDao.getExpectedPartitionValue(expectedPartitionValueKey, 1).getPartitionValue());
+        assertEquals(getDateAsString(2014, 3, 11), dmDao.getExpectedPartitionValue(expectedPartitionValueKey, -1).getPartitionValue());
+    }
+
+    @Test
+    public void testGetExpectedPartitionValueIndexRebuiltAfterChanges()
+    {
+        // Create and persist a partition key group entity with a single expected partition value and look it up to build the index.
+        PartitionKeyGroupEntity partitionKeyGroupEntity = createPartitionKeyGroupEntity(PARTITION_KEY_GROUP);
+        createExpectedPartitionValueEntities(partitionKeyGroupEntity, Arrays.asList(PARTITION_VALUE));
+        ExpectedPartitionValueKey expectedPartitionValueKey = new ExpectedPartitionValueKey(PARTITION_KEY_GROUP, PARTITION_VALUE);
+        assertNull(dmDao.getExpectedPartitionValue(expectedPartitionValueKey, 1));
+
+        // Add a value and validate that the lookups see it along with the incremented version of the group.
+        Long version = partitionKeyGroupEntity.getVersion();
+        dmDao.lockPartitionKeyGroup(partitionKeyGroupEntity);
+        assertEquals(Long.valueOf(version + 1), partitionKeyGroupEntity.getVersion());
+        ExpectedPartitionValueEntity expectedPartitionValueEntity = new ExpectedPartitionValueEntity();
+        expectedPartitionValueEntity.setPartitionKeyGroup(partitionKeyGroupEntity);
+        expectedPartitionValueEntity.setPartitionValue(PARTITION_VALUE_2);
+        partitionKeyGroupEntity.getExpectedPartitionValues().add(expectedPartitionValueEntity);
+        dmDao.saveAndFlush(partitionKeyGroupEntity);
+        assertEquals(PARTITION_VALUE_2, dmDao.getExpectedPartitionValue(expectedPartitionValueKey, 1).getPartitionValue());
+        assertEquals(2, dmDao.getExpectedPartitionValuesByGroupAndRange(PARTITION_KEY_GROUP, null).size());
+
+        // Delete the value and validate that the lookups no longer see it.
+        dmDao.lockPartitionKeyGroup(partitionKeyGroupEntity);
+        partitionKeyGroupEntity.getExpectedPartitionValues().remove(expectedPartitionValueEntity);
+        dmDao.saveAndFlush(partitionKeyGroupEntity);
+        assertNull(dmDao.getExpectedPartitionValue(expectedPartitionValueKey, 1));
+        assertEquals(1, dmDao.getExpectedPartitionValuesByGroupAndRange(PARTITION_KEY_GROUP, null).size());
+    }
+
+    @Test
+    public void testDeleteExpectedPartitionValuesByGroupAndRange()
+    {
+        List<ExpectedPartitionValueEntity> expectedPartitionValueEntities = createExpectedPartitionValueProcessDatesForApril2014(PARTITION_KEY_GROUP);
+
+        // Delete the values of the second week of April, 2014.
+        PartitionValueRange partitionValueRange = new PartitionValueRange(getDateAsString(2014, 3, 7), getDateAsString(2014, 3, 11));
+        assertEquals(5,
+            dmDao.deleteExpectedPartitionValuesByGroupAndRange(expectedPartitionValueEntities.get(0).getPartitionKeyGroup(), partitionValueRange));
+
+        // Validate that only the values within the range got deleted.
+        assertEquals(0, dmDao.getExpectedPartitionValuesByGroupAndRange(PARTITION_KEY_GROUP, partitionValueRange).size());
+        assertEquals(17, dmDao.getExpectedPartitionValuesByGroupAndRange(PARTITION_KEY_GROUP, null).size());
+    }
+
     /**
      * Test DAO method to retrieve expected partition values by range.
      */
@@ -1818,6 +1877,22 @@ public class DmDaoTest extends AbstractDaoTest
         assertNull(oldestJmsMessageEntity);
     }
 
+    @Test
+    public void testLockJmsMessage() throws Exception
+    {
+        // Create a JMS message.
+        JmsMessageEntity jmsMessageEntity = createJmsMessageEntity(JMS_QUEUE_NAME, MESSAGE_TEXT);
+
+        // Lock the JMS message and validate the results.
+        JmsMessageEntity lockedJmsMessageEntity = dmDao.lockJmsMessage(jmsMessageEntity.getId());
+        assertNotNull(lockedJmsMessageEntity);
+        assertEquals(jmsMessageEntity.getId(), lockedJmsMessageEntity.getId());
+
+        // Remove the JMS message from the queue and validate that it can no longer be locked.
+        dmDao.delete(lockedJmsMessageEntity);
+        assertNull(dmDao.lockJmsMessage(jmsMessageEntity.getId()));
+    }
+
     // OnDemandPricing
 
     @Test
@@ -1840,8 +1915,80 @@ public class DmDaoTest extends AbstractDaoTest
         assertNull(dmDao.getOnDemandPrice(AWS_REGION, "I_DO_NOT_EXIST"));
     }
 
+    // Auditing
+
+    @Test
+    public void testSaveAuditFieldsPopulatedForCascadedEntities()
+    {
+        // Create a business object data with a storage unit and storage files that are only persisted by cascading the save of their parent.
+        BusinessObjectDataEntity businessObjectDataEntity = createBusinessObjectDataEntity();
+        StorageUnitEntity storageUnitEntity = addStorageUnitWithFiles(businessObjectDataEntity, 3);
+        dmDao.saveAndRefresh(businessObjectDataEntity);
+
+        // Validate the audit fields of the cascaded entities.
+        validateAuditFields(storageUnitEntity);
+        for (StorageFileEntity storageFileEntity : storageUnitEntity.getStorageFiles())
+        {
+            validateAuditFields(storageFileEntity);
+        }
+
+        // Update a storage file that has an updated on value from before its creation and validate that only its updated on field gets restamped.
+        StorageFileEntity storageFileEntity = storageUnitEntity.getStorageFiles().iterator().next();
+        Timestamp createdOn = storageFileEntity.getCreatedOn();
+        Timestamp oldUpdatedOn = new Timestamp(createdOn.getTime() - 86400000L);
+        storageFileEntity.setUpdatedOn(oldUpdatedOn);
+        storageFileEntity.setRowCount(ROW_COUNT_1000 + 1);
+        dmDao.saveAndRefresh(storageFileEntity);
+        assertEquals(createdOn, storageFileEntity.getCreatedOn());
+        assertNotEquals(oldUpdatedOn, storageFileEntity.getUpdatedOn());
+        assertTrue(storageFileEntity.getUpdatedOn().compareTo(createdOn) >= 0);
+    }
+
     // Helper methods.
 
+    /**
+     * Adds a new storage unit with new storage files to a business object data without persisting them.
+     *
+     * @param businessObjectDataEntity the business object data entity.
+     * @param storageFileCount the number of storage files to add.
+     *
+     * @return the storage unit entity.
+     */
+    private StorageUnitEntity addStorageUnitWithFiles(BusinessObjectDataEntity businessObjectDataEntity, int storageFileCount)
+    {
+        StorageUnitEntity storageUnitEntity = new StorageUnitEntity();
+        storageUnitEntity.setStorage(createStorageEntity());
+        storageUnitEntity.setBusinessObjectData(businessObjectDataEntity);
+
+        List<StorageFileEntity> storageFileEntities = new ArrayList<>();
+        for (int i = 0; i < storageFileCount; i++)
+        {
+            StorageFileEntity storageFileEntity = new StorageFileEntity();
+            storageFileEntity.setStorageUnit(storageUnitEntity);
+            storageFileEntity.setPath(String.format("%s/%d_%s", TEST_S3_KEY_PREFIX, i, LOCAL_FILE));
+            storageFileEntity.setFileSizeBytes(FILE_SIZE_1_KB);
+            storageFileEntity.setRowCount(ROW_COUNT_1000);
+            storageFileEntities.add(storageFileEntity);
+        }
+        storageUnitEntity.setStorageFiles(storageFileEntities);
+
+        businessObjectDataEntity.getStorageUnits().add(storageUnitEntity);
+        return storageUnitEntity;
+    }
+
+    /**
+     * Validates that the audit fields of an entity were populated for the system user.
+     *
+     * @param auditableEntity the auditable entity.
+     */
+    private void validateAuditFields(AuditableEntity auditableEntity)
+    {
+        assertEquals(DmDaoSecurityHelper.SYSTEM_USER, auditableEntity.getCreatedBy());
+        assertEquals(DmDaoSecurityHelper.SYSTEM_USER, auditableEntity.getUpdatedBy());
+        assertNotNull(auditableEntity.getCreatedOn());
+        assertNotNull(auditableEntity.getUpdatedOn());
+    }
+
     /**
      * Gets a date as a string.
      *
@@ -25,8 +25,12 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 
 import com.amazonaws.AmazonServiceException;
 import com.amazonaws.services.s3.model.GetObjectRequest;
@@ -35,6 +39,7 @@ import com.amazonaws.services.s3.model.PutObjectRequest;
 import com.amazonaws.services.s3.model.S3Object;
 import com.amazonaws.services.s3.model.S3ObjectInputStream;
 import com.amazonaws.services.s3.transfer.Transfer;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.log4j.Level;
@@ -49,9 +54,11 @@ import org.junit.Test;
 import org.finra.dm.dao.impl.MockS3OperationsImpl;
 import org.finra.dm.dao.impl.S3DaoImpl;
 import org.finra.dm.model.ObjectNotFoundException;
+import org.finra.dm.model.dto.ConfigurationValue;
 import org.finra.dm.model.dto.S3FileCopyRequestParamsDto;
 import org.finra.dm.model.dto.S3FileTransferRequestParamsDto;
 import org.finra.dm.model.dto.S3FileTransferResultsDto;
+import org.finra.dm.model.dto.S3TransferredFileDto;
 import org.finra.dm.model.api.xml.StorageFile;
 
 /**
@@ -110,6 +117,33 @@ public class S3DaoTest extends AbstractDaoTest
         assertEquals(Long.valueOf(1L), resultsDto.getTotalFilesTransferred());
     }
 
+    /**
+     * Test S3 file copy of an object larger than the copy part size, which is copied as a parallel multipart copy.
+     */
+    @Test
+    public void testCopyFileMultipart() throws Exception
+    {
+        Map<String, Object> overrideMap = new HashMap<>();
+        overrideMap.put(ConfigurationValue.S3_COPY_PART_SIZE_BYTES.getKey(), 100L);
+        modifyPropertySourceInEnvironment(overrideMap);
+
+        try
+        {
+            S3FileCopyRequestParamsDto transferDto = new S3FileCopyRequestParamsDto();
+            transferDto.setSourceBucketName(getS3LoadingDockBucketName());
+            transferDto.setTargetBucketName(getS3ExternalBucketName());
+            transferDto.setS3KeyPrefix("testKeyPrefix");
+            transferDto.setKmsKeyId(MockS3OperationsImpl.MOCK_KMS_ID);
+            S3FileTransferResultsDto resultsDto = s3Dao.copyFile(transferDto);
+            assertEquals(Long.valueOf(1L), resultsDto.getTotalFilesTransferred());
+            assertEquals(Long.valueOf(FILE_SIZE_1_KB), resultsDto.getTotalBytesTransferred());
+        }
+        finally
+        {
+            restorePropertySourceInEnvironment();
+        }
+    }
+
     /**
      * Test S3 file copy with an invalid KMS Id. This should throw an AmazonServiceException.
      */
@@ -245,6 +279,72 @@ public class S3DaoTest extends AbstractDaoTest
         s3Dao.listDirectory(null);
     }
 
+    /**
+     * Test that getDirectoryIterator streams through the S3 objects matching the S3 key prefix.
+     */
+    @Test
+    public void testGetDirectoryIterator()
+    {
+        S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto = getTestS3FileTransferRequestParamsDto();
+        s3FileTransferRequestParamsDto.setS3KeyPrefix(TEST_S3_KEY_PREFIX + "/");
+
+        // Put a 0 byte directory marker and two files in the S3 directory and a file outside of it.
+        List<String> keys = Arrays.asList(TEST_S3_KEY_PREFIX + "/", TEST_S3_KEY_PREFIX + "/" + LOCAL_FILE, TEST_S3_KEY_PREFIX + "/sub/" + LOCAL_FILE,
+            TEST_S3_KEY_PREFIX + "_other/" + LOCAL_FILE);
+        for (String key : keys)
+        {
+            s3Operations.putObject(new PutObjectRequest(s3FileTransferRequestParamsDto.getS3BucketName(), key,
+                new ByteArrayInputStream(new byte[key.endsWith("/") ? 0 : 1]), new ObjectMetadata()), null);
+        }
+
+        // Validate that the directory marker is only returned when 0 byte directory markers are not ignored.
+        Assert.assertEquals(new HashSet<>(keys.subList(0, 3)), getFilePaths(s3Dao.getDirectoryIterator(s3FileTransferRequestParamsDto, false)));
+        Assert.assertEquals(new HashSet<>(keys.subList(1, 3)), getFilePaths(s3Dao.getDirectoryIterator(s3FileTransferRequestParamsDto, true)));
+    }
+
+    /**
+     * Test that getDirectoryIterator can't be used after it is closed.
+     */
+    @Test
+    public void testGetDirectoryIteratorClosed()
+    {
+        S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto = getTestS3FileTransferRequestParamsDto();
+        s3FileTransferRequestParamsDto.setS3KeyPrefix(TEST_S3_KEY_PREFIX + "/");
+
+        StorageFileIterator storageFileIterator = s3Dao.getDirectoryIterator(s3FileTransferRequestParamsDto, false);
+        storageFileIterator.close();
+
+        // Closing the iterator again has no effect.
+        storageFileIterator.close();
+
+        try
+        {
+            storageFileIterator.hasNext();
+            fail("Suppose to throw an IllegalStateException.");
+        }
+        catch (IllegalStateException e)
+        {
+            assertEquals("The S3 directory listing has been closed.", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testGetDirectoryIteratorNoSuchBucket()
+    {
+        S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto = new S3FileTransferRequestParamsDto();
+        s3FileTransferRequestParamsDto.setS3BucketName(MockS3OperationsImpl.MOCK_S3_BUCKET_NAME_NO_SUCH_BUCKET_EXCEPTION);
+
+        try (StorageFileIterator storageFileIterator = s3Dao.getDirectoryIterator(s3FileTransferRequestParamsDto, false))
+        {
+            storageFileIterator.hasNext();
+            fail("Suppose to throw an IllegalArgumentException.");
+        }
+        catch (IllegalArgumentException e)
+        {
+            assertEquals("The specified bucket '" + MockS3OperationsImpl.MOCK_S3_BUCKET_NAME_NO_SUCH_BUCKET_EXCEPTION + "' does not exist.", e.getMessage());
+        }
+    }
+
     /**
      * Test that we are able to perform the uploadFile S3Dao operation on S3 using our DAO tier.
      */
@@ -564,6 +664,30 @@ public class S3DaoTest extends AbstractDaoTest
         Assert.assertTrue(storageFiles.size() == 0);
     }
 
+    /**
+     * Test that deleteDirectory deletes a directory with more objects than fit in a single multi-object delete request.
+     */
+    @Test
+    public void testDeleteDirectoryMultipleDeleteRequests()
+    {
+        S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto = getTestS3FileTransferRequestParamsDto();
+        s3FileTransferRequestParamsDto.setS3KeyPrefix(TEST_S3_KEY_PREFIX + "/");
+
+        // Put 2500 objects in the S3 directory, which takes 3 multi-object delete requests to delete.
+        for (int i = 0; i < 2500; i++)
+        {
+            s3Operations.putObject(new PutObjectRequest(s3FileTransferRequestParamsDto.getS3BucketName(), TEST_S3_KEY_PREFIX + "/" + i,
+                new ByteArrayInputStream(new byte[1]), new ObjectMetadata()), null);
+        }
+        Assert.assertEquals(2500, s3Dao.listDirectory(s3FileTransferRequestParamsDto).size());
+
+        // Delete directory from S3 using s3Dao.
+        s3Dao.deleteDirectory(s3FileTransferRequestParamsDto);
+
+        // Validate that S3 directory got deleted.
+        Assert.assertTrue(s3Dao.listDirectory(s3FileTransferRequestParamsDto).isEmpty());
+    }
+
     @Test
     public void testDeleteDirectoryNullParamsDto()
     {
@@ -634,12 +758,70 @@ public class S3DaoTest extends AbstractDaoTest
 
         // Validate results.
         Assert.assertTrue(results.getTotalFilesTransferred() == LOCAL_FILES.size());
+        Assert.assertEquals(Long.valueOf(FILE_SIZE_1_KB * LOCAL_FILES.size()), results.getTotalBytesTransferred());
 
         // Validate that we have the directory downloaded from S3.
         for (String file : LOCAL_FILES)
         {
             Assert.assertTrue(Paths.get(localTempPath.toString(), TEST_S3_KEY_PREFIX, file).toFile().isFile());
         }
+
+        // Validate that the transferred files describe the downloaded S3 objects.
+        validateTransferredFiles(results, LOCAL_FILES);
+    }
+
+    /**
+     * Test that downloadDirectory downloads all the S3 objects when only one of them is allowed to be in flight at a time.
+     */
+    @Test
+    public void testDownloadDirectoryConcurrencyLimited() throws Exception
+    {
+        Map<String, Object> overrideMap = new HashMap<>();
+        overrideMap.put(ConfigurationValue.S3_DOWNLOAD_CONCURRENCY.getKey(), 1);
+        modifyPropertySourceInEnvironment(overrideMap);
+
+        try
+        {
+            testDownloadDirectory();
+        }
+        finally
+        {
+            restorePropertySourceInEnvironment();
+        }
+    }
+
+    /**
+     * Test that downloadDirectory creates local directories for the 0 byte objects that represent S3 directories instead of downloading them.
+     */
+    @Test
+    public void testDownloadDirectoryZeroByteDirectoryMarkersPresent() throws IOException, InterruptedException
+    {
+        S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto = getTestS3FileTransferRequestParamsDto();
+        s3FileTransferRequestParamsDto.setS3KeyPrefix(TEST_S3_KEY_PREFIX + "/");
+        s3FileTransferRequestParamsDto.setLocalPath(localTempPath.toString());
+
+        // Put a file and 0 byte directory markers in the S3 directory.
+        s3Operations.putObject(new PutObjectRequest(s3FileTransferRequestParamsDto.getS3BucketName(), TEST_S3_KEY_PREFIX + "/" + LOCAL_FILE,
+            new ByteArrayInputStream(new byte[(int) FILE_SIZE_1_KB]), new ObjectMetadata()), null);
+        for (String directoryMarker : S3_DIRECTORY_MARKERS)
+        {
+            String key = TEST_S3_KEY_PREFIX + "/" + (directoryMarker.isEmpty() ? "" : directoryMarker + "/");
+            s3Operations.putObject(
+                new PutObjectRequest(s3FileTransferRequestParamsDto.getS3BucketName(), key, new ByteArrayInputStream(new byte[0]), new ObjectMetadata()),
+                null);
+        }
+
+        // Execute download.
+        S3FileTransferResultsDto results = s3Dao.downloadDirectory(s3FileTransferRequestParamsDto);
+
+        // Validate that only the file was downloaded and that the S3 directories were created locally.
+        Assert.assertEquals(Long.valueOf(1L), results.getTotalFilesTransferred());
+        validateTransferredFiles(results, Arrays.asList(LOCAL_FILE));
+        Assert.assertTrue(Paths.get(localTempPath.toString(), TEST_S3_KEY_PREFIX, LOCAL_FILE).toFile().isFile());
+        for (String directoryMarker : S3_DIRECTORY_MARKERS)
+        {
+            Assert.assertTrue(Paths.get(localTempPath.toString(), TEST_S3_KEY_PREFIX, directoryMarker).toFile().isDirectory());
+        }
     }
 
     @Test
@@ -790,4 +972,54 @@ public class S3DaoTest extends AbstractDaoTest
 
         Assert.assertEquals("properties key '" + expectedKey + "'", expectedValue, properties.get(expectedKey));
     }
+
+    /**
+     * Validates the transferred files of a directory download against the files expected to be downloaded.
+     *
+     * @param results the results of the directory download
+     * @param files the files relative to the test S3 key prefix expected to be downloaded
+     */
+    private void validateTransferredFiles(S3FileTransferResultsDto results, List<String> files) throws IOException
+    {
+        Assert.assertEquals(files.size(), results.getTransferredFiles().size());
+
+        Map<String, S3TransferredFileDto> transferredFiles = new HashMap<>();
+        for (S3TransferredFileDto transferredFile : results.getTransferredFiles())
+        {
+            transferredFiles.put(transferredFile.getS3Key(), transferredFile);
+        }
+
+        for (String file : files)
+        {
+            S3TransferredFileDto transferredFile = transferredFiles.get(TEST_S3_KEY_PREFIX + "/" + file);
+            Assert.assertNotNull(transferredFile);
+
+            // The ETag of an object that is not uploaded in parts is the MD5 digest of its content.
+            File localFile = Paths.get(localTempPath.toString(), TEST_S3_KEY_PREFIX, file).toFile();
+            Assert.assertEquals(Long.valueOf(localFile.length()), transferredFile.getFileSizeBytes());
+            Assert.assertEquals(DigestUtils.md5Hex(FileUtils.readFileToByteArray(localFile)), transferredFile.getETag());
+        }
+    }
+
+    /**
+     * Drains a storage file iterator and closes it.
+     *
+     * @param storageFileIterator the storage file iterator
+     *
+     * @return the set of file paths of the storage files
+     */
+    private Set<String> getFilePaths(StorageFileIterator storageFileIterator)
+    {
+        Set<String> filePaths = new HashSet<>();
+
+        try (StorageFileIterator iterator = storageFileIterator)
+        {
+            while (iterator.hasNext())
+            {
+                filePaths.add(iterator.next().getFilePath());
+            }
+        }
+
+        return filePaths;
+    }
 }
@@ -0,0 +1,130 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.dao.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import org.finra.dm.core.helper.MetricsHelper;
+import org.finra.dm.dao.AbstractDaoTest;
+import org.finra.dm.model.dto.ConfigurationValue;
+
+/**
+ * This class tests functionality within the AwsRateLimiter class.
+ */
+public class AwsRateLimiterTest extends AbstractDaoTest
+{
+    @Autowired
+    private AwsRateLimiter awsRateLimiter;
+
+    @Autowired
+    private MetricsHelper metricsHelper;
+
+    @Test
+    public void testGetRateNotRateLimited()
+    {
+        assertNull(awsRateLimiter.getRate("emr", "listEmrClusters"));
+    }
+
+    @Test
+    public void testGetRateOperationTakesPrecedence() throws Exception
+    {
+        String awsServiceName = "testService" + Math.random();
+        modifyRateLimits(awsServiceName + "=10|" + awsServiceName + ".operation1=4|" + awsServiceName + ".operation2=invalid");
+
+        try
+        {
+            assertEquals(4.0, awsRateLimiter.getRate(awsServiceName, "operation1"), 0.0);
+            assertEquals(10.0, awsRateLimiter.getRate(awsServiceName, "operation2"), 0.0);
+            assertNull(awsRateLimiter.getRate("otherService", "operation1"));
+        }
+        finally
+        {
+            restorePropertySourceInEnvironment();
+        }
+    }
+
+    @Test
+    public void testAcquireWaitsForRate() throws Exception
+    {
+        String awsServiceName = "testService" + Math.random();
+        modifyRateLimits(awsServiceName + "=2");
+
+        try
+        {
+            // The bucket holds one second worth of calls, so the third and fourth calls wait half a second each.
+            long startTime = System.currentTimeMillis();
+            for (int i = 0; i < 4; i++)
+            {
+                awsRateLimiter.acquire(awsServiceName, "operation");
+            }
+            assertTrue(System.currentTimeMillis() - startTime >= 900);
+            assertEquals(2, metricsHelper.getHistogram(AwsRateLimiter.METRIC_WAIT_TIME_PREFIX + awsServiceName).getCount());
+        }
+        finally
+        {
+            restorePropertySourceInEnvironment();
+        }
+    }
+
+    @Test
+    public void testOnThrottledBacksOff() throws Exception
+    {
+        String awsServiceName = "testService" + Math.random();
+        modifyRateLimits(awsServiceName + "=10");
+
+        try
+        {
+            // The rate is halved once per second at most, however many calls were throttled.
+            awsRateLimiter.onThrottled(awsServiceName, "operation");
+            awsRateLimiter.onThrottled(awsServiceName, "operation");
+            assertEquals(5.0, awsRateLimiter.getRate(awsServiceName, "operation"), 0.001);
+            assertEquals(2, metricsHelper.getCounter(AwsRateLimiter.METRIC_THROTTLED_PREFIX + awsServiceName + ".operation").get());
+
+            // Each successful call gets back one percent of the configured rate.
+            for (int i = 0; i < 10; i++)
+            {
+                awsRateLimiter.onSuccess(awsServiceName, "operation");
+            }
+            assertEquals(6.0, awsRateLimiter.getRate(awsServiceName, "operation"), 0.001);
+        }
+        finally
+        {
+            restorePropertySourceInEnvironment();
+        }
+    }
+
+    /**
+     * Overrides the configured AWS rate limits. The caller must restore the property source in the environment.
+     *
+     * @param rateLimits the rate limits.
+     *
+     * @throws Exception if the environment couldn't be modified.
+     */
+    private void modifyRateLimits(String rateLimits) throws Exception
+    {
+        Map<String, Object> overrideMap = new HashMap<>();
+        overrideMap.put(ConfigurationValue.AWS_RATE_LIMITS.getKey(), rateLimits);
+        modifyPropertySourceInEnvironment(overrideMap);
+    }
+}
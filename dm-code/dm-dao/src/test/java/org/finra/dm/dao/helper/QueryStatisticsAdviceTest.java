@@ -0,0 +1,187 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.dao.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.aspectj.lang.Signature;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import org.finra.dm.core.MockMethodSignature;
+import org.finra.dm.core.helper.MetricsHelper;
+import org.finra.dm.dao.AbstractDaoTest;
+import org.finra.dm.dao.QueryStatistics;
+import org.finra.dm.model.jpa.NamespaceEntity;
+import org.finra.dm.model.dto.ConfigurationValue;
+
+/**
+ * This class tests the query statistics collected by the QueryStatisticsAdvice class and the Hibernate interceptor and event listeners.
+ */
+public class QueryStatisticsAdviceTest extends AbstractDaoTest
+{
+    private static final String REQUEST_METHOD_NAME = "testRequest";
+
+    @Autowired
+    private QueryStatisticsAdvice queryStatisticsAdvice;
+
+    @Autowired
+    private MetricsHelper metricsHelper;
+
+    @Test
+    public void testQueryStatistics()
+    {
+        createNamespaceEntity(NAMESPACE_CD);
+        entityManager.clear();
+
+        QueryStatistics queryStatistics = QueryStatistics.begin("testQueryStatistics");
+        try
+        {
+            for (int i = 0; i < 3; i++)
+            {
+                dmDao.getNamespaceByCd(NAMESPACE_CD);
+            }
+        }
+        finally
+        {
+            assertTrue(QueryStatistics.end());
+        }
+        assertNull(QueryStatistics.getCurrent());
+
+        // Each query is issued as a separate statement tagged with the DAO method and the namespace entity gets loaded.
+        assertTrue(queryStatistics.getStatementCount() >= 3);
+        assertTrue(queryStatistics.getEntityLoadCount() >= 1);
+
+        boolean statementFound = false;
+        for (QueryStatistics.StatementStatistics statementStatistics : queryStatistics.getStatementStatistics())
+        {
+            if (statementStatistics.getCount() == 3)
+            {
+                statementFound = true;
+                assertTrue(statementStatistics.getDaoMethods().contains("DmDaoImpl.getNamespaceByCd"));
+            }
+        }
+        assertTrue(statementFound);
+        assertTrue(metricsHelper.getHistogram(QueryStatisticsAdvice.METRIC_DAO_LATENCY_PREFIX + "DmDaoImpl.getNamespaceByCd").getCount() >= 3);
+    }
+
+    @Test
+    public void testQueryStatisticsFlushesAndRefreshes()
+    {
+        QueryStatistics queryStatistics = QueryStatistics.begin("testQueryStatisticsFlushesAndRefreshes");
+        try
+        {
+            NamespaceEntity namespaceEntity = new NamespaceEntity();
+            namespaceEntity.setCode(NAMESPACE_CD);
+            dmDao.saveAndRefresh(namespaceEntity);
+            assertEquals(1, queryStatistics.getFlushCount());
+            assertEquals(1, queryStatistics.getRefreshCount());
+
+            // Saving without a refresh only flushes.
+            namespaceEntity = new NamespaceEntity();
+            namespaceEntity.setCode(NAMESPACE_CD_2);
+            dmDao.saveAndFlush(namespaceEntity);
+            assertEquals(2, queryStatistics.getFlushCount());
+            assertEquals(1, queryStatistics.getRefreshCount());
+        }
+        finally
+        {
+            assertTrue(QueryStatistics.end());
+        }
+    }
+
+    @Test
+    public void testQueryStatisticsNested()
+    {
+        QueryStatistics queryStatistics = QueryStatistics.begin("testQueryStatisticsNested");
+        assertEquals(queryStatistics, QueryStatistics.begin("nested"));
+        assertFalse(QueryStatistics.end());
+        assertEquals("testQueryStatisticsNested", QueryStatistics.getCurrent().getName());
+        assertTrue(QueryStatistics.end());
+        assertNull(QueryStatistics.getCurrent());
+    }
+
+    @Test
+    public void testCollectRequestStatisticsNPlusOne() throws Throwable
+    {
+        createNamespaceEntity(NAMESPACE_CD);
+
+        String requestName = MockProceedingJoinPoint.class.getSimpleName() + "." + REQUEST_METHOD_NAME;
+        long statementsCount = metricsHelper.getHistogram(QueryStatisticsAdvice.METRIC_STATEMENTS_PREFIX + requestName).getCount();
+        long nPlusOneCount = metricsHelper.getCounter(QueryStatisticsAdvice.METRIC_N_PLUS_ONE_PREFIX + requestName).get();
+        long budgetExceededCount = metricsHelper.getCounter(QueryStatisticsAdvice.METRIC_BUDGET_EXCEEDED_PREFIX + requestName).get();
+
+        Map<String, Object> overrideMap = new HashMap<>();
+        overrideMap.put(ConfigurationValue.DB_N_PLUS_ONE_THRESHOLD.getKey(), 5);
+        overrideMap.put(ConfigurationValue.DB_REQUEST_STATEMENT_BUDGET.getKey(), 5);
+        modifyPropertySourceInEnvironment(overrideMap);
+        try
+        {
+            queryStatisticsAdvice.collectRequestStatistics(new MockProceedingJoinPoint(10));
+        }
+        finally
+        {
+            restorePropertySourceInEnvironment();
+        }
+
+        // The repeated query is reported as an N+1 select pattern and the request exceeds its budget.
+        assertEquals(statementsCount + 1, metricsHelper.getHistogram(QueryStatisticsAdvice.METRIC_STATEMENTS_PREFIX + requestName).getCount());
+        assertEquals(nPlusOneCount + 1, metricsHelper.getCounter(QueryStatisticsAdvice.METRIC_N_PLUS_ONE_PREFIX + requestName).get());
+        assertEquals(budgetExceededCount + 1, metricsHelper.getCounter(QueryStatisticsAdvice.METRIC_BUDGET_EXCEEDED_PREFIX + requestName).get());
+    }
+
+    /**
+     * A mock proceeding join point that looks up the same namespace a number of times.
+     */
+    public class MockProceedingJoinPoint extends org.finra.dm.core.MockProceedingJoinPoint
+    {
+        private final int queryCount;
+
+        public MockProceedingJoinPoint(int queryCount)
+        {
+            this.queryCount = queryCount;
+        }
+
+        @Override
+        public Object proceed() throws Throwable
+        {
+            for (int i = 0; i < queryCount; i++)
+            {
+                dmDao.getNamespaceByCd(NAMESPACE_CD);
+            }
+            return this;
+        }
+
+        @Override
+        public Signature getSignature()
+        {
+            return new MockMethodSignature()
+            {
+                @Override
+                public String getName()
+                {
+                    return REQUEST_METHOD_NAME;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.dao.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import org.finra.dm.core.helper.MetricsHelper;
+import org.finra.dm.dao.AbstractDaoTest;
+import org.finra.dm.dao.impl.MockS3OperationsImpl;
+import org.finra.dm.model.dto.ConfigurationValue;
+
+/**
+ * This class tests functionality within the S3CopyEngine class.
+ */
+public class S3CopyEngineTest extends AbstractDaoTest
+{
+    private static final long OBJECT_SIZE_BYTES = 1000L;
+
+    @Autowired
+    private S3CopyEngine s3CopyEngine;
+
+    @Autowired
+    private MetricsHelper metricsHelper;
+
+    @Test
+    public void testCopyObject() throws Exception
+    {
+        modifyCopySettings(3);
+
+        try
+        {
+            long partCount = metricsHelper.getHistogram(S3CopyEngine.METRIC_PART).getCount();
+            long copyCount = metricsHelper.getHistogram(S3CopyEngine.METRIC_COPY).getCount();
+
+            assertEquals(OBJECT_SIZE_BYTES, copyObject("testKey"));
+
+            // The 1000 byte object is copied as 10 parts of 100 bytes.
+            assertEquals(partCount + 10, metricsHelper.getHistogram(S3CopyEngine.METRIC_PART).getCount());
+            assertEquals(copyCount + 1, metricsHelper.getHistogram(S3CopyEngine.METRIC_COPY).getCount());
+        }
+        finally
+        {
+            restorePropertySourceInEnvironment();
+        }
+    }
+
+    @Test
+    public void testCopyObjectPartRetried() throws Exception
+    {
+        modifyCopySettings(2);
+
+        try
+        {
+            long partRetryCount = metricsHelper.getCounter(S3CopyEngine.METRIC_PART_RETRIES).get();
+
+            // The first attempt to copy each of the 10 parts fails.
+            assertEquals(OBJECT_SIZE_BYTES, copyObject("testKey" + MockS3OperationsImpl.MOCK_S3_FILE_NAME_FLAKY_PART_COPY));
+            assertEquals(partRetryCount + 10, metricsHelper.getCounter(S3CopyEngine.METRIC_PART_RETRIES).get());
+        }
+        finally
+        {
+            restorePropertySourceInEnvironment();
+        }
+    }
+
+    @Test
+    public void testCopyObjectPartFailed() throws Exception
+    {
+        modifyCopySettings(2);
+
+        try
+        {
+            copyObject("testKey" + MockS3OperationsImpl.MOCK_S3_FILE_NAME_FAILED_PART_COPY);
+            fail("Should throw an AmazonServiceException.");
+        }
+        catch (AmazonServiceException e)
+        {
+            assertEquals("test part copy exception", e.getErrorMessage());
+        }
+        finally
+        {
+            restorePropertySourceInEnvironment();
+        }
+    }
+
+    /**
+     * Copies a 1000 byte object with the mock S3 operations.
+     *
+     * @param sourceKey the source key.
+     *
+     * @return the number of bytes copied.
+     */
+    private long copyObject(String sourceKey) throws InterruptedException
+    {
+        ObjectMetadata objectMetadata = new ObjectMetadata();
+        objectMetadata.setContentLength(OBJECT_SIZE_BYTES);
+
+        return s3CopyEngine
+            .copyObject(getS3LoadingDockBucketName(), sourceKey, objectMetadata, getS3ExternalBucketName(), sourceKey, MockS3OperationsImpl.MOCK_KMS_ID, null);
+    }
+
+    /**
+     * Overrides the copy settings to copy 100 byte parts and to leave the retries of failed parts to the copy engine.
+     *
+     * @param maxAttempts the maximum number of attempts per part.
+     */
+    private void modifyCopySettings(int maxAttempts) throws Exception
+    {
+        Map<String, Object> overrideMap = new HashMap<>();
+        overrideMap.put(ConfigurationValue.S3_COPY_PART_SIZE_BYTES.getKey(), 100L);
+        overrideMap.put(ConfigurationValue.S3_COPY_PART_CONCURRENCY.getKey(), 3);
+        overrideMap.put(ConfigurationValue.S3_COPY_PART_MAX_ATTEMPTS.getKey(), maxAttempts);
+        overrideMap.put(ConfigurationValue.AWS_S3_EXCEPTION_MAX_RETRY_DURATION_SECS.getKey(), 0);
+        modifyPropertySourceInEnvironment(overrideMap);
+    }
+}
@@ -0,0 +1,163 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.dao.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.amazonaws.services.s3.model.ListObjectsRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import org.finra.dm.core.helper.MetricsHelper;
+import org.finra.dm.dao.AbstractDaoTest;
+import org.finra.dm.dao.impl.MockS3OperationsImpl;
+import org.finra.dm.model.dto.ConfigurationValue;
+
+/**
+ * This class tests functionality within the S3DeleteEngine class.
+ */
+public class S3DeleteEngineTest extends AbstractDaoTest
+{
+    private static final int KEY_COUNT = 2500;
+
+    @Autowired
+    private S3DeleteEngine s3DeleteEngine;
+
+    @Autowired
+    private MetricsHelper metricsHelper;
+
+    /**
+     * Cleans up the objects put into the mock S3 buckets.
+     */
+    @After
+    public void cleanEnv()
+    {
+        s3Operations.rollback();
+    }
+
+    @Test
+    public void testDeleteObjects() throws Exception
+    {
+        modifyDeleteSettings(3);
+
+        try
+        {
+            List<String> keys = putObjects("testKey", KEY_COUNT);
+            long batchCount = metricsHelper.getHistogram(S3DeleteEngine.METRIC_BATCH).getCount();
+            long deleteCount = metricsHelper.getHistogram(S3DeleteEngine.METRIC_DELETE).getCount();
+
+            assertEquals(KEY_COUNT, s3DeleteEngine.deleteObjects(getS3ManagedBucketName(), keys.iterator(), null));
+
+            // The 2500 keys are deleted as 3 batches of up to 1000 keys.
+            assertEquals(batchCount + 3, metricsHelper.getHistogram(S3DeleteEngine.METRIC_BATCH).getCount());
+            assertEquals(deleteCount + 1, metricsHelper.getHistogram(S3DeleteEngine.METRIC_DELETE).getCount());
+            assertTrue(s3Operations.listObjects(new ListObjectsRequest().withBucketName(getS3ManagedBucketName()), null).getObjectSummaries().isEmpty());
+        }
+        finally
+        {
+            restorePropertySourceInEnvironment();
+        }
+    }
+
+    @Test
+    public void testDeleteObjectsKeyRetried() throws Exception
+    {
+        modifyDeleteSettings(2);
+
+        try
+        {
+            List<String> keys = putObjects("testKey", KEY_COUNT);
+            keys.addAll(putObjects("testKey" + MockS3OperationsImpl.MOCK_S3_FILE_NAME_FLAKY_DELETE, 5));
+            long keyRetryCount = metricsHelper.getCounter(S3DeleteEngine.METRIC_KEY_RETRIES).get();
+
+            // The first attempt to delete each of the 5 flaky keys fails and only those keys are retried.
+            assertEquals(KEY_COUNT + 5, s3DeleteEngine.deleteObjects(getS3ManagedBucketName(), keys.iterator(), null));
+            assertEquals(keyRetryCount + 5, metricsHelper.getCounter(S3DeleteEngine.METRIC_KEY_RETRIES).get());
+            assertTrue(s3Operations.listObjects(new ListObjectsRequest().withBucketName(getS3ManagedBucketName()), null).getObjectSummaries().isEmpty());
+        }
+        finally
+        {
+            restorePropertySourceInEnvironment();
+        }
+    }
+
+    @Test
+    public void testDeleteObjectsKeyFailed() throws Exception
+    {
+        modifyDeleteSettings(2);
+
+        try
+        {
+            List<String> keys = putObjects("testKey" + MockS3OperationsImpl.MOCK_S3_FILE_NAME_FAILED_DELETE, 1);
+            s3DeleteEngine.deleteObjects(getS3ManagedBucketName(), keys.iterator(), null);
+            fail("Should throw an IllegalStateException.");
+        }
+        catch (IllegalStateException e)
+        {
+            assertEquals(String.format("Failed to delete 1 keys/objects from bucket \"%s\" after 2 attempt(s). First failed key \"%s\": AccessDenied " +
+                "test delete error", getS3ManagedBucketName(), "testKey" + MockS3OperationsImpl.MOCK_S3_FILE_NAME_FAILED_DELETE + "0"), e.getMessage());
+        }
+        finally
+        {
+            restorePropertySourceInEnvironment();
+        }
+    }
+
+    /**
+     * Puts the specified number of 1 byte objects into the S3 managed bucket with the mock S3 operations.
+     *
+     * @param keyPrefix the prefix of the keys, which is followed by the index of each object.
+     * @param count the number of objects.
+     *
+     * @return the keys of the objects.
+     */
+    private List<String> putObjects(String keyPrefix, int count)
+    {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+        {
+            String key = keyPrefix + i;
+            s3Operations.putObject(new PutObjectRequest(getS3ManagedBucketName(), key, new ByteArrayInputStream(new byte[1]), new ObjectMetadata()), null);
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    /**
+     * Overrides the delete settings to leave the retries of failed keys to the delete engine.
+     *
+     * @param maxAttempts the maximum number of attempts per key.
+     */
+    private void modifyDeleteSettings(int maxAttempts) throws Exception
+    {
+        Map<String, Object> overrideMap = new HashMap<>();
+        overrideMap.put(ConfigurationValue.S3_DELETE_BATCH_CONCURRENCY.getKey(), 2);
+        overrideMap.put(ConfigurationValue.S3_DELETE_KEY_MAX_ATTEMPTS.getKey(), maxAttempts);
+        overrideMap.put(ConfigurationValue.AWS_S3_EXCEPTION_MAX_RETRY_DURATION_SECS.getKey(), 0);
+        modifyPropertySourceInEnvironment(overrideMap);
+    }
+}
@@ -27,6 +27,9 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Future;
 
 import com.amazonaws.AmazonClientException;
@@ -36,14 +39,22 @@ import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3Client;
 import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
 import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadResult;
 import com.amazonaws.services.s3.model.CopyObjectRequest;
+import com.amazonaws.services.s3.model.CopyPartRequest;
+import com.amazonaws.services.s3.model.CopyPartResult;
 import com.amazonaws.services.s3.model.DeleteObjectsRequest;
 import com.amazonaws.services.s3.model.DeleteObjectsRequest.KeyVersion;
 import com.amazonaws.services.s3.model.DeleteObjectsResult;
 import com.amazonaws.services.s3.model.DeleteObjectsResult.DeletedObject;
 import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
 import com.amazonaws.services.s3.model.ListMultipartUploadsRequest;
 import com.amazonaws.services.s3.model.ListObjectsRequest;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException.DeleteError;
 import com.amazonaws.services.s3.model.MultipartUpload;
 import com.amazonaws.services.s3.model.MultipartUploadListing;
 import com.amazonaws.services.s3.model.ObjectListing;
@@ -54,7 +65,6 @@ import com.amazonaws.services.s3.model.S3Object;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 import com.amazonaws.services.s3.transfer.Copy;
 import com.amazonaws.services.s3.transfer.Download;
-import com.amazonaws.services.s3.transfer.MultipleFileDownload;
 import com.amazonaws.services.s3.transfer.MultipleFileUpload;
 import com.amazonaws.services.s3.transfer.ObjectMetadataProvider;
 import com.amazonaws.services.s3.transfer.Transfer.TransferState;
@@ -63,10 +73,11 @@ import com.amazonaws.services.s3.transfer.TransferProgress;
 import com.amazonaws.services.s3.transfer.Upload;
 import com.amazonaws.services.s3.transfer.internal.CopyImpl;
 import com.amazonaws.services.s3.transfer.internal.DownloadImpl;
-import com.amazonaws.services.s3.transfer.internal.MultipleFileDownloadImpl;
 import com.amazonaws.services.s3.transfer.internal.MultipleFileUploadImpl;
 import com.amazonaws.services.s3.transfer.internal.TransferMonitor;
 import com.amazonaws.services.s3.transfer.internal.UploadImpl;
+import com.amazonaws.util.BinaryUtils;
+import com.amazonaws.util.Md5Utils;
 import org.apache.commons.io.IOUtils;
 import org.apache.http.HttpStatus;
 import org.apache.http.concurrent.BasicFuture;
@@ -103,6 +114,26 @@ public class MockS3OperationsImpl implements S3Operations
      */
     public static final String MOCK_S3_FILE_NAME_0_BYTE_SIZE = "mock_s3_file_name_0_byte_size";
 
+    /**
+     * Suffix to hint copy part operation to fail the first attempt to copy each part.
+     */
+    public static final String MOCK_S3_FILE_NAME_FLAKY_PART_COPY = "mock_s3_file_name_flaky_part_copy";
+
+    /**
+     * Suffix to hint copy part operation to fail every attempt to copy a part.
+     */
+    public static final String MOCK_S3_FILE_NAME_FAILED_PART_COPY = "mock_s3_file_name_failed_part_copy";
+
+    /**
+     * Suffix to hint delete objects operation to fail the first attempt to delete each such key.
+     */
+    public static final String MOCK_S3_FILE_NAME_FLAKY_DELETE = "mock_s3_file_name_flaky_delete";
+
+    /**
+     * Suffix to hint delete objects operation to fail every attempt to delete such a key.
+     */
+    public static final String MOCK_S3_FILE_NAME_FAILED_DELETE = "mock_s3_file_name_failed_delete";
+
     /**
      * A mock KMS ID.
      */
@@ -152,6 +183,16 @@ public class MockS3OperationsImpl implements S3Operations
      */
     private Map<String, MockS3Bucket> mockS3Buckets = new HashMap<>();
 
+    /**
+     * The parts that failed to copy once, by upload Id and part number.
+     */
+    private ConcurrentMap<String, Boolean> failedPartCopies = new ConcurrentHashMap<>();
+
+    /**
+     * The keys that failed to delete once, by bucket name and key.
+     */
+    private ConcurrentMap<String, Boolean> failedDeletes = new ConcurrentHashMap<>();
+
     /**
      * <p>
      * Creates and returns a new {@link ObjectMetadata} with the given parameters. Content length is defaulted to 1 bytes unless a hint is provided.
@@ -468,7 +509,86 @@ public class MockS3OperationsImpl implements S3Operations
     }
 
     /**
-     * Deletes a list of objects from a bucket.
+     * Simulates initiate multipart upload operation by returning a random upload Id.
+     */
+    @Override
+    public InitiateMultipartUploadResult initiateMultipartUpload(InitiateMultipartUploadRequest initiateMultipartUploadRequest, AmazonS3Client s3Client)
+    {
+        InitiateMultipartUploadResult initiateMultipartUploadResult = new InitiateMultipartUploadResult();
+        initiateMultipartUploadResult.setBucketName(initiateMultipartUploadRequest.getBucketName());
+        initiateMultipartUploadResult.setKey(initiateMultipartUploadRequest.getKey());
+        initiateMultipartUploadResult.setUploadId(UUID.randomUUID().toString());
+        return initiateMultipartUploadResult;
+    }
+
+    /**
+     * <p>
+     * Simulates copy part operation. This method does not actually copy any data, but returns a result with an ETag derived from the part number.
+     * </p>
+     * <p>
+     * This operation takes the following hints when suffixed in copyPartRequest.sourceKey:
+     * <dl>
+     * <p/>
+     * <dt>MOCK_S3_FILE_NAME_FLAKY_PART_COPY</dt>
+     * <dd>Throws a server side AmazonServiceException on the first attempt to copy each part</dd>
+     * <p/>
+     * <dt>MOCK_S3_FILE_NAME_FAILED_PART_COPY</dt>
+     * <dd>Always throws a server side AmazonServiceException</dd>
+     * <p/>
+     * </dl>
+     * </p>
+     */
+    @Override
+    public CopyPartResult copyPart(CopyPartRequest copyPartRequest, AmazonS3Client s3Client)
+    {
+        LOGGER.debug("copyPart(): copyPartRequest.getUploadId() = " + copyPartRequest.getUploadId() + ", copyPartRequest.getPartNumber() = " +
+            copyPartRequest.getPartNumber());
+
+        if (copyPartRequest.getSourceKey().endsWith(MOCK_S3_FILE_NAME_FAILED_PART_COPY) ||
+            (copyPartRequest.getSourceKey().endsWith(MOCK_S3_FILE_NAME_FLAKY_PART_COPY) &&
+                failedPartCopies.putIfAbsent(copyPartRequest.getUploadId() + ":" + copyPartRequest.getPartNumber(), Boolean.TRUE) == null))
+        {
+            AmazonServiceException exception = new AmazonServiceException("test part copy exception");
+            exception.setErrorType(AmazonServiceException.ErrorType.Service);
+            exception.setStatusCode(HttpStatus.SC_INTERNAL_SERVER_ERROR);
+            throw exception;
+        }
+
+        CopyPartResult copyPartResult = new CopyPartResult();
+        copyPartResult.setPartNumber(copyPartRequest.getPartNumber());
+        copyPartResult.setETag("etag" + copyPartRequest.getPartNumber());
+        return copyPartResult;
+    }
+
+    /**
+     * Simulates complete multipart upload operation. This method does not store any object in-memory.
+     */
+    @Override
+    public CompleteMultipartUploadResult completeMultipartUpload(CompleteMultipartUploadRequest completeMultipartUploadRequest, AmazonS3Client s3Client)
+    {
+        CompleteMultipartUploadResult completeMultipartUploadResult = new CompleteMultipartUploadResult();
+        completeMultipartUploadResult.setBucketName(completeMultipartUploadRequest.getBucketName());
+        completeMultipartUploadResult.setKey(completeMultipartUploadRequest.getKey());
+        return completeMultipartUploadResult;
+    }
+
+    /**
+     * <p>
+     * Deletes a list of objects from a bucket. The bucket is locked while the objects are deleted since the S3 deletions send their requests in parallel.
+     * </p>
+     * <p>
+     * This operation takes the following hints when a key is suffixed:
+     * <dl>
+     * <p/>
+     * <dt>MOCK_S3_FILE_NAME_FLAKY_DELETE</dt>
+     * <dd>Reports the key as failed with an "InternalError" on the first attempt to delete it</dd>
+     * <p/>
+     * <dt>MOCK_S3_FILE_NAME_FAILED_DELETE</dt>
+     * <dd>Always reports the key as failed with an "AccessDenied" error</dd>
+     * <p/>
+     * </dl>
+     * The failed keys are reported with a MultiObjectDeleteException, as S3 does.
+     * </p>
      */
     @Override
     public DeleteObjectsResult deleteObjects(DeleteObjectsRequest deleteObjectRequest, AmazonS3Client s3Client)
@@ -477,21 +597,39 @@ public class MockS3OperationsImpl implements S3Operations
             deleteObjectRequest.getKeys());
 
         List<DeletedObject> deletedObjects = new ArrayList<>();
+        List<DeleteError> deleteErrors = new ArrayList<>();
 
         MockS3Bucket mockS3Bucket = mockS3Buckets.get(deleteObjectRequest.getBucketName());
 
-        for (KeyVersion keyVersion : deleteObjectRequest.getKeys())
+        synchronized (mockS3Bucket)
         {
-            String s3ObjectKey = keyVersion.getKey();
-
-            if (mockS3Bucket.getObjects().remove(s3ObjectKey) != null)
+            for (KeyVersion keyVersion : deleteObjectRequest.getKeys())
             {
-                DeletedObject deletedObject = new DeletedObject();
-                deletedObject.setKey(s3ObjectKey);
-                deletedObjects.add(deletedObject);
+                String s3ObjectKey = keyVersion.getKey();
+
+                if (s3ObjectKey.endsWith(MOCK_S3_FILE_NAME_FAILED_DELETE) || (s3ObjectKey.endsWith(MOCK_S3_FILE_NAME_FLAKY_DELETE) &&
+                    failedDeletes.putIfAbsent(deleteObjectRequest.getBucketName() + "/" + s3ObjectKey, Boolean.TRUE) == null))
+                {
+                    DeleteError deleteError = new DeleteError();
+                    deleteError.setKey(s3ObjectKey);
+                    deleteError.setCode(s3ObjectKey.endsWith(MOCK_S3_FILE_NAME_FAILED_DELETE) ? "AccessDenied" : "InternalError");
+                    deleteError.setMessage("test delete error");
+                    deleteErrors.add(deleteError);
+                }
+                else if (mockS3Bucket.getObjects().remove(s3ObjectKey) != null)
+                {
+                    DeletedObject deletedObject = new DeletedObject();
+                    deletedObject.setKey(s3ObjectKey);
+                    deletedObjects.add(deletedObject);
+                }
             }
         }
 
+        if (!deleteErrors.isEmpty())
+        {
+            throw new MultiObjectDeleteException(deleteErrors, deletedObjects);
+        }
+
         return new DeleteObjectsResult(deletedObjects);
     }
 
@@ -519,17 +657,21 @@ public class MockS3OperationsImpl implements S3Operations
         MockS3Bucket mockS3Bucket = mockS3Buckets.get(bucketName);
         if (mockS3Bucket != null)
         {
-            for (MockS3Object mockS3Object : mockS3Bucket.getObjects().values())
+            synchronized (mockS3Bucket)
             {
-                String s3ObjectKey = mockS3Object.getKey();
-                if (listObjectsRequest.getPrefix() == null || s3ObjectKey.startsWith(listObjectsRequest.getPrefix()))
+                for (MockS3Object mockS3Object : mockS3Bucket.getObjects().values())
                 {
-                    S3ObjectSummary s3ObjectSummary = new S3ObjectSummary();
-                    s3ObjectSummary.setBucketName(bucketName);
-                    s3ObjectSummary.setKey(s3ObjectKey);
-                    s3ObjectSummary.setSize(mockS3Object.getData().length);
+                    String s3ObjectKey = mockS3Object.getKey();
+                    if (listObjectsRequest.getPrefix() == null || s3ObjectKey.startsWith(listObjectsRequest.getPrefix()))
+                    {
+                        S3ObjectSummary s3ObjectSummary = new S3ObjectSummary();
+                        s3ObjectSummary.setBucketName(bucketName);
+                        s3ObjectSummary.setKey(s3ObjectKey);
+                        s3ObjectSummary.setSize(mockS3Object.getData().length);
+                        s3ObjectSummary.setETag(BinaryUtils.toHex(Md5Utils.computeMD5Hash(mockS3Object.getData())));
 
-                    objectListing.getObjectSummaries().add(s3ObjectSummary);
+                        objectListing.getObjectSummaries().add(s3ObjectSummary);
+                    }
                 }
             }
         }
@@ -723,54 +865,6 @@ public class MockS3OperationsImpl implements S3Operations
         }
     }
 
-    /**
-     * Downloads objects with the given prefix into a destination directory.
-     * <p/>
-     * Creates any directory that does not exist in the path to the destination directory.
-     */
-    @Override
-    public MultipleFileDownload downloadDirectory(String bucketName, String keyPrefix, File destinationDirectory, TransferManager transferManager)
-    {
-        LOGGER.debug("downloadDirectory(): bucketName = " + bucketName + ", keyPrefix = " + keyPrefix + ", destinationDirectory = " + destinationDirectory);
-
-        MockS3Bucket mockS3Bucket = mockS3Buckets.get(bucketName);
-
-        List<Download> downloads = new ArrayList<>();
-        long totalBytes = 0;
-
-        if (mockS3Bucket != null)
-        {
-            for (MockS3Object mockS3Object : mockS3Bucket.getObjects().values())
-            {
-                if (mockS3Object.getKey().startsWith(keyPrefix))
-                {
-                    String filePath = destinationDirectory.getAbsolutePath() + "/" + mockS3Object.getKey();
-                    File file = new File(filePath);
-                    file.getParentFile().mkdirs(); // Create any directory in the path that does not exist.
-                    try (FileOutputStream fileOutputStream = new FileOutputStream(file))
-                    {
-                        LOGGER.debug("downloadDirectory(): Writing file " + file);
-                        fileOutputStream.write(mockS3Object.getData());
-                        totalBytes += mockS3Object.getData().length;
-                        downloads.add(new DownloadImpl(null, null, null, null, null, new GetObjectRequest(bucketName, mockS3Object.getKey()), file));
-                    }
-                    catch (IOException e)
-                    {
-                        throw new RuntimeException("Error writing to file " + file, e);
-                    }
-                }
-            }
-        }
-
-        TransferProgress progress = new TransferProgress();
-        progress.setTotalBytesToTransfer(totalBytes);
-        progress.updateProgress(totalBytes);
-
-        MultipleFileDownloadImpl multipleFileDownload = new MultipleFileDownloadImpl(null, progress, null, keyPrefix, bucketName, downloads);
-        multipleFileDownload.setState(TransferState.Completed);
-        return multipleFileDownload;
-    }
-
     /**
      * Puts an object.
      */
@@ -827,6 +921,8 @@ public class MockS3OperationsImpl implements S3Operations
     public void rollback()
     {
         mockS3Buckets.clear();
+        failedPartCopies.clear();
+        failedDeletes.clear();
     }
 
     @Override
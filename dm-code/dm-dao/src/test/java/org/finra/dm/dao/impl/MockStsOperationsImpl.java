@@ -36,12 +36,29 @@ public class MockStsOperationsImpl implements StsOperations
     public static final String MOCK_AWS_ASSUMED_ROLE_SECRET_KEY = "mock_aws_assumed_role_secret_key";
     public static final String MOCK_AWS_ASSUMED_ROLE_SESSION_TOKEN = "mock_aws_assumed_role_session_token";
 
+    /**
+     * A role ARN starting with this prefix makes the assume role call take the number of milliseconds that follow the prefix, e.g.
+     * "mock_aws_role_arn_latency_ms_200".
+     */
+    public static final String MOCK_AWS_ROLE_ARN_LATENCY_PREFIX = "mock_aws_role_arn_latency_ms_";
+
+    /**
+     * The time at which the last assume role call with an injected latency started.
+     */
+    private volatile long delayedAssumeRoleStartTimeMillis;
+
+    /**
+     * The time at which the last assume role call with an injected latency returned.
+     */
+    private volatile long delayedAssumeRoleEndTimeMillis;
+
     @Override
     public AssumeRoleResult assumeRole(AWSSecurityTokenServiceClient awsSecurityTokenServiceClient, AssumeRoleRequest assumeRoleRequest)
     {
         assertNotNull(assumeRoleRequest);
 
-        if (assumeRoleRequest.getPolicy() != null && assumeRoleRequest.getPolicy().equals(MockAwsOperationsHelper.AMAZON_THROTTLING_EXCEPTION))
+        if ((assumeRoleRequest.getPolicy() != null && assumeRoleRequest.getPolicy().equals(MockAwsOperationsHelper.AMAZON_THROTTLING_EXCEPTION)) ||
+            MockAwsOperationsHelper.AMAZON_THROTTLING_EXCEPTION.equals(assumeRoleRequest.getRoleArn()))
         {
             AmazonServiceException throttlingException = new AmazonServiceException("test throttling exception");
             throttlingException.setErrorCode("ThrottlingException");
@@ -49,6 +66,20 @@ public class MockStsOperationsImpl implements StsOperations
             throw throttlingException;
         }
 
+        if (assumeRoleRequest.getRoleArn() != null && assumeRoleRequest.getRoleArn().startsWith(MOCK_AWS_ROLE_ARN_LATENCY_PREFIX))
+        {
+            delayedAssumeRoleStartTimeMillis = System.currentTimeMillis();
+            try
+            {
+                Thread.sleep(Long.parseLong(assumeRoleRequest.getRoleArn().substring(MOCK_AWS_ROLE_ARN_LATENCY_PREFIX.length())));
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+            delayedAssumeRoleEndTimeMillis = System.currentTimeMillis();
+        }
+
         AssumeRoleResult assumeRoleResult = new AssumeRoleResult();
 
         assumeRoleResult.setCredentials(new Credentials(MOCK_AWS_ASSUMED_ROLE_ACCESS_KEY, MOCK_AWS_ASSUMED_ROLE_SECRET_KEY, MOCK_AWS_ASSUMED_ROLE_SESSION_TOKEN,
@@ -56,4 +87,33 @@ public class MockStsOperationsImpl implements StsOperations
 
         return assumeRoleResult;
     }
+
+    /**
+     * Gets the time at which the last assume role call with an injected latency started.
+     *
+     * @return the time in milliseconds or 0 if there was no such call since the last reset
+     */
+    public long getDelayedAssumeRoleStartTimeMillis()
+    {
+        return delayedAssumeRoleStartTimeMillis;
+    }
+
+    /**
+     * Gets the time at which the last assume role call with an injected latency returned.
+     *
+     * @return the time in milliseconds or 0 if there was no such call since the last reset
+     */
+    public long getDelayedAssumeRoleEndTimeMillis()
+    {
+        return delayedAssumeRoleEndTimeMillis;
+    }
+
+    /**
+     * Forgets the times of the last assume role call with an injected latency.
+     */
+    public void resetDelayedAssumeRoleTimes()
+    {
+        delayedAssumeRoleStartTimeMillis = 0;
+        delayedAssumeRoleEndTimeMillis = 0;
+    }
 }
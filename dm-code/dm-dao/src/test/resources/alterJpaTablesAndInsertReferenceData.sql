@@ -28,21 +28,6 @@ ALTER TABLE BUS_OBJCT_FRMT ADD CONSTRAINT BUS_OBJCT_FRMT_CK1 CHECK (LTST_VRSN_FL
 -- Create a composite key. This is tested in a JUnit by attempting to insert 2 rows with the same format and format version.
 CREATE UNIQUE INDEX BUS_OBJCT_FRMT_AK ON BUS_OBJCT_FRMT (BUS_OBJCT_DFNTN_ID, USAGE_CD, FILE_TYPE_CD, FRMT_VRSN_NB);
 
--- TODO: Need to revisit this to see if the H2 in-memory database supports views. If so, we can un-ignore a JUnit that uses it.
--- CREATE OR REPLACE VIEW biz_dt_file_vw AS
--- SELECT sf.strge_file_id,
---    df.name_space_cd AS namespace,
---    df.name_tx AS bus_object_name,
---    df.data_prvdr_cd AS data_provider,
---    su.strge_cd AS storage_code,
---    sf.file_size_in_bytes_nb,
---    sf.creat_ts::date AS creat_td
---   FROM strge_file sf
---     JOIN strge_unit su ON sf.strge_unit_id = su.strge_unit_id
---     JOIN bus_objct_data d ON su.bus_objct_data_id = d.bus_objct_data_id
---     JOIN bus_objct_frmt f ON d.bus_objct_frmt_id = f.bus_objct_frmt_id
---     JOIN bus_objct_dfntn df ON f.bus_objct_dfntn_id = df.bus_objct_dfntn_id;
-
 -- Insert reference data. --
 
 -- S3 Storage Platform and S3 Managed Storage.
@@ -40,6 +40,18 @@ public enum ConfigurationValue
      */
     SHOW_SQL("hibernate.show_sql", "false"),
 
+    /**
+     * The number of inserts and updates Hibernate sends to the database in a single JDBC batch. A value of 0 or less disables JDBC batching. The default is
+     * 50.
+     */
+    HIBERNATE_JDBC_BATCH_SIZE("hibernate.jdbc.batch_size", 50),
+
+    /**
+     * The number of expected partition values inserted per flush when a range of expected partition values is replaced. The inserted entities are detached
+     * after each flush so the persistence context stays small. The default is 1000.
+     */
+    EXPECTED_PARTITION_VALUES_REPLACE_CHUNK_SIZE("expected.partition.values.replace.chunk.size", 1000),
+
     /**
      * The S3 managed bucket name. This is required so there is no default.
      */
@@ -100,6 +112,14 @@ public enum ConfigurationValue
      */
     FILE_UPLOAD_S3_KEY_PREFIX_TEMPLATE("file.upload.s3.key.prefix.template", null),
 
+    /**
+     * How the invalidate unregistered business object data API discovers the business object data versions that exist in S3. "PROBE" lists the S3 key
+     * prefix of one version at a time until it finds an empty one. "LISTING" lists the S3 key prefix up to the business object data version once and parses
+     * every version present from the object keys, which is cheaper when the S3 key prefix template places the version after the partition values. The
+     * default is "PROBE".
+     */
+    BUSINESS_OBJECT_DATA_INVALIDATE_UNREGISTERED_DISCOVERY_MODE("business.object.data.invalidate.unregistered.discovery.mode", "PROBE"),
+
     /**
      * This is the number of threads that are available for concurrent execution of system jobs. The default is 5.
      */
@@ -122,11 +142,39 @@ public enum ConfigurationValue
      */
     FILE_UPLOAD_CLEANUP_JOB_THRESHOLD_MINUTES("file.upload.cleanup.job.threshold.minutes", "4320"),
 
+    /**
+     * The cron expression to schedule "storageDailyUploadStatsRollup" system job.  Default is to run the system job every night at 12:30 AM.
+     */
+    STORAGE_DAILY_UPLOAD_STATS_ROLLUP_JOB_CRON_EXPRESSION("storage.daily.upload.stats.rollup.job.cron.expression", "0 30 0 * * ?"),
+
+    /**
+     * The number of past days, up to and including yesterday, for which the storage daily upload statistics rollup gets rebuilt from the registered storage
+     * files.  Running the job with a larger value backfills older days.  The default is 2 days.
+     */
+    STORAGE_DAILY_UPLOAD_STATS_ROLLUP_JOB_LOOKBACK_DAYS("storage.daily.upload.stats.rollup.job.lookback.days", "2"),
+
     /**
      * The cron expression to schedule "jmsPublishing" system job.  Default is to run the system job every 5 minutes.
      */
     JMS_PUBLISHING_JOB_CRON_EXPRESSION("jms.publishing.job.cron.expression", "0 0/5 * * * ?"),
 
+    /**
+     * Determines whether JMS messages added to the database queue are published as soon as the transaction that added them commits. The JMS publishing
+     * system job still publishes any message left in the database queue. The default is true.
+     */
+    JMS_PUBLISHING_DISPATCH_ON_COMMIT_ENABLED("jms.publishing.dispatch.on.commit.enabled", "true"),
+
+    /**
+     * The number of threads that publish JMS messages as soon as the transaction that added them commits. The default is 2.
+     */
+    JMS_PUBLISHING_THREAD_POOL_SIZE("jms.publishing.thread.pool.size", 2),
+
+    /**
+     * The number of committed transactions whose JMS messages can wait to be published. Messages of transactions committed once the queue is full are left
+     * for the JMS publishing system job. The default is 1000.
+     */
+    JMS_PUBLISHING_THREAD_POOL_QUEUE_CAPACITY("jms.publishing.thread.pool.queue.capacity", 1000),
+
     /**
      * The tokenized template of the Activiti Id. The default is computed dynamically so it is not listed here.
      */
@@ -197,6 +245,40 @@ public enum ConfigurationValue
      */
     EMR_OOZIE_JOBS_TO_INCLUDE_IN_CLUSTER_STATUS("emr.oozie.jobs.to.include.in.cluster.status", 100),
 
+    /**
+     * How often, in seconds, the oozie workflow statuses of a cluster are fetched with a single jobs query. Status reads in between are served from the last
+     * fetched snapshot. A value of 0 disables the snapshot so every status read goes to the oozie server. The default is 15 seconds.
+     */
+    EMR_OOZIE_WORKFLOW_STATUS_SNAPSHOT_INTERVAL_SECS("emr.oozie.workflow.status.snapshot.interval.secs", 15),
+
+    /**
+     * The maximum number of the most recent oozie workflows of a cluster included in a status snapshot. Older workflows are read from the oozie server.
+     */
+    EMR_OOZIE_WORKFLOW_STATUS_SNAPSHOT_MAX_JOBS("emr.oozie.workflow.status.snapshot.max.jobs", 1000),
+
+    /**
+     * The maximum number of EMR clusters whose master node IP address, oozie workflow status snapshot and oozie client are kept in memory. Each of these
+     * caches is cleared once it reaches this size. The default is 100.
+     */
+    EMR_OOZIE_CLUSTER_CACHE_MAX_SIZE("emr.oozie.cluster.cache.max.size", 100),
+
+    /**
+     * The number of threads that create EMR clusters requested asynchronously. The default is 5.
+     */
+    EMR_CLUSTER_CREATION_THREAD_POOL_SIZE("emr.cluster.creation.thread.pool.size", 5),
+
+    /**
+     * The number of asynchronous EMR cluster creation requests that can wait for a thread. Requests made once the queue is full are rejected. The default is
+     * 100.
+     */
+    EMR_CLUSTER_CREATION_THREAD_POOL_QUEUE_CAPACITY("emr.cluster.creation.thread.pool.queue.capacity", 100),
+
+    /**
+     * The number of completed asynchronous EMR cluster creation requests whose status is kept in memory. The oldest completed requests are forgotten first.
+     * The default is 1000.
+     */
+    EMR_CLUSTER_CREATION_STATUS_MAX_COMPLETED_REQUESTS("emr.cluster.creation.status.max.completed.requests", 1000),
+
     /**
      * The DM EMR support security group.
      */
@@ -247,6 +329,19 @@ public enum ConfigurationValue
      */
     AWS_MAX_RETRY_DELAY_SECS("aws.max.retry.delay.secs", 60),
 
+    /**
+     * The maximum rates of AWS calls per second keyed by AWS service (e.g. "emr") or by AWS service and operation (e.g. "ec2.describeSpotPriceHistory"),
+     * delimited by the default delimiter. An operation rate takes precedence over the rate of its service. The calls of services and operations without a rate
+     * aren't rate limited (e.g. "emr=10|ec2=20|ec2.describeSpotPriceHistory=5"). By default, no AWS calls are rate limited.
+     */
+    AWS_RATE_LIMITS("aws.rate.limits", null),
+
+    /**
+     * Determines whether the AWS rate limits apply to all the application nodes together rather than to each node. When enabled, each node gets an equal
+     * share of the rates based on the number of nodes checked in to the clustered Quartz scheduler. The default is false.
+     */
+    AWS_RATE_LIMITER_CLUSTER_COORDINATION_ENABLED("aws.rate.limiter.cluster.coordination.enabled", "false"),
+
     /**
      * The maximum duration in seconds that a failed AWS S3 operation will be retried for. The default is 245 seconds.
      */
@@ -292,6 +387,28 @@ public enum ConfigurationValue
      */
     AWS_STS_RETRY_ON_ERROR_CODES("aws.sts.retry.on.error.codes", null),
 
+    /**
+     * The number of seconds for which temporary security credentials issued by STS are reused for an identical role, session name, duration and policy. A
+     * value of 0 disables the reuse. The default is 60 seconds.
+     */
+    AWS_STS_CREDENTIALS_CACHE_MAX_AGE_SECS("aws.sts.credentials.cache.max.age.secs", 60),
+
+    /**
+     * The maximum number of temporary security credentials kept for reuse. The cache is cleared once it reaches this size. The default is 1000.
+     */
+    AWS_STS_CREDENTIALS_CACHE_MAX_SIZE("aws.sts.credentials.cache.max.size", 1000),
+
+    /**
+     * The number of threads that request temporary security credentials from STS while the requesting thread does other work. The default is 10.
+     */
+    AWS_STS_CREDENTIALS_THREAD_POOL_SIZE("aws.sts.credentials.thread.pool.size", 10),
+
+    /**
+     * The number of temporary security credentials requests that can wait for a thread. Once the queue is full, the requesting thread calls STS itself. The
+     * default is 100.
+     */
+    AWS_STS_CREDENTIALS_THREAD_POOL_QUEUE_CAPACITY("aws.sts.credentials.thread.pool.queue.capacity", 100),
+
     /**
      * The error codes in AmazonServiceException that we re-try on for SQS operations.
      */
@@ -343,6 +460,23 @@ public enum ConfigurationValue
      */
     DB_IN_CLAUSE_CHUNK_SIZE("db.in.clause.chunk.size", 1000),
 
+    /**
+     * The DAO method duration in milliseconds at or above which the method is logged as a slow query along with the number of SQL statements it issued. The
+     * default is 1000 milliseconds.
+     */
+    DB_SLOW_QUERY_THRESHOLD_MS("db.slow.query.threshold.ms", 1000L),
+
+    /**
+     * The number of SQL statements a single request can issue before a warning is logged that the request exceeded its query budget. The default is 200.
+     */
+    DB_REQUEST_STATEMENT_BUDGET("db.request.statement.budget", 200),
+
+    /**
+     * The number of times the same SQL statement can be issued within a single request before it is logged as a probable N+1 select pattern. The default is
+     * 25.
+     */
+    DB_N_PLUS_ONE_THRESHOLD("db.n.plus.one.threshold", 25),
+
     /**
      * The thread pool core pool size. The default is 5.
      */
@@ -358,11 +492,113 @@ public enum ConfigurationValue
      */
     THREAD_POOL_KEEP_ALIVE_SECS("thread.pool.keep.alive.secs", 60),
 
+    /**
+     * The queue capacity of the thread pool that executes Activiti asynchronous jobs. Once the queue is full, the pool grows up to its max pool size and jobs
+     * rejected after that are handed back to Activiti which runs them on its job acquisition thread. The default is 100.
+     */
+    THREAD_POOL_QUEUE_CAPACITY("thread.pool.queue.capacity", 100),
+
+    /**
+     * The core pool size of the thread pool that creates and starts job process instances. The default is 5.
+     */
+    JOB_CREATION_THREAD_POOL_CORE_POOL_SIZE("job.creation.thread.pool.core.pool.size", 5),
+
+    /**
+     * The max pool size of the thread pool that creates and starts job process instances. The default is 25.
+     */
+    JOB_CREATION_THREAD_POOL_MAX_POOL_SIZE("job.creation.thread.pool.max.pool.size", 25),
+
+    /**
+     * The queue capacity of the thread pool that creates and starts job process instances. When the pool is saturated, the calling thread creates the process
+     * instance itself. The default is 50.
+     */
+    JOB_CREATION_THREAD_POOL_QUEUE_CAPACITY("job.creation.thread.pool.queue.capacity", 50),
+
+    /**
+     * The core pool size of the thread pool that moves uploaded files to their final S3 location. The default is 5.
+     */
+    FILE_MOVE_THREAD_POOL_CORE_POOL_SIZE("file.move.thread.pool.core.pool.size", 5),
+
+    /**
+     * The max pool size of the thread pool that moves uploaded files to their final S3 location. The default is 20.
+     */
+    FILE_MOVE_THREAD_POOL_MAX_POOL_SIZE("file.move.thread.pool.max.pool.size", 20),
+
+    /**
+     * The queue capacity of the thread pool that moves uploaded files to their final S3 location. When the pool is saturated, the upload completion is rolled
+     * back and retried when SQS redelivers its notification. The default is 100.
+     */
+    FILE_MOVE_THREAD_POOL_QUEUE_CAPACITY("file.move.thread.pool.queue.capacity", 100),
+
+    /**
+     * The part size in bytes used when copying an S3 object as a parallel multipart copy. Objects no larger than this are copied with a single copy request.
+     * The default is 100 MB.
+     */
+    S3_COPY_PART_SIZE_BYTES("s3.copy.part.size.bytes", 104857600L),
+
+    /**
+     * The maximum number of parts of a single S3 object copy that are queued or copying at the same time. The default is 10.
+     */
+    S3_COPY_PART_CONCURRENCY("s3.copy.part.concurrency", 10),
+
+    /**
+     * The size of the thread pool shared by all the S3 object copies to copy their parts. The default is 40.
+     */
+    S3_COPY_THREAD_POOL_SIZE("s3.copy.thread.pool.size", 40),
+
+    /**
+     * The maximum number of attempts to copy a single part of an S3 object copy before the whole copy fails. The default is 3.
+     */
+    S3_COPY_PART_MAX_ATTEMPTS("s3.copy.part.max.attempts", 3),
+
+    /**
+     * The maximum number of multi-object delete requests of a single S3 deletion that are queued or running at the same time. The default is 5.
+     */
+    S3_DELETE_BATCH_CONCURRENCY("s3.delete.batch.concurrency", 5),
+
+    /**
+     * The size of the thread pool shared by all the S3 deletions to send their multi-object delete requests. The default is 20.
+     */
+    S3_DELETE_THREAD_POOL_SIZE("s3.delete.thread.pool.size", 20),
+
+    /**
+     * The maximum number of attempts to delete a single key of an S3 deletion before the whole deletion fails. The default is 3.
+     */
+    S3_DELETE_KEY_MAX_ATTEMPTS("s3.delete.key.max.attempts", 3),
+
+    /**
+     * The maximum number of S3 objects of a single directory download that are queued or downloading at the same time. The default is 20.
+     */
+    S3_DOWNLOAD_CONCURRENCY("s3.download.concurrency", 20),
+
+    /**
+     * The core pool size of the thread pool that processes business object data notification events. The default is 5.
+     */
+    NOTIFICATION_THREAD_POOL_CORE_POOL_SIZE("notification.thread.pool.core.pool.size", 5),
+
+    /**
+     * The max pool size of the thread pool that processes business object data notification events. The default is 20.
+     */
+    NOTIFICATION_THREAD_POOL_MAX_POOL_SIZE("notification.thread.pool.max.pool.size", 20),
+
+    /**
+     * The queue capacity of the thread pool that processes business object data notification events. When the pool is saturated, the calling thread waits
+     * for space in the queue. The default is 500.
+     */
+    NOTIFICATION_THREAD_POOL_QUEUE_CAPACITY("notification.thread.pool.queue.capacity", 500),
+
     /**
      * JMS listener concurrency limits via a "lower-upper" String, e.g. "5-10". Refer to DefaultMessageListenerContainer#setConcurrency for details.
      */
     JMS_LISTENER_POOL_CONCURRENCY_LIMITS("jms.listener.pool.concurrency.limits", "3-10"),
 
+    /**
+     * The number of messages each JMS listener receives from SQS ahead of processing them. Up to 10 messages are received per SQS call. Prefetched messages
+     * stay invisible to the other listeners until they are processed, so this should be lowered when messages take long to process. A value of 0 receives
+     * one message at a time. The default is 10.
+     */
+    JMS_LISTENER_PREFETCH_MESSAGES("jms.listener.prefetch.messages", 10),
+
     /**
      * The optional Log4J override configuration.
      */
@@ -397,6 +633,34 @@ public enum ConfigurationValue
      */
     JAXB_XML_HEADERS("com.sun.xml.bind.xmlHeaders", "<?xml version=\"1.1\" encoding=\"UTF-8\" standalone=\"yes\"?>"),
 
+    /**
+     * The XSD schema validation mode used by the REST tier JAXB marshaller. Valid values are STRICT (validate every request and response), SAMPLED (validate
+     * one out of every "rest.xml.schema.validation.sample.rate" messages) and OFF (never validate). The default is STRICT.
+     */
+    REST_XML_SCHEMA_VALIDATION_MODE("rest.xml.schema.validation.mode", "STRICT"),
+
+    /**
+     * The number of messages per validated message when the REST tier schema validation mode is SAMPLED. The default is to validate 1 out of 100 messages.
+     */
+    REST_XML_SCHEMA_VALIDATION_SAMPLE_RATE("rest.xml.schema.validation.sample.rate", 100),
+
+    /**
+     * The request body size in bytes at or above which XML request bodies are unmarshalled through a streaming StAX reader instead of the default SAX source.
+     * Request bodies with an unknown content length are always streamed. A negative value disables the StAX path. The default is 1 MB.
+     */
+    REST_XML_STAX_UNMARSHAL_THRESHOLD_BYTES("rest.xml.stax.unmarshal.threshold.bytes", 1048576L),
+
+    /**
+     * Determines whether REST responses are compressed when the client accepts a gzip or deflate content encoding. The default is true.
+     */
+    REST_RESPONSE_COMPRESSION_ENABLED("rest.response.compression.enabled", "true"),
+
+    /**
+     * The REST response size in bytes above which the response is compressed. Smaller responses are sent uncompressed since compressing them costs more than
+     * it saves. The default is 8 KB.
+     */
+    REST_RESPONSE_COMPRESSION_THRESHOLD_BYTES("rest.response.compression.threshold.bytes", 8192),
+
     /**
      * Indicates whether security is enabled. If not enabled, application will create a trusted user.
      */
@@ -470,6 +734,18 @@ public enum ConfigurationValue
      */
     DM_NOTIFICATION_SQS_BUSINESS_OBJECT_DATA_STATUS_CHANGE_VELOCITY_TEMPLATE("dm.notification.sqs.business.object.data.status.change.velocity.template", null),
 
+    /**
+     * The maximum number of parsed velocity templates kept in the template cache. The cache is cleared once it grows past this size, so templates that are no
+     * longer configured don't stay in memory. A value of 0 disables the cache.
+     */
+    VELOCITY_TEMPLATE_CACHE_MAX_SIZE("velocity.template.cache.max.size", 100),
+
+    /**
+     * The maximum number of generated business object format DDLs kept in the business object format DDL cache. The cache is cleared once it reaches this
+     * size. A value of 0 disables the cache. The default is 1000.
+     */
+    BUSINESS_OBJECT_FORMAT_DDL_CACHE_MAX_SIZE("business.object.format.ddl.cache.max.size", 1000),
+
     /**
      * The cache time to live in seconds defined in net.sf.ehcache.config.CacheConfiguration.
      */
@@ -15,6 +15,8 @@
 */
 package org.finra.dm.model.dto;
 
+import java.util.List;
+
 /**
  * A DTO that contains the results of an S3 file/directory transfer.
  */
@@ -35,6 +37,12 @@ public class S3FileTransferResultsDto
      */
     private Long durationMillis;
 
+    /**
+     * The S3 objects that were transferred. This is only populated by S3 directory downloads, where it is built from the same listing the download is
+     * performed from, so it can be used to validate the downloaded files without listing the S3 objects again.
+     */
+    private List<S3TransferredFileDto> transferredFiles;
+
     public Long getTotalFilesTransferred()
     {
         return totalFilesTransferred;
@@ -64,4 +72,14 @@ public class S3FileTransferResultsDto
     {
         this.durationMillis = durationMillis;
     }
+
+    public List<S3TransferredFileDto> getTransferredFiles()
+    {
+        return transferredFiles;
+    }
+
+    public void setTransferredFiles(List<S3TransferredFileDto> transferredFiles)
+    {
+        this.transferredFiles = transferredFiles;
+    }
 }
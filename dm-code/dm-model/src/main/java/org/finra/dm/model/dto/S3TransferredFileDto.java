@@ -0,0 +1,67 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.model.dto;
+
+/**
+ * A DTO that describes an S3 object that was transferred as part of an S3 directory transfer.
+ */
+public class S3TransferredFileDto
+{
+    /**
+     * The S3 key of the object.
+     */
+    private String s3Key;
+
+    /**
+     * The size of the object in bytes.
+     */
+    private Long fileSizeBytes;
+
+    /**
+     * The ETag of the object.
+     */
+    private String eTag;
+
+    public String getS3Key()
+    {
+        return s3Key;
+    }
+
+    public void setS3Key(String s3Key)
+    {
+        this.s3Key = s3Key;
+    }
+
+    public Long getFileSizeBytes()
+    {
+        return fileSizeBytes;
+    }
+
+    public void setFileSizeBytes(Long fileSizeBytes)
+    {
+        this.fileSizeBytes = fileSizeBytes;
+    }
+
+    public String getETag()
+    {
+        return eTag;
+    }
+
+    public void setETag(String eTag)
+    {
+        this.eTag = eTag;
+    }
+}
@@ -96,6 +96,7 @@ public class SecurityFunctions
 
     public static final String FN_EXPECTED_PARTITION_VALUES_GET = "FN_EXPECTED_PARTITION_VALUES_GET";
     public static final String FN_EXPECTED_PARTITION_VALUES_POST = "FN_EXPECTED_PARTITION_VALUES_POST";
+    public static final String FN_EXPECTED_PARTITION_VALUES_PUT = "FN_EXPECTED_PARTITION_VALUES_PUT";
     public static final String FN_EXPECTED_PARTITION_VALUES_DELETE = "FN_EXPECTED_PARTITION_VALUES_DELETE";
 
     public static final String FN_EMR_CLUSTER_DEFINITIONS_GET = "FN_EMR_CLUSTER_DEFINITIONS_GET";
@@ -123,6 +124,7 @@ public class SecurityFunctions
     public static final String FN_JOBS_SIGNAL_POST = "FN_JOBS_SIGNAL_POST";
 
     public static final String FN_BUILD_INFO_GET = "FN_BUILD_INFO_GET";
+    public static final String FN_METRICS_GET = "FN_METRICS_GET";
 
     public static final String FN_UPLOAD_POST = "FN_UPLOAD_POST";
     public static final String FN_UPLOAD_EXTEND_CREDENTIALS_GET = "FN_UPLOAD_EXTEND_CREDENTIALS_GET";
@@ -24,6 +24,7 @@ import javax.persistence.Id;
 import javax.persistence.OneToMany;
 import javax.persistence.OrderBy;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlType;
 
@@ -48,6 +49,14 @@ public class PartitionKeyGroupEntity extends AuditableEntity
     @Column(name = "prtn_key_group_tx")
     private String partitionKeyGroupName;
 
+    /**
+     * The version of the partition key group. It is incremented whenever the expected partition values of the group change so cached copies of the values can
+     * be validated against it.
+     */
+    @Version
+    @Column(name = "vrsn_nb", nullable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "partitionKeyGroup", orphanRemoval = true, cascade = {CascadeType.ALL})
     @OrderBy("partitionValue")
     private Collection<ExpectedPartitionValueEntity> expectedPartitionValues;
@@ -62,6 +71,16 @@ public class PartitionKeyGroupEntity extends AuditableEntity
         return partitionKeyGroupName;
     }
 
+    public Long getVersion()
+    {
+        return version;
+    }
+
+    public void setVersion(Long version)
+    {
+        this.version = version;
+    }
+
     public Collection<ExpectedPartitionValueEntity> getExpectedPartitionValues()
     {
         return expectedPartitionValues;
@@ -0,0 +1,134 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.model.jpa;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+
+/**
+ * The number of files and bytes uploaded to a storage for a business object definition on a given day. Rows are appended as storage files get registered, so
+ * there may be more than one row per storage, business object definition, and upload date until the rows for that date are rebuilt from the storage files.
+ */
+@XmlRootElement
+@XmlType
+@Table(name = StorageDailyUploadStatEntity.TABLE_NAME)
+@Entity
+public class StorageDailyUploadStatEntity extends AuditableEntity
+{
+    /**
+     * The table name.
+     */
+    public static final String TABLE_NAME = "strge_daily_upld_stat";
+
+    @Id
+    @Column(name = TABLE_NAME + "_id")
+    @GeneratedValue(generator = TABLE_NAME + "_seq")
+    @SequenceGenerator(name = TABLE_NAME + "_seq", sequenceName = TABLE_NAME + "_seq")
+    private Integer id;
+
+    /**
+     * The storage column.
+     */
+    @ManyToOne
+    @JoinColumn(name = "strge_cd", referencedColumnName = "strge_cd", nullable = false)
+    private StorageEntity storage;
+
+    @ManyToOne
+    @JoinColumn(name = "bus_objct_dfntn_id", referencedColumnName = "bus_objct_dfntn_id", nullable = false)
+    private BusinessObjectDefinitionEntity businessObjectDefinition;
+
+    @Temporal(TemporalType.DATE)
+    @Column(name = "upld_dt", nullable = false)
+    private Date uploadDate;
+
+    @Column(name = "file_cnt", nullable = false)
+    private Long totalFiles;
+
+    @Column(name = "file_size_in_bytes_nb", nullable = false)
+    private Long totalBytes;
+
+    public Integer getId()
+    {
+        return id;
+    }
+
+    public void setId(Integer id)
+    {
+        this.id = id;
+    }
+
+    public StorageEntity getStorage()
+    {
+        return storage;
+    }
+
+    public void setStorage(StorageEntity storage)
+    {
+        this.storage = storage;
+    }
+
+    public BusinessObjectDefinitionEntity getBusinessObjectDefinition()
+    {
+        return businessObjectDefinition;
+    }
+
+    public void setBusinessObjectDefinition(BusinessObjectDefinitionEntity businessObjectDefinition)
+    {
+        this.businessObjectDefinition = businessObjectDefinition;
+    }
+
+    public Date getUploadDate()
+    {
+        return uploadDate;
+    }
+
+    public void setUploadDate(Date uploadDate)
+    {
+        this.uploadDate = uploadDate;
+    }
+
+    public Long getTotalFiles()
+    {
+        return totalFiles;
+    }
+
+    public void setTotalFiles(Long totalFiles)
+    {
+        this.totalFiles = totalFiles;
+    }
+
+    public Long getTotalBytes()
+    {
+        return totalBytes;
+    }
+
+    public void setTotalBytes(Long totalBytes)
+    {
+        this.totalBytes = totalBytes;
+    }
+}
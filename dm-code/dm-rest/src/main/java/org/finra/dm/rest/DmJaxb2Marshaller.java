@@ -0,0 +1,121 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.rest;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+import org.springframework.oxm.jaxb.Jaxb2Marshaller;
+
+import org.finra.dm.core.helper.ConfigurationHelper;
+import org.finra.dm.model.dto.ConfigurationValue;
+
+/**
+ * A JAXB marshaller that applies the configured XSD schema validation mode. The XSD is compiled once into a shared schema when the marshaller is initialized
+ * and every JAXB marshaller and unmarshaller created from it either gets that schema or no schema at all, depending on the validation mode in effect when
+ * the message is processed. The validation mode is read from the environment on each message so it can be changed at runtime.
+ */
+public class DmJaxb2Marshaller extends Jaxb2Marshaller
+{
+    private static final Logger LOGGER = Logger.getLogger(DmJaxb2Marshaller.class);
+
+    /**
+     * The supported schema validation modes.
+     */
+    public enum SchemaValidationMode
+    {
+        STRICT, SAMPLED, OFF
+    }
+
+    private final ConfigurationHelper configurationHelper;
+
+    private final AtomicLong messageCounter = new AtomicLong();
+
+    /**
+     * Constructs the marshaller.
+     *
+     * @param configurationHelper the configuration helper used to read the validation mode.
+     */
+    public DmJaxb2Marshaller(ConfigurationHelper configurationHelper)
+    {
+        this.configurationHelper = configurationHelper;
+    }
+
+    @Override
+    protected void initJaxbMarshaller(Marshaller marshaller) throws JAXBException
+    {
+        super.initJaxbMarshaller(marshaller);
+        if (!isSchemaValidationRequired())
+        {
+            marshaller.setSchema(null);
+        }
+    }
+
+    @Override
+    protected void initJaxbUnmarshaller(Unmarshaller unmarshaller) throws JAXBException
+    {
+        super.initJaxbUnmarshaller(unmarshaller);
+        if (!isSchemaValidationRequired())
+        {
+            unmarshaller.setSchema(null);
+        }
+    }
+
+    /**
+     * Gets the schema validation mode currently configured. An unrecognized value falls back to STRICT validation.
+     *
+     * @return the schema validation mode.
+     */
+    public SchemaValidationMode getSchemaValidationMode()
+    {
+        String mode = configurationHelper.getProperty(ConfigurationValue.REST_XML_SCHEMA_VALIDATION_MODE);
+        for (SchemaValidationMode schemaValidationMode : SchemaValidationMode.values())
+        {
+            if (schemaValidationMode.name().equalsIgnoreCase(StringUtils.trim(mode)))
+            {
+                return schemaValidationMode;
+            }
+        }
+
+        LOGGER.warn("Invalid \"" + ConfigurationValue.REST_XML_SCHEMA_VALIDATION_MODE.getKey() + "\" value \"" + mode + "\". Using " +
+            SchemaValidationMode.STRICT + " schema validation.");
+        return SchemaValidationMode.STRICT;
+    }
+
+    /**
+     * Determines whether the message about to be processed needs to be validated against the schema.
+     *
+     * @return true if the message should be validated, false otherwise.
+     */
+    protected boolean isSchemaValidationRequired()
+    {
+        switch (getSchemaValidationMode())
+        {
+            case OFF:
+                return false;
+            case SAMPLED:
+                int sampleRate = configurationHelper.getProperty(ConfigurationValue.REST_XML_SCHEMA_VALIDATION_SAMPLE_RATE, Integer.class);
+                return sampleRate <= 1 || messageCounter.getAndIncrement() % sampleRate == 0;
+            default:
+                return true;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.rest;
+
+import java.io.IOException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.Source;
+import javax.xml.transform.stax.StAXSource;
+import javax.xml.transform.stream.StreamSource;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.xml.MarshallingHttpMessageConverter;
+import org.springframework.oxm.Marshaller;
+import org.springframework.oxm.Unmarshaller;
+
+import org.finra.dm.core.helper.ConfigurationHelper;
+import org.finra.dm.model.dto.ConfigurationValue;
+
+/**
+ * A marshalling HTTP message converter that unmarshals large XML request bodies from a streaming StAX reader. Smaller request bodies are handed to the
+ * unmarshaller as a regular stream source.
+ */
+public class DmMarshallingHttpMessageConverter extends MarshallingHttpMessageConverter
+{
+    private final ConfigurationHelper configurationHelper;
+
+    private final XMLInputFactory xmlInputFactory;
+
+    /**
+     * Constructs the converter.
+     *
+     * @param marshaller the marshaller.
+     * @param unmarshaller the unmarshaller.
+     * @param configurationHelper the configuration helper used to read the streaming threshold.
+     */
+    public DmMarshallingHttpMessageConverter(Marshaller marshaller, Unmarshaller unmarshaller, ConfigurationHelper configurationHelper)
+    {
+        super(marshaller, unmarshaller);
+        this.configurationHelper = configurationHelper;
+
+        // Request bodies come from untrusted clients so don't resolve DTDs or external entities.
+        xmlInputFactory = XMLInputFactory.newInstance();
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+    }
+
+    @Override
+    protected Object readFromSource(Class<?> clazz, HttpHeaders headers, Source source) throws IOException
+    {
+        if (!(source instanceof StreamSource) || !isStreamingRequired(headers))
+        {
+            return super.readFromSource(clazz, headers, source);
+        }
+
+        XMLStreamReader xmlStreamReader = null;
+        try
+        {
+            xmlStreamReader = xmlInputFactory.createXMLStreamReader(((StreamSource) source).getInputStream());
+            return super.readFromSource(clazz, headers, new StAXSource(xmlStreamReader));
+        }
+        catch (XMLStreamException e)
+        {
+            throw new HttpMessageNotReadableException("Could not read [" + clazz + "]", e);
+        }
+        finally
+        {
+            closeQuietly(xmlStreamReader);
+        }
+    }
+
+    /**
+     * Determines whether a request body should be unmarshalled through the streaming StAX path.
+     *
+     * @param headers the request headers.
+     *
+     * @return true if the request body should be streamed, false otherwise.
+     */
+    private boolean isStreamingRequired(HttpHeaders headers)
+    {
+        long threshold = configurationHelper.getProperty(ConfigurationValue.REST_XML_STAX_UNMARSHAL_THRESHOLD_BYTES, Long.class);
+        long contentLength = headers.getContentLength();
+        return threshold >= 0 && (contentLength < 0 || contentLength >= threshold);
+    }
+
+    /**
+     * Closes the XML stream reader ignoring any errors.
+     *
+     * @param xmlStreamReader the XML stream reader which may be null.
+     */
+    private void closeQuietly(XMLStreamReader xmlStreamReader)
+    {
+        if (xmlStreamReader != null)
+        {
+            try
+            {
+                xmlStreamReader.close();
+            }
+            catch (XMLStreamException e)
+            {
+                // Nothing else to do since the body has already been read or failed to be read.
+            }
+        }
+    }
+}
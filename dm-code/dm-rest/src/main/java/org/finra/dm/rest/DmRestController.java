@@ -15,14 +15,22 @@
 */
 package org.finra.dm.rest;
 
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.annotation.Secured;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 
+import org.finra.dm.core.Histogram;
+import org.finra.dm.core.helper.MetricsHelper;
 import org.finra.dm.model.dto.SecurityFunctions;
 import org.finra.dm.model.api.xml.BuildInformation;
+import org.finra.dm.model.api.xml.HistogramSnapshot;
+import org.finra.dm.model.api.xml.MetricValue;
+import org.finra.dm.model.api.xml.Metrics;
 import org.finra.dm.ui.constants.UiConstants;
 
 /**
@@ -35,6 +43,9 @@ public class DmRestController extends DmBaseController
     @Autowired
     private BuildInformation buildInformation;
 
+    @Autowired
+    private MetricsHelper metricsHelper;
+
     /**
      * Gets the build information.
      *
@@ -46,4 +57,54 @@ public class DmRestController extends DmBaseController
     {
         return buildInformation;
     }
+
+    /**
+     * Gets a percentile snapshot of the application latency and size histograms along with the application counters and gauges. Latencies are in
+     * microseconds.
+     *
+     * @return the metrics.
+     */
+    @RequestMapping(value = "/metrics", method = RequestMethod.GET)
+    @Secured(SecurityFunctions.FN_METRICS_GET)
+    public Metrics getMetrics()
+    {
+        Metrics metrics = new Metrics();
+
+        for (Map.Entry<String, Histogram.Snapshot> entry : metricsHelper.getHistogramSnapshots().entrySet())
+        {
+            Histogram.Snapshot snapshot = entry.getValue();
+            HistogramSnapshot histogramSnapshot = new HistogramSnapshot();
+            histogramSnapshot.setName(entry.getKey());
+            histogramSnapshot.setCount(snapshot.getCount());
+            histogramSnapshot.setMean(snapshot.getMean());
+            histogramSnapshot.setP50(snapshot.getValueAtPercentile(50));
+            histogramSnapshot.setP90(snapshot.getValueAtPercentile(90));
+            histogramSnapshot.setP99(snapshot.getValueAtPercentile(99));
+            histogramSnapshot.setP999(snapshot.getValueAtPercentile(99.9));
+            histogramSnapshot.setMax(snapshot.getMax());
+            metrics.getHistograms().add(histogramSnapshot);
+        }
+
+        addMetricValues(metricsHelper.getCounterValues(), metrics.getCounters());
+        addMetricValues(metricsHelper.getGaugeValues(), metrics.getGauges());
+
+        return metrics;
+    }
+
+    /**
+     * Adds the specified metric values to a list of metric values.
+     *
+     * @param values the map of metric names to values.
+     * @param metricValues the list of metric values to add to.
+     */
+    private void addMetricValues(Map<String, Long> values, List<MetricValue> metricValues)
+    {
+        for (Map.Entry<String, Long> entry : values.entrySet())
+        {
+            MetricValue metricValue = new MetricValue();
+            metricValue.setName(entry.getKey());
+            metricValue.setValue(entry.getValue());
+            metricValues.add(metricValue);
+        }
+    }
 }
@@ -29,6 +29,7 @@ import org.finra.dm.model.dto.EmrClusterAlternateKeyDto;
 import org.finra.dm.model.dto.SecurityFunctions;
 import org.finra.dm.model.api.xml.EmrCluster;
 import org.finra.dm.model.api.xml.EmrClusterCreateRequest;
+import org.finra.dm.model.api.xml.EmrClusterCreationStatus;
 import org.finra.dm.model.api.xml.EmrHadoopJarStep;
 import org.finra.dm.model.api.xml.EmrHadoopJarStepAddRequest;
 import org.finra.dm.model.api.xml.EmrHiveStep;
@@ -43,6 +44,7 @@ import org.finra.dm.model.api.xml.EmrShellStep;
 import org.finra.dm.model.api.xml.EmrShellStepAddRequest;
 import org.finra.dm.model.api.xml.OozieWorkflowJob;
 import org.finra.dm.model.api.xml.RunOozieWorkflowRequest;
+import org.finra.dm.service.EmrClusterCreationAsyncService;
 import org.finra.dm.service.EmrService;
 import org.finra.dm.ui.constants.UiConstants;
 
@@ -56,6 +58,9 @@ public class EmrRestController extends DmBaseController
     @Autowired
     private EmrService emrService;
 
+    @Autowired
+    private EmrClusterCreationAsyncService emrClusterCreationAsyncService;
+
     /**
      * Gets an existing EMR cluster details.
      *
@@ -99,6 +104,34 @@ public class EmrRestController extends DmBaseController
         return emrService.createCluster(request);
     }
 
+    /**
+     * Requests a new EMR cluster to be created asynchronously. If the same EMR cluster is already being created, the status of that request is returned.
+     *
+     * @param request the information needed to create the EMR cluster.
+     *
+     * @return the status of the EMR cluster creation request.
+     */
+    @RequestMapping(value = "/emrClusterCreationRequests", method = RequestMethod.POST, consumes = {"application/xml", "application/json"})
+    @Secured(SecurityFunctions.FN_EMR_CLUSTERS_POST)
+    public EmrClusterCreationStatus createEmrClusterAsync(@RequestBody EmrClusterCreateRequest request)
+    {
+        return emrClusterCreationAsyncService.createClusterAsync(request);
+    }
+
+    /**
+     * Gets the status of an asynchronous EMR cluster creation request.
+     *
+     * @param requestId the id of the EMR cluster creation request.
+     *
+     * @return the status of the EMR cluster creation request.
+     */
+    @RequestMapping(value = "/emrClusterCreationRequests/requestIds/{requestId}", method = RequestMethod.GET)
+    @Secured(SecurityFunctions.FN_EMR_CLUSTERS_GET)
+    public EmrClusterCreationStatus getEmrClusterCreationStatus(@PathVariable("requestId") String requestId)
+    {
+        return emrClusterCreationAsyncService.getEmrClusterCreationStatus(requestId);
+    }
+
     /**
      * Terminates an existing EMR cluster.
      *
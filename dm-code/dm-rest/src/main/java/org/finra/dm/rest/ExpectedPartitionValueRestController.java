@@ -30,6 +30,8 @@ import org.finra.dm.model.api.xml.ExpectedPartitionValueKey;
 import org.finra.dm.model.api.xml.ExpectedPartitionValuesCreateRequest;
 import org.finra.dm.model.api.xml.ExpectedPartitionValuesDeleteRequest;
 import org.finra.dm.model.api.xml.ExpectedPartitionValuesInformation;
+import org.finra.dm.model.api.xml.ExpectedPartitionValuesReplaceInformation;
+import org.finra.dm.model.api.xml.ExpectedPartitionValuesReplaceRequest;
 import org.finra.dm.model.api.xml.PartitionKeyGroupKey;
 import org.finra.dm.model.api.xml.PartitionValueRange;
 import org.finra.dm.service.ExpectedPartitionValueService;
@@ -119,4 +121,19 @@ public class ExpectedPartitionValueRestController  extends DmBaseController
     {
         return expectedPartitionValueService.deleteExpectedPartitionValues(request);
     }
+
+    /**
+     * Replaces all expected partition values of an existing partition key group that fall within the specified range with the specified expected partition
+     * values.
+     *
+     * @param request the information needed to replace the expected partition values
+     *
+     * @return the number of deleted and created expected partition values
+     */
+    @RequestMapping(value = EXPECTED_PARTITION_VALUES_URI_PREFIX, method = RequestMethod.PUT, consumes = {"application/xml", "application/json"})
+    @Secured(SecurityFunctions.FN_EXPECTED_PARTITION_VALUES_PUT)
+    public ExpectedPartitionValuesReplaceInformation replaceExpectedPartitionValues(@RequestBody ExpectedPartitionValuesReplaceRequest request)
+    {
+        return expectedPartitionValueService.replaceExpectedPartitionValues(request);
+    }
 }
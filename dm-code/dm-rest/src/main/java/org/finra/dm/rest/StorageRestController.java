@@ -32,6 +32,7 @@ import org.finra.dm.model.api.xml.Storage;
 import org.finra.dm.model.api.xml.StorageBusinessObjectDefinitionDailyUploadStats;
 import org.finra.dm.model.api.xml.StorageCreateRequest;
 import org.finra.dm.model.api.xml.StorageDailyUploadStats;
+import org.finra.dm.model.api.xml.StorageDailyUploadStatsCheck;
 import org.finra.dm.model.api.xml.StorageKeys;
 import org.finra.dm.model.api.xml.StorageUpdateRequest;
 import org.finra.dm.service.StorageService;
@@ -162,4 +163,23 @@ public class StorageRestController extends DmBaseController
         Date uploadDate = dmHelper.getDateFromString(uploadDateString);
         return storageService.getStorageUploadStatsByBusinessObjectDefinition(alternateKey, uploadDate);
     }
+
+    /**
+     * Compares the daily upload statistics rollup of the storage against the statistics aggregated from the registered storage files for the specified upload
+     * date.
+     *
+     * @param storageName the storage name
+     * @param uploadDateString the upload date in YYYY-MM-DD format
+     *
+     * @return the check result listing the statistics that do not match
+     */
+    @RequestMapping(value = STORAGES_URI_PREFIX + "/{storageName}/storageDailyUploadStatsCheck", method = RequestMethod.GET)
+    @Secured(SecurityFunctions.FN_STORAGES_UPLOAD_STATS_GET)
+    public StorageDailyUploadStatsCheck checkStorageUploadStats(@PathVariable("storageName") String storageName,
+        @RequestParam("uploadDate") String uploadDateString)
+    {
+        StorageAlternateKeyDto alternateKey = StorageAlternateKeyDto.builder().storageName(storageName).build();
+        Date uploadDate = dmHelper.getDateFromString(uploadDateString);
+        return storageService.checkStorageUploadStats(alternateKey, uploadDate);
+    }
 }
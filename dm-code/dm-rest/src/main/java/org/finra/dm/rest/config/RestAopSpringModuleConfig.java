@@ -23,6 +23,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
 
+import org.finra.dm.core.StopWatchAdvice;
+import org.finra.dm.dao.helper.QueryStatisticsAdvice;
 import org.finra.dm.service.helper.CheckAllowedMethodAdvice;
 
 /**
@@ -33,9 +35,20 @@ import org.finra.dm.service.helper.CheckAllowedMethodAdvice;
 @Aspect
 public class RestAopSpringModuleConfig
 {
+    /**
+     * The prefix of the REST endpoint latency histogram names.
+     */
+    public static final String METRIC_REST_LATENCY_PREFIX = "rest.latency.";
+
     @Autowired
     private CheckAllowedMethodAdvice checkAllowedMethodAdvice;
 
+    @Autowired
+    private StopWatchAdvice stopWatchAdvice;
+
+    @Autowired
+    private QueryStatisticsAdvice queryStatisticsAdvice;
+
     /**
      * A pointcut for all DM rest methods.
      */
@@ -58,4 +71,33 @@ public class RestAopSpringModuleConfig
     {
         return checkAllowedMethodAdvice.checkNotAllowedMethods(pjp);
     }
+
+    /**
+     * Around advice that records the latency of every REST endpoint in a histogram named after the controller and its handler method.
+     *
+     * @param pjp the proceeding join point.
+     *
+     * @return the return value of the method we are advising.
+     * @throws Throwable if there were any problems executing the method.
+     */
+    @Around("restMethods()")
+    public Object logRestMethodTime(ProceedingJoinPoint pjp) throws Throwable
+    {
+        return stopWatchAdvice.recordMethodTime(pjp, METRIC_REST_LATENCY_PREFIX);
+    }
+
+    /**
+     * Around advice that counts the SQL statements, entity loads and collection fetches issued by every REST request and checks them against the query
+     * budget.
+     *
+     * @param pjp the proceeding join point.
+     *
+     * @return the return value of the method we are advising.
+     * @throws Throwable if there were any problems executing the method.
+     */
+    @Around("restMethods()")
+    public Object collectQueryStatistics(ProceedingJoinPoint pjp) throws Throwable
+    {
+        return queryStatisticsAdvice.collectRequestStatistics(pjp);
+    }
 }
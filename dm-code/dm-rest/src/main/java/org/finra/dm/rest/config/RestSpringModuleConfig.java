@@ -32,7 +32,6 @@ import org.springframework.core.io.support.ResourcePatternResolver;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.xml.MappingJackson2XmlHttpMessageConverter;
 import org.springframework.http.converter.xml.MarshallingHttpMessageConverter;
-import org.springframework.oxm.jaxb.Jaxb2Marshaller;
 import org.springframework.util.PathMatcher;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 import org.springframework.web.servlet.config.annotation.PathMatchConfigurer;
@@ -45,6 +44,8 @@ import org.springframework.web.util.UrlPathHelper;
 import org.finra.dm.core.helper.ConfigurationHelper;
 import org.finra.dm.dao.helper.DmCharacterEscapeHandler;
 import org.finra.dm.model.dto.ConfigurationValue;
+import org.finra.dm.rest.DmJaxb2Marshaller;
+import org.finra.dm.rest.DmMarshallingHttpMessageConverter;
 
 /**
  * REST Spring module configuration. This configuration doesn't use the @EnableWebMvc annotation and instead extends WebMvcConfigurationSupport so we have the
@@ -123,7 +124,8 @@ public class RestSpringModuleConfig extends WebMvcConfigurationSupport
     }
 
     /**
-     * Gets a new marshalling HTTP message converter that is aware of our custom JAXB marshaller.
+     * Gets a new marshalling HTTP message converter that is aware of our custom JAXB marshaller. Large request bodies are unmarshalled through a streaming
+     * StAX reader.
      *
      * @return the newly created message converter.
      */
@@ -131,23 +133,24 @@ public class RestSpringModuleConfig extends WebMvcConfigurationSupport
     public MarshallingHttpMessageConverter marshallingMessageConverter()
     {
         // Return a new marshalling HTTP message converter with our custom JAXB marshaller.
-        return new MarshallingHttpMessageConverter(jaxb2Marshaller(), jaxb2Marshaller());
+        return new DmMarshallingHttpMessageConverter(jaxb2Marshaller(), jaxb2Marshaller(), configurationHelper);
     }
 
     /**
      * Gets a new JAXB marshaller that is aware of our XSD and can perform schema validation. It is also aware of all our auto-generated classes that are in the
      * org.finra.dm.model.api.xml package. Note that REST endpoints that use Java objects which are not in this package will not use this marshaller and will
-     * not get schema validated which is good since they don't have an XSD.
+     * not get schema validated which is good since they don't have an XSD. The XSD is compiled once when the marshaller is initialized and whether it is
+     * applied to a given message depends on the configured schema validation mode.
      *
      * @return the newly created JAXB marshaller.
      */
     @Bean
-    public Jaxb2Marshaller jaxb2Marshaller()
+    public DmJaxb2Marshaller jaxb2Marshaller()
     {
         try
         {
             // Create the marshaller that is aware of our Java XSD and it's auto-generated classes.
-            Jaxb2Marshaller marshaller = new Jaxb2Marshaller();
+            DmJaxb2Marshaller marshaller = new DmJaxb2Marshaller(configurationHelper);
             marshaller.setPackagesToScan("org.finra.dm.model.api.xml");
             marshaller.setSchemas(resourceResolver.getResources("classpath:dm.xsd"));
 
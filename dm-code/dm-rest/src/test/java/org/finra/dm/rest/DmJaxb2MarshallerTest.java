@@ -0,0 +1,234 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.rest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.xml.transform.stream.StreamSource;
+
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.converter.xml.MarshallingHttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.oxm.XmlMappingException;
+
+import org.finra.dm.model.api.xml.BusinessObjectDataAvailabilityRequest;
+import org.finra.dm.model.dto.ConfigurationValue;
+
+/**
+ * This class tests the schema validation modes of the DmJaxb2Marshaller class and the streaming unmarshal path of the DmMarshallingHttpMessageConverter class.
+ */
+public class DmJaxb2MarshallerTest extends AbstractRestTest
+{
+    @Autowired
+    private DmJaxb2Marshaller dmJaxb2Marshaller;
+
+    @Autowired
+    private MarshallingHttpMessageConverter marshallingMessageConverter;
+
+    @Test
+    public void testUnmarshalInvalidXmlStrictMode() throws Exception
+    {
+        try
+        {
+            unmarshalWithValidationMode(DmJaxb2Marshaller.SchemaValidationMode.STRICT, 1, getAvailabilityRequestXml(1, false));
+            fail("Should throw an XmlMappingException when the XML doesn't conform to the XSD.");
+        }
+        catch (XmlMappingException e)
+        {
+            // Expected since the storage name is required by the XSD.
+        }
+    }
+
+    @Test
+    public void testUnmarshalInvalidXmlOffMode() throws Exception
+    {
+        BusinessObjectDataAvailabilityRequest request =
+            unmarshalWithValidationMode(DmJaxb2Marshaller.SchemaValidationMode.OFF, 1, getAvailabilityRequestXml(1, false));
+
+        assertEquals(BOD_NAME, request.getBusinessObjectDefinitionName());
+        assertNull(request.getStorageName());
+    }
+
+    @Test
+    public void testUnmarshalInvalidXmlSampledMode() throws Exception
+    {
+        Map<String, Object> overrideMap = new HashMap<>();
+        overrideMap.put(ConfigurationValue.REST_XML_SCHEMA_VALIDATION_MODE.getKey(), DmJaxb2Marshaller.SchemaValidationMode.SAMPLED.name());
+        overrideMap.put(ConfigurationValue.REST_XML_SCHEMA_VALIDATION_SAMPLE_RATE.getKey(), 2);
+        modifyPropertySourceInEnvironment(overrideMap);
+
+        try
+        {
+            // Out of any two consecutive messages, exactly one gets validated.
+            int failureCount = 0;
+            for (int i = 0; i < 2; i++)
+            {
+                try
+                {
+                    dmJaxb2Marshaller.unmarshal(new StreamSource(new StringReader(getAvailabilityRequestXml(1, false))));
+                }
+                catch (XmlMappingException e)
+                {
+                    failureCount++;
+                }
+            }
+            assertEquals(1, failureCount);
+        }
+        finally
+        {
+            restorePropertySourceInEnvironment();
+        }
+    }
+
+    @Test
+    public void testGetSchemaValidationModeInvalidValue() throws Exception
+    {
+        Map<String, Object> overrideMap = new HashMap<>();
+        overrideMap.put(ConfigurationValue.REST_XML_SCHEMA_VALIDATION_MODE.getKey(), "I_DO_NOT_EXIST");
+        modifyPropertySourceInEnvironment(overrideMap);
+
+        try
+        {
+            assertEquals(DmJaxb2Marshaller.SchemaValidationMode.STRICT, dmJaxb2Marshaller.getSchemaValidationMode());
+        }
+        finally
+        {
+            restorePropertySourceInEnvironment();
+        }
+    }
+
+    @Test
+    public void testReadStreamingAndNonStreaming() throws Exception
+    {
+        byte[] body = getAvailabilityRequestXml(10, true).getBytes(StandardCharsets.UTF_8);
+
+        // Without a content length the body is read through the StAX path.
+        BusinessObjectDataAvailabilityRequest streamedRequest =
+            (BusinessObjectDataAvailabilityRequest) marshallingMessageConverter.read(BusinessObjectDataAvailabilityRequest.class, new MockHttpInputMessage(body));
+
+        // A small content length keeps the regular stream source path.
+        MockHttpInputMessage inputMessage = new MockHttpInputMessage(body);
+        inputMessage.getHeaders().setContentLength(body.length);
+        BusinessObjectDataAvailabilityRequest request =
+            (BusinessObjectDataAvailabilityRequest) marshallingMessageConverter.read(BusinessObjectDataAvailabilityRequest.class, inputMessage);
+
+        assertEquals(request, streamedRequest);
+        assertEquals(10, streamedRequest.getPartitionValueFilter().getPartitionValues().size());
+        assertEquals(STORAGE_NAME, streamedRequest.getStorageName());
+    }
+
+    @Test
+    public void testUnmarshalInvalidXmlSampledModeSkipsValidationOfNonSampledCalls() throws Exception
+    {
+        int sampleRate = 5;
+        Map<String, Object> overrideMap = new HashMap<>();
+        overrideMap.put(ConfigurationValue.REST_XML_SCHEMA_VALIDATION_MODE.getKey(), DmJaxb2Marshaller.SchemaValidationMode.SAMPLED.name());
+        overrideMap.put(ConfigurationValue.REST_XML_SCHEMA_VALIDATION_SAMPLE_RATE.getKey(), sampleRate);
+        modifyPropertySourceInEnvironment(overrideMap);
+
+        try
+        {
+            // Only the sampled call fails validation, the others unmarshal the invalid XML as is.
+            String xml = getAvailabilityRequestXml(1, false);
+            int failureCount = 0;
+            for (int i = 0; i < sampleRate; i++)
+            {
+                try
+                {
+                    BusinessObjectDataAvailabilityRequest request =
+                        (BusinessObjectDataAvailabilityRequest) dmJaxb2Marshaller.unmarshal(new StreamSource(new StringReader(xml)));
+                    assertEquals(BOD_NAME, request.getBusinessObjectDefinitionName());
+                    assertNull(request.getStorageName());
+                }
+                catch (XmlMappingException e)
+                {
+                    failureCount++;
+                }
+            }
+            assertEquals(1, failureCount);
+        }
+        finally
+        {
+            restorePropertySourceInEnvironment();
+        }
+    }
+
+    /**
+     * Unmarshals the XML with the specified schema validation mode in effect.
+     *
+     * @param mode the schema validation mode.
+     * @param sampleRate the sample rate used by the SAMPLED mode.
+     * @param xml the XML to unmarshal.
+     *
+     * @return the unmarshalled request.
+     * @throws Exception if the environment couldn't be modified or restored.
+     */
+    private BusinessObjectDataAvailabilityRequest unmarshalWithValidationMode(DmJaxb2Marshaller.SchemaValidationMode mode, int sampleRate, String xml)
+        throws Exception
+    {
+        Map<String, Object> overrideMap = new HashMap<>();
+        overrideMap.put(ConfigurationValue.REST_XML_SCHEMA_VALIDATION_MODE.getKey(), mode.name());
+        overrideMap.put(ConfigurationValue.REST_XML_SCHEMA_VALIDATION_SAMPLE_RATE.getKey(), sampleRate);
+        modifyPropertySourceInEnvironment(overrideMap);
+
+        try
+        {
+            return (BusinessObjectDataAvailabilityRequest) dmJaxb2Marshaller.unmarshal(new StreamSource(new StringReader(xml)));
+        }
+        finally
+        {
+            restorePropertySourceInEnvironment();
+        }
+    }
+
+    /**
+     * Builds a business object data availability request XML with the specified number of partition values.
+     *
+     * @param partitionValueCount the number of partition values.
+     * @param includeStorageName specifies whether to include the storage name which is required by the XSD.
+     *
+     * @return the XML.
+     */
+    private String getAvailabilityRequestXml(int partitionValueCount, boolean includeStorageName)
+    {
+        StringBuilder xml = new StringBuilder();
+        xml.append("<businessObjectDataAvailabilityRequest>");
+        xml.append("<namespace>").append(NAMESPACE_CD).append("</namespace>");
+        xml.append("<businessObjectDefinitionName>").append(BOD_NAME).append("</businessObjectDefinitionName>");
+        xml.append("<businessObjectFormatUsage>").append(FORMAT_USAGE_CODE).append("</businessObjectFormatUsage>");
+        xml.append("<businessObjectFormatFileType>").append(FORMAT_FILE_TYPE_CODE).append("</businessObjectFormatFileType>");
+        xml.append("<partitionValueFilter><partitionKey>").append(PARTITION_KEY).append("</partitionKey><partitionValues>");
+        for (int i = 0; i < partitionValueCount; i++)
+        {
+            xml.append("<partitionValue>").append(String.format("2015-%06d", i)).append("</partitionValue>");
+        }
+        xml.append("</partitionValues></partitionValueFilter>");
+        if (includeStorageName)
+        {
+            xml.append("<storageName>").append(STORAGE_NAME).append("</storageName>");
+        }
+        xml.append("</businessObjectDataAvailabilityRequest>");
+        return xml.toString();
+    }
+}
@@ -15,12 +15,20 @@
 */
 package org.finra.dm.rest;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 import org.apache.log4j.Logger;
 import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 
+import org.finra.dm.core.helper.MetricsHelper;
 import org.finra.dm.model.api.xml.BuildInformation;
+import org.finra.dm.model.api.xml.HistogramSnapshot;
+import org.finra.dm.model.api.xml.MetricValue;
+import org.finra.dm.model.api.xml.Metrics;
+import org.finra.dm.rest.config.RestAopSpringModuleConfig;
 
 /**
  * This class tests various functionality within the DM REST controller.
@@ -29,6 +37,9 @@ public class DmRestControllerTest extends AbstractRestTest
 {
     private static Logger logger = Logger.getLogger(DmRestControllerTest.class);
 
+    @Autowired
+    private MetricsHelper metricsHelper;
+
     @Test
     public void testGetBuildInfo() throws Exception
     {
@@ -38,4 +49,50 @@ public class DmRestControllerTest extends AbstractRestTest
         assertNotNull(buildInformation.getBuildDate());
         logger.info(buildInformation);
     }
+
+    @Test
+    public void testGetMetrics() throws Exception
+    {
+        String histogramName = "testGetMetricsHistogram" + RANDOM_SUFFIX;
+        String counterName = "testGetMetricsCounter" + RANDOM_SUFFIX;
+        for (long value = 1; value <= 100; value++)
+        {
+            metricsHelper.recordValue(histogramName, value);
+        }
+        metricsHelper.incrementCounter(counterName, 5);
+
+        // Call an endpoint first so its latency gets recorded by the REST advice.
+        dmRestController.getBuildInfo();
+
+        Metrics metrics = dmRestController.getMetrics();
+
+        HistogramSnapshot histogramSnapshot = null;
+        boolean restLatencyRecorded = false;
+        for (HistogramSnapshot snapshot : metrics.getHistograms())
+        {
+            if (snapshot.getName().equals(histogramName))
+            {
+                histogramSnapshot = snapshot;
+            }
+            restLatencyRecorded |= snapshot.getName().startsWith(RestAopSpringModuleConfig.METRIC_REST_LATENCY_PREFIX) && snapshot.getName().endsWith(
+                ".getBuildInfo");
+        }
+        assertNotNull(histogramSnapshot);
+        assertEquals(100, histogramSnapshot.getCount());
+        assertEquals(100, histogramSnapshot.getMax());
+        assertEquals(50.5, histogramSnapshot.getMean(), 0.001);
+        assertTrue(histogramSnapshot.getP50() <= histogramSnapshot.getP99());
+        assertTrue(restLatencyRecorded);
+
+        MetricValue counterValue = null;
+        for (MetricValue counter : metrics.getCounters())
+        {
+            if (counter.getName().equals(counterName))
+            {
+                counterValue = counter;
+            }
+        }
+        assertNotNull(counterValue);
+        assertEquals(5, counterValue.getValue());
+    }
 }
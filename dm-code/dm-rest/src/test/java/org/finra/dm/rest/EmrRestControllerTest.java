@@ -77,6 +77,15 @@ public class EmrRestControllerTest extends AbstractRestTest
         Assert.notNull(emrCluster);
     }
 
+    /**
+     * This test is to get unit test coverage for the rest method. Real unit tests are covered in Service layer EmrClusterCreationAsyncServiceTest
+     */
+    @Test(expected = ObjectNotFoundException.class)
+    public void testGetEmrClusterCreationStatus() throws Exception
+    {
+        emrRestController.getEmrClusterCreationStatus("request_id_no_exist");
+    }
+
     /**
      * This test is to get unit test coverage for the rest method. Real unit tests are covered in Service layer EmrServiceTest
      */
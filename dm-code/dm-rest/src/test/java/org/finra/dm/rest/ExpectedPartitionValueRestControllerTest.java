@@ -27,6 +27,8 @@ import org.finra.dm.model.api.xml.ExpectedPartitionValueInformation;
 import org.finra.dm.model.api.xml.ExpectedPartitionValuesCreateRequest;
 import org.finra.dm.model.api.xml.ExpectedPartitionValuesDeleteRequest;
 import org.finra.dm.model.api.xml.ExpectedPartitionValuesInformation;
+import org.finra.dm.model.api.xml.ExpectedPartitionValuesReplaceInformation;
+import org.finra.dm.model.api.xml.ExpectedPartitionValuesReplaceRequest;
 
 /**
  * This class tests various functionality within the expected partition value REST controller.
@@ -113,4 +115,26 @@ public class ExpectedPartitionValueRestControllerTest extends AbstractRestTest
         // Validate that the expected partition value entities got deleted.
         assertEquals(0, partitionKeyGroupEntity.getExpectedPartitionValues().size());
     }
+
+    @Test
+    public void testReplaceExpectedPartitionValues()
+    {
+        // Create and persist a partition key group entity.
+        PartitionKeyGroupEntity partitionKeyGroupEntity = createPartitionKeyGroupEntity(PARTITION_KEY_GROUP);
+
+        // Create and persist a list of test expected partition values.
+        createExpectedPartitionValueEntities(partitionKeyGroupEntity, getTestUnsortedExpectedPartitionValues());
+
+        // Replace the whole range of the expected partition values with the same values.
+        List<String> testSortedExpectedPartitionValues = getTestSortedExpectedPartitionValues();
+        ExpectedPartitionValuesReplaceRequest request = createExpectedPartitionValuesReplaceRequest(PARTITION_KEY_GROUP,
+            testSortedExpectedPartitionValues.get(0), testSortedExpectedPartitionValues.get(testSortedExpectedPartitionValues.size() - 1),
+            getTestUnsortedExpectedPartitionValues());
+        ExpectedPartitionValuesReplaceInformation resultReplaceInformation = expectedPartitionValueRestController.replaceExpectedPartitionValues(request);
+
+        // Validate the returned object.
+        assertEquals(PARTITION_KEY_GROUP, resultReplaceInformation.getPartitionKeyGroupKey().getPartitionKeyGroupName());
+        assertEquals(testSortedExpectedPartitionValues.size(), resultReplaceInformation.getDeletedExpectedPartitionValueCount());
+        assertEquals(testSortedExpectedPartitionValues.size(), resultReplaceInformation.getCreatedExpectedPartitionValueCount());
+    }
 }
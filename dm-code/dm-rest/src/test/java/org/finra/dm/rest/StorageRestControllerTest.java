@@ -28,7 +28,6 @@ import java.util.List;
 import javax.xml.bind.JAXBException;
 import javax.xml.datatype.XMLGregorianCalendar;
 
-import org.junit.Ignore;
 import org.junit.Test;
 
 import org.finra.dm.core.DmDateUtils;
@@ -161,11 +160,6 @@ public class StorageRestControllerTest extends AbstractRestTest
         storageRestController.getStorageUploadStatsByBusinessObjectDefinition("S3_MANAGED", null);
     }
 
-    /*
-     * Ignoring this test as it requires using a database view, but it is impossible to update a view within a same transaction. This test should be enabled
-     * again when in-memory database is implemented for unit tests.
-     */
-    @Ignore
     @Test
     public void testGetStorageUploadStats() throws JAXBException, IOException
     {
@@ -203,11 +197,6 @@ public class StorageRestControllerTest extends AbstractRestTest
         assertTrue(index == (ADDITIONAL_UPLOAD_DATE + PAST_UPLOAD_DATES_TO_REPORT_ON + ADDITIONAL_UPLOAD_DATE + ADDITIONAL_UPLOAD_DATE));
     }
 
-    /*
-     * Ignoring this test as it requires using a database view, but it is impossible to update a view within a same transaction. This test should be enabled
-     * again when in-memory database is implemented for unit tests.
-     */
-    @Ignore
     @Test
     public void testGetStorageUploadStatsNoUploadDateSpecified() throws JAXBException, IOException
     {
@@ -240,12 +229,6 @@ public class StorageRestControllerTest extends AbstractRestTest
         assertTrue(index == expectedRecordCount);
     }
 
-    /**
-     * TODO: Ignoring this test as it requires using a database view, but it is impossible to update a view within a same transaction. This test should be
-     * enabled again when in-memory database is implemented for unit tests. We should see if the H2 in-memory database supports views. Otherwise, we will need
-     * to populate the "view" table with the appropriate data which is less ideal.
-     */
-    @Ignore
     @Test
     public void testGetStorageUploadStatsByBusinessObjectDefinition() throws JAXBException, IOException
     {
@@ -294,11 +277,6 @@ public class StorageRestControllerTest extends AbstractRestTest
         assertTrue(index == (ADDITIONAL_UPLOAD_DATE + PAST_UPLOAD_DATES_TO_REPORT_ON + TODAY_UPLOAD_DATE + ADDITIONAL_UPLOAD_DATE));
     }
 
-    /*
-     * Ignoring this test as it requires using a database view, but it is impossible to update a view within a same transaction. This test should be enabled
-     * again when in-memory database is implemented for unit tests.
-     */
-    @Ignore
     @Test
     public void testGetStorageUploadStatsByBusinessObjectDefinitionNoUploadDateSpecified() throws JAXBException, IOException
     {
@@ -411,11 +389,20 @@ public class StorageRestControllerTest extends AbstractRestTest
 
                         StorageFileEntity storageFileEntity = createStorageFileEntity(storageUnitEntity, s3FilePath, FILE_SIZE_1_KB, ROW_COUNT_1000);
                         // For the storage upload stats unit tests, we need storageFileEntity.createdOn value
-                        // to be set to match the relative partition value instead of defaulting to Oracle's SYSDATE.
+                        // to be set to match the relative partition value instead of defaulting to the current time.
                         storageFileEntity.setCreatedOn(new Timestamp(date.getTime()));
                     }
                 }
             }
         }
+
+        // Rebuild the storage daily upload statistics rollup for the relative upload dates.
+        Date currentDate = DmDateUtils.getCurrentCalendarNoTime().getTime();
+        Date startDate = DmDateUtils.addDays(currentDate, -(PAST_UPLOAD_DATES_TO_REPORT_ON + ADDITIONAL_UPLOAD_DATE));
+        Date endDate = DmDateUtils.addDays(currentDate, ADDITIONAL_UPLOAD_DATE);
+        for (Date date = startDate; !date.after(endDate); date = DmDateUtils.addDays(date, 1))
+        {
+            storageService.rebuildStorageDailyUploadStats(date);
+        }
     }
 }
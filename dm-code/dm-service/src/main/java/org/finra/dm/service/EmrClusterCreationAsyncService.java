@@ -0,0 +1,45 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.service;
+
+import org.finra.dm.model.api.xml.EmrClusterCreateRequest;
+import org.finra.dm.model.api.xml.EmrClusterCreationStatus;
+
+/**
+ * The service that creates EMR clusters asynchronously.
+ */
+public interface EmrClusterCreationAsyncService
+{
+    /**
+     * Validates the request and creates the EMR cluster in the background. If a creation of the same EMR cluster is already in flight, the status of that
+     * request is returned instead of starting another one.
+     *
+     * @param request the EMR cluster create request
+     *
+     * @return the status of the request that creates the cluster
+     */
+    public EmrClusterCreationStatus createClusterAsync(EmrClusterCreateRequest request);
+
+    /**
+     * Gets the status of an asynchronous EMR cluster creation request. Once the request succeeded, the status includes the created or already existing EMR
+     * cluster.
+     *
+     * @param requestId the request id
+     *
+     * @return the request status
+     */
+    public EmrClusterCreationStatus getEmrClusterCreationStatus(String requestId);
+}
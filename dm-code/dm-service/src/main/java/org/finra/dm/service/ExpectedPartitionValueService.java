@@ -20,6 +20,8 @@ import org.finra.dm.model.api.xml.ExpectedPartitionValueKey;
 import org.finra.dm.model.api.xml.ExpectedPartitionValuesCreateRequest;
 import org.finra.dm.model.api.xml.ExpectedPartitionValuesDeleteRequest;
 import org.finra.dm.model.api.xml.ExpectedPartitionValuesInformation;
+import org.finra.dm.model.api.xml.ExpectedPartitionValuesReplaceInformation;
+import org.finra.dm.model.api.xml.ExpectedPartitionValuesReplaceRequest;
 import org.finra.dm.model.api.xml.PartitionKeyGroupKey;
 import org.finra.dm.model.api.xml.PartitionValueRange;
 
@@ -35,4 +37,7 @@ public interface ExpectedPartitionValueService
     public ExpectedPartitionValuesInformation getExpectedPartitionValues(PartitionKeyGroupKey partitionKeyGroupKey, PartitionValueRange partitionValueRange);
 
     public ExpectedPartitionValuesInformation deleteExpectedPartitionValues(ExpectedPartitionValuesDeleteRequest expectedPartitionValuesCreateRequest);
+
+    public ExpectedPartitionValuesReplaceInformation replaceExpectedPartitionValues(
+        ExpectedPartitionValuesReplaceRequest expectedPartitionValuesReplaceRequest);
 }
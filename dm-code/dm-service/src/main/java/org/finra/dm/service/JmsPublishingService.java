@@ -26,4 +26,13 @@ public interface JmsPublishingService
      * @return true if a message was sent or false if no message was sent (i.e. no message needed to be sent).
      */
     public boolean publishOldestJmsMessage();
+
+    /**
+     * Publishes and removes from the database queue the specified JMS message.
+     *
+     * @param jmsMessageId the id of the JMS message.
+     *
+     * @return true if the message was sent or false if it no longer exists in the database queue (i.e. it was already published).
+     */
+    public boolean publishJmsMessage(Integer jmsMessageId);
 }
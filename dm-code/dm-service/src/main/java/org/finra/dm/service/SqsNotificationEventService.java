@@ -32,6 +32,19 @@ public interface SqsNotificationEventService
     public JmsMessageEntity processBusinessObjectDataStatusChangeNotificationEvent(BusinessObjectDataKey businessObjectDataKey,
         String newBusinessObjectDataStatus, String oldBusinessObjectDataStatus);
 
+    /**
+     * Handles the notification for the business object data status changes to the SQS when the caller already has the business object data id.
+     *
+     * @param businessObjectDataKey the business object data key
+     * @param businessObjectDataId the business object data id
+     * @param newBusinessObjectDataStatus the new business object data status
+     * @param oldBusinessObjectDataStatus the old business object data status
+     *
+     * @return the JMS message that got queued
+     */
+    public JmsMessageEntity processBusinessObjectDataStatusChangeNotificationEvent(BusinessObjectDataKey businessObjectDataKey, Integer businessObjectDataId,
+        String newBusinessObjectDataStatus, String oldBusinessObjectDataStatus);
+
     /**
      * Handles the system monitor event notification.
      *
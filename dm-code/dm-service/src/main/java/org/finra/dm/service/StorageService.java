@@ -22,6 +22,7 @@ import org.finra.dm.model.api.xml.Storage;
 import org.finra.dm.model.api.xml.StorageBusinessObjectDefinitionDailyUploadStats;
 import org.finra.dm.model.api.xml.StorageCreateRequest;
 import org.finra.dm.model.api.xml.StorageDailyUploadStats;
+import org.finra.dm.model.api.xml.StorageDailyUploadStatsCheck;
 import org.finra.dm.model.api.xml.StorageKeys;
 import org.finra.dm.model.api.xml.StorageUpdateRequest;
 
@@ -49,4 +50,23 @@ public interface StorageService
 
     public StorageBusinessObjectDefinitionDailyUploadStats getStorageUploadStatsByBusinessObjectDefinition(StorageAlternateKeyDto storageAlternateKey,
         Date uploadDate);
+
+    /**
+     * Rebuilds the storage daily upload statistics rollup for the specified upload date from the registered storage files across all storages.
+     *
+     * @param uploadDate the upload date
+     *
+     * @return the number of rollup rows created for the upload date
+     */
+    public int rebuildStorageDailyUploadStats(Date uploadDate);
+
+    /**
+     * Compares the storage daily upload statistics rollup against the statistics aggregated from the registered storage files for the specified upload date.
+     *
+     * @param storageAlternateKey the storage alternate key (case-insensitive)
+     * @param uploadDate the upload date
+     *
+     * @return the check result listing the statistics that do not match
+     */
+    public StorageDailyUploadStatsCheck checkStorageUploadStats(StorageAlternateKeyDto storageAlternateKey, Date uploadDate);
 }
@@ -16,6 +16,8 @@
 package org.finra.dm.service;
 
 import org.finra.dm.model.dto.AwsParamsDto;
+import org.finra.dm.model.api.xml.BusinessObjectData;
+import org.finra.dm.model.api.xml.BusinessObjectDataCreateRequest;
 import org.finra.dm.model.api.xml.BusinessObjectDataKey;
 
 public interface UploadDownloadHelperService
@@ -44,4 +46,24 @@ public interface UploadDownloadHelperService
      * @param businessObjectDataStatus the business object data status
      */
     public void updateBusinessObjectDataStatus(BusinessObjectDataKey businessObjectDataKey, String businessObjectDataStatus);
+
+    /**
+     * Creates the source and target business object data of a single file upload in one transaction.
+     *
+     * @param sourceBusinessObjectDataCreateRequest the source business object data create request
+     * @param targetBusinessObjectDataCreateRequest the target business object data create request
+     *
+     * @return Array containing the created source and target business object data.
+     */
+    public BusinessObjectData[] createUploadSingleBusinessObjectData(BusinessObjectDataCreateRequest sourceBusinessObjectDataCreateRequest,
+        BusinessObjectDataCreateRequest targetBusinessObjectDataCreateRequest);
+
+    /**
+     * Takes the business object data of a single file upload that couldn't be initiated out of use by marking the source BData as DELETED and the target BData
+     * as INVALID.
+     *
+     * @param sourceBusinessObjectDataKey the source business object data key
+     * @param targetBusinessObjectDataKey the target business object data key
+     */
+    public void abortUploadSingle(BusinessObjectDataKey sourceBusinessObjectDataKey, BusinessObjectDataKey targetBusinessObjectDataKey);
 }
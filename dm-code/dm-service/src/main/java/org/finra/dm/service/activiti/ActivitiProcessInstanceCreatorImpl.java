@@ -25,6 +25,7 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.AsyncResult;
 import org.springframework.stereotype.Component;
 
+import org.finra.dm.service.config.ServiceSpringModuleConfig;
 import org.finra.dm.service.helper.DmErrorInformationExceptionHandler;
 
 /**
@@ -52,12 +53,22 @@ public class ActivitiProcessInstanceCreatorImpl implements ActivitiProcessInstan
      * @throws Exception if any errors are encountered while creating the process instance. An exception won't be thrown if the process instance was created,
      * but not started successfully.
      */
-    @Async
+    @Async(ServiceSpringModuleConfig.JOB_CREATION_TASK_EXECUTOR_BEAN_NAME)
     @Override
     public Future<Void> createAndStartProcessInstanceAsync(String processDefinitionId, Map<String, Object> parameters,
         ProcessInstanceHolder processInstanceHolder) throws Exception
     {
-        createAndStartProcessInstanceSync(processDefinitionId, parameters, processInstanceHolder);
+        try
+        {
+            createAndStartProcessInstanceSync(processDefinitionId, parameters, processInstanceHolder);
+        }
+        finally
+        {
+            // Wake up any caller waiting on the holder. This is a no-op when the process instance was already placed in the holder, but it prevents the
+            // caller from waiting forever when the process instance couldn't be created.
+            processInstanceHolder.signalCompletion();
+        }
+
         // Return an AsyncResult so callers will know the future is "done". They can call "isDone" to know when this method has completed and they
         // can call "get" to see if any exceptions were thrown.
         return new AsyncResult<>(null);
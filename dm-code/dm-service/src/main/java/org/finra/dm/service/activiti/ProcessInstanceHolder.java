@@ -15,26 +15,73 @@
 */
 package org.finra.dm.service.activiti;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.concurrent.CountDownLatch;
 
 import org.activiti.engine.runtime.ProcessInstance;
 
 /**
- * A class that holds a handle to a process instance.
+ * A class that holds a handle to a process instance. The holder also acts as a completion signal so a caller can block until the process instance has been
+ * created (or until the creator has given up) instead of polling for it.
  */
 public class ProcessInstanceHolder implements Serializable
 {
     private static final long serialVersionUID = 880498730520310065L;
 
-    private ProcessInstance processInstance;
+    private volatile ProcessInstance processInstance;
+
+    private transient CountDownLatch completionLatch = new CountDownLatch(1);
 
     public ProcessInstance getProcessInstance()
     {
         return processInstance;
     }
 
+    /**
+     * Sets the process instance and signals any callers waiting for it.
+     *
+     * @param processInstance the process instance.
+     */
     public void setProcessInstance(ProcessInstance processInstance)
     {
         this.processInstance = processInstance;
+        completionLatch.countDown();
+    }
+
+    /**
+     * Signals any callers waiting for the process instance that no more work will be done to populate this holder. This is used when the process instance
+     * couldn't be created so waiting callers don't block forever. Calling this method after the process instance was set has no effect.
+     */
+    public void signalCompletion()
+    {
+        completionLatch.countDown();
+    }
+
+    /**
+     * Blocks until the process instance has been set or until completion has been signalled, whichever comes first.
+     *
+     * @return the process instance or null if completion was signalled without a process instance being set.
+     * @throws InterruptedException if the current thread was interrupted while waiting.
+     */
+    public ProcessInstance awaitProcessInstance() throws InterruptedException
+    {
+        completionLatch.await();
+        return processInstance;
+    }
+
+    /**
+     * Restores the transient completion latch after deserialization.
+     *
+     * @param inputStream the object input stream.
+     *
+     * @throws IOException if an I/O error occurs.
+     * @throws ClassNotFoundException if the class of a serialized object couldn't be found.
+     */
+    private void readObject(ObjectInputStream inputStream) throws IOException, ClassNotFoundException
+    {
+        inputStream.defaultReadObject();
+        completionLatch = new CountDownLatch(processInstance == null ? 1 : 0);
     }
 }
@@ -18,6 +18,7 @@ package org.finra.dm.service.config;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
 
@@ -32,7 +33,15 @@ import org.finra.dm.core.StopWatchAdvice;
 public class ServiceBasicAopSpringModuleConfig extends ServiceAopPointcuts
 {
     /**
-     * Around advice that logs methods times for all service methods.
+     * The prefix of the service method latency histogram names.
+     */
+    public static final String METRIC_SERVICE_LATENCY_PREFIX = "service.latency.";
+
+    @Autowired
+    private StopWatchAdvice stopWatchAdvice;
+
+    /**
+     * Around advice that records and logs methods times for all service methods.
      *
      * @param pjp the proceeding join point.
      *
@@ -42,6 +51,6 @@ public class ServiceBasicAopSpringModuleConfig extends ServiceAopPointcuts
     @Around("serviceMethods()")
     public Object logMethodTime(ProceedingJoinPoint pjp) throws Throwable
     {
-        return StopWatchAdvice.logMethodTime(pjp);
+        return stopWatchAdvice.logMethodTime(pjp, METRIC_SERVICE_LATENCY_PREFIX);
     }
 }
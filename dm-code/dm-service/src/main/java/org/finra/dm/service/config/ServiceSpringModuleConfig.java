@@ -24,11 +24,14 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
 
 import javax.jms.ConnectionFactory;
 import javax.sql.DataSource;
 
 import com.amazon.sqs.javamessaging.SQSConnectionFactory;
+import com.amazon.sqs.javamessaging.SQSSession;
 import com.amazonaws.ClientConfiguration;
 import org.activiti.engine.HistoryService;
 import org.activiti.engine.IdentityService;
@@ -38,6 +41,7 @@ import org.activiti.engine.RuntimeService;
 import org.activiti.engine.TaskService;
 import org.activiti.engine.cfg.ProcessEngineConfigurator;
 import org.activiti.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.activiti.engine.impl.jobexecutor.CallerRunsRejectedJobsHandler;
 import org.activiti.engine.impl.jobexecutor.JobExecutor;
 import org.activiti.engine.impl.scripting.BeansResolverFactory;
 import org.activiti.engine.impl.scripting.ResolverFactory;
@@ -68,14 +72,15 @@ import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
 import org.springframework.jms.config.DefaultJmsListenerContainerFactory;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.scheduling.quartz.SchedulerFactoryBean;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
 
 import org.finra.dm.core.ApplicationContextHolder;
 import org.finra.dm.core.AutowiringQuartzSpringBeanJobFactory;
+import org.finra.dm.core.MeteredThreadPoolTaskExecutor;
 import org.finra.dm.core.helper.ConfigurationHelper;
+import org.finra.dm.core.helper.MetricsHelper;
 import org.finra.dm.dao.helper.AwsHelper;
 import org.finra.dm.model.dto.AwsParamsDto;
 import org.finra.dm.model.dto.ConfigurationValue;
@@ -93,7 +98,7 @@ import org.finra.dm.service.systemjobs.AbstractSystemJob;
 // Component scan all packages, but exclude the configuration ones since they are explicitly specified.
 @ComponentScan(value = "org.finra.dm.service",
     excludeFilters = @ComponentScan.Filter(type = FilterType.REGEX, pattern = "org\\.finra\\.dm\\.service\\.config\\..*") )
-@Import({ServiceBasicAopSpringModuleConfig.class, ServiceAppAopSpringModuleConfig.class})
+@Import(ServiceBasicAopSpringModuleConfig.class)
 @EnableAsync
 public class ServiceSpringModuleConfig implements AsyncConfigurer
 {
@@ -107,6 +112,36 @@ public class ServiceSpringModuleConfig implements AsyncConfigurer
      */
     public static final String CREATE_QUARTZ_TABLES_BEAN_NAME = "createQuartzTables";
 
+    /**
+     * The name of the task executor bean that creates and starts job process instances.
+     */
+    public static final String JOB_CREATION_TASK_EXECUTOR_BEAN_NAME = "jobCreationTaskExecutor";
+
+    /**
+     * The name of the task executor bean that moves uploaded files to their final S3 location.
+     */
+    public static final String FILE_MOVE_TASK_EXECUTOR_BEAN_NAME = "fileMoveTaskExecutor";
+
+    /**
+     * The name of the task executor bean that processes business object data notification events.
+     */
+    public static final String NOTIFICATION_TASK_EXECUTOR_BEAN_NAME = "notificationTaskExecutor";
+
+    /**
+     * The name of the task executor bean that publishes JMS messages as soon as the transaction that added them commits.
+     */
+    public static final String JMS_PUBLISHING_TASK_EXECUTOR_BEAN_NAME = "jmsPublishingTaskExecutor";
+
+    /**
+     * The name of the task executor bean that creates EMR clusters requested asynchronously.
+     */
+    public static final String EMR_CLUSTER_CREATION_TASK_EXECUTOR_BEAN_NAME = "emrClusterCreationTaskExecutor";
+
+    /**
+     * The name of the task executor bean that requests temporary security credentials from STS.
+     */
+    public static final String STS_CREDENTIALS_TASK_EXECUTOR_BEAN_NAME = "stsCredentialsTaskExecutor";
+
     @Autowired
     private DataSource dmDataSource;
 
@@ -128,6 +163,9 @@ public class ServiceSpringModuleConfig implements AsyncConfigurer
     @Autowired
     private ConfigurationHelper configurationHelper;
 
+    @Autowired
+    private MetricsHelper metricsHelper;
+
     @Autowired
     private DmJmsDestinationResolver dmDestinationResolver;
 
@@ -147,21 +185,24 @@ public class ServiceSpringModuleConfig implements AsyncConfigurer
     }
 
     /**
-     * Returns an Activiti job executor that uses our configured Async executor.
+     * Returns an Activiti job executor that uses our configured Async executor. Jobs rejected by the executor because it is saturated are run on the job
+     * acquisition thread which also keeps it from acquiring more jobs until it catches up.
      *
      * @return a Spring job executor.
      */
     @Bean
     public JobExecutor jobExecutor()
     {
-        return new SpringJobExecutor(getAsyncExecutor());
+        SpringJobExecutor jobExecutor = new SpringJobExecutor(getAsyncExecutor());
+        jobExecutor.setRejectedJobsHandler(new CallerRunsRejectedJobsHandler());
+        return jobExecutor;
     }
 
     /**
-     * Returns an Async "task" executor which is also a normal "executor". This is being wired into Activity via the job executor bean. It is also being used by
-     * the "@EnableAsync" annotation and the fact that this class implements AsyncConfigurer. That way, all methods annotated with "@Async" will be executed
-     * asynchronously by this executor. Thus, we have a shared thread pool that handles both Async method calls as well as Activiti asynchronous job executions
-     * (e.g. timers, messages, etc.).
+     * Returns an Async "task" executor which is also a normal "executor". This is being wired into Activity via the job executor bean. It is also the default
+     * executor used by the "@EnableAsync" annotation since this class implements AsyncConfigurer. The "@Async" methods of the other workloads (i.e. job
+     * creation, file moves and notifications) explicitly name their own executors so a slow workload can't starve the Activiti asynchronous job executions
+     * (e.g. timers, messages, etc.) or each other.
      *
      * @return the async task executor.
      */
@@ -169,11 +210,116 @@ public class ServiceSpringModuleConfig implements AsyncConfigurer
     @Bean // This will call the "initialize" method of the ThreadPoolTaskExecutor automatically.
     public TaskExecutor getAsyncExecutor()
     {
-        // Create a Spring thread pool "task" executor that is backed by a JDK Thread Pool Executor.
         // Use the environment to make the key thread pool parameters configurable although changing them would require a server restart.
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(configurationHelper.getProperty(ConfigurationValue.THREAD_POOL_CORE_POOL_SIZE, Integer.class));
-        executor.setMaxPoolSize(configurationHelper.getProperty(ConfigurationValue.THREAD_POOL_MAX_POOL_SIZE, Integer.class));
+        return createTaskExecutor("activiti", configurationHelper.getProperty(ConfigurationValue.THREAD_POOL_CORE_POOL_SIZE, Integer.class),
+            configurationHelper.getProperty(ConfigurationValue.THREAD_POOL_MAX_POOL_SIZE, Integer.class),
+            configurationHelper.getProperty(ConfigurationValue.THREAD_POOL_QUEUE_CAPACITY, Integer.class), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Returns the task executor that creates and starts job process instances. When it is saturated, the caller creates the process instance itself.
+     *
+     * @return the job creation task executor.
+     */
+    @Bean(name = JOB_CREATION_TASK_EXECUTOR_BEAN_NAME)
+    public TaskExecutor jobCreationTaskExecutor()
+    {
+        return createTaskExecutor("jobCreation", configurationHelper.getProperty(ConfigurationValue.JOB_CREATION_THREAD_POOL_CORE_POOL_SIZE, Integer.class),
+            configurationHelper.getProperty(ConfigurationValue.JOB_CREATION_THREAD_POOL_MAX_POOL_SIZE, Integer.class),
+            configurationHelper.getProperty(ConfigurationValue.JOB_CREATION_THREAD_POOL_QUEUE_CAPACITY, Integer.class),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Returns the task executor that moves uploaded files to their final S3 location. When it is saturated, the file move is rejected rather than run inline
+     * in the caller's transaction. The caller rolls back and leaves the S3 notification unacknowledged, so the upload completion is retried when SQS
+     * redelivers it.
+     *
+     * @return the file move task executor.
+     */
+    @Bean(name = FILE_MOVE_TASK_EXECUTOR_BEAN_NAME)
+    public TaskExecutor fileMoveTaskExecutor()
+    {
+        return createTaskExecutor("fileMove", configurationHelper.getProperty(ConfigurationValue.FILE_MOVE_THREAD_POOL_CORE_POOL_SIZE, Integer.class),
+            configurationHelper.getProperty(ConfigurationValue.FILE_MOVE_THREAD_POOL_MAX_POOL_SIZE, Integer.class),
+            configurationHelper.getProperty(ConfigurationValue.FILE_MOVE_THREAD_POOL_QUEUE_CAPACITY, Integer.class), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Returns the task executor that processes business object data notification events. When it is saturated, the caller waits for space in the queue, so
+     * events are neither dropped nor processed inside the caller's transaction.
+     *
+     * @return the notification task executor.
+     */
+    @Bean(name = NOTIFICATION_TASK_EXECUTOR_BEAN_NAME)
+    public TaskExecutor notificationTaskExecutor()
+    {
+        return createTaskExecutor("notification", configurationHelper.getProperty(ConfigurationValue.NOTIFICATION_THREAD_POOL_CORE_POOL_SIZE, Integer.class),
+            configurationHelper.getProperty(ConfigurationValue.NOTIFICATION_THREAD_POOL_MAX_POOL_SIZE, Integer.class),
+            configurationHelper.getProperty(ConfigurationValue.NOTIFICATION_THREAD_POOL_QUEUE_CAPACITY, Integer.class),
+            new MeteredThreadPoolTaskExecutor.BlockingPolicy());
+    }
+
+    /**
+     * Returns the task executor that publishes JMS messages as soon as the transaction that added them commits. When it is saturated, the messages are left in
+     * the database queue for the JMS publishing system job.
+     *
+     * @return the JMS publishing task executor.
+     */
+    @Bean(name = JMS_PUBLISHING_TASK_EXECUTOR_BEAN_NAME)
+    public TaskExecutor jmsPublishingTaskExecutor()
+    {
+        int poolSize = configurationHelper.getProperty(ConfigurationValue.JMS_PUBLISHING_THREAD_POOL_SIZE, Integer.class);
+        int queueCapacity = configurationHelper.getProperty(ConfigurationValue.JMS_PUBLISHING_THREAD_POOL_QUEUE_CAPACITY, Integer.class);
+        return createTaskExecutor("jmsPublishing", poolSize, poolSize, queueCapacity, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    /**
+     * Returns the task executor that creates EMR clusters requested asynchronously. When it is saturated, new requests are rejected rather than creating the
+     * cluster on the calling thread.
+     *
+     * @return the EMR cluster creation task executor.
+     */
+    @Bean(name = EMR_CLUSTER_CREATION_TASK_EXECUTOR_BEAN_NAME)
+    public TaskExecutor emrClusterCreationTaskExecutor()
+    {
+        int poolSize = configurationHelper.getProperty(ConfigurationValue.EMR_CLUSTER_CREATION_THREAD_POOL_SIZE, Integer.class);
+        int queueCapacity = configurationHelper.getProperty(ConfigurationValue.EMR_CLUSTER_CREATION_THREAD_POOL_QUEUE_CAPACITY, Integer.class);
+        return createTaskExecutor("emrClusterCreation", poolSize, poolSize, queueCapacity, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Returns the task executor that requests temporary security credentials from STS while the requesting thread does other work. When it is saturated, the
+     * requesting thread calls STS itself.
+     *
+     * @return the STS credentials task executor.
+     */
+    @Bean(name = STS_CREDENTIALS_TASK_EXECUTOR_BEAN_NAME)
+    public TaskExecutor stsCredentialsTaskExecutor()
+    {
+        int poolSize = configurationHelper.getProperty(ConfigurationValue.AWS_STS_CREDENTIALS_THREAD_POOL_SIZE, Integer.class);
+        int queueCapacity = configurationHelper.getProperty(ConfigurationValue.AWS_STS_CREDENTIALS_THREAD_POOL_QUEUE_CAPACITY, Integer.class);
+        return createTaskExecutor("stsCredentials", poolSize, poolSize, queueCapacity, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Creates a metered thread pool task executor with a bounded queue. The pool only grows past its core pool size once the queue is full.
+     *
+     * @param name the executor name used in the thread and metric names.
+     * @param corePoolSize the core pool size.
+     * @param maxPoolSize the max pool size.
+     * @param queueCapacity the queue capacity.
+     * @param rejectedExecutionHandler the handler for tasks submitted when the queue is full and the pool is at its max size.
+     *
+     * @return the task executor.
+     */
+    private MeteredThreadPoolTaskExecutor createTaskExecutor(String name, int corePoolSize, int maxPoolSize, int queueCapacity,
+        RejectedExecutionHandler rejectedExecutionHandler)
+    {
+        MeteredThreadPoolTaskExecutor executor = new MeteredThreadPoolTaskExecutor(name, metricsHelper, rejectedExecutionHandler);
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
         executor.setKeepAliveSeconds(configurationHelper.getProperty(ConfigurationValue.THREAD_POOL_KEEP_ALIVE_SECS, Integer.class));
         return executor;
     }
@@ -399,7 +545,8 @@ public class ServiceSpringModuleConfig implements AsyncConfigurer
     }
 
     /**
-     * Gets a JMS listener container factory that can return a JMS listener container.
+     * Gets a JMS listener container factory that can return a JMS listener container. The listeners acknowledge each message on its own once it is processed,
+     * so the messages received in one batch are neither acknowledged before they are processed nor held back by a slower message of the same batch.
      *
      * @param jmsConnectionFactory a JMS connection factory.
      *
@@ -415,6 +562,7 @@ public class ServiceSpringModuleConfig implements AsyncConfigurer
         factory.setConnectionFactory(jmsConnectionFactory);
         factory.setDestinationResolver(dmDestinationResolver);
         factory.setConcurrency(concurrencyLimits);
+        factory.setSessionAcknowledgeMode(SQSSession.UNORDERED_ACKNOWLEDGE);
         return factory;
     }
 
@@ -440,7 +588,11 @@ public class ServiceSpringModuleConfig implements AsyncConfigurer
             clientConfiguration.setProxyPort(awsParamsDto.getHttpProxyPort());
         }
 
-        return SQSConnectionFactory.builder().withClientConfiguration(clientConfiguration).build();
+        // Receive messages in batches rather than one SQS call per message.
+        int numberOfMessagesToPrefetch = configurationHelper.getProperty(ConfigurationValue.JMS_LISTENER_PREFETCH_MESSAGES, Integer.class);
+
+        return SQSConnectionFactory.builder().withClientConfiguration(clientConfiguration).withNumberOfMessagesToPrefetch(numberOfMessagesToPrefetch)
+            .build();
     }
 
     /**
@@ -23,6 +23,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeSet;
 
 import org.apache.commons.lang3.BooleanUtils;
@@ -34,6 +35,7 @@ import org.springframework.util.CollectionUtils;
 
 import org.finra.dm.core.helper.ConfigurationHelper;
 import org.finra.dm.dao.DmDao;
+import org.finra.dm.dao.StorageFileIterator;
 import org.finra.dm.model.AlreadyExistsException;
 import org.finra.dm.model.ObjectNotFoundException;
 import org.finra.dm.model.api.xml.Attribute;
@@ -111,6 +113,9 @@ public class BusinessObjectDataHelper
     @Autowired
     private StorageFileHelper storageFileHelper;
 
+    @Autowired
+    private StorageDailyUploadStatsHelper storageDailyUploadStatsHelper;
+
     /**
      * Populates a business object data key with a legacy namespace if namespace if not there.
      *
@@ -703,6 +708,12 @@ public class BusinessObjectDataHelper
         // Persist the new entity.
         newVersionBusinessObjectDataEntity = dmDao.saveAndRefresh(newVersionBusinessObjectDataEntity);
 
+        // Add the registered storage files to the storage daily upload statistics.
+        for (StorageUnitEntity storageUnitEntity : newVersionBusinessObjectDataEntity.getStorageUnits())
+        {
+            storageDailyUploadStatsHelper.addStorageDailyUploadStats(storageUnitEntity, storageUnitEntity.getStorageFiles());
+        }
+
         // Create a status change notification to be sent on create business object data event.
         sqsNotificationEventService
             .processBusinessObjectDataStatusChangeNotificationEvent(dmDaoHelper.getBusinessObjectDataKey(newVersionBusinessObjectDataEntity),
@@ -740,7 +751,7 @@ public class BusinessObjectDataHelper
 
         // Sent a business object data status change notification.
         sqsNotificationEventService.processBusinessObjectDataStatusChangeNotificationEvent(dmDaoHelper.getBusinessObjectDataKey(businessObjectDataEntity),
-            businessObjectDataStatusEntity.getCode(), oldStatus);
+            businessObjectDataEntity.getId(), businessObjectDataStatusEntity.getCode(), oldStatus);
     }
 
     /**
@@ -1356,16 +1367,15 @@ public class BusinessObjectDataHelper
 
             // If this storage is an S3 managed storage and storage files were not discovered, prepare for S3 file validation.
             S3FileTransferRequestParamsDto params = null;
-            List<String> actualKeys = null;
+            Set<String> actualKeys = null;
             if (s3ManagedStorage && !storageFilesDiscovered)
             {
                 // Get S3 managed bucket access parameters, such as bucket name, AWS access key ID, AWS secret access key, etc...
                 params = dmDaoHelper.getS3ManagedBucketAccessParams();
-                // Retrieve a list of all keys/objects from S3 managed bucket matching the expected S3 key prefix.
-                // Since S3 key prefix represents the directory, we add a trailing '/' character to it.
+                // Stream through all keys/objects from S3 managed bucket matching the expected S3 key prefix, keeping only the keys of the specified
+                // storage files. Since S3 key prefix represents the directory, we add a trailing '/' character to it.
                 params.setS3KeyPrefix(expectedS3KeyPrefix + "/");
-                // When listing S3 files, we ignore 0 byte objects that represent S3 directories.
-                actualKeys = storageFileHelper.getFilePaths(s3Service.listDirectory(params, true));
+                actualKeys = getExistingS3Keys(params, storageFiles);
             }
 
             // For S3 managed storage, ensure that there are no storage files already registered in this
@@ -1422,6 +1432,36 @@ public class BusinessObjectDataHelper
         return storageFileEntities;
     }
 
+    /**
+     * Returns the file paths of the specified storage files that exist in S3. The S3 listing is paged through without being materialized and the listing stops
+     * as soon as all of the file paths are found.
+     *
+     * @param params the S3 file transfer request parameters. The S3 bucket name and S3 key prefix identify the S3 objects to get listed.
+     * @param storageFiles the storage files to look for
+     *
+     * @return the set of file paths that exist in S3
+     */
+    private Set<String> getExistingS3Keys(S3FileTransferRequestParamsDto params, List<StorageFile> storageFiles)
+    {
+        Set<String> expectedKeys = new HashSet<>(storageFileHelper.getFilePaths(storageFiles));
+        Set<String> existingKeys = new HashSet<>();
+
+        // When listing S3 files, we ignore 0 byte objects that represent S3 directories.
+        try (StorageFileIterator storageFileIterator = s3Service.getDirectoryIterator(params, true))
+        {
+            while (existingKeys.size() < expectedKeys.size() && storageFileIterator.hasNext())
+            {
+                String key = storageFileIterator.next().getFilePath();
+                if (expectedKeys.contains(key))
+                {
+                    existingKeys.add(key);
+                }
+            }
+        }
+
+        return existingKeys;
+    }
+
     /**
      * Returns the partition key column position (one-based numbering).
      *
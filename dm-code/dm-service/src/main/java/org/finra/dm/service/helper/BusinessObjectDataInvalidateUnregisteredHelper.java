@@ -18,21 +18,29 @@ package org.finra.dm.service.helper;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
 
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
+import org.finra.dm.core.helper.ConfigurationHelper;
 import org.finra.dm.dao.DmDao;
 import org.finra.dm.dao.S3Dao;
+import org.finra.dm.dao.StorageFileIterator;
 import org.finra.dm.dao.helper.DmCollectionHelper;
 import org.finra.dm.model.ObjectNotFoundException;
+import org.finra.dm.model.dto.ConfigurationValue;
 import org.finra.dm.model.dto.S3FileTransferRequestParamsDto;
+import org.finra.dm.model.jpa.BusinessObjectDataAttributeEntity;
 import org.finra.dm.model.jpa.BusinessObjectDataEntity;
 import org.finra.dm.model.jpa.BusinessObjectDataStatusEntity;
+import org.finra.dm.model.jpa.BusinessObjectDataStatusHistoryEntity;
 import org.finra.dm.model.jpa.BusinessObjectFormatEntity;
 import org.finra.dm.model.jpa.StorageEntity;
+import org.finra.dm.model.jpa.StorageFileEntity;
 import org.finra.dm.model.jpa.StoragePlatformEntity;
 import org.finra.dm.model.jpa.StorageUnitEntity;
 import org.finra.dm.model.api.xml.BusinessObjectData;
@@ -47,9 +55,17 @@ public class BusinessObjectDataInvalidateUnregisteredHelper
 {
     public static final String UNREGISTERED_STATUS = BusinessObjectDataStatusEntity.INVALID;
 
+    /**
+     * The discovery mode that lists the S3 key prefix up to the business object data version once rather than probing one version at a time.
+     */
+    public static final String LISTING_DISCOVERY_MODE = "LISTING";
+
     @Autowired
     private DmDao dmDao;
 
+    @Autowired
+    private ConfigurationHelper configurationHelper;
+
     @Autowired
     private BusinessObjectDataHelper businessObjectDataHelper;
 
@@ -65,9 +81,6 @@ public class BusinessObjectDataInvalidateUnregisteredHelper
     @Autowired
     private SqsNotificationEventService sqsNotificationEventService;
 
-    @Autowired
-    private StorageFileHelper storageFileHelper;
-
     /**
      * Compares objects registered vs what exists in S3. Registers objects in INVALID status for data that are not registered but exist in S3. S3 objects are
      * identified by DM's S3 key prefix.
@@ -104,10 +117,25 @@ public class BusinessObjectDataInvalidateUnregisteredHelper
         BusinessObjectDataEntity latestBusinessObjectDataEntity = getLatestBusinessObjectDataEntity(businessObjectDataInvalidateUnregisteredRequest);
         Integer latestBusinessObjectDataVersion = getBusinessObjectDataVersion(latestBusinessObjectDataEntity);
 
-        // List data which are not registered, but exists in S3
-        List<BusinessObjectDataKey> unregisteredBusinessObjectDataKeys =
-            getUnregisteredBusinessObjectDataKeys(businessObjectDataInvalidateUnregisteredRequest, storageEntity, businessObjectFormatEntity,
-                latestBusinessObjectDataVersion);
+        // List data which are not registered, but exists in S3. The listing discovery mode also finds the versions missing from S3, but falls back to probing
+        // when the version can't be parsed from the S3 object keys.
+        List<BusinessObjectDataKey> unregisteredBusinessObjectDataKeys = null;
+        List<Integer> missingBusinessObjectDataVersions = null;
+        if (LISTING_DISCOVERY_MODE
+            .equalsIgnoreCase(configurationHelper.getProperty(ConfigurationValue.BUSINESS_OBJECT_DATA_INVALIDATE_UNREGISTERED_DISCOVERY_MODE)))
+        {
+            missingBusinessObjectDataVersions = new ArrayList<>();
+            unregisteredBusinessObjectDataKeys =
+                listUnregisteredBusinessObjectDataKeys(businessObjectDataInvalidateUnregisteredRequest, storageEntity, businessObjectFormatEntity,
+                    latestBusinessObjectDataVersion, missingBusinessObjectDataVersions);
+        }
+        if (unregisteredBusinessObjectDataKeys == null)
+        {
+            missingBusinessObjectDataVersions = null;
+            unregisteredBusinessObjectDataKeys =
+                getUnregisteredBusinessObjectDataKeys(businessObjectDataInvalidateUnregisteredRequest, storageEntity, businessObjectFormatEntity,
+                    latestBusinessObjectDataVersion);
+        }
 
         // Register the unregistered data as INVALID
         List<BusinessObjectDataEntity> registeredBusinessObjectDataEntities =
@@ -117,7 +145,8 @@ public class BusinessObjectDataInvalidateUnregisteredHelper
         processBusinessObjectDataStatusChangeNotificationEvents(registeredBusinessObjectDataEntities);
 
         // Create and return response
-        return getBusinessObjectDataInvalidateUnregisteredResponse(businessObjectDataInvalidateUnregisteredRequest, registeredBusinessObjectDataEntities);
+        return getBusinessObjectDataInvalidateUnregisteredResponse(businessObjectDataInvalidateUnregisteredRequest, registeredBusinessObjectDataEntities,
+            missingBusinessObjectDataVersions);
     }
 
     /**
@@ -127,18 +156,12 @@ public class BusinessObjectDataInvalidateUnregisteredHelper
      */
     private void processBusinessObjectDataStatusChangeNotificationEvents(List<BusinessObjectDataEntity> businessObjectDataEntities)
     {
-        // Convert entities to key object
-        List<BusinessObjectDataKey> registeredBusinessObjectDataKeys = new ArrayList<>();
+        // Fire notifications on the keys. The entities are already loaded so pass their ids along rather than having them looked up again by key.
         for (BusinessObjectDataEntity businessObjectDataEntity : businessObjectDataEntities)
         {
             BusinessObjectDataKey businessObjectDataKey = businessObjectDataHelper.createBusinessObjectDataKeyFromEntity(businessObjectDataEntity);
-            registeredBusinessObjectDataKeys.add(businessObjectDataKey);
-        }
-
-        // Fire notifications on the keys
-        for (BusinessObjectDataKey businessObjectDataKey : registeredBusinessObjectDataKeys)
-        {
-            sqsNotificationEventService.processBusinessObjectDataStatusChangeNotificationEvent(businessObjectDataKey, UNREGISTERED_STATUS, null);
+            sqsNotificationEventService
+                .processBusinessObjectDataStatusChangeNotificationEvent(businessObjectDataKey, businessObjectDataEntity.getId(), UNREGISTERED_STATUS, null);
         }
     }
 
@@ -242,11 +265,13 @@ public class BusinessObjectDataInvalidateUnregisteredHelper
      *
      * @param request the original request
      * @param registeredBusinessObjectDataEntities list of {@link BusinessObjectDataEntity} that have been newly created.
+     * @param missingBusinessObjectDataVersions the versions missing from S3 or null if they weren't discovered.
      *
      * @return {@link BusinessObjectDataInvalidateUnregisteredResponse}
      */
     private BusinessObjectDataInvalidateUnregisteredResponse getBusinessObjectDataInvalidateUnregisteredResponse(
-        BusinessObjectDataInvalidateUnregisteredRequest request, List<BusinessObjectDataEntity> registeredBusinessObjectDataEntities)
+        BusinessObjectDataInvalidateUnregisteredRequest request, List<BusinessObjectDataEntity> registeredBusinessObjectDataEntities,
+        List<Integer> missingBusinessObjectDataVersions)
     {
         BusinessObjectDataInvalidateUnregisteredResponse response = new BusinessObjectDataInvalidateUnregisteredResponse();
         response.setNamespace(request.getNamespace());
@@ -258,6 +283,7 @@ public class BusinessObjectDataInvalidateUnregisteredHelper
         response.setSubPartitionValues(request.getSubPartitionValues());
         response.setStorageName(request.getStorageName());
         response.setRegisteredBusinessObjectDataList(getResponseBusinessObjectDatas(registeredBusinessObjectDataEntities));
+        response.setMissingBusinessObjectDataVersions(missingBusinessObjectDataVersions);
         return response;
     }
 
@@ -305,6 +331,9 @@ public class BusinessObjectDataInvalidateUnregisteredHelper
                 latestBusinessObjectDataEntity.setLatestVersion(false);
             }
 
+            // All the data get registered with the same status.
+            BusinessObjectDataStatusEntity businessObjectDataStatusEntity = dmDao.getBusinessObjectDataStatusByCode(UNREGISTERED_STATUS);
+
             Iterator<BusinessObjectDataKey> unregisteredBusinessObjectDataKeysIterator = businessObjectDataKeys.iterator();
             while (unregisteredBusinessObjectDataKeysIterator.hasNext())
             {
@@ -323,17 +352,25 @@ public class BusinessObjectDataInvalidateUnregisteredHelper
                 storageUnitEntity.setBusinessObjectData(businessObjectDataEntity);
                 String s3KeyPrefix = businessObjectDataHelper.buildS3KeyPrefix(businessObjectFormatEntity, unregisteredBusinessObjectDataKey);
                 storageUnitEntity.setDirectoryPath(s3KeyPrefix);
+                storageUnitEntity.setStorageFiles(new ArrayList<StorageFileEntity>());
                 storageUnitEntities.add(storageUnitEntity);
                 businessObjectDataEntity.setStorageUnits(storageUnitEntities);
-                businessObjectDataEntity.setStatus(dmDao.getBusinessObjectDataStatusByCode(UNREGISTERED_STATUS));
+                businessObjectDataEntity.setStatus(businessObjectDataStatusEntity);
+
+                // The new data has no other related entities. Initialize the collections so the data doesn't need to be refreshed to build the response.
+                businessObjectDataEntity.setAttributes(new ArrayList<BusinessObjectDataAttributeEntity>());
+                businessObjectDataEntity.setBusinessObjectDataParents(new ArrayList<BusinessObjectDataEntity>());
+                businessObjectDataEntity.setBusinessObjectDataChildren(new ArrayList<BusinessObjectDataEntity>());
+                businessObjectDataEntity.setHistoricalStatuses(new ArrayList<BusinessObjectDataStatusHistoryEntity>());
 
                 // Set this data as latest version if this is the end of the loop
                 businessObjectDataEntity.setLatestVersion(!unregisteredBusinessObjectDataKeysIterator.hasNext());
 
-                dmDao.saveAndRefresh(businessObjectDataEntity);
-
                 createdBusinessObjectDataEntities.add(businessObjectDataEntity);
             }
+
+            // Insert all the data in one batch.
+            dmDao.saveAllAndFlush(createdBusinessObjectDataEntities);
         }
 
         return createdBusinessObjectDataEntities;
@@ -366,14 +403,11 @@ public class BusinessObjectDataInvalidateUnregisteredHelper
             BusinessObjectDataKey businessObjectDataKey = getBusinessObjectDataKey(request);
             businessObjectDataKey.setBusinessObjectDataVersion(latestRegisteredBusinessObjectDataVersion + businessObjectDataVersionOffset);
 
-            // Find S3 object keys which match the prefix
-            List<String> matchingS3ObjectKeys = getS3ObjectKeys(businessObjectFormatEntity, businessObjectDataKey, storageEntity);
-
             /*
-             * If there are no matching keys, it means there are no objects registered for this version in S3.
+             * If there are no S3 object keys which match the prefix, it means there are no objects registered for this version in S3.
              * If there are no matches, it means that this version is not out-of-sync with DM.
              */
-            if (matchingS3ObjectKeys.isEmpty())
+            if (!s3ObjectKeysExist(businessObjectFormatEntity, businessObjectDataKey, storageEntity))
             {
                 break;
             }
@@ -388,16 +422,123 @@ public class BusinessObjectDataInvalidateUnregisteredHelper
     }
 
     /**
-     * Returns a list of S3 object keys associated with the given format, data key, and storage. The keys are found by matching the prefix. The result may be
-     * empty if there are not matching keys found.
+     * Returns a list of data keys that are not registered in DM, but exist in S3, for data versions after the latest data in the given request's format and
+     * storage. Lists the S3 key prefix up to the data version once and parses every version present from the S3 object keys. As with probing, versions found
+     * after a gap are not returned. The versions missing from S3 are added to the given list instead.
+     *
+     * @param request {@link BusinessObjectDataInvalidateUnregisteredRequest}
+     * @param storageEntity {@link StorageEntity}
+     * @param businessObjectFormatEntity {@link BusinessObjectFormatEntity}
+     * @param latestRegisteredBusinessObjectDataVersion the latest registered business object data version.
+     * @param missingBusinessObjectDataVersions the list the versions missing from S3 get added to.
+     *
+     * @return {@link BusinessObjectDataKey} or null if the data version can't be parsed from the S3 object keys for the configured S3 key prefix template.
+     */
+    private List<BusinessObjectDataKey> listUnregisteredBusinessObjectDataKeys(BusinessObjectDataInvalidateUnregisteredRequest request,
+        StorageEntity storageEntity, BusinessObjectFormatEntity businessObjectFormatEntity, Integer latestRegisteredBusinessObjectDataVersion,
+        List<Integer> missingBusinessObjectDataVersions)
+    {
+        // Build the S3 key prefix for two different versions to find the text before and after the version.
+        BusinessObjectDataKey businessObjectDataKey = getBusinessObjectDataKey(request);
+        businessObjectDataKey.setBusinessObjectDataVersion(0);
+        String firstS3KeyPrefix = businessObjectDataHelper.buildS3KeyPrefix(businessObjectFormatEntity, businessObjectDataKey);
+        businessObjectDataKey.setBusinessObjectDataVersion(1);
+        String secondS3KeyPrefix = businessObjectDataHelper.buildS3KeyPrefix(businessObjectFormatEntity, businessObjectDataKey);
+
+        int versionIndex = StringUtils.indexOfDifference(firstS3KeyPrefix, secondS3KeyPrefix);
+        if (versionIndex < 0)
+        {
+            return null;
+        }
+        String versionPrefix = firstS3KeyPrefix.substring(0, versionIndex);
+        String versionSuffix = firstS3KeyPrefix.substring(versionIndex + 1) + '/';
+
+        // The version must appear exactly once and must not be followed by a digit for it to be parsed back.
+        if (!secondS3KeyPrefix.equals(versionPrefix + '1' + firstS3KeyPrefix.substring(versionIndex + 1)) || Character.isDigit(versionSuffix.charAt(0)))
+        {
+            return null;
+        }
+
+        // List the S3 objects for all versions at once and parse the versions out of the object keys.
+        S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto = dmDaoHelper.getS3BucketAccessParams(storageEntity);
+        s3FileTransferRequestParamsDto.setS3KeyPrefix(versionPrefix);
+        SortedSet<Integer> s3BusinessObjectDataVersions = new TreeSet<>();
+        try (StorageFileIterator storageFileIterator = s3Dao.getDirectoryIterator(s3FileTransferRequestParamsDto, false))
+        {
+            while (storageFileIterator.hasNext())
+            {
+                Integer businessObjectDataVersion =
+                    parseBusinessObjectDataVersion(storageFileIterator.next().getFilePath(), versionPrefix, versionSuffix);
+                if (businessObjectDataVersion != null && businessObjectDataVersion > latestRegisteredBusinessObjectDataVersion)
+                {
+                    s3BusinessObjectDataVersions.add(businessObjectDataVersion);
+                }
+            }
+        }
+
+        List<BusinessObjectDataKey> unregisteredBusinessObjectDataKeys = new ArrayList<>();
+        int nextBusinessObjectDataVersion = latestRegisteredBusinessObjectDataVersion + 1;
+        for (Integer s3BusinessObjectDataVersion : s3BusinessObjectDataVersions)
+        {
+            // Record the versions missing before this one.
+            for (int version = nextBusinessObjectDataVersion; version < s3BusinessObjectDataVersion; version++)
+            {
+                missingBusinessObjectDataVersions.add(version);
+            }
+
+            // Only the versions with no gap before them are registered.
+            if (missingBusinessObjectDataVersions.isEmpty())
+            {
+                BusinessObjectDataKey unregisteredBusinessObjectDataKey = getBusinessObjectDataKey(request);
+                unregisteredBusinessObjectDataKey.setBusinessObjectDataVersion(s3BusinessObjectDataVersion);
+                unregisteredBusinessObjectDataKeys.add(unregisteredBusinessObjectDataKey);
+            }
+
+            nextBusinessObjectDataVersion = s3BusinessObjectDataVersion + 1;
+        }
+        return unregisteredBusinessObjectDataKeys;
+    }
+
+    /**
+     * Parses the business object data version out of an S3 object key.
+     *
+     * @param s3ObjectKey the S3 object key.
+     * @param versionPrefix the S3 key prefix text before the version.
+     * @param versionSuffix the S3 key prefix text after the version, including the trailing slash.
+     *
+     * @return the version or null if the S3 object key doesn't belong to a version of the business object data.
+     */
+    private Integer parseBusinessObjectDataVersion(String s3ObjectKey, String versionPrefix, String versionSuffix)
+    {
+        int versionStart = versionPrefix.length();
+        int versionEnd = versionStart;
+        while (versionEnd < s3ObjectKey.length() && Character.isDigit(s3ObjectKey.charAt(versionEnd)))
+        {
+            versionEnd++;
+        }
+
+        // Versions are written without leading zeros and must fit in an integer.
+        int versionLength = versionEnd - versionStart;
+        if (versionLength == 0 || versionLength > 9 || (versionLength > 1 && s3ObjectKey.charAt(versionStart) == '0') ||
+            !s3ObjectKey.startsWith(versionSuffix, versionEnd))
+        {
+            return null;
+        }
+
+        return Integer.valueOf(s3ObjectKey.substring(versionStart, versionEnd));
+    }
+
+    /**
+     * Returns whether any S3 object keys are associated with the given format, data key, and storage. The keys are found by matching the prefix. Only the
+     * first page of the listing is requested.
      *
      * @param businessObjectFormatEntity {@link BusinessObjectFormatEntity}
      * @param businessObjectDataKey {@link BusinessObjectDataKey}
      * @param storageEntity {@link StorageEntity}
      *
-     * @return list of S3 object keys
+     * @return true if there are matching S3 object keys
      */
-    private List<String> getS3ObjectKeys(BusinessObjectFormatEntity businessObjectFormatEntity, BusinessObjectDataKey businessObjectDataKey,
+    private boolean s3ObjectKeysExist(BusinessObjectFormatEntity businessObjectFormatEntity, BusinessObjectDataKey businessObjectDataKey,
         StorageEntity storageEntity)
     {
         String s3KeyPrefix = businessObjectDataHelper.buildS3KeyPrefix(businessObjectFormatEntity, businessObjectDataKey);
@@ -405,7 +546,10 @@ public class BusinessObjectDataInvalidateUnregisteredHelper
         S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto = dmDaoHelper.getS3BucketAccessParams(storageEntity);
         s3FileTransferRequestParamsDto.setS3KeyPrefix(s3KeyPrefix + '/');
 
-        return storageFileHelper.getFilePaths(s3Dao.listDirectory(s3FileTransferRequestParamsDto));
+        try (StorageFileIterator storageFileIterator = s3Dao.getDirectoryIterator(s3FileTransferRequestParamsDto, false))
+        {
+            return storageFileIterator.hasNext();
+        }
     }
 
     /**
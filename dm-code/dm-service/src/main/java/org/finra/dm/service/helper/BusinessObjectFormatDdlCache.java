@@ -0,0 +1,149 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.service.helper;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import org.finra.dm.core.helper.ConfigurationHelper;
+import org.finra.dm.core.helper.MetricsHelper;
+import org.finra.dm.model.api.xml.BusinessObjectFormatDdlRequest;
+import org.finra.dm.model.jpa.BusinessObjectFormatEntity;
+import org.finra.dm.model.jpa.CustomDdlEntity;
+import org.finra.dm.model.dto.ConfigurationValue;
+
+/**
+ * Generates the create table DDL for business object formats, reusing the DDL previously generated for the same format and request options. The DDL of a
+ * format only depends on the format and its optional custom DDL, so the cached DDL is keyed by their ids and their "updated on" timestamps along with the
+ * request options. Updating the format or its custom DDL changes the key, so a stale DDL isn't returned on any node. The node that makes the update also evicts
+ * the DDL cached for the format right away.
+ * <p/>
+ * The cache hits and misses are counted as metrics.
+ */
+@Component
+public class BusinessObjectFormatDdlCache
+{
+    public static final String METRIC_HITS = "businessObjectFormatDdlCache.hits";
+    public static final String METRIC_MISSES = "businessObjectFormatDdlCache.misses";
+
+    @Autowired
+    private ConfigurationHelper configurationHelper;
+
+    @Autowired
+    private DdlGeneratorFactory ddlGeneratorFactory;
+
+    @Autowired
+    private MetricsHelper metricsHelper;
+
+    /**
+     * The generated DDL keyed by format, custom DDL and request options.
+     */
+    private final ConcurrentMap<String, String> ddls = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the cached create table DDL for the specified business object format and request options.
+     *
+     * @param request the business object format DDL request.
+     * @param businessObjectFormatEntity the business object format entity.
+     * @param customDdlEntity the optional custom DDL entity.
+     *
+     * @return the cached create table DDL or null if it isn't cached.
+     */
+    public String getCachedCreateTableDdl(BusinessObjectFormatDdlRequest request, BusinessObjectFormatEntity businessObjectFormatEntity,
+        CustomDdlEntity customDdlEntity)
+    {
+        if (configurationHelper.getProperty(ConfigurationValue.BUSINESS_OBJECT_FORMAT_DDL_CACHE_MAX_SIZE, Integer.class) <= 0)
+        {
+            return null;
+        }
+
+        String ddl = ddls.get(getCacheKey(request, businessObjectFormatEntity, customDdlEntity));
+        metricsHelper.incrementCounter(ddl != null ? METRIC_HITS : METRIC_MISSES, 1);
+        return ddl;
+    }
+
+    /**
+     * Generates the create table DDL for the specified business object format and caches it.
+     *
+     * @param request the business object format DDL request.
+     * @param businessObjectFormatEntity the business object format entity.
+     * @param customDdlEntity the optional custom DDL entity.
+     *
+     * @return the create table DDL.
+     */
+    public String generateCreateTableDdl(BusinessObjectFormatDdlRequest request, BusinessObjectFormatEntity businessObjectFormatEntity,
+        CustomDdlEntity customDdlEntity)
+    {
+        String ddl =
+            ddlGeneratorFactory.getDdlGenerator(request.getOutputFormat()).generateCreateTableDdl(request, businessObjectFormatEntity, customDdlEntity);
+
+        int maxCacheSize = configurationHelper.getProperty(ConfigurationValue.BUSINESS_OBJECT_FORMAT_DDL_CACHE_MAX_SIZE, Integer.class);
+        if (maxCacheSize > 0)
+        {
+            // Keep the cache bounded. Clearing it also drops the DDL cached for formats that have since been updated or deleted on other nodes.
+            if (ddls.size() >= maxCacheSize)
+            {
+                ddls.clear();
+            }
+            ddls.put(getCacheKey(request, businessObjectFormatEntity, customDdlEntity), ddl);
+        }
+
+        return ddl;
+    }
+
+    /**
+     * Removes the DDL cached for the specified business object format. Updates made on this node call this so the DDL is regenerated right away, even if
+     * the update left the "updated on" timestamps unchanged (i.e. when it happened within the same millisecond).
+     *
+     * @param businessObjectFormatEntity the business object format entity.
+     */
+    public void evict(BusinessObjectFormatEntity businessObjectFormatEntity)
+    {
+        String cacheKeyPrefix = businessObjectFormatEntity.getId() + "\n";
+        for (String cacheKey : ddls.keySet())
+        {
+            if (cacheKey.startsWith(cacheKeyPrefix))
+            {
+                ddls.remove(cacheKey);
+            }
+        }
+    }
+
+    /**
+     * Builds the cache key for the specified business object format, custom DDL and request options.
+     *
+     * @param request the business object format DDL request.
+     * @param businessObjectFormatEntity the business object format entity.
+     * @param customDdlEntity the optional custom DDL entity.
+     *
+     * @return the cache key.
+     */
+    private String getCacheKey(BusinessObjectFormatDdlRequest request, BusinessObjectFormatEntity businessObjectFormatEntity, CustomDdlEntity customDdlEntity)
+    {
+        StringBuilder cacheKey = new StringBuilder();
+        cacheKey.append(businessObjectFormatEntity.getId()).append('\n').append(businessObjectFormatEntity.getUpdatedOn()).append('\n');
+        if (customDdlEntity != null)
+        {
+            cacheKey.append(customDdlEntity.getId()).append('\n').append(customDdlEntity.getUpdatedOn());
+        }
+        cacheKey.append('\n').append(request.getOutputFormat()).append('\n').append(request.getTableName()).append('\n')
+            .append(request.isIncludeDropTableStatement()).append('\n').append(request.isIncludeIfNotExistsOption());
+        return cacheKey.toString();
+    }
+}
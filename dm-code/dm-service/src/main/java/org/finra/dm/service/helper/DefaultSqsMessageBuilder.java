@@ -84,15 +84,22 @@ public class DefaultSqsMessageBuilder implements SqsMessageBuilder
     @Override
     public String buildBusinessObjectDataStatusChangeMessage(BusinessObjectDataKey businessObjectDataKey, String newBusinessObjectDataStatus,
         String oldBusinessObjectDataStatus)
+    {
+        BusinessObjectDataEntity businessObjectDataEntity = dmDaoHelper.getBusinessObjectDataEntity(businessObjectDataKey);
+        return buildBusinessObjectDataStatusChangeMessage(businessObjectDataKey, businessObjectDataEntity.getId(), newBusinessObjectDataStatus,
+            oldBusinessObjectDataStatus);
+    }
+
+    @Override
+    public String buildBusinessObjectDataStatusChangeMessage(BusinessObjectDataKey businessObjectDataKey, Integer businessObjectDataId,
+        String newBusinessObjectDataStatus, String oldBusinessObjectDataStatus)
     {
         // Create a context map of values that can be used when building the message.
         Map<String, Object> velocityContextMap = new HashMap<>();
         velocityContextMap.put("businessObjectDataKey", businessObjectDataKey);
         velocityContextMap.put("newBusinessObjectDataStatus", newBusinessObjectDataStatus);
         velocityContextMap.put("oldBusinessObjectDataStatus", oldBusinessObjectDataStatus);
-
-        BusinessObjectDataEntity businessObjectDataEntity = dmDaoHelper.getBusinessObjectDataEntity(businessObjectDataKey);
-        velocityContextMap.put("businessObjectDataId", businessObjectDataEntity.getId());
+        velocityContextMap.put("businessObjectDataId", businessObjectDataId);
 
         // Evaluate the template and return the value.
         return evaluateVelocityTemplate(ConfigurationValue.DM_NOTIFICATION_SQS_BUSINESS_OBJECT_DATA_STATUS_CHANGE_VELOCITY_TEMPLATE, velocityContextMap,
@@ -83,6 +83,9 @@ public class DmDaoHelper
     @Autowired
     private ConfigurationHelper configurationHelper;
 
+    @Autowired
+    private JmsPublishingDispatcher jmsPublishingDispatcher;
+
     /**
      * Gets a namespace entity and ensure it exists.
      *
@@ -916,8 +919,8 @@ public class DmDaoHelper
         jmsMessageEntity.setMessageText(messageText);
         jmsMessageEntity = dmDao.saveAndRefresh(jmsMessageEntity);
 
-        // Set to schedule JMS publishing job. 
-        ScheduleJmsPublishingJobAdvice.setScheduleJmsPublishingJob();
+        // Publish the message as soon as the current transaction commits.
+        jmsPublishingDispatcher.dispatchAfterCommit(jmsMessageEntity.getId());
 
         return jmsMessageEntity;
     }
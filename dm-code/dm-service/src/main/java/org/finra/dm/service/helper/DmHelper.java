@@ -25,6 +25,8 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -326,8 +328,53 @@ public class DmHelper
      */
     public void validateS3Files(StorageUnit storageUnit, List<String> actualS3Files, String s3KeyPrefix)
     {
-        // Validate that all files match the expected S3 key prefix and build a list of registered S3 files.
-        List<String> registeredS3Files = new ArrayList<>();
+        validateS3FilePaths(storageUnit, actualS3Files.iterator(), s3KeyPrefix);
+    }
+
+    /**
+     * Validate S3 files per storage unit information. The actual S3 files are streamed through, so only the registered S3 files are held in memory.
+     *
+     * @param storageUnit the storage unit that contains S3 files to be validated
+     * @param actualS3Files the iterator over the actual S3 files
+     * @param s3KeyPrefix the S3 key prefix that was prepended to the S3 file paths, when they were uploaded to S3
+     */
+    public void validateS3Files(StorageUnit storageUnit, final Iterator<StorageFile> actualS3Files, String s3KeyPrefix)
+    {
+        validateS3FilePaths(storageUnit, new Iterator<String>()
+        {
+            @Override
+            public boolean hasNext()
+            {
+                return actualS3Files.hasNext();
+            }
+
+            @Override
+            public String next()
+            {
+                return actualS3Files.next().getFilePath();
+            }
+
+            @Override
+            public void remove()
+            {
+                throw new UnsupportedOperationException();
+            }
+        }, s3KeyPrefix);
+    }
+
+    /**
+     * Validate S3 file paths per storage unit information.
+     *
+     * @param storageUnit the storage unit that contains S3 files to be validated
+     * @param actualS3Files the iterator over the actual S3 file paths
+     * @param s3KeyPrefix the S3 key prefix that was prepended to the S3 file paths, when they were uploaded to S3
+     */
+    private void validateS3FilePaths(StorageUnit storageUnit, Iterator<String> actualS3Files, String s3KeyPrefix)
+    {
+        // Validate that all files match the expected S3 key prefix and build a set of registered S3 files.
+        Set<String> registeredS3Files = new HashSet<>();
+        // The registered S3 files not found yet in S3, in the order they are registered.
+        Set<String> missingS3Files = new LinkedHashSet<>();
         if (!CollectionUtils.isEmpty(storageUnit.getStorageFiles()))
         {
             for (StorageFile storageFile : storageUnit.getStorageFiles())
@@ -335,23 +382,33 @@ public class DmHelper
                 Assert.isTrue(storageFile.getFilePath().startsWith(s3KeyPrefix), String
                     .format("Storage file S3 key prefix \"%s\" does not match the expected S3 key prefix \"%s\".", storageFile.getFilePath(), s3KeyPrefix));
                 registeredS3Files.add(storageFile.getFilePath());
+                missingS3Files.add(storageFile.getFilePath());
+            }
+        }
+
+        String unregisteredS3File = null;
+        while (actualS3Files.hasNext())
+        {
+            String actualS3File = actualS3Files.next();
+            missingS3Files.remove(actualS3File);
+            if (unregisteredS3File == null && !registeredS3Files.contains(actualS3File))
+            {
+                unregisteredS3File = actualS3File;
             }
         }
 
         // Validate that all files exist in S3 managed bucket.
-        if (!actualS3Files.containsAll(registeredS3Files))
+        if (!missingS3Files.isEmpty())
         {
-            registeredS3Files.removeAll(actualS3Files);
-            throw new IllegalStateException(
-                String.format("Registered file \"%s\" does not exist in \"%s\" storage.", registeredS3Files.get(0), storageUnit.getStorage().getName()));
+            throw new IllegalStateException(String
+                .format("Registered file \"%s\" does not exist in \"%s\" storage.", missingS3Files.iterator().next(), storageUnit.getStorage().getName()));
         }
 
         // Validate that no other files in S3 managed bucket have the same S3 key prefix.
-        if (!registeredS3Files.containsAll(actualS3Files))
+        if (unregisteredS3File != null)
         {
-            actualS3Files.removeAll(registeredS3Files);
             throw new IllegalStateException(String
-                .format("Found S3 file \"%s\" in \"%s\" storage not registered with this business object data.", actualS3Files.get(0),
+                .format("Found S3 file \"%s\" in \"%s\" storage not registered with this business object data.", unregisteredS3File,
                     storageUnit.getStorage().getName()));
         }
     }
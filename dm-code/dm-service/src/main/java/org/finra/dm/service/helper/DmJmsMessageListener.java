@@ -18,29 +18,54 @@ package org.finra.dm.service.helper;
 import java.net.URLDecoder;
 import java.util.Map;
 
+import javax.jms.JMSException;
+import javax.jms.Message;
+
 import com.amazonaws.services.s3.event.S3EventNotification;
 import org.apache.commons.lang.CharEncoding;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.jms.annotation.JmsListener;
 import org.springframework.messaging.handler.annotation.Headers;
 import org.springframework.stereotype.Component;
 
+import org.finra.dm.core.helper.MetricsHelper;
 import org.finra.dm.service.SqsNotificationEventService;
 import org.finra.dm.service.UploadDownloadService;
 import org.finra.dm.service.impl.UploadDownloadServiceImpl.CompleteUploadSingleMessageResult;
 
 /*
- * DM JMS message listener.
+ * DM JMS message listener. Messages are received from SQS in batches and processed in parallel by the concurrent listeners of the JMS listener container,
+ * each message being acknowledged on its own once it is processed.
  */
 @Component
 public class DmJmsMessageListener
 {
     private static final Logger LOGGER = Logger.getLogger(DmJmsMessageListener.class);
 
+    /**
+     * The name of the histogram tracking the time between a message being sent to the incoming queue and being received in milliseconds.
+     */
+    public static final String METRIC_QUEUE_LAG = "jms.incoming.queueLagMillis";
+
+    /**
+     * The prefix of the histograms tracking the processing latency by message type (i.e. "s3Notification" or "systemMonitor").
+     */
+    public static final String METRIC_PROCESSING_LATENCY_PREFIX = "jms.incoming.latency.";
+
+    /**
+     * The name of the counter of the messages that failed to be processed.
+     */
+    public static final String METRIC_FAILURES = "jms.incoming.failures";
+
     @Autowired
     private DmHelper dmHelper;
 
+    @Autowired
+    private MetricsHelper metricsHelper;
+
     @Autowired
     private UploadDownloadService uploadDownloadService;
 
@@ -48,32 +73,60 @@ public class DmJmsMessageListener
     private SqsNotificationEventService sqsNotificationEventService;
 
     /**
-     * Processes a JMS message.
+     * Processes a JMS message received from the incoming queue and acknowledges it. A message that fails to be processed is acknowledged as well, since
+     * processing it again would fail the same way. The exception is a message that couldn't be processed because the server is saturated; it is left
+     * unacknowledged, so SQS redelivers it once its visibility timeout expires.
      *
      * @param payload the message payload.
      * @param allHeaders the JMS headers.
+     * @param message the JMS message.
+     *
+     * @throws JMSException if the message couldn't be acknowledged.
      */
     @JmsListener(destination = DmJmsDestinationResolver.SQS_DESTINATION_DM_INCOMING)
-    public void processMessage(String payload, @Headers Map<Object, Object> allHeaders)
+    public void processMessage(String payload, @Headers Map<Object, Object> allHeaders, Message message) throws JMSException
+    {
+        // Record how long the message waited in the queue.
+        if (message.getJMSTimestamp() > 0)
+        {
+            metricsHelper.recordValue(METRIC_QUEUE_LAG, Math.max(0, System.currentTimeMillis() - message.getJMSTimestamp()));
+        }
+
+        processMessage(payload, allHeaders);
+
+        message.acknowledge();
+    }
+
+    /**
+     * Processes a JMS message. The message type is detected from the payload: S3 event notifications are JSON and system monitor messages are XML.
+     *
+     * @param payload the message payload.
+     * @param allHeaders the JMS headers.
+     *
+     * @throws TaskRejectedException if the message couldn't be processed because the server is saturated and should be redelivered.
+     */
+    public void processMessage(String payload, Map<Object, Object> allHeaders)
     {
         LOGGER.info(String
             .format("JMS message received from \"%s\" queue. Headers: \"%s\" Payload: \"%s\"", DmJmsDestinationResolver.SQS_DESTINATION_DM_INCOMING, allHeaders,
                 payload));
 
-        // Process the message as S3 notification.
-        boolean messageProcessed = processS3Notification(payload);
-
-        // If message is not processed as S3 notification, then process it as ESB system monitor message.
-        if (!messageProcessed)
+        long startNanoTime = System.nanoTime();
+        boolean messageProcessed;
+        if (StringUtils.startsWith(StringUtils.trimToEmpty(payload), "{"))
+        {
+            messageProcessed = processS3Notification(payload);
+            metricsHelper.recordLatency(METRIC_PROCESSING_LATENCY_PREFIX + "s3Notification", startNanoTime);
+        }
+        else
         {
             messageProcessed = processEsbSystemMonitorMessage(payload);
+            metricsHelper.recordLatency(METRIC_PROCESSING_LATENCY_PREFIX + "systemMonitor", startNanoTime);
         }
 
         if (!messageProcessed)
         {
-            // The message was not processed, log the error.
-            LOGGER.error(String
-                .format("Failed to process JMS message from \"%s\" queue. Payload: \"%s\"", DmJmsDestinationResolver.SQS_DESTINATION_DM_INCOMING, payload));
+            metricsHelper.incrementCounter(METRIC_FAILURES, 1);
         }
     }
 
@@ -83,6 +136,7 @@ public class DmJmsMessageListener
      * @param payload the JMS message payload.
      *
      * @return boolean whether message was processed.
+     * @throws TaskRejectedException if the upload couldn't be completed because the file move executor is saturated.
      */
     private boolean processS3Notification(String payload)
     {
@@ -105,9 +159,15 @@ public class DmJmsMessageListener
 
             messageProcessed = true;
         }
+        catch (TaskRejectedException e)
+        {
+            // Leave the message for SQS to redeliver.
+            metricsHelper.incrementCounter(METRIC_FAILURES, 1);
+            throw e;
+        }
         catch (Exception e)
         {
-            LOGGER.debug(String.format("Failed to process JMS message from \"%s\" queue. Payload: \"%s\" for an S3 notification.",
+            LOGGER.error(String.format("Failed to process JMS message from \"%s\" queue. Payload: \"%s\" for an S3 notification.",
                 DmJmsDestinationResolver.SQS_DESTINATION_DM_INCOMING, payload), e);
         }
 
@@ -132,7 +192,7 @@ public class DmJmsMessageListener
         }
         catch (Exception e)
         {
-            LOGGER.debug(String.format("Failed to process JMS message from \"%s\" queue. Payload: \"%s\" for a system monitor request.",
+            LOGGER.error(String.format("Failed to process JMS message from \"%s\" queue. Payload: \"%s\" for a system monitor request.",
                 DmJmsDestinationResolver.SQS_DESTINATION_DM_INCOMING, payload), e);
         }
 
@@ -0,0 +1,181 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.service.helper;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import org.finra.dm.core.helper.ConfigurationHelper;
+import org.finra.dm.model.api.xml.EmrCluster;
+import org.finra.dm.model.api.xml.EmrClusterCreationStatus;
+import org.finra.dm.model.dto.ConfigurationValue;
+
+/**
+ * Keeps track of the asynchronous EMR cluster creation requests of this server. At most one creation of a given EMR cluster name is in flight at a time, so
+ * concurrent requests for the same cluster share the request that got registered first instead of racing between the existing cluster check and the cluster
+ * creation. The registry doesn't use locks: the in-flight requests are claimed with an atomic put-if-absent on the cluster name.
+ * <p/>
+ * The statuses are kept in memory, so a request status is only known to the server that accepted the request and is lost when that server restarts.
+ */
+@Component
+public class EmrClusterCreationRegistry
+{
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_SUCCEEDED = "SUCCEEDED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    @Autowired
+    private ConfigurationHelper configurationHelper;
+
+    /**
+     * The request ids of the in-flight requests keyed by EMR cluster name.
+     */
+    private final ConcurrentMap<String, String> inFlightRequestIds = new ConcurrentHashMap<>();
+
+    /**
+     * The request statuses keyed by request id. A status is replaced rather than modified when the request progresses, so a status handed out to a caller
+     * never changes while it's being marshalled.
+     */
+    private final ConcurrentMap<String, EmrClusterCreationStatus> statuses = new ConcurrentHashMap<>();
+
+    /**
+     * The ids of the completed requests in the order they completed.
+     */
+    private final Queue<String> completedRequestIds = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger completedRequestCount = new AtomicInteger();
+
+    /**
+     * Registers a new request to create the specified EMR cluster unless a creation of the same cluster is already in flight.
+     *
+     * @param emrClusterName the full EMR cluster name or, for requests that are never deduplicated, the request id.
+     * @param requestId the id of the new request.
+     *
+     * @return the status of the request already in flight for this cluster or null if the new request was registered.
+     */
+    public EmrClusterCreationStatus register(String emrClusterName, String requestId)
+    {
+        statuses.put(requestId, new EmrClusterCreationStatus(requestId, STATUS_PENDING, null, null));
+
+        while (true)
+        {
+            String inFlightRequestId = inFlightRequestIds.putIfAbsent(emrClusterName, requestId);
+            if (inFlightRequestId == null)
+            {
+                return null;
+            }
+
+            // The in-flight request releases the cluster name before its status can be forgotten, so a missing status means the cluster name is free again.
+            EmrClusterCreationStatus inFlightStatus = statuses.get(inFlightRequestId);
+            if (inFlightStatus != null)
+            {
+                statuses.remove(requestId);
+                return inFlightStatus;
+            }
+        }
+    }
+
+    /**
+     * Marks the request as running.
+     *
+     * @param requestId the request id.
+     */
+    public void setRunning(String requestId)
+    {
+        statuses.put(requestId, new EmrClusterCreationStatus(requestId, STATUS_RUNNING, null, null));
+    }
+
+    /**
+     * Marks the request as succeeded and releases the cluster name for new requests.
+     *
+     * @param emrClusterName the full EMR cluster name or, for requests that are never deduplicated, the request id.
+     * @param requestId the request id.
+     * @param emrCluster the created or already existing EMR cluster.
+     */
+    public void setSucceeded(String emrClusterName, String requestId, EmrCluster emrCluster)
+    {
+        complete(emrClusterName, new EmrClusterCreationStatus(requestId, STATUS_SUCCEEDED, emrCluster, null));
+    }
+
+    /**
+     * Marks the request as failed and releases the cluster name for new requests.
+     *
+     * @param emrClusterName the full EMR cluster name or, for requests that are never deduplicated, the request id.
+     * @param requestId the request id.
+     * @param errorMessage the error message.
+     */
+    public void setFailed(String emrClusterName, String requestId, String errorMessage)
+    {
+        complete(emrClusterName, new EmrClusterCreationStatus(requestId, STATUS_FAILED, null, errorMessage));
+    }
+
+    /**
+     * Forgets a request that was registered but couldn't be started, releasing the cluster name for new requests.
+     *
+     * @param emrClusterName the full EMR cluster name or, for requests that are never deduplicated, the request id.
+     * @param requestId the request id.
+     */
+    public void unregister(String emrClusterName, String requestId)
+    {
+        inFlightRequestIds.remove(emrClusterName, requestId);
+        statuses.remove(requestId);
+    }
+
+    /**
+     * Gets the status of a request.
+     *
+     * @param requestId the request id.
+     *
+     * @return the request status or null if the request isn't known to this server.
+     */
+    public EmrClusterCreationStatus getStatus(String requestId)
+    {
+        return statuses.get(requestId);
+    }
+
+    /**
+     * Records the final status of a request, releases its cluster name and forgets the oldest completed requests over the configured limit.
+     *
+     * @param emrClusterName the full EMR cluster name or, for requests that are never deduplicated, the request id.
+     * @param status the final request status.
+     */
+    private void complete(String emrClusterName, EmrClusterCreationStatus status)
+    {
+        statuses.put(status.getRequestId(), status);
+        inFlightRequestIds.remove(emrClusterName, status.getRequestId());
+
+        completedRequestIds.add(status.getRequestId());
+        completedRequestCount.incrementAndGet();
+        int maxCompletedRequests = configurationHelper.getProperty(ConfigurationValue.EMR_CLUSTER_CREATION_STATUS_MAX_COMPLETED_REQUESTS, Integer.class);
+        while (completedRequestCount.get() > maxCompletedRequests)
+        {
+            String requestId = completedRequestIds.poll();
+            if (requestId == null)
+            {
+                break;
+            }
+            completedRequestCount.decrementAndGet();
+            statuses.remove(requestId);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.service.helper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import org.finra.dm.core.helper.ConfigurationHelper;
+import org.finra.dm.model.dto.ConfigurationValue;
+import org.finra.dm.service.JmsPublishingService;
+import org.finra.dm.service.config.ServiceSpringModuleConfig;
+
+/**
+ * Publishes JMS messages added to the database queue as soon as the transaction that added them commits. The messages are published on the JMS publishing
+ * task executor so the committing thread doesn't wait on SQS. Messages that couldn't be published (e.g. the executor was saturated, SQS was unavailable or the
+ * server went down) stay in the database queue and are published by the JMS publishing system job.
+ */
+@Component
+public class JmsPublishingDispatcher
+{
+    private static final Logger LOGGER = Logger.getLogger(JmsPublishingDispatcher.class);
+
+    @Autowired
+    private ConfigurationHelper configurationHelper;
+
+    @Autowired
+    private JmsPublishingService jmsPublishingService;
+
+    @Autowired
+    @Qualifier(ServiceSpringModuleConfig.JMS_PUBLISHING_TASK_EXECUTOR_BEAN_NAME)
+    private TaskExecutor jmsPublishingTaskExecutor;
+
+    /**
+     * Requests the JMS message to be published once the current transaction commits. The message is published right away when there is no transaction.
+     *
+     * @param jmsMessageId the id of the JMS message that was added to the database queue.
+     */
+    public void dispatchAfterCommit(Integer jmsMessageId)
+    {
+        if (!Boolean.valueOf(configurationHelper.getProperty(ConfigurationValue.JMS_PUBLISHING_DISPATCH_ON_COMMIT_ENABLED)))
+        {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            // Register a single synchronization per transaction that collects all the messages added within it. The synchronizations of a suspended
+            // outer transaction aren't visible here so messages added by an inner transaction get dispatched when the inner transaction commits.
+            DispatchSynchronization dispatchSynchronization = null;
+            for (TransactionSynchronization transactionSynchronization : TransactionSynchronizationManager.getSynchronizations())
+            {
+                if (transactionSynchronization instanceof DispatchSynchronization)
+                {
+                    dispatchSynchronization = (DispatchSynchronization) transactionSynchronization;
+                }
+            }
+            if (dispatchSynchronization == null)
+            {
+                dispatchSynchronization = new DispatchSynchronization();
+                TransactionSynchronizationManager.registerSynchronization(dispatchSynchronization);
+            }
+            dispatchSynchronization.jmsMessageIds.add(jmsMessageId);
+        }
+        else
+        {
+            List<Integer> jmsMessageIds = new ArrayList<>();
+            jmsMessageIds.add(jmsMessageId);
+            dispatch(jmsMessageIds);
+        }
+    }
+
+    /**
+     * Hands the JMS messages over to the JMS publishing task executor.
+     *
+     * @param jmsMessageIds the ids of the JMS messages to publish.
+     */
+    private void dispatch(final List<Integer> jmsMessageIds)
+    {
+        try
+        {
+            jmsPublishingTaskExecutor.execute(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    publishJmsMessages(jmsMessageIds);
+                }
+            });
+        }
+        catch (RuntimeException e)
+        {
+            // The messages remain in the database queue for the JMS publishing system job.
+            LOGGER.warn("Failed to dispatch " + jmsMessageIds.size() + " JMS message(s). They will be published by the JMS publishing system job.", e);
+        }
+    }
+
+    /**
+     * Publishes the specified JMS messages. Publishing stops at the first failure since the remaining messages are likely to fail for the same reason.
+     *
+     * @param jmsMessageIds the ids of the JMS messages to publish.
+     *
+     * @return the number of JMS messages published.
+     */
+    protected int publishJmsMessages(List<Integer> jmsMessageIds)
+    {
+        int publishedJmsMessagesCount = 0;
+        try
+        {
+            for (Integer jmsMessageId : jmsMessageIds)
+            {
+                if (jmsPublishingService.publishJmsMessage(jmsMessageId))
+                {
+                    publishedJmsMessagesCount++;
+                }
+            }
+        }
+        catch (Exception e)
+        {
+            LOGGER.error("Failed to publish a JMS message. The remaining messages will be published by the JMS publishing system job.", e);
+        }
+        return publishedJmsMessagesCount;
+    }
+
+    /**
+     * A transaction synchronization that dispatches the JMS messages added within the transaction once it commits.
+     */
+    private class DispatchSynchronization extends TransactionSynchronizationAdapter
+    {
+        private final List<Integer> jmsMessageIds = new ArrayList<>();
+
+        @Override
+        public void afterCommit()
+        {
+            dispatch(jmsMessageIds);
+        }
+    }
+}
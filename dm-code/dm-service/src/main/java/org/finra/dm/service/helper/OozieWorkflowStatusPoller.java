@@ -0,0 +1,229 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.service.helper;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.log4j.Logger;
+import org.apache.oozie.client.OozieClientException;
+import org.apache.oozie.client.WorkflowJob;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.CollectionUtils;
+
+import org.finra.dm.core.helper.ConfigurationHelper;
+import org.finra.dm.dao.EmrDao;
+import org.finra.dm.dao.OozieDao;
+import org.finra.dm.dao.helper.EmrHelper;
+import org.finra.dm.model.dto.ConfigurationValue;
+
+/**
+ * Serves oozie workflow status reads for EMR clusters from a per-cluster snapshot. The snapshot holds the most recent workflows of the cluster and is
+ * fetched with a single oozie jobs query at most once per configured interval, so polling many workflows on a busy cluster doesn't cost one or two oozie
+ * calls per workflow. Workflows that aren't in the snapshot, or whose actions are needed but weren't returned by the jobs query, are read from the oozie
+ * server directly.
+ */
+@Component
+public class OozieWorkflowStatusPoller
+{
+    private static final Logger LOGGER = Logger.getLogger(OozieWorkflowStatusPoller.class);
+
+    @Autowired
+    private ConfigurationHelper configurationHelper;
+
+    @Autowired
+    private EmrDao emrDao;
+
+    @Autowired
+    private EmrHelper emrHelper;
+
+    @Autowired
+    private OozieDao oozieDao;
+
+    /**
+     * The master node IP address, oozie workflow snapshot and known client workflow job ids of the EMR clusters keyed by EMR cluster id. The map is cleared
+     * once it reaches the configured maximum size, so clusters that went away don't stay in memory.
+     */
+    private final ConcurrentMap<String, ClusterWorkflows> clusterWorkflows = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the EMR master node private IP address, looking it up only the first time it's needed for the cluster.
+     *
+     * @param emrClusterId the cluster id
+     *
+     * @return the master node private IP address
+     * @throws Exception if the master instance couldn't be retrieved.
+     */
+    public String getEmrClusterMasterIpAddress(String emrClusterId) throws Exception
+    {
+        return getClusterWorkflows(emrClusterId).masterIpAddress;
+    }
+
+    /**
+     * Gets an oozie workflow from the cluster's snapshot, falling back to the oozie server when the snapshot doesn't have it.
+     *
+     * @param emrClusterId the cluster id
+     * @param workflowJobId the oozie workflow job id.
+     * @param actionsRequired specifies whether the caller needs the workflow actions, which the oozie jobs query may not return.
+     *
+     * @return the workflow job.
+     * @throws Exception if the master instance couldn't be retrieved or the workflow couldn't be read from the oozie server.
+     */
+    public WorkflowJob getEmrOozieWorkflow(String emrClusterId, String workflowJobId, boolean actionsRequired) throws Exception
+    {
+        ClusterWorkflows workflows = getClusterWorkflows(emrClusterId);
+        WorkflowJob workflowJob = getWorkflowJobs(workflows).get(workflowJobId);
+        if (workflowJob == null || (actionsRequired && CollectionUtils.isEmpty(workflowJob.getActions())))
+        {
+            workflowJob = oozieDao.getEmrOozieWorkflow(workflows.masterIpAddress, workflowJobId);
+        }
+        return workflowJob;
+    }
+
+    /**
+     * Gets the client workflow job id previously recorded for a DM wrapper workflow.
+     *
+     * @param emrClusterId the cluster id
+     * @param wrapperWorkflowJobId the DM wrapper workflow job id.
+     *
+     * @return the client workflow job id or null if it isn't known yet.
+     * @throws Exception if the master instance couldn't be retrieved.
+     */
+    public String getClientWorkflowJobId(String emrClusterId, String wrapperWorkflowJobId) throws Exception
+    {
+        return getClusterWorkflows(emrClusterId).clientWorkflowJobIds.get(wrapperWorkflowJobId);
+    }
+
+    /**
+     * Records the client workflow job id started by a DM wrapper workflow. Once the wrapper workflow has started the client workflow it never changes, so
+     * later status reads don't need the wrapper workflow anymore.
+     *
+     * @param emrClusterId the cluster id
+     * @param wrapperWorkflowJobId the DM wrapper workflow job id.
+     * @param clientWorkflowJobId the client workflow job id.
+     *
+     * @throws Exception if the master instance couldn't be retrieved.
+     */
+    public void setClientWorkflowJobId(String emrClusterId, String wrapperWorkflowJobId, String clientWorkflowJobId) throws Exception
+    {
+        ConcurrentMap<String, String> clientWorkflowJobIds = getClusterWorkflows(emrClusterId).clientWorkflowJobIds;
+
+        // Start over rather than growing without bounds on a long lived cluster.
+        if (clientWorkflowJobIds.size() >= configurationHelper.getProperty(ConfigurationValue.EMR_OOZIE_WORKFLOW_STATUS_SNAPSHOT_MAX_JOBS, Integer.class))
+        {
+            clientWorkflowJobIds.clear();
+        }
+        clientWorkflowJobIds.put(wrapperWorkflowJobId, clientWorkflowJobId);
+    }
+
+    /**
+     * Gets the snapshot of the cluster's oozie workflows keyed by workflow job id, fetching a new one if the current one is older than the configured
+     * interval. Only one thread fetches the snapshot of a cluster at a time, the others wait for it rather than querying the oozie server themselves.
+     *
+     * @param workflows the cluster workflows.
+     *
+     * @return the workflow jobs keyed by workflow job id.
+     */
+    private Map<String, WorkflowJob> getWorkflowJobs(ClusterWorkflows workflows)
+    {
+        long intervalMillis =
+            configurationHelper.getProperty(ConfigurationValue.EMR_OOZIE_WORKFLOW_STATUS_SNAPSHOT_INTERVAL_SECS, Integer.class) * 1000L;
+        if (intervalMillis <= 0)
+        {
+            return Collections.emptyMap();
+        }
+
+        synchronized (workflows)
+        {
+            long now = System.currentTimeMillis();
+            if (now - workflows.fetchedAtMillis >= intervalMillis)
+            {
+                Map<String, WorkflowJob> workflowJobs = new HashMap<>();
+                try
+                {
+                    int maxJobs = configurationHelper.getProperty(ConfigurationValue.EMR_OOZIE_WORKFLOW_STATUS_SNAPSHOT_MAX_JOBS, Integer.class);
+                    for (WorkflowJob workflowJob : oozieDao.getEmrOozieWorkflows(workflows.masterIpAddress, 1, maxJobs))
+                    {
+                        workflowJobs.put(workflowJob.getId(), workflowJob);
+                    }
+                }
+                catch (OozieClientException | RuntimeException e)
+                {
+                    // Serve status reads from the oozie server until the next interval rather than from a snapshot that can't be refreshed.
+                    LOGGER.warn("Unable to fetch the oozie workflows from \"" + workflows.masterIpAddress + "\". Reading workflow statuses individually.", e);
+                }
+                workflows.workflowJobs = workflowJobs;
+                workflows.fetchedAtMillis = now;
+            }
+            return workflows.workflowJobs;
+        }
+    }
+
+    /**
+     * Gets the workflows of the cluster with the specified id, looking up the master node of the cluster the first time the cluster is seen.
+     *
+     * @param emrClusterId the cluster id
+     *
+     * @return the cluster workflows.
+     * @throws Exception if the master instance couldn't be retrieved.
+     */
+    private ClusterWorkflows getClusterWorkflows(String emrClusterId) throws Exception
+    {
+        ClusterWorkflows workflows = clusterWorkflows.get(emrClusterId);
+        if (workflows == null)
+        {
+            // The master node of a cluster doesn't change for the life of the cluster.
+            ClusterWorkflows newWorkflows =
+                new ClusterWorkflows(emrDao.getEmrMasterInstance(emrClusterId, emrHelper.getAwsParamsDto()).getPrivateIpAddress());
+
+            // Start over rather than growing without bounds as clusters come and go.
+            if (clusterWorkflows.size() >= configurationHelper.getProperty(ConfigurationValue.EMR_OOZIE_CLUSTER_CACHE_MAX_SIZE, Integer.class))
+            {
+                clusterWorkflows.clear();
+            }
+
+            workflows = clusterWorkflows.putIfAbsent(emrClusterId, newWorkflows);
+            if (workflows == null)
+            {
+                workflows = newWorkflows;
+            }
+        }
+        return workflows;
+    }
+
+    /**
+     * The master node IP address, the oozie workflow snapshot and the known client workflow job ids of a cluster.
+     */
+    private static class ClusterWorkflows
+    {
+        private final String masterIpAddress;
+
+        private Map<String, WorkflowJob> workflowJobs = Collections.emptyMap();
+
+        private long fetchedAtMillis;
+
+        private final ConcurrentMap<String, String> clientWorkflowJobIds = new ConcurrentHashMap<>();
+
+        private ClusterWorkflows(String masterIpAddress)
+        {
+            this.masterIpAddress = masterIpAddress;
+        }
+    }
+}
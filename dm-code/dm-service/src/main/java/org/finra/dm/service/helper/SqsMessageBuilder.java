@@ -42,4 +42,17 @@ public interface SqsMessageBuilder
      */
     public String buildBusinessObjectDataStatusChangeMessage(BusinessObjectDataKey businessObjectDataKey, String newBusinessObjectDataStatus,
         String oldBusinessObjectDataStatus);
+
+    /**
+     * Builds the message for the business object data status change when the caller already knows the business object data id.
+     *
+     * @param businessObjectDataKey the business object data key for the object whose status changed.
+     * @param businessObjectDataId the id of the business object data whose status changed.
+     * @param newBusinessObjectDataStatus the new business object data status.
+     * @param oldBusinessObjectDataStatus the old business object data status.
+     *
+     * @return the status change message or null if no message should be sent.
+     */
+    public String buildBusinessObjectDataStatusChangeMessage(BusinessObjectDataKey businessObjectDataKey, Integer businessObjectDataId,
+        String newBusinessObjectDataStatus, String oldBusinessObjectDataStatus);
 }
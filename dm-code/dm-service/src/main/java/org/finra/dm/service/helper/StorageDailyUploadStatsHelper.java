@@ -0,0 +1,135 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.service.helper;
+
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import org.finra.dm.core.DmDateUtils;
+import org.finra.dm.dao.DmDao;
+import org.finra.dm.model.jpa.StorageDailyUploadStatEntity;
+import org.finra.dm.model.jpa.StorageFileEntity;
+import org.finra.dm.model.jpa.StorageUnitEntity;
+
+/**
+ * A helper class that maintains the storage daily upload statistics rollup as storage files get registered and deleted.
+ */
+@Component
+public class StorageDailyUploadStatsHelper
+{
+    @Autowired
+    private DmDao dmDao;
+
+    /**
+     * Adds the specified newly registered storage files to the daily upload statistics of the current day. The statistics are appended as a new rollup row
+     * instead of updating an existing one, so concurrent registrations never contend on the same row. The rows get consolidated when the day is rebuilt. The
+     * storage is share locked, so the row is never appended while the day is being rebuilt.
+     *
+     * @param storageUnitEntity the storage unit the files were registered in
+     * @param storageFileEntities the newly registered storage files
+     */
+    public void addStorageDailyUploadStats(StorageUnitEntity storageUnitEntity, Collection<StorageFileEntity> storageFileEntities)
+    {
+        if (storageFileEntities == null || storageFileEntities.isEmpty())
+        {
+            return;
+        }
+
+        long totalBytes = 0;
+        for (StorageFileEntity storageFileEntity : storageFileEntities)
+        {
+            if (storageFileEntity.getFileSizeBytes() != null)
+            {
+                totalBytes += storageFileEntity.getFileSizeBytes();
+            }
+        }
+
+        dmDao.lockStorageDailyUploadStats(storageUnitEntity.getStorage());
+
+        StorageDailyUploadStatEntity storageDailyUploadStatEntity = new StorageDailyUploadStatEntity();
+        storageDailyUploadStatEntity.setStorage(storageUnitEntity.getStorage());
+        storageDailyUploadStatEntity
+            .setBusinessObjectDefinition(storageUnitEntity.getBusinessObjectData().getBusinessObjectFormat().getBusinessObjectDefinition());
+        storageDailyUploadStatEntity.setUploadDate(DmDateUtils.getCurrentCalendarNoTime().getTime());
+        storageDailyUploadStatEntity.setTotalFiles((long) storageFileEntities.size());
+        storageDailyUploadStatEntity.setTotalBytes(totalBytes);
+        dmDao.save(storageDailyUploadStatEntity);
+    }
+
+    /**
+     * Subtracts the storage files of the specified storage unit that is about to be deleted from the daily upload statistics of the days they were registered
+     * on. The statistics are appended as new rollup rows with negative totals, which get consolidated when the days are rebuilt. Only the days the rollup of
+     * the storage already has rows for are adjusted, since the earlier days are aggregated from the storage files until they get rebuilt.
+     *
+     * @param storageUnitEntity the storage unit to be deleted
+     */
+    public void subtractStorageDailyUploadStats(StorageUnitEntity storageUnitEntity)
+    {
+        if (storageUnitEntity.getStorageFiles() == null || storageUnitEntity.getStorageFiles().isEmpty())
+        {
+            return;
+        }
+
+        dmDao.lockStorageDailyUploadStats(storageUnitEntity.getStorage());
+
+        Date minUploadDate = dmDao.getStorageDailyUploadStatsMinUploadDate(storageUnitEntity.getStorage());
+        if (minUploadDate == null)
+        {
+            return;
+        }
+
+        // Total the files and bytes by the day the storage files were registered on.
+        Map<Date, StorageDailyUploadStatEntity> storageDailyUploadStatEntities = new TreeMap<>();
+        for (StorageFileEntity storageFileEntity : storageUnitEntity.getStorageFiles())
+        {
+            Date uploadDate = DmDateUtils.truncate(storageFileEntity.getCreatedOn(), Calendar.DATE);
+            if (uploadDate.before(minUploadDate))
+            {
+                continue;
+            }
+
+            StorageDailyUploadStatEntity storageDailyUploadStatEntity = storageDailyUploadStatEntities.get(uploadDate);
+            if (storageDailyUploadStatEntity == null)
+            {
+                storageDailyUploadStatEntity = new StorageDailyUploadStatEntity();
+                storageDailyUploadStatEntity.setStorage(storageUnitEntity.getStorage());
+                storageDailyUploadStatEntity
+                    .setBusinessObjectDefinition(storageUnitEntity.getBusinessObjectData().getBusinessObjectFormat().getBusinessObjectDefinition());
+                storageDailyUploadStatEntity.setUploadDate(uploadDate);
+                storageDailyUploadStatEntity.setTotalFiles(0L);
+                storageDailyUploadStatEntity.setTotalBytes(0L);
+                storageDailyUploadStatEntities.put(uploadDate, storageDailyUploadStatEntity);
+            }
+
+            storageDailyUploadStatEntity.setTotalFiles(storageDailyUploadStatEntity.getTotalFiles() - 1);
+            if (storageFileEntity.getFileSizeBytes() != null)
+            {
+                storageDailyUploadStatEntity.setTotalBytes(storageDailyUploadStatEntity.getTotalBytes() - storageFileEntity.getFileSizeBytes());
+            }
+        }
+
+        for (StorageDailyUploadStatEntity storageDailyUploadStatEntity : storageDailyUploadStatEntities.values())
+        {
+            dmDao.save(storageDailyUploadStatEntity);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.service.helper;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import com.amazonaws.auth.policy.Policy;
+import com.amazonaws.services.securitytoken.model.Credentials;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import org.finra.dm.core.helper.ConfigurationHelper;
+import org.finra.dm.core.helper.MetricsHelper;
+import org.finra.dm.dao.StsDao;
+import org.finra.dm.dao.helper.AwsHelper;
+import org.finra.dm.model.dto.ConfigurationValue;
+import org.finra.dm.service.config.ServiceSpringModuleConfig;
+
+/**
+ * Issues the temporary security credentials handed out by the upload and download services. Credentials issued for a role, session name, duration and policy
+ * are reused for an identical request for a short while, so clients that retry or poll an initiation or extension don't each cost an STS round trip. Since
+ * the policies are scoped to a single S3 object, credentials are never shared between requests for different objects. Credentials can also be requested
+ * asynchronously so the STS call overlaps with the database work of the same request.
+ * <p/>
+ * The STS call latency is recorded as a metric. STS throttling is counted by the AWS rate limiter under the "sts.assumeRole" operation.
+ */
+@Component
+public class StsCredentialBroker
+{
+    public static final String METRIC_ASSUME_ROLE = "sts.assumeRole";
+    public static final String METRIC_CREDENTIALS_CACHE_HITS = "sts.credentialsCache.hits";
+
+    @Autowired
+    private AwsHelper awsHelper;
+
+    @Autowired
+    private ConfigurationHelper configurationHelper;
+
+    @Autowired
+    private MetricsHelper metricsHelper;
+
+    @Autowired
+    private StsDao stsDao;
+
+    @Autowired
+    @Qualifier(ServiceSpringModuleConfig.STS_CREDENTIALS_TASK_EXECUTOR_BEAN_NAME)
+    private TaskExecutor stsCredentialsTaskExecutor;
+
+    /**
+     * The recently issued credentials keyed by role, session name, duration and policy.
+     */
+    private final ConcurrentMap<String, IssuedCredentials> issuedCredentials = new ConcurrentHashMap<>();
+
+    /**
+     * Gets temporary security credentials for the specified role and policy, reusing credentials recently issued for an identical request.
+     *
+     * @param sessionName the session name that will be associated with the temporary credentials.
+     * @param awsRoleArn the AWS ARN for the role required to provide access to the specified AWS resource.
+     * @param awsRoleDurationSeconds the duration, in seconds, of the role session.
+     * @param policy the temporary policy to apply to this request.
+     *
+     * @return the assumed session credentials.
+     */
+    public Credentials getTemporarySecurityCredentials(String sessionName, String awsRoleArn, int awsRoleDurationSeconds, Policy policy)
+    {
+        return getTemporarySecurityCredentials(sessionName, awsRoleArn, awsRoleDurationSeconds, policy, true);
+    }
+
+    /**
+     * Starts getting temporary security credentials for the specified role and policy on the STS credentials task executor. When the executor is saturated the
+     * credentials are requested on the calling thread before this method returns. Credentials requested asynchronously are always newly issued and aren't
+     * kept for reuse, since they are requested for a new session that no earlier request could share.
+     *
+     * @param sessionName the session name that will be associated with the temporary credentials.
+     * @param awsRoleArn the AWS ARN for the role required to provide access to the specified AWS resource.
+     * @param awsRoleDurationSeconds the duration, in seconds, of the role session.
+     * @param policy the temporary policy to apply to this request.
+     *
+     * @return the future assumed session credentials to be passed to {@link #awaitTemporarySecurityCredentials(Future)}.
+     */
+    public Future<Credentials> getTemporarySecurityCredentialsAsync(final String sessionName, final String awsRoleArn, final int awsRoleDurationSeconds,
+        final Policy policy)
+    {
+        FutureTask<Credentials> futureCredentials = new FutureTask<>(new Callable<Credentials>()
+        {
+            @Override
+            public Credentials call() throws Exception
+            {
+                return getTemporarySecurityCredentials(sessionName, awsRoleArn, awsRoleDurationSeconds, policy, false);
+            }
+        });
+        stsCredentialsTaskExecutor.execute(futureCredentials);
+        return futureCredentials;
+    }
+
+    /**
+     * Waits for temporary security credentials requested asynchronously. A runtime exception thrown while requesting the credentials is rethrown as is, so the
+     * caller sees the same exception it would have seen requesting the credentials synchronously.
+     *
+     * @param futureCredentials the future assumed session credentials.
+     *
+     * @return the assumed session credentials.
+     */
+    public Credentials awaitTemporarySecurityCredentials(Future<Credentials> futureCredentials)
+    {
+        try
+        {
+            return futureCredentials.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for temporary security credentials.", e);
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof RuntimeException)
+            {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Unable to get temporary security credentials. See cause for details.", e.getCause());
+        }
+    }
+
+    /**
+     * Gets temporary security credentials for the specified role and policy.
+     *
+     * @param sessionName the session name that will be associated with the temporary credentials.
+     * @param awsRoleArn the AWS ARN for the role required to provide access to the specified AWS resource.
+     * @param awsRoleDurationSeconds the duration, in seconds, of the role session.
+     * @param policy the temporary policy to apply to this request.
+     * @param reuseCredentials specifies whether credentials recently issued for an identical request may be returned and whether the newly issued credentials
+     * are kept for reuse.
+     *
+     * @return the assumed session credentials.
+     */
+    private Credentials getTemporarySecurityCredentials(String sessionName, String awsRoleArn, int awsRoleDurationSeconds, Policy policy,
+        boolean reuseCredentials)
+    {
+        long maxAgeMillis = configurationHelper.getProperty(ConfigurationValue.AWS_STS_CREDENTIALS_CACHE_MAX_AGE_SECS, Integer.class) * 1000L;
+
+        String cacheKey = null;
+        if (reuseCredentials && maxAgeMillis > 0)
+        {
+            cacheKey = awsRoleArn + "\n" + sessionName + "\n" + awsRoleDurationSeconds + "\n" + policy.toJson();
+            IssuedCredentials cachedCredentials = issuedCredentials.get(cacheKey);
+            if (cachedCredentials != null && System.currentTimeMillis() - cachedCredentials.issueTimeMillis < maxAgeMillis)
+            {
+                metricsHelper.incrementCounter(METRIC_CREDENTIALS_CACHE_HITS, 1);
+                return cachedCredentials.credentials;
+            }
+        }
+
+        long issueTimeMillis = System.currentTimeMillis();
+        long startNanoTime = System.nanoTime();
+        Credentials credentials = stsDao.getTemporarySecurityCredentials(awsHelper.getAwsParamsDto(), sessionName, awsRoleArn, awsRoleDurationSeconds, policy);
+        metricsHelper.recordLatency(METRIC_ASSUME_ROLE, startNanoTime);
+
+        if (cacheKey != null)
+        {
+            // Keep the cache bounded. Clearing it only costs an STS call for the requests that would have been served from it.
+            if (issuedCredentials.size() >= configurationHelper.getProperty(ConfigurationValue.AWS_STS_CREDENTIALS_CACHE_MAX_SIZE, Integer.class))
+            {
+                issuedCredentials.clear();
+            }
+            issuedCredentials.put(cacheKey, new IssuedCredentials(credentials, issueTimeMillis));
+        }
+
+        return credentials;
+    }
+
+    /**
+     * Temporary security credentials along with the time they were issued.
+     */
+    private static class IssuedCredentials
+    {
+        private final Credentials credentials;
+
+        private final long issueTimeMillis;
+
+        private IssuedCredentials(Credentials credentials, long issueTimeMillis)
+        {
+            this.credentials = credentials;
+            this.issueTimeMillis = issueTimeMillis;
+        }
+    }
+}
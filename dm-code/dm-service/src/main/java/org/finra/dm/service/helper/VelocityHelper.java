@@ -19,17 +19,43 @@ import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.velocity.Template;
 import org.apache.velocity.VelocityContext;
 import org.apache.velocity.app.Velocity;
+import org.apache.velocity.exception.ParseErrorException;
+import org.apache.velocity.runtime.RuntimeServices;
+import org.apache.velocity.runtime.RuntimeSingleton;
+import org.apache.velocity.runtime.parser.ParseException;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import org.finra.dm.core.helper.ConfigurationHelper;
+import org.finra.dm.core.helper.MetricsHelper;
+import org.finra.dm.model.dto.ConfigurationValue;
+
 /**
- * A helper to abstract operations around Apache Velocity.
+ * A helper to abstract operations around Apache Velocity. Templates evaluated from strings are parsed once and the parsed templates are cached by the hash
+ * of their content, so a template that changes in the configuration simply gets parsed again under its new hash. The template cache hits and misses are
+ * counted as metrics.
  */
 @Component
 public class VelocityHelper
 {
+    public static final String METRIC_TEMPLATE_CACHE_HITS = "velocityTemplateCache.hits";
+    public static final String METRIC_TEMPLATE_CACHE_MISSES = "velocityTemplateCache.misses";
+
+    @Autowired
+    private ConfigurationHelper configurationHelper;
+
+    @Autowired
+    private MetricsHelper metricsHelper;
+
+    private final ConcurrentMap<String, Template> templateCache = new ConcurrentHashMap<>();
+
     /**
      * Initializes the Velocity engine.
      */
@@ -72,7 +98,81 @@ public class VelocityHelper
      */
     public String evaluate(String template, Map<String, Object> variables, String logTag)
     {
-        StringReader templateReader = new StringReader(template);
-        return evaluate(templateReader, variables, logTag);
+        int maxCacheSize = configurationHelper.getProperty(ConfigurationValue.VELOCITY_TEMPLATE_CACHE_MAX_SIZE, Integer.class);
+        if (maxCacheSize <= 0)
+        {
+            StringReader templateReader = new StringReader(template);
+            return evaluate(templateReader, variables, logTag);
+        }
+
+        StringWriter writer = new StringWriter();
+        getTemplate(template, logTag, maxCacheSize).merge(new VelocityContext(variables), writer);
+        return writer.toString();
+    }
+
+    /**
+     * Gets the parsed template for the specified template text from the cache, parsing and caching it if it isn't there yet.
+     *
+     * @param template the template text.
+     * @param logTag the log tag used when the template is parsed.
+     * @param maxCacheSize the maximum number of templates to keep in the cache.
+     *
+     * @return the parsed template.
+     */
+    private Template getTemplate(String template, String logTag, int maxCacheSize)
+    {
+        String templateHash = DigestUtils.sha256Hex(template);
+        Template parsedTemplate = templateCache.get(templateHash);
+        metricsHelper.incrementCounter(parsedTemplate != null ? METRIC_TEMPLATE_CACHE_HITS : METRIC_TEMPLATE_CACHE_MISSES, 1);
+        if (parsedTemplate == null)
+        {
+            parsedTemplate = parseTemplate(template, logTag);
+
+            // Templates are only replaced, never updated, so rather than tracking which ones are still in use the cache starts over once it gets too large.
+            if (templateCache.size() >= maxCacheSize)
+            {
+                templateCache.clear();
+            }
+            templateCache.put(templateHash, parsedTemplate);
+        }
+        return parsedTemplate;
+    }
+
+    /**
+     * Parses the template text into a template that can be merged any number of times.
+     *
+     * @param template the template text.
+     * @param logTag the log tag used as the template name.
+     *
+     * @return the parsed template.
+     * @throws ParseErrorException if the template can't be parsed.
+     */
+    private Template parseTemplate(String template, String logTag)
+    {
+        RuntimeServices runtimeServices = RuntimeSingleton.getRuntimeServices();
+        Template parsedTemplate = new Template();
+        parsedTemplate.setName(logTag);
+        parsedTemplate.setRuntimeServices(runtimeServices);
+        try
+        {
+            parsedTemplate.setData(runtimeServices.parse(new StringReader(template), logTag));
+        }
+        catch (ParseException e)
+        {
+            // Same exception Velocity.evaluate throws for an invalid template.
+            throw new ParseErrorException(e, logTag);
+        }
+        parsedTemplate.initDocument();
+        return parsedTemplate;
+    }
+
+    /**
+     * Gets the number of parsed templates currently cached.
+     *
+     * @return the number of cached templates.
+     */
+    int getTemplateCacheSize()
+    {
+        return templateCache.size();
     }
 }
@@ -76,6 +76,7 @@ import org.finra.dm.service.helper.BusinessObjectDataInvalidateUnregisteredHelpe
 import org.finra.dm.service.helper.DdlGeneratorFactory;
 import org.finra.dm.service.helper.DmDaoHelper;
 import org.finra.dm.service.helper.DmHelper;
+import org.finra.dm.service.helper.StorageDailyUploadStatsHelper;
 
 /**
  * The business object data service implementation.
@@ -112,6 +113,9 @@ public class BusinessObjectDataServiceImpl implements BusinessObjectDataService
     @Autowired
     private BusinessObjectDataInvalidateUnregisteredHelper businessObjectDataInvalidateUnregisteredHelper;
 
+    @Autowired
+    private StorageDailyUploadStatsHelper storageDailyUploadStatsHelper;
+
     /**
      * Gets the S3 key prefix. This method starts a new transaction.
      *
@@ -407,6 +411,12 @@ public class BusinessObjectDataServiceImpl implements BusinessObjectDataService
         // Create the business object data object from the entity.
         BusinessObjectData deletedBusinessObjectData = businessObjectDataHelper.createBusinessObjectDataFromEntity(businessObjectDataEntity);
 
+        // Subtract the storage files of this business object data from the storage daily upload statistics.
+        for (StorageUnitEntity storageUnitEntity : businessObjectDataEntity.getStorageUnits())
+        {
+            storageDailyUploadStatsHelper.subtractStorageDailyUploadStats(storageUnitEntity);
+        }
+
         // Delete this business object data.
         dmDao.delete(businessObjectDataEntity);
 
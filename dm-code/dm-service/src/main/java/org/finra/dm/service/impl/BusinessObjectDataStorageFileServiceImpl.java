@@ -15,6 +15,7 @@
 */
 package org.finra.dm.service.impl;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -27,6 +28,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 
 import org.finra.dm.dao.DmDao;
+import org.finra.dm.dao.StorageFileIterator;
 import org.finra.dm.dao.config.DaoSpringModuleConfig;
 import org.finra.dm.model.AlreadyExistsException;
 import org.finra.dm.model.ObjectNotFoundException;
@@ -43,7 +45,7 @@ import org.finra.dm.service.S3Service;
 import org.finra.dm.service.helper.BusinessObjectDataHelper;
 import org.finra.dm.service.helper.DmDaoHelper;
 import org.finra.dm.service.helper.DmHelper;
-import org.finra.dm.service.helper.StorageFileHelper;
+import org.finra.dm.service.helper.StorageDailyUploadStatsHelper;
 
 /**
  * Service for business object data storage files.
@@ -68,7 +70,7 @@ public class BusinessObjectDataStorageFileServiceImpl implements BusinessObjectD
     private DmHelper dmHelper;
 
     @Autowired
-    private StorageFileHelper storageFileHelper;
+    private StorageDailyUploadStatsHelper storageDailyUploadStatsHelper;
 
     /*
      * TODO The validation logic is repeated from
@@ -164,11 +166,29 @@ public class BusinessObjectDataStorageFileServiceImpl implements BusinessObjectD
             // validate each file against S3
             S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto = dmDaoHelper.getS3ManagedBucketAccessParams();
             s3FileTransferRequestParamsDto.setS3KeyPrefix(expectedS3KeyPrefix);
-            List<String> actualS3Keys = storageFileHelper.getFilePaths(s3Service.listDirectory(s3FileTransferRequestParamsDto, true));
+            Set<String> requestedS3Keys = new HashSet<>();
+            for (StorageFile requestStorageFile : businessObjectDataStorageFilesCreateRequest.getStorageFiles())
+            {
+                requestedS3Keys.add(requestStorageFile.getFilePath());
+            }
+
+            // Stream through the S3 listing keeping only the keys being registered, and stop listing as soon as all of them are found.
+            Set<String> foundS3Keys = new HashSet<>();
+            try (StorageFileIterator storageFileIterator = s3Service.getDirectoryIterator(s3FileTransferRequestParamsDto, true))
+            {
+                while (foundS3Keys.size() < requestedS3Keys.size() && storageFileIterator.hasNext())
+                {
+                    String s3Key = storageFileIterator.next().getFilePath();
+                    if (requestedS3Keys.contains(s3Key))
+                    {
+                        foundS3Keys.add(s3Key);
+                    }
+                }
+            }
 
             for (StorageFile requestStorageFile : businessObjectDataStorageFilesCreateRequest.getStorageFiles())
             {
-                if (!actualS3Keys.contains(requestStorageFile.getFilePath()))
+                if (!foundS3Keys.contains(requestStorageFile.getFilePath()))
                 {
                     throw new ObjectNotFoundException(String
                         .format("File not found at s3://%s/%s location.", s3FileTransferRequestParamsDto.getS3BucketName(), requestStorageFile.getFilePath()));
@@ -190,7 +210,8 @@ public class BusinessObjectDataStorageFileServiceImpl implements BusinessObjectD
          * If non S3_MANAGED and storage has no directory specified, no storage validations occur.
          */
 
-        // Add new files to existing storage
+        // Add new files to existing storage and insert them in one batch.
+        List<StorageFileEntity> storageFileEntities = new ArrayList<>();
         for (StorageFile storageFile : businessObjectDataStorageFilesCreateRequest.getStorageFiles())
         {
             StorageFileEntity storageFileEntity = new StorageFileEntity();
@@ -198,8 +219,13 @@ public class BusinessObjectDataStorageFileServiceImpl implements BusinessObjectD
             storageFileEntity.setPath(storageFile.getFilePath());
             storageFileEntity.setRowCount(storageFile.getRowCount());
             storageFileEntity.setStorageUnit(storageUnitEntity);
-            dmDao.saveAndRefresh(storageFileEntity);
+            storageUnitEntity.getStorageFiles().add(storageFileEntity);
+            storageFileEntities.add(storageFileEntity);
         }
+        dmDao.saveAllAndFlush(storageFileEntities);
+
+        // Add the registered storage files to the storage daily upload statistics.
+        storageDailyUploadStatsHelper.addStorageDailyUploadStats(storageUnitEntity, storageFileEntities);
 
         // construct and return response
         BusinessObjectDataStorageFilesCreateResponse businessObjectDataStorageFilesCreateResponse = new BusinessObjectDataStorageFilesCreateResponse();
@@ -205,6 +205,9 @@ public class BusinessObjectDefinitionServiceImpl implements BusinessObjectDefini
             businessObjectDefinitionEntity = dmDaoHelper.getBusinessObjectDefinitionEntity(businessObjectDefinitionKey);
         }
 
+        // Delete the upload statistics of the business object definition, since they reference it.
+        dmDao.deleteStorageDailyUploadStats(businessObjectDefinitionEntity);
+
         // Delete the business object definition.
         dmDao.delete(businessObjectDefinitionEntity);
 
@@ -15,6 +15,7 @@
 */
 package org.finra.dm.service.impl;
 
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -54,8 +55,8 @@ import org.finra.dm.model.api.xml.CustomDdlKey;
 import org.finra.dm.model.api.xml.Schema;
 import org.finra.dm.model.api.xml.SchemaColumn;
 import org.finra.dm.service.BusinessObjectFormatService;
+import org.finra.dm.service.helper.BusinessObjectFormatDdlCache;
 import org.finra.dm.service.helper.BusinessObjectFormatHelper;
-import org.finra.dm.service.helper.DdlGeneratorFactory;
 import org.finra.dm.service.helper.DmDaoHelper;
 import org.finra.dm.service.helper.DmHelper;
 
@@ -79,7 +80,7 @@ public class BusinessObjectFormatServiceImpl implements BusinessObjectFormatServ
     private BusinessObjectFormatHelper businessObjectFormatHelper;
 
     @Autowired
-    private DdlGeneratorFactory ddlGeneratorFactory;
+    private BusinessObjectFormatDdlCache businessObjectFormatDdlCache;
 
     /**
      * Creates a new business object format.
@@ -209,6 +210,10 @@ public class BusinessObjectFormatServiceImpl implements BusinessObjectFormatServ
 
             // Populates schema information within the business object format entity.
             populateBusinessObjectFormatSchema(businessObjectFormatEntity, request.getSchema());
+
+            // Mark the format itself as updated even when only its schema columns changed, so the DDL cached for the previous schema is no longer used.
+            businessObjectFormatEntity.setUpdatedOn(new Timestamp(System.currentTimeMillis()));
+            businessObjectFormatDdlCache.evict(businessObjectFormatEntity);
         }
 
         // Persist and refresh the entity.
@@ -270,6 +275,7 @@ public class BusinessObjectFormatServiceImpl implements BusinessObjectFormatServ
 
         // Delete this business object format.
         dmDao.delete(businessObjectFormatEntity);
+        businessObjectFormatDdlCache.evict(businessObjectFormatEntity);
 
         // If this business object format version is the latest, set the latest flag on the previous version of this object format, if it exists.
         if (businessObjectFormatEntity.getLatestVersion())
@@ -388,13 +394,6 @@ public class BusinessObjectFormatServiceImpl implements BusinessObjectFormatServ
         // Get business object format key.
         BusinessObjectFormatKey businessObjectFormatKey = dmDaoHelper.getBusinessObjectFormatKey(businessObjectFormatEntity);
 
-        // Validate that format has schema information.
-        Assert.notEmpty(businessObjectFormatEntity.getSchemaColumns(), String.format(
-            "Business object format with namespace \"%s\", business object definition name \"%s\", format usage \"%s\", format file type \"%s\"," +
-                " and format version \"%s\" doesn't have schema information.", businessObjectFormatKey.getNamespace(),
-            businessObjectFormatKey.getBusinessObjectDefinitionName(), businessObjectFormatKey.getBusinessObjectFormatUsage(),
-            businessObjectFormatKey.getBusinessObjectFormatFileType(), businessObjectFormatKey.getBusinessObjectFormatVersion()));
-
         // If it was specified, retrieve the custom DDL and ensure it exists.
         CustomDdlEntity customDdlEntity = null;
         if (StringUtils.isNotBlank(request.getCustomDdlName()))
@@ -405,6 +404,19 @@ public class BusinessObjectFormatServiceImpl implements BusinessObjectFormatServ
                     businessObjectFormatKey.getBusinessObjectFormatVersion(), request.getCustomDdlName()));
         }
 
+        // Get the DDL from the cache or validate that format has schema information and generate the DDL.
+        String ddl = businessObjectFormatDdlCache.getCachedCreateTableDdl(request, businessObjectFormatEntity, customDdlEntity);
+        if (ddl == null)
+        {
+            Assert.notEmpty(businessObjectFormatEntity.getSchemaColumns(), String.format(
+                "Business object format with namespace \"%s\", business object definition name \"%s\", format usage \"%s\", format file type \"%s\"," +
+                    " and format version \"%s\" doesn't have schema information.", businessObjectFormatKey.getNamespace(),
+                businessObjectFormatKey.getBusinessObjectDefinitionName(), businessObjectFormatKey.getBusinessObjectFormatUsage(),
+                businessObjectFormatKey.getBusinessObjectFormatFileType(), businessObjectFormatKey.getBusinessObjectFormatVersion()));
+
+            ddl = businessObjectFormatDdlCache.generateCreateTableDdl(request, businessObjectFormatEntity, customDdlEntity);
+        }
+
         // Create business object format DDL object instance.
         BusinessObjectFormatDdl businessObjectFormatDdl = new BusinessObjectFormatDdl();
         businessObjectFormatDdl.setNamespace(businessObjectFormatKey.getNamespace());
@@ -415,8 +427,7 @@ public class BusinessObjectFormatServiceImpl implements BusinessObjectFormatServ
         businessObjectFormatDdl.setOutputFormat(request.getOutputFormat());
         businessObjectFormatDdl.setTableName(request.getTableName());
         businessObjectFormatDdl.setCustomDdlName(customDdlEntity != null ? customDdlEntity.getCustomDdlName() : request.getCustomDdlName());
-        businessObjectFormatDdl.setDdl(
-            ddlGeneratorFactory.getDdlGenerator(request.getOutputFormat()).generateCreateTableDdl(request, businessObjectFormatEntity, customDdlEntity));
+        businessObjectFormatDdl.setDdl(ddl);
 
         // Return business object format DDL.
         return businessObjectFormatDdl;
@@ -33,6 +33,7 @@ import org.finra.dm.model.api.xml.CustomDdlKey;
 import org.finra.dm.model.api.xml.CustomDdlKeys;
 import org.finra.dm.model.api.xml.CustomDdlUpdateRequest;
 import org.finra.dm.service.CustomDdlService;
+import org.finra.dm.service.helper.BusinessObjectFormatDdlCache;
 import org.finra.dm.service.helper.BusinessObjectFormatHelper;
 import org.finra.dm.service.helper.DmDaoHelper;
 import org.finra.dm.service.helper.DmHelper;
@@ -56,6 +57,9 @@ public class CustomDdlServiceImpl implements CustomDdlService
     @Autowired
     private BusinessObjectFormatHelper businessObjectFormatHelper;
 
+    @Autowired
+    private BusinessObjectFormatDdlCache businessObjectFormatDdlCache;
+
     /**
      * Creates a new custom DDL.
      *
@@ -152,6 +156,7 @@ public class CustomDdlServiceImpl implements CustomDdlService
 
         // Persist the entity.
         customDdlEntity = dmDao.saveAndRefresh(customDdlEntity);
+        businessObjectFormatDdlCache.evict(customDdlEntity.getBusinessObjectFormat());
 
         // Create and return the custom DDL object from the persisted entity.
         return createCustomDdlFromEntity(customDdlEntity);
@@ -178,6 +183,7 @@ public class CustomDdlServiceImpl implements CustomDdlService
 
         // Delete the custom DDL.
         dmDao.delete(customDdlEntity);
+        businessObjectFormatDdlCache.evict(customDdlEntity.getBusinessObjectFormat());
 
         // Create and return the custom DDL object from the deleted entity.
         return createCustomDdlFromEntity(customDdlEntity);
@@ -0,0 +1,154 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.service.impl;
+
+import java.util.UUID;
+
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
+
+import org.finra.dm.dao.config.DaoSpringModuleConfig;
+import org.finra.dm.dao.helper.EmrHelper;
+import org.finra.dm.model.ObjectNotFoundException;
+import org.finra.dm.model.api.xml.EmrClusterCreateRequest;
+import org.finra.dm.model.api.xml.EmrClusterCreationStatus;
+import org.finra.dm.model.dto.EmrClusterAlternateKeyDto;
+import org.finra.dm.model.jpa.EmrClusterDefinitionEntity;
+import org.finra.dm.model.jpa.NamespaceEntity;
+import org.finra.dm.service.EmrClusterCreationAsyncService;
+import org.finra.dm.service.EmrService;
+import org.finra.dm.service.config.ServiceSpringModuleConfig;
+import org.finra.dm.service.helper.DmDaoHelper;
+import org.finra.dm.service.helper.EmrClusterCreationRegistry;
+
+/**
+ * The asynchronous EMR cluster creation service implementation. The request is validated on the calling thread and the cluster is created on the EMR cluster
+ * creation task executor, so the caller doesn't wait on the EC2 pricing lookup, the existing cluster check and RunJobFlow.
+ */
+@Service
+@Transactional(value = DaoSpringModuleConfig.DM_TRANSACTION_MANAGER_BEAN_NAME)
+public class EmrClusterCreationAsyncServiceImpl implements EmrClusterCreationAsyncService
+{
+    private static final Logger LOGGER = Logger.getLogger(EmrClusterCreationAsyncServiceImpl.class);
+
+    @Autowired
+    private DmDaoHelper dmDaoHelper;
+
+    @Autowired
+    private EmrHelper emrHelper;
+
+    @Autowired
+    private EmrService emrService;
+
+    @Autowired
+    private EmrClusterCreationRegistry emrClusterCreationRegistry;
+
+    @Autowired
+    @Qualifier(ServiceSpringModuleConfig.EMR_CLUSTER_CREATION_TASK_EXECUTOR_BEAN_NAME)
+    private TaskExecutor emrClusterCreationTaskExecutor;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EmrClusterCreationStatus createClusterAsync(final EmrClusterCreateRequest request)
+    {
+        // Validate the request up front so the caller gets the validation errors right away rather than through the request status.
+        EmrClusterAlternateKeyDto emrClusterAlternateKeyDto =
+            EmrClusterAlternateKeyDto.builder().namespace(request.getNamespace()).emrClusterDefinitionName(request.getEmrClusterDefinitionName())
+                .emrClusterName(request.getEmrClusterName()).build();
+        emrHelper.validateEmrClusterKey(emrClusterAlternateKeyDto);
+        NamespaceEntity namespaceEntity = dmDaoHelper.getNamespaceEntity(emrClusterAlternateKeyDto.getNamespace());
+        EmrClusterDefinitionEntity emrClusterDefinitionEntity =
+            dmDaoHelper.getEmrClusterDefinitionEntity(emrClusterAlternateKeyDto.getNamespace(), emrClusterAlternateKeyDto.getEmrClusterDefinitionName());
+
+        // Dry runs don't call AWS, so they are registered under their own request id rather than claiming the cluster name.
+        final String requestId = UUID.randomUUID().toString();
+        final String inFlightKey = Boolean.TRUE.equals(request.isDryRun()) ? requestId :
+            emrHelper.buildEmrClusterName(namespaceEntity.getCode(), emrClusterDefinitionEntity.getName(), emrClusterAlternateKeyDto.getEmrClusterName());
+
+        EmrClusterCreationStatus inFlightStatus = emrClusterCreationRegistry.register(inFlightKey, requestId);
+        if (inFlightStatus != null)
+        {
+            return inFlightStatus;
+        }
+
+        try
+        {
+            // Carry the security context over so the cluster creation log is audited with the calling user.
+            emrClusterCreationTaskExecutor.execute(new DelegatingSecurityContextRunnable(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    createCluster(inFlightKey, requestId, request);
+                }
+            }));
+        }
+        catch (TaskRejectedException e)
+        {
+            emrClusterCreationRegistry.unregister(inFlightKey, requestId);
+            throw e;
+        }
+
+        return emrClusterCreationRegistry.getStatus(requestId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EmrClusterCreationStatus getEmrClusterCreationStatus(String requestId)
+    {
+        Assert.hasText(requestId, "A request id must be specified.");
+
+        EmrClusterCreationStatus emrClusterCreationStatus = emrClusterCreationRegistry.getStatus(requestId.trim());
+        if (emrClusterCreationStatus == null)
+        {
+            throw new ObjectNotFoundException(String.format("EMR cluster creation request with id \"%s\" doesn't exist.", requestId));
+        }
+
+        return emrClusterCreationStatus;
+    }
+
+    /**
+     * Creates the EMR cluster and records the outcome in the request status.
+     *
+     * @param inFlightKey the key the request was registered under.
+     * @param requestId the request id.
+     * @param request the EMR cluster create request.
+     */
+    private void createCluster(String inFlightKey, String requestId, EmrClusterCreateRequest request)
+    {
+        emrClusterCreationRegistry.setRunning(requestId);
+        try
+        {
+            emrClusterCreationRegistry.setSucceeded(inFlightKey, requestId, emrService.createCluster(request));
+        }
+        catch (Exception e)
+        {
+            LOGGER.warn("Unable to create the EMR cluster of request \"" + requestId + "\".", e);
+            emrClusterCreationRegistry.setFailed(inFlightKey, requestId, e.getMessage());
+        }
+    }
+}
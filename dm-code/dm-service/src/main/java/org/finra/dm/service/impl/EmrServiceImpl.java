@@ -39,6 +39,7 @@ import org.springframework.util.StringUtils;
 
 import org.finra.dm.core.DmDateUtils;
 import org.finra.dm.core.helper.ConfigurationHelper;
+import org.finra.dm.core.helper.MetricsHelper;
 import org.finra.dm.dao.DmDao;
 import org.finra.dm.dao.EmrDao;
 import org.finra.dm.dao.OozieDao;
@@ -69,6 +70,7 @@ import org.finra.dm.service.helper.DmDaoHelper;
 import org.finra.dm.service.helper.DmHelper;
 import org.finra.dm.service.helper.EmrStepHelper;
 import org.finra.dm.service.helper.EmrStepHelperFactory;
+import org.finra.dm.service.helper.OozieWorkflowStatusPoller;
 
 /**
  * The EMR service implementation.
@@ -77,6 +79,10 @@ import org.finra.dm.service.helper.EmrStepHelperFactory;
 @Transactional(value = DaoSpringModuleConfig.DM_TRANSACTION_MANAGER_BEAN_NAME)
 public class EmrServiceImpl implements EmrService
 {
+    public static final String METRIC_CREATE_CLUSTER_PRICING = "EmrService.createCluster.pricing";
+    public static final String METRIC_CREATE_CLUSTER_EXISTENCE_CHECK = "EmrService.createCluster.existenceCheck";
+    public static final String METRIC_CREATE_CLUSTER_RUN_JOB_FLOW = "EmrService.createCluster.runJobFlow";
+
     @Autowired
     private DmDaoHelper dmDaoHelper;
 
@@ -107,9 +113,15 @@ public class EmrServiceImpl implements EmrService
     @Autowired
     private OozieDao oozieDao;
 
+    @Autowired
+    private OozieWorkflowStatusPoller oozieWorkflowStatusPoller;
+
     @Autowired
     private DmStringHelper dmStringHelper;
 
+    @Autowired
+    private MetricsHelper metricsHelper;
+
     /**
      * Gets details of an existing EMR Cluster. Creates its own transaction.
      *
@@ -378,7 +390,9 @@ public class EmrServiceImpl implements EmrService
         dmHelper.validateEmrClusterDefinitionConfiguration(emrClusterDefinition);
 
         // Find best price and update definition
+        long startNanoTime = System.nanoTime();
         emrPricingHelper.updateEmrClusterDefinitionWithBestPrice(emrClusterDefinition);
+        metricsHelper.recordLatency(METRIC_CREATE_CLUSTER_PRICING, startNanoTime);
 
         String clusterId = null; // The cluster ID record.
         String emrClusterStatus = null;
@@ -397,11 +411,15 @@ public class EmrServiceImpl implements EmrService
                 emrHelper.buildEmrClusterName(namespaceEntity.getCode(), emrClusterDefinitionEntity.getName(), emrClusterAlternateKeyDto.getEmrClusterName());
             try
             {
+                startNanoTime = System.nanoTime();
                 ClusterSummary clusterSummary = emrDao.getActiveEmrClusterByName(clusterName, awsParamsDto);
+                metricsHelper.recordLatency(METRIC_CREATE_CLUSTER_EXISTENCE_CHECK, startNanoTime);
                 // If cluster does not already exist.
                 if (clusterSummary == null)
                 {
+                    startNanoTime = System.nanoTime();
                     clusterId = emrDao.createEmrCluster(clusterName, emrClusterDefinition, awsParamsDto);
+                    metricsHelper.recordLatency(METRIC_CREATE_CLUSTER_RUN_JOB_FLOW, startNanoTime);
                     emrClusterCreated = true;
 
                     EmrClusterCreationLogEntity emrClusterCreationLogEntity = new EmrClusterCreationLogEntity();
@@ -912,8 +930,7 @@ public class EmrServiceImpl implements EmrService
      */
     private String getEmrClusterMasterIpAddress(String emrClusterId) throws Exception
     {
-        AwsParamsDto awsParamsDto = emrHelper.getAwsParamsDto();
-        return emrDao.getEmrMasterInstance(emrClusterId, awsParamsDto).getPrivateIpAddress();
+        return oozieWorkflowStatusPoller.getEmrClusterMasterIpAddress(emrClusterId);
     }
 
     /**
@@ -996,53 +1013,65 @@ public class EmrServiceImpl implements EmrService
         String emrClusterNameTrimmed = emrClusterName.trim();
         String oozieWorkflowJobIdTrimmed = oozieWorkflowJobId.trim();
 
-        // Retrieve cluster's master instance IP
+        // Retrieve the cluster, which must be running or waiting.
         ClusterSummary emrClusterSummary = getRunningOrWaitingEmrCluster(namespaceTrimmed, emrClusterDefinitionNameTrimmed, emrClusterNameTrimmed);
-        String masterIpAddress = getEmrClusterMasterIpAddress(emrClusterSummary.getId());
-
-        // Retrieve the wrapper oozie workflow. This workflow is the workflow that DM wraps the client's workflow to help copy client workflow definition from
-        // S3 to HDFS.
-        WorkflowJob wrapperWorkflowJob = oozieDao.getEmrOozieWorkflow(masterIpAddress, oozieWorkflowJobIdTrimmed);
-
-        // Check to make sure that the workflow job is a DM wrapper workflow.
-        Assert.isTrue(wrapperWorkflowJob.getAppName().equals(OozieDaoImpl.DM_OOZIE_WRAPPER_WORKFLOW_NAME),
-            "The oozie workflow with job ID '" + oozieWorkflowJobIdTrimmed + "' is not created by DM. Please ensure that the workflow was created through DM.");
-
-        // Retrieve the client workflow's job action by navigating through the actions of the wrapper workflow. The client's workflow job ID is represented as
-        // the action's external ID.
-        WorkflowAction clientWorkflowAction = emrHelper.getClientWorkflowAction(wrapperWorkflowJob);
+        String emrClusterId = emrClusterSummary.getId();
 
         WorkflowJob clientWorkflowJob = null;
         String clientWorkflowStatus = null;
         boolean hasClientWorkflowInfo = false;
         WorkflowAction errorWrapperWorkflowAction = null;
-        /*
-         * If the client workflow action is not found,  there are three possibilities:
-         * 1. DM_PREP: The client workflow has not yet been run.
-         * 2. DM_FAILED : DM wrapper workflow failed to run successfully.
-         * 3. If client workflow action is found but does not have the external ID, means that it failed to kick off the client workflow. Possible causes:
-         *    3.1 workflow.xml is not present in the location provided.
-         *    3.2 workflow.xml is not a valid workflow.
-         */
-        if (clientWorkflowAction == null || clientWorkflowAction.getExternalId() == null)
+
+        // Once the wrapper workflow has started the client workflow, the client workflow job ID is remembered so the wrapper workflow isn't read again.
+        String clientWorkflowJobId = oozieWorkflowStatusPoller.getClientWorkflowJobId(emrClusterId, oozieWorkflowJobIdTrimmed);
+        if (clientWorkflowJobId == null)
         {
-            // If wrapper workflow is FAILED/KILLED, means wrapper failed without running client workflow
-            // else DM_PREP
-            if (wrapperWorkflowJob.getStatus().equals(WorkflowJob.Status.KILLED) || wrapperWorkflowJob.getStatus().equals(WorkflowJob.Status.FAILED))
+            // Retrieve the wrapper oozie workflow. This workflow is the workflow that DM wraps the client's workflow to help copy client workflow definition
+            // from S3 to HDFS.
+            WorkflowJob wrapperWorkflowJob = oozieWorkflowStatusPoller.getEmrOozieWorkflow(emrClusterId, oozieWorkflowJobIdTrimmed, true);
+
+            // Check to make sure that the workflow job is a DM wrapper workflow.
+            Assert.isTrue(wrapperWorkflowJob.getAppName().equals(OozieDaoImpl.DM_OOZIE_WRAPPER_WORKFLOW_NAME), "The oozie workflow with job ID '" +
+                oozieWorkflowJobIdTrimmed + "' is not created by DM. Please ensure that the workflow was created through DM.");
+
+            // Retrieve the client workflow's job action by navigating through the actions of the wrapper workflow. The client's workflow job ID is represented
+            // as the action's external ID.
+            WorkflowAction clientWorkflowAction = emrHelper.getClientWorkflowAction(wrapperWorkflowJob);
+
+            /*
+             * If the client workflow action is not found,  there are three possibilities:
+             * 1. DM_PREP: The client workflow has not yet been run.
+             * 2. DM_FAILED : DM wrapper workflow failed to run successfully.
+             * 3. If client workflow action is found but does not have the external ID, means that it failed to kick off the client workflow. Possible causes:
+             *    3.1 workflow.xml is not present in the location provided.
+             *    3.2 workflow.xml is not a valid workflow.
+             */
+            if (clientWorkflowAction == null || clientWorkflowAction.getExternalId() == null)
             {
-                clientWorkflowStatus = OozieDaoImpl.OOZIE_WORKFLOW_JOB_STATUS_DM_FAILED;
-                // Get error information.
-                errorWrapperWorkflowAction = emrHelper.getFirstWorkflowActionInError(wrapperWorkflowJob);
+                // If wrapper workflow is FAILED/KILLED, means wrapper failed without running client workflow
+                // else DM_PREP
+                if (wrapperWorkflowJob.getStatus().equals(WorkflowJob.Status.KILLED) || wrapperWorkflowJob.getStatus().equals(WorkflowJob.Status.FAILED))
+                {
+                    clientWorkflowStatus = OozieDaoImpl.OOZIE_WORKFLOW_JOB_STATUS_DM_FAILED;
+                    // Get error information.
+                    errorWrapperWorkflowAction = emrHelper.getFirstWorkflowActionInError(wrapperWorkflowJob);
+                }
+                else
+                {
+                    clientWorkflowStatus = OozieDaoImpl.OOZIE_WORKFLOW_JOB_STATUS_DM_PREP;
+                }
             }
             else
             {
-                clientWorkflowStatus = OozieDaoImpl.OOZIE_WORKFLOW_JOB_STATUS_DM_PREP;
+                clientWorkflowJobId = clientWorkflowAction.getExternalId();
+                oozieWorkflowStatusPoller.setClientWorkflowJobId(emrClusterId, oozieWorkflowJobIdTrimmed, clientWorkflowJobId);
             }
         }
-        else
+
+        if (clientWorkflowJobId != null)
         {
-            // Retrieve the client workflow
-            clientWorkflowJob = oozieDao.getEmrOozieWorkflow(masterIpAddress, clientWorkflowAction.getExternalId());
+            // Retrieve the client workflow. Its actions are only needed for the verbose response.
+            clientWorkflowJob = oozieWorkflowStatusPoller.getEmrOozieWorkflow(emrClusterId, clientWorkflowJobId, Boolean.TRUE.equals(verbose));
             hasClientWorkflowInfo = true;
         }
 
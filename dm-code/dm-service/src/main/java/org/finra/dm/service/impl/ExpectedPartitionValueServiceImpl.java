@@ -16,6 +16,7 @@
 package org.finra.dm.service.impl;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -24,15 +25,20 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 
+import org.finra.dm.core.helper.ConfigurationHelper;
+import org.finra.dm.core.helper.MetricsHelper;
 import org.finra.dm.dao.DmDao;
 import org.finra.dm.dao.config.DaoSpringModuleConfig;
 import org.finra.dm.model.ObjectNotFoundException;
+import org.finra.dm.model.dto.ConfigurationValue;
 import org.finra.dm.model.jpa.ExpectedPartitionValueEntity;
 import org.finra.dm.model.jpa.PartitionKeyGroupEntity;
 import org.finra.dm.model.api.xml.ExpectedPartitionValueInformation;
@@ -40,6 +46,8 @@ import org.finra.dm.model.api.xml.ExpectedPartitionValueKey;
 import org.finra.dm.model.api.xml.ExpectedPartitionValuesCreateRequest;
 import org.finra.dm.model.api.xml.ExpectedPartitionValuesDeleteRequest;
 import org.finra.dm.model.api.xml.ExpectedPartitionValuesInformation;
+import org.finra.dm.model.api.xml.ExpectedPartitionValuesReplaceInformation;
+import org.finra.dm.model.api.xml.ExpectedPartitionValuesReplaceRequest;
 import org.finra.dm.model.api.xml.PartitionKeyGroupKey;
 import org.finra.dm.model.api.xml.PartitionValueRange;
 import org.finra.dm.service.ExpectedPartitionValueService;
@@ -53,6 +61,12 @@ import org.finra.dm.service.helper.DmHelper;
 @Transactional(value = DaoSpringModuleConfig.DM_TRANSACTION_MANAGER_BEAN_NAME)
 public class ExpectedPartitionValueServiceImpl implements ExpectedPartitionValueService
 {
+    private static final Logger LOGGER = Logger.getLogger(ExpectedPartitionValueServiceImpl.class);
+
+    public static final String METRIC_REPLACE_EXPECTED_PARTITION_VALUES = "ExpectedPartitionValueService.replaceExpectedPartitionValues";
+    public static final String METRIC_REPLACE_EXPECTED_PARTITION_VALUES_ROWS_PER_SECOND =
+        "ExpectedPartitionValueService.replaceExpectedPartitionValues.rowsPerSecond";
+
     @Autowired
     private DmHelper dmHelper;
 
@@ -62,6 +76,12 @@ public class ExpectedPartitionValueServiceImpl implements ExpectedPartitionValue
     @Autowired
     private DmDaoHelper dmDaoHelper;
 
+    @Autowired
+    private ConfigurationHelper configurationHelper;
+
+    @Autowired
+    private MetricsHelper metricsHelper;
+
     /**
      * Creates a list of expected partition values for an existing partition key group.
      *
@@ -79,6 +99,9 @@ public class ExpectedPartitionValueServiceImpl implements ExpectedPartitionValue
         PartitionKeyGroupEntity partitionKeyGroupEntity =
             dmDaoHelper.getPartitionKeyGroupEntity(expectedPartitionValuesCreateRequest.getPartitionKeyGroupKey());
 
+        // Lock the partition key group and increment its version, since its expected partition values are about to change.
+        dmDao.lockPartitionKeyGroup(partitionKeyGroupEntity);
+
         // Load all existing expected partition value entities into a map for quick access.
         Map<String, ExpectedPartitionValueEntity> expectedPartitionValueEntityMap =
             getExpectedPartitionValueEntityMap(partitionKeyGroupEntity.getExpectedPartitionValues());
@@ -94,7 +117,7 @@ public class ExpectedPartitionValueServiceImpl implements ExpectedPartitionValue
             }
         }
 
-        // Create and persist the expected partition value entities.
+        // Create the expected partition value entities and persist them along with the partition key group in a single flush.
         Collection<ExpectedPartitionValueEntity> createdExpectedPartitionValueEntities = new ArrayList<>();
         for (String expectedPartitionValue : expectedPartitionValuesCreateRequest.getExpectedPartitionValues())
         {
@@ -102,9 +125,9 @@ public class ExpectedPartitionValueServiceImpl implements ExpectedPartitionValue
             createdExpectedPartitionValueEntities.add(expectedPartitionValueEntity);
             expectedPartitionValueEntity.setPartitionKeyGroup(partitionKeyGroupEntity);
             expectedPartitionValueEntity.setPartitionValue(expectedPartitionValue);
-            dmDao.saveAndRefresh(expectedPartitionValueEntity);
+            partitionKeyGroupEntity.getExpectedPartitionValues().add(expectedPartitionValueEntity);
         }
-        dmDao.saveAndRefresh(partitionKeyGroupEntity);
+        dmDao.saveAndFlush(partitionKeyGroupEntity);
 
         return createExpectedPartitionValuesInformationFromEntities(partitionKeyGroupEntity, createdExpectedPartitionValueEntities);
     }
@@ -217,6 +240,9 @@ public class ExpectedPartitionValueServiceImpl implements ExpectedPartitionValue
         PartitionKeyGroupEntity partitionKeyGroupEntity =
             dmDaoHelper.getPartitionKeyGroupEntity(expectedPartitionValuesDeleteRequest.getPartitionKeyGroupKey());
 
+        // Lock the partition key group and increment its version, since its expected partition values are about to change.
+        dmDao.lockPartitionKeyGroup(partitionKeyGroupEntity);
+
         // Load all existing expected partition value entities into a map for quick access.
         Map<String, ExpectedPartitionValueEntity> expectedPartitionValueEntityMap =
             getExpectedPartitionValueEntityMap(partitionKeyGroupEntity.getExpectedPartitionValues());
@@ -244,11 +270,81 @@ public class ExpectedPartitionValueServiceImpl implements ExpectedPartitionValue
         {
             partitionKeyGroupEntity.getExpectedPartitionValues().remove(expectedPartitionValueEntity);
         }
-        dmDao.saveAndRefresh(partitionKeyGroupEntity);
+        dmDao.saveAndFlush(partitionKeyGroupEntity);
 
         return createExpectedPartitionValuesInformationFromEntities(partitionKeyGroupEntity, deletedExpectedPartitionValueEntities);
     }
 
+    /**
+     * Replaces all expected partition values of an existing partition key group that fall within a range with the specified expected partition values. The
+     * existing values are removed with a single set-based delete and the new values are inserted in chunks of JDBC batched inserts without loading the
+     * expected partition values of the group.
+     *
+     * @param expectedPartitionValuesReplaceRequest the information needed to replace the expected partition values
+     *
+     * @return the number of deleted and created expected partition values
+     */
+    @Override
+    public ExpectedPartitionValuesReplaceInformation replaceExpectedPartitionValues(ExpectedPartitionValuesReplaceRequest expectedPartitionValuesReplaceRequest)
+    {
+        long startNanoTime = System.nanoTime();
+
+        // Perform request validation and trim request parameters.
+        validateExpectedPartitionValuesReplaceRequest(expectedPartitionValuesReplaceRequest);
+
+        // Retrieve and ensure that a partition key group exists with the specified name.
+        PartitionKeyGroupEntity partitionKeyGroupEntity =
+            dmDaoHelper.getPartitionKeyGroupEntity(expectedPartitionValuesReplaceRequest.getPartitionKeyGroupKey());
+
+        // Lock the partition key group and increment its version, since its expected partition values are about to change.
+        dmDao.lockPartitionKeyGroup(partitionKeyGroupEntity);
+
+        // Delete the existing expected partition values within the range.
+        int deletedCount =
+            dmDao.deleteExpectedPartitionValuesByGroupAndRange(partitionKeyGroupEntity, expectedPartitionValuesReplaceRequest.getPartitionValueRange());
+
+        // Insert the new expected partition values one chunk at a time, detaching each chunk once it is flushed so the persistence context stays small.
+        List<String> expectedPartitionValues = expectedPartitionValuesReplaceRequest.getExpectedPartitionValues();
+        int chunkSize = Math.max(1, configurationHelper.getProperty(ConfigurationValue.EXPECTED_PARTITION_VALUES_REPLACE_CHUNK_SIZE, Integer.class));
+        for (int fromIndex = 0; fromIndex < expectedPartitionValues.size(); fromIndex += chunkSize)
+        {
+            List<ExpectedPartitionValueEntity> expectedPartitionValueEntities = new ArrayList<>();
+            for (String expectedPartitionValue : expectedPartitionValues.subList(fromIndex, Math.min(fromIndex + chunkSize, expectedPartitionValues.size())))
+            {
+                ExpectedPartitionValueEntity expectedPartitionValueEntity = new ExpectedPartitionValueEntity();
+                expectedPartitionValueEntity.setPartitionKeyGroup(partitionKeyGroupEntity);
+                expectedPartitionValueEntity.setPartitionValue(expectedPartitionValue);
+                expectedPartitionValueEntities.add(expectedPartitionValueEntity);
+            }
+
+            dmDao.saveAllAndFlush(expectedPartitionValueEntities);
+
+            for (ExpectedPartitionValueEntity expectedPartitionValueEntity : expectedPartitionValueEntities)
+            {
+                dmDao.detach(expectedPartitionValueEntity);
+            }
+        }
+
+        // Report the throughput of the replace.
+        long elapsedNanoTime = System.nanoTime() - startNanoTime;
+        long rowsPerSecond = (long) ((deletedCount + expectedPartitionValues.size()) * 1e9 / Math.max(1L, elapsedNanoTime));
+        metricsHelper.recordLatency(METRIC_REPLACE_EXPECTED_PARTITION_VALUES, startNanoTime);
+        metricsHelper.recordValue(METRIC_REPLACE_EXPECTED_PARTITION_VALUES_ROWS_PER_SECOND, rowsPerSecond);
+        LOGGER.info(String.format("Replaced expected partition values in \"%s\" partition key group: deleted=%d, created=%d, rowsPerSecond=%d",
+            partitionKeyGroupEntity.getPartitionKeyGroupName(), deletedCount, expectedPartitionValues.size(), rowsPerSecond));
+
+        // Create and return the replace information.
+        ExpectedPartitionValuesReplaceInformation expectedPartitionValuesReplaceInformation = new ExpectedPartitionValuesReplaceInformation();
+        PartitionKeyGroupKey partitionKeyGroupKey = new PartitionKeyGroupKey();
+        partitionKeyGroupKey.setPartitionKeyGroupName(partitionKeyGroupEntity.getPartitionKeyGroupName());
+        expectedPartitionValuesReplaceInformation.setPartitionKeyGroupKey(partitionKeyGroupKey);
+        expectedPartitionValuesReplaceInformation.setPartitionValueRange(expectedPartitionValuesReplaceRequest.getPartitionValueRange());
+        expectedPartitionValuesReplaceInformation.setDeletedExpectedPartitionValueCount(deletedCount);
+        expectedPartitionValuesReplaceInformation.setCreatedExpectedPartitionValueCount(expectedPartitionValues.size());
+
+        return expectedPartitionValuesReplaceInformation;
+    }
+
     /**
      * Validates the expected partition values create request. This method also trims request parameters.
      *
@@ -284,6 +380,54 @@ public class ExpectedPartitionValueServiceImpl implements ExpectedPartitionValue
             .setExpectedPartitionValues(validateExpectedPartitionValues(expectedPartitionValuesDeleteRequest.getExpectedPartitionValues()));
     }
 
+    /**
+     * Validates the expected partition values replace request. This method also trims request parameters.
+     *
+     * @param expectedPartitionValuesReplaceRequest the expected partition values replace request
+     *
+     * @throws IllegalArgumentException if any validation errors were found
+     */
+    private void validateExpectedPartitionValuesReplaceRequest(ExpectedPartitionValuesReplaceRequest expectedPartitionValuesReplaceRequest)
+    {
+        // Perform validation and trim of the partition key group key.
+        dmHelper.validatePartitionKeyGroupKey(expectedPartitionValuesReplaceRequest.getPartitionKeyGroupKey());
+
+        // Validate and trim the range. Both the start and end expected partition values are required.
+        PartitionValueRange partitionValueRange = expectedPartitionValuesReplaceRequest.getPartitionValueRange();
+        Assert.notNull(partitionValueRange, "A partition value range must be specified.");
+        Assert.hasText(partitionValueRange.getStartPartitionValue(), "A start expected partition value must be specified.");
+        Assert.hasText(partitionValueRange.getEndPartitionValue(), "An end expected partition value must be specified.");
+        partitionValueRange.setStartPartitionValue(partitionValueRange.getStartPartitionValue().trim());
+        partitionValueRange.setEndPartitionValue(partitionValueRange.getEndPartitionValue().trim());
+        if (partitionValueRange.getStartPartitionValue().compareTo(partitionValueRange.getEndPartitionValue()) > 0)
+        {
+            throw new IllegalArgumentException(String
+                .format("The start expected partition value \"%s\" cannot be greater than the end expected partition value \"%s\".",
+                    partitionValueRange.getStartPartitionValue(), partitionValueRange.getEndPartitionValue()));
+        }
+
+        // An empty list of expected partition values simply clears the range.
+        if (CollectionUtils.isEmpty(expectedPartitionValuesReplaceRequest.getExpectedPartitionValues()))
+        {
+            expectedPartitionValuesReplaceRequest.setExpectedPartitionValues(new ArrayList<String>());
+            return;
+        }
+
+        // Perform validation and trim of the expected partition values and ensure they all fall within the range.
+        List<String> expectedPartitionValues = validateExpectedPartitionValues(expectedPartitionValuesReplaceRequest.getExpectedPartitionValues());
+        for (String expectedPartitionValue : Arrays.asList(expectedPartitionValues.get(0), expectedPartitionValues.get(expectedPartitionValues.size() - 1)))
+        {
+            if (expectedPartitionValue.compareTo(partitionValueRange.getStartPartitionValue()) < 0 ||
+                expectedPartitionValue.compareTo(partitionValueRange.getEndPartitionValue()) > 0)
+            {
+                throw new IllegalArgumentException(String
+                    .format("Expected partition value \"%s\" is outside of the \"%s\" to \"%s\" partition value range.", expectedPartitionValue,
+                        partitionValueRange.getStartPartitionValue(), partitionValueRange.getEndPartitionValue()));
+            }
+        }
+        expectedPartitionValuesReplaceRequest.setExpectedPartitionValues(expectedPartitionValues);
+    }
+
     /**
      * Validate a list of expected partition values. This method also trims the expected partition values.
      *
@@ -20,6 +20,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import org.finra.dm.core.helper.MetricsHelper;
 import org.finra.dm.dao.DmDao;
 import org.finra.dm.dao.SqsDao;
 import org.finra.dm.dao.config.DaoSpringModuleConfig;
@@ -35,6 +36,11 @@ public class JmsPublishingServiceImpl implements JmsPublishingService
 {
     private static final Logger LOGGER = Logger.getLogger(JmsPublishingServiceImpl.class);
 
+    /**
+     * The name of the histogram tracking the time between a JMS message being added to the database queue and being published in milliseconds.
+     */
+    public static final String METRIC_PUBLISHING_LAG = "jmsPublishing.lagMillis";
+
     @Autowired
     private DmDao dmDao;
 
@@ -44,6 +50,9 @@ public class JmsPublishingServiceImpl implements JmsPublishingService
     @Autowired
     private AwsHelper awsHelper;
 
+    @Autowired
+    private MetricsHelper metricsHelper;
+
     /**
      * {@inheritDoc}
      */
@@ -51,10 +60,41 @@ public class JmsPublishingServiceImpl implements JmsPublishingService
     @Transactional(value = DaoSpringModuleConfig.DM_TRANSACTION_MANAGER_BEAN_NAME)
     public boolean publishOldestJmsMessage()
     {
-        boolean messageSent = false;
+        // Retrieve the oldest JMS message, unless the queue is empty. If it gets published by a concurrent transaction before this one could lock it, move on
+        // to the next oldest message.
+        for (JmsMessageEntity jmsMessageEntity = dmDao.getOldestJmsMessage(); jmsMessageEntity != null; jmsMessageEntity = dmDao.getOldestJmsMessage())
+        {
+            if (publishJmsMessage(dmDao.lockJmsMessage(jmsMessageEntity.getId())))
+            {
+                return true;
+            }
+        }
 
-        // Retrieve the oldest JMS message, unless the queue is empty.
-        JmsMessageEntity jmsMessageEntity = dmDao.getOldestJmsMessage();
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(value = DaoSpringModuleConfig.DM_TRANSACTION_MANAGER_BEAN_NAME)
+    public boolean publishJmsMessage(Integer jmsMessageId)
+    {
+        // The message won't exist anymore if it was already published by the JMS publishing system job or another node.
+        return publishJmsMessage(dmDao.lockJmsMessage(jmsMessageId));
+    }
+
+    /**
+     * Publishes and removes from the database queue the JMS message. The message must be locked by the current transaction, so no other transaction sends
+     * it again before it is removed from the database queue.
+     *
+     * @param jmsMessageEntity the locked JMS message entity, may be null.
+     *
+     * @return true if a message was sent or false if no message was sent (i.e. the JMS message entity is null).
+     */
+    private boolean publishJmsMessage(JmsMessageEntity jmsMessageEntity)
+    {
+        boolean messageSent = false;
 
         if (jmsMessageEntity != null)
         {
@@ -73,6 +113,12 @@ public class JmsPublishingServiceImpl implements JmsPublishingService
                 throw new IllegalStateException(e.getMessage(), e);
             }
 
+            // Record how long the message waited in the database queue.
+            if (jmsMessageEntity.getCreatedOn() != null)
+            {
+                metricsHelper.recordValue(METRIC_PUBLISHING_LAG, Math.max(0, System.currentTimeMillis() - jmsMessageEntity.getCreatedOn().getTime()));
+            }
+
             // Delete this message from the queue.
             dmDao.delete(jmsMessageEntity);
         }
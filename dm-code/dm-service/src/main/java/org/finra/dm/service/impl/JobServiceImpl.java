@@ -43,6 +43,7 @@ import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 
 import org.finra.dm.core.DmDateUtils;
+import org.finra.dm.core.helper.MetricsHelper;
 import org.finra.dm.dao.DmDao;
 import org.finra.dm.dao.S3Dao;
 import org.finra.dm.dao.config.DaoSpringModuleConfig;
@@ -76,6 +77,9 @@ public class JobServiceImpl implements JobService
 {
     private static final Logger LOGGER = Logger.getLogger(JobServiceImpl.class);
 
+    public static final String METRIC_CREATE_JOB_ASYNC = "JobService.createAndStartJob.async";
+    public static final String METRIC_CREATE_JOB_SYNC = "JobService.createAndStartJob.sync";
+
     @Autowired
     private DmHelper dmHelper;
 
@@ -109,6 +113,9 @@ public class JobServiceImpl implements JobService
     @Autowired
     private S3PropertiesLocationHelper s3PropertiesLocationHelper;
 
+    @Autowired
+    private MetricsHelper metricsHelper;
+
     @Override
     public Job createAndStartJob(JobCreateRequest request, boolean isAsync) throws Exception
     {
@@ -130,6 +137,7 @@ public class JobServiceImpl implements JobService
         Map<String, Object> mergedParameters = getParameters(jobDefinitionEntity, request);
 
         // Create a process instance holder to check for a handle to the process instance once it is created.
+        long startNanoTime = System.nanoTime();
         ProcessInstanceHolder processInstanceHolder = new ProcessInstanceHolder();
         ProcessInstance processInstance = null;
 
@@ -139,27 +147,18 @@ public class JobServiceImpl implements JobService
             Future<Void> future =
                 activitiProcessInstanceCreator.createAndStartProcessInstanceAsync(jobDefinitionEntity.getActivitiId(), mergedParameters, processInstanceHolder);
 
-            // Keep looping until a process instance was created (although not necessarily started) or until the the job has been created and started via
-            // the async method.
-            while ((!future.isDone()) && (processInstance == null))
-            {
-                // Try to get the process instance from the holder. It should be available once it is created, but before it is started.
-                processInstance = processInstanceHolder.getProcessInstance();
+            // Wait until a process instance was created (although not necessarily started) or until the async method has completed without creating one.
+            // The holder is signalled by the creator as soon as the process instance is available so no polling is needed.
+            processInstance = processInstanceHolder.awaitProcessInstance();
 
-                // If we don't have a process instance yet, sleep for a short time to give the async method time to move forward.
-                if (processInstance == null)
-                {
-                    Thread.sleep(100);
-                }
-            }
-
-            // Try to get the process instance from the holder one last time in case the job future is done and we didn't get it after the sleep above.
-            processInstance = processInstanceHolder.getProcessInstance();
-
-            // Cause an exception to be thrown assuming an exception caused the future to complete, but the process instance to be null.
+            // Cause an exception to be thrown if the future already completed with an exception. We don't wait for the future when we have a process
+            // instance since the future will only complete once the process instance has been started.
             try
             {
-                future.get();
+                if (processInstance == null || future.isDone())
+                {
+                    future.get();
+                }
             }
             catch (ExecutionException e)
             {
@@ -188,6 +187,9 @@ public class JobServiceImpl implements JobService
             processInstance = processInstanceHolder.getProcessInstance();
         }
 
+        // Record how long it took to get a handle to the process instance.
+        metricsHelper.recordLatency(isAsync ? METRIC_CREATE_JOB_ASYNC : METRIC_CREATE_JOB_SYNC, startNanoTime);
+
         // If we get here, we have a newly created process instance. Log to know it was created successfully.
         LOGGER.info("Created process instance with Id: " + processInstance.getProcessInstanceId() +
             " for process definition Id: " + jobDefinitionEntity.getActivitiId() + " with merged parameters: " + mergedParameters);
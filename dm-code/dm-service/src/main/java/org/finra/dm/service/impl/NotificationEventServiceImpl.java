@@ -40,6 +40,7 @@ import org.finra.dm.model.jpa.StorageUnitEntity;
 import org.finra.dm.model.api.xml.BusinessObjectDataKey;
 import org.finra.dm.service.NotificationActionService;
 import org.finra.dm.service.NotificationEventService;
+import org.finra.dm.service.config.ServiceSpringModuleConfig;
 import org.finra.dm.service.helper.DmHelper;
 import org.finra.dm.service.helper.NotificationActionFactory;
 
@@ -69,7 +70,7 @@ public class NotificationEventServiceImpl implements NotificationEventService
      *
      * @return a future to know the asynchronous state of this method.
      */
-    @Async
+    @Async(ServiceSpringModuleConfig.NOTIFICATION_TASK_EXECUTOR_BEAN_NAME)
     public Future<Void> processBusinessObjectDataNotificationEventAsync(NotificationEventTypeEntity.EVENT_TYPES_BDATA eventType, BusinessObjectDataKey key)
     {
         processBusinessObjectDataNotificationEventSync(eventType, key);
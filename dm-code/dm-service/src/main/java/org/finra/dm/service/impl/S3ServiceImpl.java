@@ -23,6 +23,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import org.finra.dm.dao.S3Dao;
+import org.finra.dm.dao.StorageFileIterator;
 import org.finra.dm.dao.config.DaoSpringModuleConfig;
 import org.finra.dm.model.dto.S3FileCopyRequestParamsDto;
 import org.finra.dm.model.dto.S3FileTransferRequestParamsDto;
@@ -63,6 +64,12 @@ public class S3ServiceImpl implements S3Service
         return s3Dao.listDirectory(params, ignoreZeroByteDirectoryMarkers);
     }
 
+    @Override
+    public StorageFileIterator getDirectoryIterator(S3FileTransferRequestParamsDto params, boolean ignoreZeroByteDirectoryMarkers)
+    {
+        return s3Dao.getDirectoryIterator(params, ignoreZeroByteDirectoryMarkers);
+    }
+
     @Override
     public S3FileTransferResultsDto uploadFile(S3FileTransferRequestParamsDto params) throws InterruptedException
     {
@@ -57,6 +57,15 @@ public class SqsNotificationEventServiceImpl implements SqsNotificationEventServ
             "business object data status change");
     }
 
+    @Override
+    public JmsMessageEntity processBusinessObjectDataStatusChangeNotificationEvent(BusinessObjectDataKey businessObjectDataKey, Integer businessObjectDataId,
+        String newBusinessObjectDataStatus, String oldBusinessObjectDataStatus)
+    {
+        return processMessage(sqsMessageBuilder
+            .buildBusinessObjectDataStatusChangeMessage(businessObjectDataKey, businessObjectDataId, newBusinessObjectDataStatus, oldBusinessObjectDataStatus),
+            "business object data status change");
+    }
+
     @Override
     public JmsMessageEntity processSystemMonitorNotificationEvent(String systemMonitorRequestPayload)
     {
@@ -16,6 +16,9 @@
 package org.finra.dm.service.impl;
 
 import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
 
@@ -29,17 +32,21 @@ import org.finra.dm.core.DmDateUtils;
 import org.finra.dm.dao.DmDao;
 import org.finra.dm.dao.config.DaoSpringModuleConfig;
 import org.finra.dm.model.AlreadyExistsException;
-import org.finra.dm.model.ObjectNotFoundException;
 import org.finra.dm.model.dto.DateRangeDto;
 import org.finra.dm.model.dto.StorageAlternateKeyDto;
+import org.finra.dm.model.jpa.BusinessObjectDefinitionEntity;
 import org.finra.dm.model.jpa.StorageAttributeEntity;
+import org.finra.dm.model.jpa.StorageDailyUploadStatEntity;
 import org.finra.dm.model.jpa.StorageEntity;
 import org.finra.dm.model.jpa.StoragePlatformEntity;
 import org.finra.dm.model.api.xml.Attribute;
 import org.finra.dm.model.api.xml.Storage;
+import org.finra.dm.model.api.xml.StorageBusinessObjectDefinitionDailyUploadStat;
 import org.finra.dm.model.api.xml.StorageBusinessObjectDefinitionDailyUploadStats;
 import org.finra.dm.model.api.xml.StorageCreateRequest;
+import org.finra.dm.model.api.xml.StorageDailyUploadStat;
 import org.finra.dm.model.api.xml.StorageDailyUploadStats;
+import org.finra.dm.model.api.xml.StorageDailyUploadStatsCheck;
 import org.finra.dm.model.api.xml.StorageKeys;
 import org.finra.dm.model.api.xml.StorageUpdateRequest;
 import org.finra.dm.service.StorageService;
@@ -174,6 +181,9 @@ public class StorageServiceImpl implements StorageService
         // Retrieve and ensure that a storage with the specified alternate key exists.
         StorageEntity storageEntity = dmDaoHelper.getStorageEntity(storageAlternateKey);
 
+        // Delete the upload statistics of the storage, since they reference it.
+        dmDao.deleteStorageDailyUploadStats(storageEntity);
+
         // Delete the storage.
         dmDao.delete(storageEntity);
 
@@ -206,12 +216,42 @@ public class StorageServiceImpl implements StorageService
     {
         // Perform validation and trim.
         validateStorageAlternateKey(storageAlternateKey);
-        validateStorageEntityExists(storageAlternateKey);
+        StorageEntity storageEntity = dmDaoHelper.getStorageEntity(storageAlternateKey);
 
         // If the upload date is not specified, retrieve upload stats for the past 7 calendar days plus today (8 days total).
         DateRangeDto dateRange = uploadDate == null ? getLastNDaysDateRange(7) : getOneDayDateRange(uploadDate);
+        Date minUploadDate = dmDao.getStorageDailyUploadStatsMinUploadDate(storageEntity);
+
+        DateRangeDto rollupDateRange = getRollupDateRange(dateRange, minUploadDate);
+        StorageDailyUploadStats uploadStats =
+            rollupDateRange == null ? new StorageDailyUploadStats() : dmDao.getStorageUploadStats(storageAlternateKey, rollupDateRange);
 
-        return dmDao.getStorageUploadStats(storageAlternateKey, dateRange);
+        // Aggregate the upload dates the rollup doesn't fully cover from the storage files. They precede all upload dates read from the rollup.
+        List<StorageDailyUploadStat> storageFileUploadStats = new ArrayList<>();
+        for (Date uploadDateNotInRollup : getUploadDatesNotInRollup(dateRange, minUploadDate))
+        {
+            List<StorageDailyUploadStatEntity> storageDailyUploadStatEntities =
+                dmDao.getStorageDailyUploadStatsFromStorageFiles(storageAlternateKey.getStorageName(), uploadDateNotInRollup);
+            if (!storageDailyUploadStatEntities.isEmpty())
+            {
+                long totalFiles = 0;
+                long totalBytes = 0;
+                for (StorageDailyUploadStatEntity storageDailyUploadStatEntity : storageDailyUploadStatEntities)
+                {
+                    totalFiles += storageDailyUploadStatEntity.getTotalFiles();
+                    totalBytes += storageDailyUploadStatEntity.getTotalBytes();
+                }
+
+                StorageDailyUploadStat uploadStat = new StorageDailyUploadStat();
+                uploadStat.setUploadDate(DmDateUtils.getXMLGregorianCalendarValue(uploadDateNotInRollup));
+                uploadStat.setTotalFiles(totalFiles);
+                uploadStat.setTotalBytes(totalBytes);
+                storageFileUploadStats.add(uploadStat);
+            }
+        }
+        uploadStats.getStorageDailyUploadStats().addAll(0, storageFileUploadStats);
+
+        return uploadStats;
     }
 
     /**
@@ -229,24 +269,124 @@ public class StorageServiceImpl implements StorageService
     {
         // Perform validation and trim.
         validateStorageAlternateKey(storageAlternateKey);
-        validateStorageEntityExists(storageAlternateKey);
+        StorageEntity storageEntity = dmDaoHelper.getStorageEntity(storageAlternateKey);
 
         // If the upload date is not specified, retrieve upload stats for the past 7 calendar days plus today (8 days total).
         DateRangeDto dateRange = uploadDate == null ? getLastNDaysDateRange(7) : getOneDayDateRange(uploadDate);
+        Date minUploadDate = dmDao.getStorageDailyUploadStatsMinUploadDate(storageEntity);
+
+        DateRangeDto rollupDateRange = getRollupDateRange(dateRange, minUploadDate);
+        StorageBusinessObjectDefinitionDailyUploadStats uploadStats = rollupDateRange == null ? new StorageBusinessObjectDefinitionDailyUploadStats() :
+            dmDao.getStorageUploadStatsByBusinessObjectDefinition(storageAlternateKey, rollupDateRange);
+
+        // Aggregate the upload dates the rollup doesn't fully cover from the storage files. They precede all upload dates read from the rollup.
+        List<StorageBusinessObjectDefinitionDailyUploadStat> storageFileUploadStats = new ArrayList<>();
+        for (Date uploadDateNotInRollup : getUploadDatesNotInRollup(dateRange, minUploadDate))
+        {
+            List<StorageBusinessObjectDefinitionDailyUploadStat> dailyUploadStats = new ArrayList<>();
+            for (StorageDailyUploadStatEntity storageDailyUploadStatEntity : dmDao
+                .getStorageDailyUploadStatsFromStorageFiles(storageAlternateKey.getStorageName(), uploadDateNotInRollup))
+            {
+                dailyUploadStats.add(createStorageBusinessObjectDefinitionDailyUploadStatFromEntity(storageDailyUploadStatEntity));
+            }
+
+            // Order the statistics of the day the same way the rollup query does.
+            Collections.sort(dailyUploadStats, new Comparator<StorageBusinessObjectDefinitionDailyUploadStat>()
+            {
+                @Override
+                public int compare(StorageBusinessObjectDefinitionDailyUploadStat stat1, StorageBusinessObjectDefinitionDailyUploadStat stat2)
+                {
+                    int result = stat1.getNamespace().compareTo(stat2.getNamespace());
+                    if (result == 0)
+                    {
+                        result = stat1.getDataProviderName().compareTo(stat2.getDataProviderName());
+                    }
+                    if (result == 0)
+                    {
+                        result = stat1.getBusinessObjectDefinitionName().compareTo(stat2.getBusinessObjectDefinitionName());
+                    }
+                    return result;
+                }
+            });
+            storageFileUploadStats.addAll(dailyUploadStats);
+        }
+        uploadStats.getStorageBusinessObjectDefinitionDailyUploadStats().addAll(0, storageFileUploadStats);
+
+        return uploadStats;
+    }
+
+    /**
+     * Rebuilds the storage daily upload statistics rollup for the specified upload date from the registered storage files across all storages. This replaces
+     * all rollup rows for that date, including the ones appended as storage files got registered, with one row per storage and business object definition.
+     * All storages are locked first, so no rollup rows get appended or missed while the rows are being replaced.
+     *
+     * @param uploadDate the upload date
+     *
+     * @return the number of rollup rows created for the upload date
+     */
+    @Override
+    public int rebuildStorageDailyUploadStats(Date uploadDate)
+    {
+        Assert.notNull(uploadDate, "An upload date must be specified.");
+        Date uploadDateNoTime = DmDateUtils.truncate(uploadDate, Calendar.DATE);
+
+        // Replace the rollup rows for the upload date with the statistics aggregated from the storage files.
+        dmDao.lockAllStorageDailyUploadStats();
+        dmDao.deleteStorageDailyUploadStats(uploadDateNoTime);
+        List<StorageDailyUploadStatEntity> storageDailyUploadStatEntities = dmDao.getStorageDailyUploadStatsFromStorageFiles(null, uploadDateNoTime);
+        dmDao.saveAllAndFlush(storageDailyUploadStatEntities);
 
-        return dmDao.getStorageUploadStatsByBusinessObjectDefinition(storageAlternateKey, dateRange);
+        return storageDailyUploadStatEntities.size();
     }
 
     /**
-     * Checks if storage exists.
+     * Compares the storage daily upload statistics rollup against the statistics aggregated from the registered storage files for the specified upload date.
      *
      * @param storageAlternateKey the storage alternate key (case-insensitive)
+     * @param uploadDate the upload date
      *
-     * @throws ObjectNotFoundException if storage with this alternate key does not exist
+     * @return the check result listing the statistics that do not match
      */
-    private void validateStorageEntityExists(StorageAlternateKeyDto storageAlternateKey) throws ObjectNotFoundException
+    @Override
+    public StorageDailyUploadStatsCheck checkStorageUploadStats(StorageAlternateKeyDto storageAlternateKey, Date uploadDate)
     {
-        dmDaoHelper.getStorageEntity(storageAlternateKey);
+        // Perform validation and trim.
+        validateStorageAlternateKey(storageAlternateKey);
+        Assert.notNull(uploadDate, "An upload date must be specified.");
+        StorageEntity storageEntity = dmDaoHelper.getStorageEntity(storageAlternateKey);
+        Date uploadDateNoTime = DmDateUtils.truncate(uploadDate, Calendar.DATE);
+
+        // Get the statistics from the rollup.
+        List<StorageBusinessObjectDefinitionDailyUploadStat> rollupUploadStats = dmDao
+            .getStorageUploadStatsByBusinessObjectDefinition(storageAlternateKey, getOneDayDateRange(uploadDateNoTime))
+            .getStorageBusinessObjectDefinitionDailyUploadStats();
+
+        // Get the statistics aggregated from the storage files.
+        List<StorageBusinessObjectDefinitionDailyUploadStat> storageFileUploadStats = new ArrayList<>();
+        for (StorageDailyUploadStatEntity storageDailyUploadStatEntity : dmDao
+            .getStorageDailyUploadStatsFromStorageFiles(storageAlternateKey.getStorageName(), uploadDateNoTime))
+        {
+            storageFileUploadStats.add(createStorageBusinessObjectDefinitionDailyUploadStatFromEntity(storageDailyUploadStatEntity));
+        }
+
+        // Only keep the statistics that do not have an identical match on the other side.
+        StorageBusinessObjectDefinitionDailyUploadStats mismatchedRollupUploadStats = new StorageBusinessObjectDefinitionDailyUploadStats();
+        mismatchedRollupUploadStats.getStorageBusinessObjectDefinitionDailyUploadStats().addAll(rollupUploadStats);
+        mismatchedRollupUploadStats.getStorageBusinessObjectDefinitionDailyUploadStats().removeAll(storageFileUploadStats);
+
+        StorageBusinessObjectDefinitionDailyUploadStats mismatchedStorageFileUploadStats = new StorageBusinessObjectDefinitionDailyUploadStats();
+        mismatchedStorageFileUploadStats.getStorageBusinessObjectDefinitionDailyUploadStats().addAll(storageFileUploadStats);
+        mismatchedStorageFileUploadStats.getStorageBusinessObjectDefinitionDailyUploadStats().removeAll(rollupUploadStats);
+
+        StorageDailyUploadStatsCheck storageDailyUploadStatsCheck = new StorageDailyUploadStatsCheck();
+        storageDailyUploadStatsCheck.setStorageName(storageEntity.getName());
+        storageDailyUploadStatsCheck.setUploadDate(DmDateUtils.getXMLGregorianCalendarValue(uploadDateNoTime));
+        storageDailyUploadStatsCheck.setConsistent(mismatchedRollupUploadStats.getStorageBusinessObjectDefinitionDailyUploadStats().isEmpty() &&
+            mismatchedStorageFileUploadStats.getStorageBusinessObjectDefinitionDailyUploadStats().isEmpty());
+        storageDailyUploadStatsCheck.setRollupUploadStats(mismatchedRollupUploadStats);
+        storageDailyUploadStatsCheck.setStorageFileUploadStats(mismatchedStorageFileUploadStats);
+
+        return storageDailyUploadStatsCheck;
     }
 
     /**
@@ -312,6 +452,56 @@ public class StorageServiceImpl implements StorageService
         return storage;
     }
 
+    /**
+     * Gets the upload dates in the specified date range that the storage daily upload statistics rollup of a storage doesn't fully cover. The rollup covers
+     * every upload date after the earliest upload date of the storage, so these are the dates up to and including it, e.g. the history registered before the
+     * rollup was introduced and the day it was introduced on, which only has the storage files registered after that. It is backfilled by running the rollup
+     * job with a larger lookback, until then the statistics of these dates are aggregated from the storage files.
+     *
+     * @param dateRange the upload date range
+     * @param minUploadDate the earliest upload date in the rollup of the storage, null if the rollup of the storage is empty
+     *
+     * @return the upload dates not fully covered by the rollup in ascending order
+     */
+    private List<Date> getUploadDatesNotInRollup(DateRangeDto dateRange, Date minUploadDate)
+    {
+        List<Date> uploadDates = new ArrayList<>();
+        Date upperDate = DmDateUtils.truncate(dateRange.getUpperDate(), Calendar.DATE);
+        for (Date date = DmDateUtils.truncate(dateRange.getLowerDate(), Calendar.DATE);
+            !date.after(upperDate) && (minUploadDate == null || !date.after(minUploadDate)); date = DmDateUtils.addDays(date, 1))
+        {
+            uploadDates.add(date);
+        }
+
+        return uploadDates;
+    }
+
+    /**
+     * Gets the part of the specified date range the storage daily upload statistics rollup of a storage fully covers, i.e. the upload dates after its earliest
+     * upload date.
+     *
+     * @param dateRange the upload date range
+     * @param minUploadDate the earliest upload date in the rollup of the storage, null if the rollup of the storage is empty
+     *
+     * @return the date range covered by the rollup or null if the rollup covers none of the upload dates
+     */
+    private DateRangeDto getRollupDateRange(DateRangeDto dateRange, Date minUploadDate)
+    {
+        if (minUploadDate == null)
+        {
+            return null;
+        }
+
+        Date lowerDate = DmDateUtils.addDays(DmDateUtils.truncate(minUploadDate, Calendar.DATE), 1);
+        if (lowerDate.after(dateRange.getUpperDate()))
+        {
+            return null;
+        }
+
+        return DateRangeDto.builder().lowerDate(lowerDate.after(dateRange.getLowerDate()) ? lowerDate : dateRange.getLowerDate())
+            .upperDate(dateRange.getUpperDate()).build();
+    }
+
     /**
      * Returns a date range that contains only one day.
      *
@@ -324,6 +514,29 @@ public class StorageServiceImpl implements StorageService
         return DateRangeDto.builder().lowerDate(date).upperDate(date).build();
     }
 
+    /**
+     * Creates the upload statistics for a business object definition from the specified storage daily upload statistics entity.
+     *
+     * @param storageDailyUploadStatEntity the storage daily upload statistics entity
+     *
+     * @return the upload statistics
+     */
+    private StorageBusinessObjectDefinitionDailyUploadStat createStorageBusinessObjectDefinitionDailyUploadStatFromEntity(
+        StorageDailyUploadStatEntity storageDailyUploadStatEntity)
+    {
+        BusinessObjectDefinitionEntity businessObjectDefinitionEntity = storageDailyUploadStatEntity.getBusinessObjectDefinition();
+
+        StorageBusinessObjectDefinitionDailyUploadStat uploadStat = new StorageBusinessObjectDefinitionDailyUploadStat();
+        uploadStat.setUploadDate(DmDateUtils.getXMLGregorianCalendarValue(storageDailyUploadStatEntity.getUploadDate()));
+        uploadStat.setNamespace(businessObjectDefinitionEntity.getNamespace().getCode());
+        uploadStat.setDataProviderName(businessObjectDefinitionEntity.getDataProvider().getName());
+        uploadStat.setBusinessObjectDefinitionName(businessObjectDefinitionEntity.getName());
+        uploadStat.setTotalFiles(storageDailyUploadStatEntity.getTotalFiles());
+        uploadStat.setTotalBytes(storageDailyUploadStatEntity.getTotalBytes());
+
+        return uploadStat;
+    }
+
     /**
      * Returns a date range for the past N calendar days plus today.
      *
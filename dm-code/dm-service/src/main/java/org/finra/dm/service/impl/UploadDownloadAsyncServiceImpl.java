@@ -28,6 +28,7 @@ import org.finra.dm.model.dto.AwsParamsDto;
 import org.finra.dm.model.api.xml.BusinessObjectDataKey;
 import org.finra.dm.service.UploadDownloadAsyncService;
 import org.finra.dm.service.UploadDownloadHelperService;
+import org.finra.dm.service.config.ServiceSpringModuleConfig;
 
 /**
  * A service class for UploadDownloadService asynchronous functions.
@@ -43,7 +44,7 @@ public class UploadDownloadAsyncServiceImpl implements UploadDownloadAsyncServic
      * {@inheritDoc}
      */
     @Override
-    @Async
+    @Async(ServiceSpringModuleConfig.FILE_MOVE_TASK_EXECUTOR_BEAN_NAME)
     public Future<Void> performFileMoveAsync(BusinessObjectDataKey sourceBusinessObjectDataKey, BusinessObjectDataKey targetBusinessObjectDataKey,
         String sourceBucketName, String destinationBucketName, String filePath, String kmsKeyId, AwsParamsDto awsParams)
     {
@@ -28,6 +28,8 @@ import org.finra.dm.model.dto.S3FileCopyRequestParamsDto;
 import org.finra.dm.model.dto.S3FileTransferRequestParamsDto;
 import org.finra.dm.model.jpa.BusinessObjectDataEntity;
 import org.finra.dm.model.jpa.BusinessObjectDataStatusEntity;
+import org.finra.dm.model.api.xml.BusinessObjectData;
+import org.finra.dm.model.api.xml.BusinessObjectDataCreateRequest;
 import org.finra.dm.model.api.xml.BusinessObjectDataKey;
 import org.finra.dm.service.UploadDownloadHelperService;
 import org.finra.dm.service.helper.BusinessObjectDataHelper;
@@ -195,4 +197,31 @@ public class UploadDownloadHelperServiceImpl implements UploadDownloadHelperServ
     {
         businessObjectDataHelper.updateBusinessObjectDataStatus(dmDaoHelper.getBusinessObjectDataEntity(businessObjectDataKey), businessObjectDataStatus);
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BusinessObjectData[] createUploadSingleBusinessObjectData(BusinessObjectDataCreateRequest sourceBusinessObjectDataCreateRequest,
+        BusinessObjectDataCreateRequest targetBusinessObjectDataCreateRequest)
+    {
+        // Set the flag to false, since for the file upload service the file size value is optional.
+        BusinessObjectData sourceBusinessObjectData = businessObjectDataHelper.createBusinessObjectData(sourceBusinessObjectDataCreateRequest, false);
+        BusinessObjectData targetBusinessObjectData = businessObjectDataHelper.createBusinessObjectData(targetBusinessObjectDataCreateRequest, false);
+
+        return new BusinessObjectData[] {sourceBusinessObjectData, targetBusinessObjectData};
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void abortUploadSingle(BusinessObjectDataKey sourceBusinessObjectDataKey, BusinessObjectDataKey targetBusinessObjectDataKey)
+    {
+        updateBusinessObjectDataStatusImpl(sourceBusinessObjectDataKey, BusinessObjectDataStatusEntity.DELETED);
+        updateBusinessObjectDataStatusImpl(targetBusinessObjectDataKey, BusinessObjectDataStatusEntity.INVALID);
+
+        LOGGER.warn(String.format("Aborted the upload single initiation for source business object data %s and target business object data %s.",
+            dmHelper.businessObjectDataKeyToString(sourceBusinessObjectDataKey), dmHelper.businessObjectDataKeyToString(targetBusinessObjectDataKey)));
+    }
 }
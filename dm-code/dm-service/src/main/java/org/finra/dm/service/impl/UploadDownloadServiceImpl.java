@@ -19,6 +19,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.Future;
 
 import com.amazonaws.auth.policy.Action;
 import com.amazonaws.auth.policy.Policy;
@@ -29,6 +30,7 @@ import com.amazonaws.auth.policy.actions.S3Actions;
 import com.amazonaws.services.securitytoken.model.Credentials;
 import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -38,7 +40,6 @@ import org.springframework.util.StringUtils;
 import org.finra.dm.core.DmDateUtils;
 import org.finra.dm.core.helper.ConfigurationHelper;
 import org.finra.dm.dao.S3Dao;
-import org.finra.dm.dao.StsDao;
 import org.finra.dm.dao.config.DaoSpringModuleConfig;
 import org.finra.dm.dao.helper.AwsHelper;
 import org.finra.dm.dao.helper.DmStringHelper;
@@ -65,6 +66,7 @@ import org.finra.dm.service.UploadDownloadService;
 import org.finra.dm.service.helper.BusinessObjectDataHelper;
 import org.finra.dm.service.helper.DmDaoHelper;
 import org.finra.dm.service.helper.DmHelper;
+import org.finra.dm.service.helper.StsCredentialBroker;
 
 /**
  * The upload download service implementation.
@@ -85,7 +87,7 @@ public class UploadDownloadServiceImpl implements UploadDownloadService
     private DmDaoHelper dmDaoHelper;
 
     @Autowired
-    private StsDao stsDao;
+    private StsCredentialBroker stsCredentialBroker;
 
     @Autowired
     private AwsHelper awsHelper;
@@ -107,8 +109,13 @@ public class UploadDownloadServiceImpl implements UploadDownloadService
 
     /**
      * {@inheritDoc}
+     * <p/>
+     * This method doesn't start a transaction of its own. The source and target business object data get created in a transaction of their own while the
+     * temporary security credentials are being requested from STS, so the database connection isn't held for the duration of the remote STS call. When the
+     * credentials can't be issued, the business object data that was created gets marked as no longer in use.
      */
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public UploadSingleInitiationResponse initiateUploadSingle(UploadSingleInitiationRequest uploadSingleInitiationRequest)
     {
         // Validate and trim the request parameters.
@@ -147,37 +154,70 @@ public class UploadDownloadServiceImpl implements UploadDownloadService
         String storageDirectoryPath = businessObjectDataHelper.buildFileUploadS3KeyPrefix(sourceBusinessObjectFormatEntity, sourceBusinessObjectDataKey);
         String storageFilePath = String.format("%s/%s", storageDirectoryPath, uploadSingleInitiationRequest.getFile().getFileName());
 
+        // Get decrypted AWS ARN of the role that is required to provide access to S3_MANAGED_LOADING_DOCK storage.
+        String awsRoleArn = dmStringHelper.getRequiredConfigurationValue(ConfigurationValue.AWS_LOADING_DOCK_UPLOADER_ROLE_ARN);
+
+        // Get expiration interval for the pre-signed URL to be generated.
+        Integer awsRoleDurationSeconds = configurationHelper.getProperty(ConfigurationValue.AWS_LOADING_DOCK_UPLOADER_ROLE_DURATION_SECS, Integer.class);
+
+        // Get decrypted AWS KMS Loading Dock Key ID value.
+        String awsKmsKeyId = dmStringHelper.getRequiredConfigurationValue(ConfigurationValue.AWS_KMS_LOADING_DOCK_KEY_ID);
+
+        // Start getting the temporary security credentials to access S3_MANAGED_STORAGE while the business object data is being created. The generated UUID
+        // is used as the session name since the business object data id isn't known yet.
+        Future<Credentials> futureAssumedSessionCredentials = stsCredentialBroker
+            .getTemporarySecurityCredentialsAsync(uuid, awsRoleArn, awsRoleDurationSeconds, createUploaderPolicy(s3BucketName, storageFilePath, awsKmsKeyId));
+
         // Create a business object data create request.
         BusinessObjectDataCreateRequest sourceBusinessObjectDataCreateRequest = businessObjectDataHelper
             .createBusinessObjectDataCreateRequest(sourceBusinessObjectFormatEntity, uuid, BusinessObjectDataStatusEntity.UPLOADING,
                 uploadSingleInitiationRequest.getBusinessObjectDataAttributes(), sourceStorageEntity, storageDirectoryPath, storageFilePath,
                 uploadSingleInitiationRequest.getFile().getFileSizeBytes(), null);
 
-        // Create a new business object data instance. Set the flag to false, since for the file upload service the file size value is optional.
-        BusinessObjectData sourceBusinessObjectData = businessObjectDataHelper.createBusinessObjectData(sourceBusinessObjectDataCreateRequest, false);
-
         // Create a target business object data based on the source business object data and target business object format.
         BusinessObjectDataCreateRequest targetBusinessObjectDataCreateRequest = businessObjectDataHelper
             .createBusinessObjectDataCreateRequest(targetBusinessObjectFormatEntity, uuid, BusinessObjectDataStatusEntity.UPLOADING,
                 uploadSingleInitiationRequest.getBusinessObjectDataAttributes(), targetStorageEntity, storageDirectoryPath, storageFilePath,
                 uploadSingleInitiationRequest.getFile().getFileSizeBytes(), null);
 
-        // Create a target business object data instance. Set the flag to false, since for the file upload service the file size value is optional.
-        BusinessObjectData targetBusinessObjectData = businessObjectDataHelper.createBusinessObjectData(targetBusinessObjectDataCreateRequest, false);
-
-        // Get decrypted AWS ARN of the role that is required to provide access to S3_MANAGED_LOADING_DOCK storage.
-        String awsRoleArn = dmStringHelper.getRequiredConfigurationValue(ConfigurationValue.AWS_LOADING_DOCK_UPLOADER_ROLE_ARN);
-
-        // Get expiration interval for the pre-signed URL to be generated.
-        Integer awsRoleDurationSeconds = configurationHelper.getProperty(ConfigurationValue.AWS_LOADING_DOCK_UPLOADER_ROLE_DURATION_SECS, Integer.class);
-
-        // Get decrypted AWS KMS Loading Dock Key ID value.
-        String awsKmsKeyId = dmStringHelper.getRequiredConfigurationValue(ConfigurationValue.AWS_KMS_LOADING_DOCK_KEY_ID);
+        // Create the source and target business object data instances.
+        BusinessObjectData[] businessObjectDataArray;
+        try
+        {
+            businessObjectDataArray =
+                uploadDownloadHelperService.createUploadSingleBusinessObjectData(sourceBusinessObjectDataCreateRequest, targetBusinessObjectDataCreateRequest);
+        }
+        catch (RuntimeException e)
+        {
+            // Nothing was created, so the credentials would never be handed out.
+            futureAssumedSessionCredentials.cancel(false);
+            throw e;
+        }
+        BusinessObjectData sourceBusinessObjectData = businessObjectDataArray[0];
+        BusinessObjectData targetBusinessObjectData = businessObjectDataArray[1];
 
-        // Get the temporary security credentials to access S3_MANAGED_STORAGE.
-        Credentials assumedSessionCredentials = stsDao
-            .getTemporarySecurityCredentials(awsHelper.getAwsParamsDto(), String.valueOf(sourceBusinessObjectData.getId()), awsRoleArn, awsRoleDurationSeconds,
-                createUploaderPolicy(s3BucketName, storageFilePath, awsKmsKeyId));
+        // Wait for the temporary security credentials.
+        Credentials assumedSessionCredentials;
+        try
+        {
+            assumedSessionCredentials = stsCredentialBroker.awaitTemporarySecurityCredentials(futureAssumedSessionCredentials);
+        }
+        catch (RuntimeException e)
+        {
+            // The upload can't be performed without the credentials, so take the business object data that was just created out of use.
+            try
+            {
+                uploadDownloadHelperService.abortUploadSingle(businessObjectDataHelper.createBusinessObjectDataKey(sourceBusinessObjectData),
+                    businessObjectDataHelper.createBusinessObjectDataKey(targetBusinessObjectData));
+            }
+            catch (Exception abortException)
+            {
+                // Log the error and let the file upload cleanup job delete the dangling source business object data.
+                LOGGER.error(String.format("Failed to abort the upload single initiation for source business object data %s.",
+                    dmHelper.businessObjectDataKeyToString(businessObjectDataHelper.createBusinessObjectDataKey(sourceBusinessObjectData))), abortException);
+            }
+            throw e;
+        }
 
         // Create the response.
         UploadSingleInitiationResponse response = new UploadSingleInitiationResponse();
@@ -350,6 +390,13 @@ public class UploadDownloadServiceImpl implements UploadDownloadService
                 .performFileMoveAsync(sourceBusinessObjectDataKey, targetBusinessObjectDataKey, s3ManagedLoadingDockBucketName, s3ManagedExternalBucketName,
                     storageFileEntity.getPath(), awsKmsExternalKeyId, awsHelper.getAwsParamsDto());
         }
+        catch (TaskRejectedException ex)
+        {
+            // The file move executor is saturated. This is not a problem with the upload, so it must not be cleaned up. Rethrow the exception to roll back the
+            // status changes and to leave the S3 notification unacknowledged, so the upload is completed when SQS redelivers it.
+            LOGGER.warn(String.format("File move executor is saturated. Upload single completion for file \"%s\" will be retried.", objectKey));
+            throw ex;
+        }
         catch (RuntimeException ex)
         {
             // Either source/target business object data does not exist or not in UPLOADING state.
@@ -638,8 +685,9 @@ public class UploadDownloadServiceImpl implements UploadDownloadService
         String awsKmsKeyId = dmStringHelper.getRequiredConfigurationValue(ConfigurationValue.AWS_KMS_LOADING_DOCK_KEY_ID);
 
         // Get the temporary security credentials to access S3_MANAGED_STORAGE.
-        Credentials assumedSessionCredentials = stsDao
-            .getTemporarySecurityCredentials(awsHelper.getAwsParamsDto(), String.valueOf(businessObjectDataEntity.getId()), awsRoleArn, awsRoleDurationSeconds,
+        // The session name is the partition value since that's the UUID the credentials were initially issued for.
+        Credentials assumedSessionCredentials = stsCredentialBroker
+            .getTemporarySecurityCredentials(businessObjectDataEntity.getPartitionValue(), awsRoleArn, awsRoleDurationSeconds,
                 createUploaderPolicy(s3BucketName, storageFilePath, awsKmsKeyId));
 
         // Create the response.
@@ -682,7 +730,7 @@ public class UploadDownloadServiceImpl implements UploadDownloadService
         int durationInSeconds = configurationHelper.getProperty(ConfigurationValue.AWS_EXTERNAL_DOWNLOADER_ROLE_DURATION_SECS, Integer.class);
         String awsKmsKeyId = dmStringHelper.getRequiredConfigurationValue(ConfigurationValue.AWS_KMS_EXTERNAL_KEY_ID);
 
-        return stsDao.getTemporarySecurityCredentials(awsHelper.getAwsParamsDto(), sessionName, downloaderRoleArn, durationInSeconds,
+        return stsCredentialBroker.getTemporarySecurityCredentials(sessionName, downloaderRoleArn, durationInSeconds,
             createDownloaderPolicy(s3BucketName, s3ObjectKey, awsKmsKeyId));
     }
 
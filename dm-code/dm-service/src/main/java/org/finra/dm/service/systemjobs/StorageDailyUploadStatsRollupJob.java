@@ -0,0 +1,112 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.service.systemjobs;
+
+import java.util.Date;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobDataMap;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import org.springframework.util.CollectionUtils;
+
+import org.finra.dm.core.DmDateUtils;
+import org.finra.dm.model.dto.ConfigurationValue;
+import org.finra.dm.model.api.xml.Parameter;
+import org.finra.dm.service.StorageService;
+import org.finra.dm.service.helper.DmHelper;
+
+/**
+ * The storage daily upload statistics rollup job. It rebuilds the rollup for the past days from the registered storage files, which consolidates the rows
+ * appended as storage files got registered and picks up any storage files that were changed or removed since.
+ */
+@Component(StorageDailyUploadStatsRollupJob.JOB_NAME)
+@DisallowConcurrentExecution
+public class StorageDailyUploadStatsRollupJob extends AbstractSystemJob
+{
+    public static final String JOB_NAME = "storageDailyUploadStatsRollup";
+
+    private static final Logger LOGGER = Logger.getLogger(StorageDailyUploadStatsRollupJob.class);
+
+    @Autowired
+    private StorageService storageService;
+
+    @Autowired
+    protected DmHelper dmHelper;
+
+    @Override
+    protected void executeInternal(JobExecutionContext context) throws JobExecutionException
+    {
+        // Log that the system job is started.
+        LOGGER.info(String.format("Started \"%s\" system job.", JOB_NAME));
+
+        // Get the parameter values.
+        int lookbackDays = dmHelper.getParameterValueAsInteger(parameters, ConfigurationValue.STORAGE_DAILY_UPLOAD_STATS_ROLLUP_JOB_LOOKBACK_DAYS);
+
+        // Rebuild the rollup one day at a time, so each day is rebuilt in its own transaction. The days are rebuilt from the most recent one back, because the
+        // rollup of a storage is read for every day after its earliest day, so rebuilding an older day first would expose the days in between too early.
+        Date currentDate = DmDateUtils.getCurrentCalendarNoTime().getTime();
+        for (int days = 1; days <= lookbackDays; days++)
+        {
+            Date uploadDate = DmDateUtils.addDays(currentDate, -days);
+
+            try
+            {
+                int rowCount = storageService.rebuildStorageDailyUploadStats(uploadDate);
+                LOGGER.info(String.format("Rebuilt %d storage daily upload statistics for %tF upload date.", rowCount, uploadDate));
+            }
+            catch (Exception e)
+            {
+                // Log the exception and stop, so no older day gets rebuilt before this one.
+                LOGGER.error(String.format("Failed to rebuild storage daily upload statistics for %tF upload date.", uploadDate), e);
+                break;
+            }
+        }
+
+        // Log that the system job is ended.
+        LOGGER.info(String.format("Completed \"%s\" system job.", JOB_NAME));
+    }
+
+    @Override
+    public void validateParameters(List<Parameter> parameters)
+    {
+        // This system job accepts only one optional parameter with an integer value.
+        if (!CollectionUtils.isEmpty(parameters))
+        {
+            Assert.isTrue(parameters.size() == 1, String.format("Too many parameters are specified for \"%s\" system job.", JOB_NAME));
+            Assert.isTrue(parameters.get(0).getName().equalsIgnoreCase(ConfigurationValue.STORAGE_DAILY_UPLOAD_STATS_ROLLUP_JOB_LOOKBACK_DAYS.getKey()),
+                String.format("Parameter \"%s\" is not supported by \"%s\" system job.", parameters.get(0).getName(), JOB_NAME));
+            dmHelper.getParameterValueAsInteger(parameters.get(0));
+        }
+    }
+
+    @Override
+    public JobDataMap getJobDataMap()
+    {
+        return getJobDataMap(ConfigurationValue.STORAGE_DAILY_UPLOAD_STATS_ROLLUP_JOB_LOOKBACK_DAYS);
+    }
+
+    @Override
+    public String getCronExpression()
+    {
+        return configurationHelper.getProperty(ConfigurationValue.STORAGE_DAILY_UPLOAD_STATS_ROLLUP_JOB_CRON_EXPRESSION);
+    }
+}
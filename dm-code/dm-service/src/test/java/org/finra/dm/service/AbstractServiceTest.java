@@ -118,6 +118,7 @@ import org.finra.dm.model.api.xml.ExpectedPartitionValueInformation;
 import org.finra.dm.model.api.xml.ExpectedPartitionValuesCreateRequest;
 import org.finra.dm.model.api.xml.ExpectedPartitionValuesDeleteRequest;
 import org.finra.dm.model.api.xml.ExpectedPartitionValuesInformation;
+import org.finra.dm.model.api.xml.ExpectedPartitionValuesReplaceRequest;
 import org.finra.dm.model.api.xml.File;
 import org.finra.dm.model.api.xml.JdbcConnection;
 import org.finra.dm.model.api.xml.JdbcDatabaseType;
@@ -160,6 +161,7 @@ import org.finra.dm.service.helper.DmHelper;
 import org.finra.dm.service.helper.EmrStepHelperFactory;
 import org.finra.dm.service.helper.Hive13DdlGenerator;
 import org.finra.dm.service.helper.S3PropertiesLocationHelper;
+import org.finra.dm.service.helper.StorageDailyUploadStatsHelper;
 import org.finra.dm.service.helper.SqsMessageBuilder;
 import org.finra.dm.service.helper.VelocityHelper;
 import org.finra.dm.service.impl.BusinessObjectDataServiceImpl;
@@ -441,6 +443,9 @@ public abstract class AbstractServiceTest extends AbstractDaoTest
     @Autowired
     protected S3PropertiesLocationHelper s3PropertiesLocationHelper;
 
+    @Autowired
+    protected StorageDailyUploadStatsHelper storageDailyUploadStatsHelper;
+
     /**
      * Turns off base Java delegate logging for test cases that purposely produce errors and don't want to see unnecessary stack traces in the output.
      */
@@ -3918,6 +3923,26 @@ public abstract class AbstractServiceTest extends AbstractDaoTest
         return expectedPartitionValuesDeleteRequest;
     }
 
+    /**
+     * Creates an expected partition values replace request.
+     *
+     * @param partitionKeyGroupName the partition key group name
+     * @param startExpectedPartitionValue the start expected partition value of the range
+     * @param endExpectedPartitionValue the end expected partition value of the range
+     * @param expectedPartitionValues the list of expected partition values
+     *
+     * @return the expected partition values replace request
+     */
+    protected ExpectedPartitionValuesReplaceRequest createExpectedPartitionValuesReplaceRequest(String partitionKeyGroupName,
+        String startExpectedPartitionValue, String endExpectedPartitionValue, List<String> expectedPartitionValues)
+    {
+        ExpectedPartitionValuesReplaceRequest expectedPartitionValuesReplaceRequest = new ExpectedPartitionValuesReplaceRequest();
+        expectedPartitionValuesReplaceRequest.setPartitionKeyGroupKey(createPartitionKeyGroupKey(partitionKeyGroupName));
+        expectedPartitionValuesReplaceRequest.setPartitionValueRange(new PartitionValueRange(startExpectedPartitionValue, endExpectedPartitionValue));
+        expectedPartitionValuesReplaceRequest.setExpectedPartitionValues(expectedPartitionValues);
+        return expectedPartitionValuesReplaceRequest;
+    }
+
     /**
      * Validates expected partition value information contents against specified arguments.
      *
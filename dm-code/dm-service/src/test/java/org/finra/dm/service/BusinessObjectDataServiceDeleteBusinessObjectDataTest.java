@@ -26,6 +26,7 @@ import java.io.IOException;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 
 import org.apache.commons.io.FileUtils;
@@ -34,8 +35,11 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import org.finra.dm.core.DmDateUtils;
 import org.finra.dm.model.ObjectNotFoundException;
+import org.finra.dm.model.dto.DateRangeDto;
 import org.finra.dm.model.dto.S3FileTransferRequestParamsDto;
+import org.finra.dm.model.dto.StorageAlternateKeyDto;
 import org.finra.dm.model.jpa.BusinessObjectDataEntity;
 import org.finra.dm.model.jpa.StorageAttributeEntity;
 import org.finra.dm.model.jpa.StorageEntity;
@@ -863,6 +867,26 @@ public class BusinessObjectDataServiceDeleteBusinessObjectDataTest extends Abstr
         assertNull(dmDao.getBusinessObjectDataByAltKey(businessObjectDataKey));
     }
 
+    @Test
+    public void testDeleteBusinessObjectDataUploadStats() throws Exception
+    {
+        // Create test database entities including the relative non-S3 storage entities and add their storage files to the upload statistics rollup.
+        createTestDatabaseEntities(STORAGE_NAME, STORAGE_PLATFORM_CODE, testS3KeyPrefix, LOCAL_FILES);
+        Date currentDate = DmDateUtils.getCurrentCalendarNoTime().getTime();
+        storageService.rebuildStorageDailyUploadStats(currentDate);
+
+        // Delete the business object data.
+        businessObjectDataService.deleteBusinessObjectData(
+            new BusinessObjectDataKey(NAMESPACE_CD, BOD_NAME, FORMAT_USAGE_CODE, FORMAT_FILE_TYPE_CODE, INITIAL_FORMAT_VERSION, PARTITION_VALUE,
+                NO_SUBPARTITION_VALUES, INITIAL_DATA_VERSION), false);
+
+        // Validate that the deleted storage files got subtracted from the rollup.
+        StorageAlternateKeyDto storageAlternateKey = StorageAlternateKeyDto.builder().storageName(STORAGE_NAME).build();
+        assertTrue(storageService.checkStorageUploadStats(storageAlternateKey, currentDate).isConsistent());
+        assertTrue(dmDao.getStorageUploadStats(storageAlternateKey, DateRangeDto.builder().lowerDate(currentDate).upperDate(currentDate).build())
+            .getStorageDailyUploadStats().isEmpty());
+    }
+
     /**
      * Create and persist a business object data entity along with the relative storage related entities.
      *
@@ -27,9 +27,11 @@ import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 
+import org.finra.dm.core.DmDateUtils;
 import org.finra.dm.model.AlreadyExistsException;
 import org.finra.dm.model.ObjectNotFoundException;
 import org.finra.dm.model.jpa.BusinessObjectDefinitionEntity;
+import org.finra.dm.model.jpa.StorageDailyUploadStatEntity;
 import org.finra.dm.model.api.xml.Attribute;
 import org.finra.dm.model.api.xml.BusinessObjectDefinition;
 import org.finra.dm.model.api.xml.BusinessObjectDefinitionCreateRequest;
@@ -854,6 +856,29 @@ public class BusinessObjectDefinitionServiceTest extends AbstractServiceTest
         assertNull(dmDao.getBusinessObjectDefinitionByKey(businessObjectDefinitionKey));
     }
 
+    @Test
+    public void testDeleteBusinessObjectDefinitionWithUploadStats() throws Exception
+    {
+        // Create and persist a business object definition entity with a daily upload statistics rollup row.
+        BusinessObjectDefinitionEntity businessObjectDefinitionEntity =
+            createBusinessObjectDefinitionEntity(NAMESPACE_CD, BOD_NAME, DATA_PROVIDER_NAME, BOD_DESCRIPTION, getNewAttributes(), null);
+        StorageDailyUploadStatEntity storageDailyUploadStatEntity = new StorageDailyUploadStatEntity();
+        storageDailyUploadStatEntity.setStorage(createStorageEntity(STORAGE_NAME));
+        storageDailyUploadStatEntity.setBusinessObjectDefinition(businessObjectDefinitionEntity);
+        storageDailyUploadStatEntity.setUploadDate(DmDateUtils.getCurrentCalendarNoTime().getTime());
+        storageDailyUploadStatEntity.setTotalFiles(1L);
+        storageDailyUploadStatEntity.setTotalBytes(FILE_SIZE_1_KB);
+        dmDao.saveAndFlush(storageDailyUploadStatEntity);
+
+        // Delete this business object definition.
+        BusinessObjectDefinitionKey businessObjectDefinitionKey = new BusinessObjectDefinitionKey(NAMESPACE_CD, BOD_NAME);
+        businessObjectDefinitionService.deleteBusinessObjectDefinition(businessObjectDefinitionKey);
+
+        // Ensure that this business object definition and its upload statistics are no longer there.
+        assertNull(dmDao.getBusinessObjectDefinitionByKey(businessObjectDefinitionKey));
+        assertTrue(dmDao.findAll(StorageDailyUploadStatEntity.class).isEmpty());
+    }
+
     @Test
     public void testDeleteBusinessObjectDefinitionLegacy() throws Exception
     {
@@ -16,6 +16,7 @@
 package org.finra.dm.service;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.fail;
 
@@ -25,6 +26,7 @@ import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 
+import org.finra.dm.core.helper.MetricsHelper;
 import org.finra.dm.model.jpa.BusinessObjectDataEntity;
 import org.finra.dm.model.jpa.BusinessObjectFormatEntity;
 import org.finra.dm.model.jpa.FileTypeEntity;
@@ -36,6 +38,7 @@ import org.finra.dm.model.api.xml.BusinessObjectFormatDdlRequest;
 import org.finra.dm.model.api.xml.BusinessObjectFormatKey;
 import org.finra.dm.model.api.xml.BusinessObjectFormatKeys;
 import org.finra.dm.model.api.xml.BusinessObjectFormatUpdateRequest;
+import org.finra.dm.service.helper.BusinessObjectFormatDdlCache;
 import org.finra.dm.service.helper.Hive13DdlGenerator;
 
 public class BusinessObjectFormatServiceTest extends AbstractServiceTest
@@ -44,6 +47,9 @@ public class BusinessObjectFormatServiceTest extends AbstractServiceTest
     @Qualifier(value = "businessObjectFormatServiceImpl")
     private BusinessObjectFormatService businessObjectFormatServiceImpl;
 
+    @Autowired
+    private MetricsHelper metricsHelper;
+
     @Test
     public void testCreateBusinessObjectFormat()
     {
@@ -274,6 +280,54 @@ public class BusinessObjectFormatServiceTest extends AbstractServiceTest
         validateBusinessObjectFormatDdl(NO_CUSTOM_DDL_NAME, expectedDdl, resultDdl);
     }
 
+    @Test
+    public void testGenerateBusinessObjectFormatDdlCached()
+    {
+        // Prepare test data.
+        createDatabaseEntitiesForBusinessObjectFormatDdlTesting();
+
+        // Retrieve business object format ddl twice.
+        BusinessObjectFormatDdl resultDdl = businessObjectFormatService.generateBusinessObjectFormatDdl(getTestBusinessObjectFormatDdlRequest(CUSTOM_DDL_NAME));
+        long cacheHitCount = metricsHelper.getCounter(BusinessObjectFormatDdlCache.METRIC_HITS).get();
+        BusinessObjectFormatDdl cachedResultDdl =
+            businessObjectFormatService.generateBusinessObjectFormatDdl(getTestBusinessObjectFormatDdlRequest(CUSTOM_DDL_NAME));
+
+        // Validate that the second call was served from the cache.
+        assertEquals(cacheHitCount + 1, metricsHelper.getCounter(BusinessObjectFormatDdlCache.METRIC_HITS).get());
+        assertEquals(resultDdl.getDdl(), cachedResultDdl.getDdl());
+
+        // Validate that different request options are not served from the cache.
+        BusinessObjectFormatDdlRequest request = getTestBusinessObjectFormatDdlRequest(CUSTOM_DDL_NAME);
+        request.setIncludeDropTableStatement(false);
+        businessObjectFormatService.generateBusinessObjectFormatDdl(request);
+        assertEquals(cacheHitCount + 1, metricsHelper.getCounter(BusinessObjectFormatDdlCache.METRIC_HITS).get());
+    }
+
+    @Test
+    public void testGenerateBusinessObjectFormatDdlAfterSchemaUpdate()
+    {
+        // Create an initial version of a business object format with schema information.
+        createTestBusinessObjectFormat();
+        createPartitionKeyGroupEntity(PARTITION_KEY_GROUP_2);
+
+        // Retrieve business object format ddl.
+        BusinessObjectFormatDdlRequest request = getTestBusinessObjectFormatDdlRequest(NO_CUSTOM_DDL_NAME);
+        request.setBusinessObjectFormatFileType(FORMAT_FILE_TYPE_CODE);
+        request.setBusinessObjectFormatVersion(INITIAL_FORMAT_VERSION);
+        BusinessObjectFormatDdl resultDdl = businessObjectFormatService.generateBusinessObjectFormatDdl(request);
+
+        // Update the business object format schema.
+        businessObjectFormatService
+            .updateBusinessObjectFormat(new BusinessObjectFormatKey(NAMESPACE_CD, BOD_NAME, FORMAT_USAGE_CODE, FORMAT_FILE_TYPE_CODE, INITIAL_FORMAT_VERSION),
+                createBusinessObjectFormatUpdateRequest(FORMAT_DESCRIPTION_2, getTestSchema2()));
+
+        // Retrieve business object format ddl again and validate that it reflects the updated schema.
+        long cacheMissCount = metricsHelper.getCounter(BusinessObjectFormatDdlCache.METRIC_MISSES).get();
+        BusinessObjectFormatDdl updatedResultDdl = businessObjectFormatService.generateBusinessObjectFormatDdl(request);
+        assertEquals(cacheMissCount + 1, metricsHelper.getCounter(BusinessObjectFormatDdlCache.METRIC_MISSES).get());
+        assertFalse(resultDdl.getDdl().equals(updatedResultDdl.getDdl()));
+    }
+
     /**
      * This method is to get the coverage for the business object format service method that starts the new transaction.
      */
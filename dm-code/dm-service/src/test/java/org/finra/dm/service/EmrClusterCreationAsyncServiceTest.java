@@ -0,0 +1,330 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import org.finra.dm.dao.config.DaoSpringModuleConfig;
+import org.finra.dm.dao.impl.MockAwsOperationsHelper;
+import org.finra.dm.model.ObjectNotFoundException;
+import org.finra.dm.model.api.xml.EmrCluster;
+import org.finra.dm.model.api.xml.EmrClusterCreateRequest;
+import org.finra.dm.model.api.xml.EmrClusterCreationStatus;
+import org.finra.dm.model.api.xml.EmrClusterDefinition;
+import org.finra.dm.model.dto.ConfigurationValue;
+import org.finra.dm.model.jpa.EmrClusterCreationLogEntity;
+import org.finra.dm.model.jpa.NamespaceEntity;
+import org.finra.dm.service.helper.EmrClusterCreationRegistry;
+
+/**
+ * This class tests functionality within the EmrClusterCreationAsyncService and the EmrClusterCreationRegistry classes.
+ */
+public class EmrClusterCreationAsyncServiceTest extends AbstractServiceTest
+{
+    @Autowired
+    private EmrClusterCreationAsyncService emrClusterCreationAsyncService;
+
+    @Autowired
+    private EmrClusterCreationRegistry emrClusterCreationRegistry;
+
+    @Autowired
+    @Qualifier(DaoSpringModuleConfig.DM_TRANSACTION_MANAGER_BEAN_NAME)
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void testCreateClusterAsync() throws Exception
+    {
+        // The cluster is created on the EMR cluster creation task executor, which can't see the data of the test transaction, so the data is committed.
+        createCommittedEmrClusterDefinition(IOUtils.toString(resourceLoader.getResource(EMR_CLUSTER_DEFINITION_XML_FILE_WITH_CLASSPATH).getInputStream()));
+
+        try
+        {
+            EmrClusterCreateRequest request = getNewEmrClusterCreateRequest();
+            EmrClusterCreationStatus emrClusterCreationStatus = waitForCompletion(emrClusterCreationAsyncService.createClusterAsync(request).getRequestId());
+
+            // Validate that the cluster got created and logged.
+            assertEquals(EmrClusterCreationRegistry.STATUS_SUCCEEDED, emrClusterCreationStatus.getStatus());
+            assertNull(emrClusterCreationStatus.getErrorMessage());
+            assertNotNull(emrClusterCreationStatus.getEmrCluster().getId());
+            assertEquals(request.getEmrClusterName(), emrClusterCreationStatus.getEmrCluster().getEmrClusterName());
+            assertEquals(1, getCommittedEmrClusterCreationLogs().size());
+        }
+        finally
+        {
+            deleteCommittedEmrClusterDefinition();
+        }
+    }
+
+    @Test
+    public void testCreateClusterAsyncAmazonException() throws Exception
+    {
+        // Make the mock EMR operations fail to run the job flow.
+        EmrClusterDefinition emrClusterDefinition = xmlHelper.unmarshallXmlToObject(EmrClusterDefinition.class,
+            IOUtils.toString(resourceLoader.getResource(EMR_CLUSTER_DEFINITION_XML_FILE_MINIMAL_CLASSPATH).getInputStream()));
+        emrClusterDefinition.setAmiVersion(MockAwsOperationsHelper.AMAZON_SERVICE_EXCEPTION);
+        createCommittedEmrClusterDefinition(xmlHelper.objectToXml(emrClusterDefinition));
+
+        try
+        {
+            EmrClusterCreationStatus emrClusterCreationStatus =
+                waitForCompletion(emrClusterCreationAsyncService.createClusterAsync(getNewEmrClusterCreateRequest()).getRequestId());
+
+            // Validate that the failure got recorded and no cluster got logged.
+            assertEquals(EmrClusterCreationRegistry.STATUS_FAILED, emrClusterCreationStatus.getStatus());
+            assertNotNull(emrClusterCreationStatus.getErrorMessage());
+            assertNull(emrClusterCreationStatus.getEmrCluster());
+            assertTrue(getCommittedEmrClusterCreationLogs().isEmpty());
+        }
+        finally
+        {
+            deleteCommittedEmrClusterDefinition();
+        }
+    }
+
+    @Test
+    public void testCreateClusterAsyncInFlight() throws Exception
+    {
+        NamespaceEntity namespaceEntity = createNamespaceEntity(NAMESPACE_CD);
+        createEmrClusterDefinitionEntity(namespaceEntity, EMR_CLUSTER_DEFINITION_NAME,
+            IOUtils.toString(resourceLoader.getResource(EMR_CLUSTER_DEFINITION_XML_FILE_WITH_CLASSPATH).getInputStream()));
+
+        EmrClusterCreateRequest request = getNewEmrClusterCreateRequest();
+        String emrClusterName = emrHelper.buildEmrClusterName(NAMESPACE_CD, EMR_CLUSTER_DEFINITION_NAME, request.getEmrClusterName());
+
+        // Claim the cluster name as if another request was creating the same cluster.
+        String requestId = "UT_REQUEST_ID-" + Math.random();
+        assertNull(emrClusterCreationRegistry.register(emrClusterName, requestId));
+
+        try
+        {
+            // The request in flight is returned rather than starting a new one.
+            EmrClusterCreationStatus emrClusterCreationStatus = emrClusterCreationAsyncService.createClusterAsync(request);
+            assertEquals(requestId, emrClusterCreationStatus.getRequestId());
+            assertEquals(EmrClusterCreationRegistry.STATUS_PENDING, emrClusterCreationStatus.getStatus());
+            assertSame(emrClusterCreationStatus, emrClusterCreationAsyncService.getEmrClusterCreationStatus(requestId));
+        }
+        finally
+        {
+            emrClusterCreationRegistry.unregister(emrClusterName, requestId);
+        }
+    }
+
+    @Test
+    public void testCreateClusterAsyncNamespaceNoExists() throws Exception
+    {
+        try
+        {
+            emrClusterCreationAsyncService.createClusterAsync(getNewEmrClusterCreateRequest());
+            fail("Should throw an ObjectNotFoundException when the namespace doesn't exist.");
+        }
+        catch (ObjectNotFoundException e)
+        {
+            assertEquals(String.format("Namespace \"%s\" doesn't exist.", NAMESPACE_CD), e.getMessage());
+        }
+    }
+
+    @Test
+    public void testGetEmrClusterCreationStatusNoExists() throws Exception
+    {
+        try
+        {
+            emrClusterCreationAsyncService.getEmrClusterCreationStatus("I_DO_NOT_EXIST");
+            fail("Should throw an ObjectNotFoundException when the request doesn't exist.");
+        }
+        catch (ObjectNotFoundException e)
+        {
+            assertEquals("EMR cluster creation request with id \"I_DO_NOT_EXIST\" doesn't exist.", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testRegistryReleasesClusterNameOnCompletion() throws Exception
+    {
+        String emrClusterName = "UT_EMR_CLUSTER-" + Math.random();
+        String requestId1 = "UT_REQUEST_ID-" + Math.random();
+        String requestId2 = "UT_REQUEST_ID-" + Math.random();
+
+        assertNull(emrClusterCreationRegistry.register(emrClusterName, requestId1));
+        emrClusterCreationRegistry.setRunning(requestId1);
+        assertEquals(requestId1, emrClusterCreationRegistry.register(emrClusterName, requestId2).getRequestId());
+        assertNull(emrClusterCreationRegistry.getStatus(requestId2));
+
+        EmrCluster emrCluster = new EmrCluster();
+        emrClusterCreationRegistry.setSucceeded(emrClusterName, requestId1, emrCluster);
+        assertEquals(EmrClusterCreationRegistry.STATUS_SUCCEEDED, emrClusterCreationRegistry.getStatus(requestId1).getStatus());
+        assertSame(emrCluster, emrClusterCreationRegistry.getStatus(requestId1).getEmrCluster());
+
+        // Once the first request completed, the cluster name can be claimed again.
+        assertNull(emrClusterCreationRegistry.register(emrClusterName, requestId2));
+        emrClusterCreationRegistry.setFailed(emrClusterName, requestId2, "UT_ERROR");
+        assertEquals(EmrClusterCreationRegistry.STATUS_FAILED, emrClusterCreationRegistry.getStatus(requestId2).getStatus());
+        assertEquals("UT_ERROR", emrClusterCreationRegistry.getStatus(requestId2).getErrorMessage());
+    }
+
+    @Test
+    public void testRegistryForgetsOldestCompletedRequests() throws Exception
+    {
+        Map<String, Object> overrideMap = new HashMap<>();
+        overrideMap.put(ConfigurationValue.EMR_CLUSTER_CREATION_STATUS_MAX_COMPLETED_REQUESTS.getKey(), 1);
+        modifyPropertySourceInEnvironment(overrideMap);
+
+        try
+        {
+            String requestId1 = "UT_REQUEST_ID-" + Math.random();
+            String requestId2 = "UT_REQUEST_ID-" + Math.random();
+
+            emrClusterCreationRegistry.register(requestId1, requestId1);
+            emrClusterCreationRegistry.setFailed(requestId1, requestId1, "UT_ERROR");
+            emrClusterCreationRegistry.register(requestId2, requestId2);
+            emrClusterCreationRegistry.setFailed(requestId2, requestId2, "UT_ERROR");
+
+            assertNull(emrClusterCreationRegistry.getStatus(requestId1));
+            assertEquals(requestId2, emrClusterCreationRegistry.getStatus(requestId2).getRequestId());
+        }
+        finally
+        {
+            restorePropertySourceInEnvironment();
+        }
+    }
+
+    /**
+     * Waits for the specified EMR cluster creation request to complete.
+     *
+     * @param requestId the request id
+     *
+     * @return the completed request status
+     */
+    private EmrClusterCreationStatus waitForCompletion(String requestId) throws Exception
+    {
+        long timeoutMillis = System.currentTimeMillis() + 30000;
+        EmrClusterCreationStatus emrClusterCreationStatus = emrClusterCreationAsyncService.getEmrClusterCreationStatus(requestId);
+        while (EmrClusterCreationRegistry.STATUS_PENDING.equals(emrClusterCreationStatus.getStatus()) ||
+            EmrClusterCreationRegistry.STATUS_RUNNING.equals(emrClusterCreationStatus.getStatus()))
+        {
+            assertTrue("The EMR cluster creation request didn't complete in time.", System.currentTimeMillis() < timeoutMillis);
+            Thread.sleep(100);
+            emrClusterCreationStatus = emrClusterCreationAsyncService.getEmrClusterCreationStatus(requestId);
+        }
+
+        return emrClusterCreationStatus;
+    }
+
+    /**
+     * Creates and commits the namespace and the EMR cluster definition of the test requests.
+     *
+     * @param configurationXml the EMR cluster definition configuration
+     */
+    private void createCommittedEmrClusterDefinition(final String configurationXml)
+    {
+        getNewTransactionTemplate().execute(new TransactionCallbackWithoutResult()
+        {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status)
+            {
+                createEmrClusterDefinitionEntity(createNamespaceEntity(NAMESPACE_CD), EMR_CLUSTER_DEFINITION_NAME, configurationXml);
+            }
+        });
+    }
+
+    /**
+     * Deletes the committed namespace and EMR cluster definition of the test requests along with the EMR clusters logged for them.
+     */
+    private void deleteCommittedEmrClusterDefinition()
+    {
+        getNewTransactionTemplate().execute(new TransactionCallbackWithoutResult()
+        {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status)
+            {
+                for (EmrClusterCreationLogEntity emrClusterCreationLogEntity : getEmrClusterCreationLogs())
+                {
+                    dmDao.delete(emrClusterCreationLogEntity);
+                }
+                dmDao.delete(dmDao.getEmrClusterDefinitionByAltKey(NAMESPACE_CD, EMR_CLUSTER_DEFINITION_NAME));
+                dmDao.delete(dmDao.getNamespaceByCd(NAMESPACE_CD));
+            }
+        });
+    }
+
+    /**
+     * Gets the EMR clusters logged for the namespace of the test requests by the transactions that got committed.
+     *
+     * @return the EMR cluster creation log entities
+     */
+    private List<EmrClusterCreationLogEntity> getCommittedEmrClusterCreationLogs()
+    {
+        return getNewTransactionTemplate().execute(new TransactionCallback<List<EmrClusterCreationLogEntity>>()
+        {
+            @Override
+            public List<EmrClusterCreationLogEntity> doInTransaction(TransactionStatus status)
+            {
+                return getEmrClusterCreationLogs();
+            }
+        });
+    }
+
+    /**
+     * Gets the EMR clusters logged for the namespace of the test requests.
+     *
+     * @return the EMR cluster creation log entities
+     */
+    private List<EmrClusterCreationLogEntity> getEmrClusterCreationLogs()
+    {
+        return dmDao.findByNamedProperties(EmrClusterCreationLogEntity.class, Collections.singletonMap("namespace", dmDao.getNamespaceByCd(NAMESPACE_CD)));
+    }
+
+    /**
+     * Gets a transaction template that runs outside of the test transaction, so its changes are committed.
+     *
+     * @return the transaction template
+     */
+    private TransactionTemplate getNewTransactionTemplate()
+    {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return transactionTemplate;
+    }
+
+    private EmrClusterCreateRequest getNewEmrClusterCreateRequest()
+    {
+        EmrClusterCreateRequest request = new EmrClusterCreateRequest();
+        request.setNamespace(NAMESPACE_CD);
+        request.setEmrClusterDefinitionName(EMR_CLUSTER_DEFINITION_NAME);
+        request.setEmrClusterName("UT_EMR_CLUSTER-" + Math.random());
+        return request;
+    }
+}
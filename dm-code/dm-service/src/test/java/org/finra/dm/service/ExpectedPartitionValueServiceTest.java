@@ -20,18 +20,23 @@ import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.log4j.Logger;
 import org.junit.Test;
 
 import org.finra.dm.model.ObjectNotFoundException;
+import org.finra.dm.model.dto.ConfigurationValue;
 import org.finra.dm.model.jpa.PartitionKeyGroupEntity;
 import org.finra.dm.model.api.xml.ExpectedPartitionValueInformation;
 import org.finra.dm.model.api.xml.ExpectedPartitionValueKey;
 import org.finra.dm.model.api.xml.ExpectedPartitionValuesCreateRequest;
 import org.finra.dm.model.api.xml.ExpectedPartitionValuesDeleteRequest;
 import org.finra.dm.model.api.xml.ExpectedPartitionValuesInformation;
+import org.finra.dm.model.api.xml.ExpectedPartitionValuesReplaceInformation;
+import org.finra.dm.model.api.xml.ExpectedPartitionValuesReplaceRequest;
 import org.finra.dm.model.api.xml.PartitionKeyGroupKey;
 import org.finra.dm.model.api.xml.PartitionValueRange;
 
@@ -700,6 +705,138 @@ public class ExpectedPartitionValueServiceTest extends AbstractServiceTest
         }
     }
 
+    @Test
+    public void testReplaceExpectedPartitionValues() throws Exception
+    {
+        // Create and persist a partition key group entity with ten days of expected partition values.
+        PartitionKeyGroupEntity partitionKeyGroupEntity = createPartitionKeyGroupEntity(PARTITION_KEY_GROUP);
+        createExpectedPartitionValueEntities(partitionKeyGroupEntity, getTestDailyExpectedPartitionValues(1, 10));
+
+        // Replace the 3rd through the 6th days with the 4th and 5th days, inserting a single value per flush.
+        Map<String, Object> overrideMap = new HashMap<>();
+        overrideMap.put(ConfigurationValue.EXPECTED_PARTITION_VALUES_REPLACE_CHUNK_SIZE.getKey(), 1);
+        modifyPropertySourceInEnvironment(overrideMap);
+        try
+        {
+            ExpectedPartitionValuesReplaceRequest request =
+                createExpectedPartitionValuesReplaceRequest(addWhitespace(PARTITION_KEY_GROUP), addWhitespace("2015-01-03"), addWhitespace("2015-01-06"),
+                    Arrays.asList(addWhitespace("2015-01-05"), addWhitespace("2015-01-04")));
+            ExpectedPartitionValuesReplaceInformation resultReplaceInformation = expectedPartitionValueService.replaceExpectedPartitionValues(request);
+
+            // Validate the returned object.
+            assertEquals(PARTITION_KEY_GROUP, resultReplaceInformation.getPartitionKeyGroupKey().getPartitionKeyGroupName());
+            assertEquals(new PartitionValueRange("2015-01-03", "2015-01-06"), resultReplaceInformation.getPartitionValueRange());
+            assertEquals(4, resultReplaceInformation.getDeletedExpectedPartitionValueCount());
+            assertEquals(2, resultReplaceInformation.getCreatedExpectedPartitionValueCount());
+        }
+        finally
+        {
+            restorePropertySourceInEnvironment();
+        }
+
+        // Validate that only the values within the range got replaced.
+        List<String> expectedPartitionValues = new ArrayList<>(getTestDailyExpectedPartitionValues(1, 2));
+        expectedPartitionValues.addAll(getTestDailyExpectedPartitionValues(4, 5));
+        expectedPartitionValues.addAll(getTestDailyExpectedPartitionValues(7, 10));
+        validateExpectedPartitionValuesInformation(PARTITION_KEY_GROUP, expectedPartitionValues, expectedPartitionValueService
+            .getExpectedPartitionValues(new PartitionKeyGroupKey(PARTITION_KEY_GROUP), new PartitionValueRange("2015-01-01", "2015-01-10")));
+
+        // Validate that offsets are resolved against the replaced values.
+        validateExpectedPartitionValueInformation(PARTITION_KEY_GROUP, "2015-01-04",
+            expectedPartitionValueService.getExpectedPartitionValue(new ExpectedPartitionValueKey(PARTITION_KEY_GROUP, "2015-01-02"), 1));
+    }
+
+    @Test
+    public void testReplaceExpectedPartitionValuesNoExpectedPartitionValues()
+    {
+        // Create and persist a partition key group entity with ten days of expected partition values.
+        PartitionKeyGroupEntity partitionKeyGroupEntity = createPartitionKeyGroupEntity(PARTITION_KEY_GROUP);
+        createExpectedPartitionValueEntities(partitionKeyGroupEntity, getTestDailyExpectedPartitionValues(1, 10));
+
+        // Clear the 1st through the 5th days.
+        ExpectedPartitionValuesReplaceInformation resultReplaceInformation = expectedPartitionValueService
+            .replaceExpectedPartitionValues(createExpectedPartitionValuesReplaceRequest(PARTITION_KEY_GROUP, "2015-01-01", "2015-01-05", null));
+
+        // Validate the returned object and the remaining values.
+        assertEquals(5, resultReplaceInformation.getDeletedExpectedPartitionValueCount());
+        assertEquals(0, resultReplaceInformation.getCreatedExpectedPartitionValueCount());
+        validateExpectedPartitionValuesInformation(PARTITION_KEY_GROUP, getTestDailyExpectedPartitionValues(6, 10), expectedPartitionValueService
+            .getExpectedPartitionValues(new PartitionKeyGroupKey(PARTITION_KEY_GROUP), new PartitionValueRange("2015-01-01", "2015-01-10")));
+    }
+
+    @Test
+    public void testReplaceExpectedPartitionValuesInvalidParameters()
+    {
+        // Try to perform a replace without specifying a partition value range.
+        ExpectedPartitionValuesReplaceRequest request =
+            createExpectedPartitionValuesReplaceRequest(PARTITION_KEY_GROUP, "2015-01-01", "2015-01-10", Arrays.asList("2015-01-01"));
+        request.setPartitionValueRange(null);
+        try
+        {
+            expectedPartitionValueService.replaceExpectedPartitionValues(request);
+            fail("Should throw an IllegalArgumentException when partition value range is not specified.");
+        }
+        catch (IllegalArgumentException e)
+        {
+            assertEquals("A partition value range must be specified.", e.getMessage());
+        }
+
+        // Try to perform a replace without specifying an end expected partition value.
+        request = createExpectedPartitionValuesReplaceRequest(PARTITION_KEY_GROUP, "2015-01-01", BLANK_TEXT, Arrays.asList("2015-01-01"));
+        try
+        {
+            expectedPartitionValueService.replaceExpectedPartitionValues(request);
+            fail("Should throw an IllegalArgumentException when end expected partition value is not specified.");
+        }
+        catch (IllegalArgumentException e)
+        {
+            assertEquals("An end expected partition value must be specified.", e.getMessage());
+        }
+
+        // Try to perform a replace with an expected partition value outside of the range.
+        request = createExpectedPartitionValuesReplaceRequest(PARTITION_KEY_GROUP, "2015-01-01", "2015-01-10", Arrays.asList("2015-01-01", "2015-01-11"));
+        try
+        {
+            expectedPartitionValueService.replaceExpectedPartitionValues(request);
+            fail("Should throw an IllegalArgumentException when an expected partition value is outside of the range.");
+        }
+        catch (IllegalArgumentException e)
+        {
+            assertEquals("Expected partition value \"2015-01-11\" is outside of the \"2015-01-01\" to \"2015-01-10\" partition value range.", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testReplaceExpectedPartitionValuesLargeNumberOfExpectedPartitionValues()
+    {
+        // Define some constants.
+        final int MAX_PARTITION_VALUES = 10000;
+
+        // Create and persist a partition key group entity.
+        createPartitionKeyGroupEntity(PARTITION_KEY_GROUP);
+
+        // Replace the whole range of the test expected partition values and then replace it again.
+        List<String> testSortedExpectedPartitionValues = getTestSortedExpectedPartitionValues(MAX_PARTITION_VALUES);
+        ExpectedPartitionValuesReplaceRequest request =
+            createExpectedPartitionValuesReplaceRequest(PARTITION_KEY_GROUP, testSortedExpectedPartitionValues.get(0),
+                testSortedExpectedPartitionValues.get(MAX_PARTITION_VALUES - 1), testSortedExpectedPartitionValues);
+        for (int deletedCount : Arrays.asList(0, MAX_PARTITION_VALUES))
+        {
+            long startTimeMillis = System.currentTimeMillis();
+            ExpectedPartitionValuesReplaceInformation resultReplaceInformation = expectedPartitionValueService.replaceExpectedPartitionValues(request);
+            logger.info(String.format("Replaced %d expected partition values in %d ms.", MAX_PARTITION_VALUES, System.currentTimeMillis() - startTimeMillis));
+
+            // Validate the returned object.
+            assertEquals(deletedCount, resultReplaceInformation.getDeletedExpectedPartitionValueCount());
+            assertEquals(MAX_PARTITION_VALUES, resultReplaceInformation.getCreatedExpectedPartitionValueCount());
+        }
+
+        // Validate that the expected partition values got replaced.
+        assertEquals(MAX_PARTITION_VALUES, expectedPartitionValueService.getExpectedPartitionValues(new PartitionKeyGroupKey(PARTITION_KEY_GROUP),
+            new PartitionValueRange(testSortedExpectedPartitionValues.get(0), testSortedExpectedPartitionValues.get(MAX_PARTITION_VALUES - 1)))
+            .getExpectedPartitionValues().size());
+    }
+
     @Test
     public void testLargeNumberOfExpectedPartitionValues()
     {
@@ -772,4 +909,24 @@ public class ExpectedPartitionValueServiceTest extends AbstractServiceTest
         // Validate that the expected partition value entities got deleted.
         assertEquals(0, partitionKeyGroupEntity.getExpectedPartitionValues().size());
     }
+
+    /**
+     * Returns a list of daily expected partition values in January, 2015.
+     *
+     * @param startDay the first day of the month
+     * @param endDay the last day of the month
+     *
+     * @return the list of expected partition values in ascending order
+     */
+    private List<String> getTestDailyExpectedPartitionValues(int startDay, int endDay)
+    {
+        List<String> expectedPartitionValues = new ArrayList<>();
+
+        for (int day = startDay; day <= endDay; day++)
+        {
+            expectedPartitionValues.add(String.format("2015-01-%02d", day));
+        }
+
+        return expectedPartitionValues;
+    }
 }
@@ -22,15 +22,21 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 
+import org.finra.dm.core.helper.MetricsHelper;
 import org.finra.dm.dao.impl.MockSqsOperationsImpl;
 import org.finra.dm.model.jpa.JmsMessageEntity;
+import org.finra.dm.service.impl.JmsPublishingServiceImpl;
 
 /**
  * This class tests functionality within the JmsPublishingService.
  */
 public class JmsPublishingServiceTest extends AbstractServiceTest
 {
+    @Autowired
+    private MetricsHelper metricsHelper;
+
     @Test
     public void testPublishOldestJmsMessage() throws Exception
     {
@@ -66,4 +72,18 @@ public class JmsPublishingServiceTest extends AbstractServiceTest
         assertEquals(MockSqsOperationsImpl.MOCK_SQS_QUEUE_NOT_FOUND_NAME, jmsMessageEntity.getJmsQueueName());
         assertEquals(MESSAGE_TEXT, jmsMessageEntity.getMessageText());
     }
+
+    @Test
+    public void testPublishJmsMessage() throws Exception
+    {
+        JmsMessageEntity jmsMessageEntity = createJmsMessageEntity(JMS_QUEUE_NAME, MESSAGE_TEXT);
+        long lagCount = metricsHelper.getHistogram(JmsPublishingServiceImpl.METRIC_PUBLISHING_LAG).getCount();
+
+        // The message is published the first time and is gone from the database queue the second time.
+        assertTrue(jmsPublishingService.publishJmsMessage(jmsMessageEntity.getId()));
+        assertFalse(jmsPublishingService.publishJmsMessage(jmsMessageEntity.getId()));
+
+        // The time the message waited in the database queue is recorded once.
+        assertEquals(lagCount + 1, metricsHelper.getHistogram(JmsPublishingServiceImpl.METRIC_PUBLISHING_LAG).getCount());
+    }
 }
@@ -33,8 +33,10 @@ import org.activiti.engine.task.Task;
 import org.apache.commons.io.IOUtils;
 import org.junit.Assert;
 import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.util.CollectionUtils;
 
+import org.finra.dm.core.helper.MetricsHelper;
 import org.finra.dm.model.ObjectNotFoundException;
 import org.finra.dm.model.jpa.JobDefinitionEntity;
 import org.finra.dm.model.api.xml.Job;
@@ -45,12 +47,16 @@ import org.finra.dm.model.api.xml.JobSignalRequest;
 import org.finra.dm.model.api.xml.JobStatusEnum;
 import org.finra.dm.model.api.xml.Parameter;
 import org.finra.dm.model.api.xml.S3PropertiesLocation;
+import org.finra.dm.service.impl.JobServiceImpl;
 
 /**
  * This class tests various functionality within the Job REST controller.
  */
 public class JobServiceTest extends AbstractServiceTest
 {
+    @Autowired
+    private MetricsHelper metricsHelper;
+
     @Test
     public void testCreateJob() throws Exception
     {
@@ -67,9 +73,11 @@ public class JobServiceTest extends AbstractServiceTest
         JobCreateRequest jobCreateRequest = createJobCreateRequest(TEST_ACTIVITI_NAMESPACE_CD, TEST_ACTIVITI_JOB_NAME);
 
         // Create the job.
+        long createJobCount = metricsHelper.getHistogram(JobServiceImpl.METRIC_CREATE_JOB_ASYNC).getCount();
         Job resultJob = jobService.createAndStartJob(jobCreateRequest, true);
 
         // Validate the results.
+        assertEquals(createJobCount + 1, metricsHelper.getHistogram(JobServiceImpl.METRIC_CREATE_JOB_ASYNC).getCount());
         assertNotNull(resultJob);
         assertNotNull(resultJob.getId());
         assertTrue(!resultJob.getId().isEmpty());
@@ -16,7 +16,9 @@
 package org.finra.dm.service;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -41,6 +43,7 @@ import org.finra.dm.model.AlreadyExistsException;
 import org.finra.dm.model.ObjectNotFoundException;
 import org.finra.dm.model.dto.StorageAlternateKeyDto;
 import org.finra.dm.model.jpa.BusinessObjectDataEntity;
+import org.finra.dm.model.jpa.StorageDailyUploadStatEntity;
 import org.finra.dm.model.jpa.StorageEntity;
 import org.finra.dm.model.jpa.StorageFileEntity;
 import org.finra.dm.model.jpa.StoragePlatformEntity;
@@ -51,6 +54,7 @@ import org.finra.dm.model.api.xml.StorageBusinessObjectDefinitionDailyUploadStat
 import org.finra.dm.model.api.xml.StorageCreateRequest;
 import org.finra.dm.model.api.xml.StorageDailyUploadStat;
 import org.finra.dm.model.api.xml.StorageDailyUploadStats;
+import org.finra.dm.model.api.xml.StorageDailyUploadStatsCheck;
 import org.finra.dm.model.api.xml.StorageKey;
 import org.finra.dm.model.api.xml.StorageKeys;
 import org.finra.dm.model.api.xml.StorageUpdateRequest;
@@ -186,6 +190,28 @@ public class StorageServiceTest extends AbstractServiceTest
         storageService.getStorage(alternateKey);
     }
 
+    @Test
+    public void testDeleteStorageWithUploadStats() throws Exception
+    {
+        // Create and persist a storage with a daily upload statistics rollup row.
+        StorageEntity storageEntity = createStorageEntity(STORAGE_NAME);
+        StorageDailyUploadStatEntity storageDailyUploadStatEntity = new StorageDailyUploadStatEntity();
+        storageDailyUploadStatEntity.setStorage(storageEntity);
+        storageDailyUploadStatEntity.setBusinessObjectDefinition(
+            createBusinessObjectDefinitionEntity(NAMESPACE_CD, BOD_NAME, DATA_PROVIDER_NAME, BOD_DESCRIPTION, false));
+        storageDailyUploadStatEntity.setUploadDate(DmDateUtils.getCurrentCalendarNoTime().getTime());
+        storageDailyUploadStatEntity.setTotalFiles(1L);
+        storageDailyUploadStatEntity.setTotalBytes(FILE_SIZE_1_KB);
+        dmDao.saveAndFlush(storageDailyUploadStatEntity);
+
+        // Delete the storage.
+        storageService.deleteStorage(StorageAlternateKeyDto.builder().storageName(STORAGE_NAME).build());
+
+        // Validate that the storage and its upload statistics are gone.
+        assertNull(dmDao.getStorageByName(STORAGE_NAME));
+        assertTrue(dmDao.findAll(StorageDailyUploadStatEntity.class).isEmpty());
+    }
+
     @Test(expected = ObjectNotFoundException.class)
     public void testDeleteStorageInvalidName() throws Exception
     {
@@ -250,11 +276,6 @@ public class StorageServiceTest extends AbstractServiceTest
         storageService.getStorageUploadStatsByBusinessObjectDefinition(alternateKey, null);
     }
 
-    /*
-     * Ignoring this test as it requires using a database view, but it is impossible to update a view within a same transaction. This test should be enabled
-     * again when in-memory database is implemented for unit tests.
-     */
-    @Ignore
     @Test
     public void testGetStorageUploadStats() throws JAXBException, IOException
     {
@@ -349,11 +370,6 @@ public class StorageServiceTest extends AbstractServiceTest
         }
     }
 
-    /*
-     * Ignoring this test as it requires using a database view, but it is impossible to update a view within a same transaction. This test should be enabled
-     * again when in-memory database is implemented for unit tests.
-     */
-    @Ignore
     @Test
     public void testGetStorageUploadStatsNoUploadDateSpecified() throws JAXBException, IOException
     {
@@ -387,12 +403,6 @@ public class StorageServiceTest extends AbstractServiceTest
         assertTrue(index == expectedRecordCount);
     }
 
-    /**
-     * TODO: Ignoring this test as it requires using a database view, but it is impossible to update a view within a same transaction. This test should be
-     * enabled again when in-memory database is implemented for unit tests. We should see if the H2 in-memory database supports views. Otherwise, we will need
-     * to populate the "view" table with the appropriate data which is less ideal.
-     */
-    @Ignore
     @Test
     public void testGetStorageUploadStatsByBusinessObjectDefinition() throws JAXBException, IOException
     {
@@ -454,11 +464,6 @@ public class StorageServiceTest extends AbstractServiceTest
         storageService.getStorageUploadStatsByBusinessObjectDefinition(alternateKey, dmHelper.getDateFromString(sdf.format(currentDate)));
     }
 
-    /*
-     * Ignoring this test as it requires using a database view, but it is impossible to update a view within a same transaction. This test should be enabled
-     * again when in-memory database is implemented for unit tests.
-     */
-    @Ignore
     @Test
     public void testGetStorageUploadStatsByBusinessObjectDefinitionNoUploadDateSpecified() throws JAXBException, IOException
     {
@@ -502,6 +507,145 @@ public class StorageServiceTest extends AbstractServiceTest
         assertTrue(index == expectedRecordCount);
     }
 
+    @Test
+    public void testRebuildStorageDailyUploadStats()
+    {
+        Date currentDate = DmDateUtils.getCurrentCalendarNoTime().getTime();
+        StorageAlternateKeyDto alternateKey = StorageAlternateKeyDto.builder().storageName(STORAGE_NAME).build();
+
+        // Prepare test environment.
+        prepareUploadStatsTestData();
+
+        // Rebuild the rollup again for the current date, which replaces the existing rollup rows with one row per business object definition.
+        assertEquals(BDEFS_PER_DAY, storageService.rebuildStorageDailyUploadStats(currentDate));
+
+        // Validate that the upload stats did not change.
+        StorageDailyUploadStats uploadStats = storageService.getStorageUploadStats(alternateKey, currentDate);
+        assertEquals(1, uploadStats.getStorageDailyUploadStats().size());
+        assertEquals(Long.valueOf(BDEFS_PER_DAY * FORMATS_PER_BDEF * FILES_PER_FORMAT), uploadStats.getStorageDailyUploadStats().get(0).getTotalFiles());
+        assertEquals(Long.valueOf(BDEFS_PER_DAY * FORMATS_PER_BDEF * FILES_PER_FORMAT * FILE_SIZE_1_KB),
+            uploadStats.getStorageDailyUploadStats().get(0).getTotalBytes());
+
+        // Validate that rebuilding an upload date without any registered storage files creates no rollup rows.
+        assertEquals(0, storageService.rebuildStorageDailyUploadStats(DmDateUtils.addDays(currentDate, 5)));
+    }
+
+    @Test
+    public void testGetStorageUploadStatsNotInRollup()
+    {
+        Date currentDate = DmDateUtils.getCurrentCalendarNoTime().getTime();
+        Date pastDate = DmDateUtils.addDays(currentDate, -1);
+        StorageAlternateKeyDto alternateKey = StorageAlternateKeyDto.builder().storageName(STORAGE_NAME).build();
+
+        // Register one storage file on the past date and one on the current date without adding them to the rollup.
+        BusinessObjectDataEntity businessObjectDataEntity =
+            createBusinessObjectDataEntity(NAMESPACE_CD, BOD_NAME, FORMAT_USAGE_CODE, FORMAT_FILE_TYPE_CODE, INITIAL_FORMAT_VERSION, PARTITION_VALUE,
+                INITIAL_DATA_VERSION, Boolean.TRUE, BDATA_STATUS);
+        StorageUnitEntity storageUnitEntity = createStorageUnitEntity(createStorageEntity(STORAGE_NAME), businessObjectDataEntity);
+        createStorageFileEntity(storageUnitEntity, LOCAL_FILE, FILE_SIZE_1_KB, ROW_COUNT_1000).setCreatedOn(new Timestamp(pastDate.getTime()));
+        createStorageFileEntity(storageUnitEntity, LOCAL_FILE + "_2", FILE_SIZE_1_KB, ROW_COUNT_1000);
+
+        // Validate that the upload stats are aggregated from the storage files while the rollup is empty.
+        StorageDailyUploadStats uploadStats = storageService.getStorageUploadStats(alternateKey, null);
+        assertEquals(2, uploadStats.getStorageDailyUploadStats().size());
+        assertEquals(DmDateUtils.getXMLGregorianCalendarValue(pastDate), uploadStats.getStorageDailyUploadStats().get(0).getUploadDate());
+        assertEquals(Long.valueOf(1), uploadStats.getStorageDailyUploadStats().get(0).getTotalFiles());
+        assertEquals(Long.valueOf(FILE_SIZE_1_KB), uploadStats.getStorageDailyUploadStats().get(0).getTotalBytes());
+        assertEquals(DmDateUtils.getXMLGregorianCalendarValue(currentDate), uploadStats.getStorageDailyUploadStats().get(1).getUploadDate());
+
+        // Rebuild the rollup for the current date only and validate that the past date is still aggregated from the storage files.
+        storageService.rebuildStorageDailyUploadStats(currentDate);
+        uploadStats = storageService.getStorageUploadStats(alternateKey, null);
+        assertEquals(2, uploadStats.getStorageDailyUploadStats().size());
+        assertEquals(DmDateUtils.getXMLGregorianCalendarValue(pastDate), uploadStats.getStorageDailyUploadStats().get(0).getUploadDate());
+        assertEquals(DmDateUtils.getXMLGregorianCalendarValue(currentDate), uploadStats.getStorageDailyUploadStats().get(1).getUploadDate());
+
+        StorageBusinessObjectDefinitionDailyUploadStats businessObjectDefinitionUploadStats =
+            storageService.getStorageUploadStatsByBusinessObjectDefinition(alternateKey, pastDate);
+        assertEquals(Arrays.asList(
+            new StorageBusinessObjectDefinitionDailyUploadStat(DmDateUtils.getXMLGregorianCalendarValue(pastDate), NAMESPACE_CD, DATA_PROVIDER_NAME, BOD_NAME,
+                1L, FILE_SIZE_1_KB)), businessObjectDefinitionUploadStats.getStorageBusinessObjectDefinitionDailyUploadStats());
+    }
+
+    @Test
+    public void testGetStorageUploadStatsPartialFirstRollupDate()
+    {
+        Date currentDate = DmDateUtils.getCurrentCalendarNoTime().getTime();
+        StorageAlternateKeyDto alternateKey = StorageAlternateKeyDto.builder().storageName(STORAGE_NAME).build();
+
+        // Register two storage files on the current date, but only add the second one to the rollup, the way it happens on the day the rollup is introduced.
+        BusinessObjectDataEntity businessObjectDataEntity =
+            createBusinessObjectDataEntity(NAMESPACE_CD, BOD_NAME, FORMAT_USAGE_CODE, FORMAT_FILE_TYPE_CODE, INITIAL_FORMAT_VERSION, PARTITION_VALUE,
+                INITIAL_DATA_VERSION, Boolean.TRUE, BDATA_STATUS);
+        StorageUnitEntity storageUnitEntity = createStorageUnitEntity(createStorageEntity(STORAGE_NAME), businessObjectDataEntity);
+        createStorageFileEntity(storageUnitEntity, LOCAL_FILE, FILE_SIZE_1_KB, ROW_COUNT_1000);
+        StorageFileEntity storageFileEntity = createStorageFileEntity(storageUnitEntity, LOCAL_FILE + "_2", FILE_SIZE_1_KB, ROW_COUNT_1000);
+        storageDailyUploadStatsHelper.addStorageDailyUploadStats(storageUnitEntity, Arrays.asList(storageFileEntity));
+
+        // Validate that the earliest upload date of the rollup is aggregated from the storage files, so both storage files are reported.
+        StorageDailyUploadStats uploadStats = storageService.getStorageUploadStats(alternateKey, currentDate);
+        assertEquals(1, uploadStats.getStorageDailyUploadStats().size());
+        assertEquals(Long.valueOf(2), uploadStats.getStorageDailyUploadStats().get(0).getTotalFiles());
+        assertEquals(Long.valueOf(2 * FILE_SIZE_1_KB), uploadStats.getStorageDailyUploadStats().get(0).getTotalBytes());
+
+        StorageBusinessObjectDefinitionDailyUploadStats businessObjectDefinitionUploadStats =
+            storageService.getStorageUploadStatsByBusinessObjectDefinition(alternateKey, currentDate);
+        assertEquals(Arrays.asList(
+            new StorageBusinessObjectDefinitionDailyUploadStat(DmDateUtils.getXMLGregorianCalendarValue(currentDate), NAMESPACE_CD, DATA_PROVIDER_NAME,
+                BOD_NAME, 2L, 2 * FILE_SIZE_1_KB)), businessObjectDefinitionUploadStats.getStorageBusinessObjectDefinitionDailyUploadStats());
+    }
+
+    @Test
+    public void testCheckStorageUploadStats()
+    {
+        Date currentDate = DmDateUtils.getCurrentCalendarNoTime().getTime();
+        StorageAlternateKeyDto alternateKey = StorageAlternateKeyDto.builder().storageName(STORAGE_NAME).build();
+        String bdefName = String.format("%s_%d", BOD_NAME, 0);
+        long expectedTotalFiles = FORMATS_PER_BDEF * FILES_PER_FORMAT;
+
+        // Prepare test environment.
+        prepareUploadStatsTestData();
+
+        // Validate that the rollup matches the storage files.
+        StorageDailyUploadStatsCheck uploadStatsCheck = storageService.checkStorageUploadStats(alternateKey, currentDate);
+        assertEquals(STORAGE_NAME, uploadStatsCheck.getStorageName());
+        assertEquals(DmDateUtils.getXMLGregorianCalendarValue(currentDate), uploadStatsCheck.getUploadDate());
+        assertTrue(uploadStatsCheck.isConsistent());
+        assertTrue(uploadStatsCheck.getRollupUploadStats().getStorageBusinessObjectDefinitionDailyUploadStats().isEmpty());
+        assertTrue(uploadStatsCheck.getStorageFileUploadStats().getStorageBusinessObjectDefinitionDailyUploadStats().isEmpty());
+
+        // Register a storage file without updating the rollup.
+        String formatUsageCode = String.format("%s_%d", FORMAT_USAGE_CODE, 0);
+        String formatFileTypeCode = String.format("%s_%d", FORMAT_FILE_TYPE_CODE, 0);
+        BusinessObjectDataEntity businessObjectDataEntity =
+            createBusinessObjectDataEntity(NAMESPACE_CD, bdefName, formatUsageCode, formatFileTypeCode, INITIAL_FORMAT_VERSION, PARTITION_VALUE,
+                INITIAL_DATA_VERSION, Boolean.FALSE, BDATA_STATUS);
+        StorageUnitEntity storageUnitEntity = createStorageUnitEntity(dmDao.getStorageByName(STORAGE_NAME), businessObjectDataEntity);
+        StorageFileEntity storageFileEntity = createStorageFileEntity(storageUnitEntity, LOCAL_FILE, FILE_SIZE_1_KB, ROW_COUNT_1000);
+
+        // Validate that the check reports the mismatching upload stats from both sides.
+        uploadStatsCheck = storageService.checkStorageUploadStats(alternateKey, currentDate);
+        assertFalse(uploadStatsCheck.isConsistent());
+        XMLGregorianCalendar expectedUploadDate = DmDateUtils.getXMLGregorianCalendarValue(currentDate);
+        assertEquals(Arrays.asList(
+            new StorageBusinessObjectDefinitionDailyUploadStat(expectedUploadDate, NAMESPACE_CD, DATA_PROVIDER_NAME, bdefName, expectedTotalFiles,
+                expectedTotalFiles * FILE_SIZE_1_KB)), uploadStatsCheck.getRollupUploadStats().getStorageBusinessObjectDefinitionDailyUploadStats());
+        assertEquals(Arrays.asList(
+            new StorageBusinessObjectDefinitionDailyUploadStat(expectedUploadDate, NAMESPACE_CD, DATA_PROVIDER_NAME, bdefName, expectedTotalFiles + 1,
+                (expectedTotalFiles + 1) * FILE_SIZE_1_KB)), uploadStatsCheck.getStorageFileUploadStats().getStorageBusinessObjectDefinitionDailyUploadStats());
+
+        // Add the registered storage file to the rollup the same way storage file registration does and validate that the rollup matches again.
+        storageDailyUploadStatsHelper.addStorageDailyUploadStats(storageUnitEntity, Arrays.asList(storageFileEntity));
+        assertTrue(storageService.checkStorageUploadStats(alternateKey, currentDate).isConsistent());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCheckStorageUploadStatsNoUploadDate()
+    {
+        createStorageEntity(STORAGE_NAME);
+        storageService.checkStorageUploadStats(StorageAlternateKeyDto.builder().storageName(STORAGE_NAME).build(), null);
+    }
+
     /**
      * Creates (but does not persist) a new valid storage create request.
      *
@@ -572,11 +716,20 @@ public class StorageServiceTest extends AbstractServiceTest
 
                         StorageFileEntity storageFileEntity = createStorageFileEntity(storageUnitEntity, s3FilePath, FILE_SIZE_1_KB, ROW_COUNT_1000);
                         // For the storage upload stats unit tests, we need storageFileEntity.createdOn value
-                        // to be set to match the relative partition value instead of defaulting to Oracle's SYSDATE.
+                        // to be set to match the relative partition value instead of defaulting to the current time.
                         storageFileEntity.setCreatedOn(new Timestamp(date.getTime()));
                     }
                 }
             }
         }
+
+        // Rebuild the storage daily upload statistics rollup for the relative upload dates.
+        Date currentDate = DmDateUtils.getCurrentCalendarNoTime().getTime();
+        Date startDate = DmDateUtils.addDays(currentDate, -(PAST_UPLOAD_DATES_TO_REPORT_ON + ADDITIONAL_UPLOAD_DATE));
+        Date endDate = DmDateUtils.addDays(currentDate, ADDITIONAL_UPLOAD_DATE);
+        for (Date date = startDate; !date.after(endDate); date = DmDateUtils.addDays(date, 1))
+        {
+            storageService.rebuildStorageDailyUploadStats(date);
+        }
     }
 }
@@ -16,17 +16,25 @@
 package org.finra.dm.service;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 
 import org.finra.dm.dao.impl.MockS3OperationsImpl;
 import org.finra.dm.model.jpa.BusinessObjectDataStatusEntity;
 import org.finra.dm.model.api.xml.UploadSingleInitiationResponse;
+import org.finra.dm.service.config.ServiceSpringModuleConfig;
 import org.finra.dm.service.impl.UploadDownloadServiceImpl;
 import org.finra.dm.service.impl.UploadDownloadServiceImpl.CompleteUploadSingleMessageResult;
 
@@ -39,6 +47,10 @@ public class UploadDownloadServiceImplTest extends AbstractServiceTest
     @Autowired
     private UploadDownloadService uploadDownloadService;
 
+    @Autowired
+    @Qualifier(ServiceSpringModuleConfig.FILE_MOVE_TASK_EXECUTOR_BEAN_NAME)
+    private TaskExecutor fileMoveTaskExecutor;
+
     /**
      * This method is to get the coverage for the upload download helper service method that starts the new transaction.
      */
@@ -80,4 +92,70 @@ public class UploadDownloadServiceImplTest extends AbstractServiceTest
 
         System.out.println(result);
     }
+
+    /**
+     * Test that an upload completion rejected by the saturated file move executor is handed back for a retry instead of being cleaned up.
+     */
+    @Test
+    public void testPerformCompleteUploadSingleMessageFileMoveExecutorSaturated() throws Exception
+    {
+        createDatabaseEntitiesForUploadDownloadTesting();
+
+        UploadSingleInitiationResponse resultUploadSingleInitiationResponse = uploadDownloadService.initiateUploadSingle(createUploadSingleInitiationRequest());
+        String filePath = resultUploadSingleInitiationResponse.getSourceBusinessObjectData().getStorageUnits().get(0).getStorageFiles().get(0).getFilePath();
+
+        // Saturate the file move executor with tasks that block until they are released.
+        final CountDownLatch releaseLatch = new CountDownLatch(1);
+        Runnable blockingTask = new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    releaseLatch.await(30, TimeUnit.SECONDS);
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+
+        try
+        {
+            try
+            {
+                for (int i = 0; i < 10000; i++)
+                {
+                    fileMoveTaskExecutor.execute(blockingTask);
+                }
+                fail("The file move executor should be bounded.");
+            }
+            catch (TaskRejectedException e)
+            {
+                // The file move executor is saturated.
+            }
+
+            try
+            {
+                uploadDownloadService.performCompleteUploadSingleMessage(filePath);
+                fail("Should throw a TaskRejectedException when the file move executor is saturated.");
+            }
+            catch (TaskRejectedException e)
+            {
+                // The exception is rethrown, so the S3 notification is redelivered.
+            }
+        }
+        finally
+        {
+            releaseLatch.countDown();
+        }
+
+        // The upload was not treated as failed.
+        assertNotEquals(BusinessObjectDataStatusEntity.DELETED, dmDao.getBusinessObjectDataByAltKey(
+            dmHelper.getBusinessObjectDataKey(resultUploadSingleInitiationResponse.getSourceBusinessObjectData())).getStatus().getCode());
+        assertNotEquals(BusinessObjectDataStatusEntity.INVALID, dmDao.getBusinessObjectDataByAltKey(
+            dmHelper.getBusinessObjectDataKey(resultUploadSingleInitiationResponse.getTargetBusinessObjectData())).getStatus().getCode());
+    }
 }
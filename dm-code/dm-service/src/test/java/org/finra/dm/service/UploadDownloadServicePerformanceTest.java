@@ -0,0 +1,76 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import org.finra.dm.dao.impl.MockStsOperationsImpl;
+import org.finra.dm.model.dto.ConfigurationValue;
+
+/**
+ * Measures the latency of upload initiations. This test only runs with the performance-test profile.
+ */
+public class UploadDownloadServicePerformanceTest extends AbstractServiceTest
+{
+    private static final Logger LOGGER = Logger.getLogger(UploadDownloadServicePerformanceTest.class);
+
+    @Autowired
+    private UploadDownloadService uploadDownloadService;
+
+    /**
+     * Logs the average latency of an upload initiation with and without an injected STS latency. Since the credentials are requested while the business
+     * object data is being created, the latency added by STS should be less than the injected one.
+     */
+    @Test
+    public void testInitiateUploadSingleLatency() throws Exception
+    {
+        // Create database entities required for testing.
+        createDatabaseEntitiesForUploadDownloadTesting();
+
+        int iterations = 10;
+        for (int stsLatencyMillis : new int[] {0, 100})
+        {
+            Map<String, Object> overrideMap = new HashMap<>();
+            overrideMap.put(ConfigurationValue.AWS_LOADING_DOCK_UPLOADER_ROLE_ARN.getKey(),
+                MockStsOperationsImpl.MOCK_AWS_ROLE_ARN_LATENCY_PREFIX + stsLatencyMillis);
+            modifyPropertySourceInEnvironment(overrideMap);
+
+            try
+            {
+                // Warm up once before measuring.
+                uploadDownloadService.initiateUploadSingle(createUploadSingleInitiationRequest());
+
+                long startTime = System.nanoTime();
+                for (int i = 0; i < iterations; i++)
+                {
+                    uploadDownloadService.initiateUploadSingle(createUploadSingleInitiationRequest());
+                }
+                long millisPerRequest = (System.nanoTime() - startTime) / iterations / 1000000;
+
+                LOGGER.info(String.format("Upload single initiation with %d ms STS latency: %d ms per request.", stsLatencyMillis, millisPerRequest));
+            }
+            finally
+            {
+                restorePropertySourceInEnvironment();
+            }
+        }
+    }
+}
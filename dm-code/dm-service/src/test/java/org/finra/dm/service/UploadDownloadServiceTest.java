@@ -21,14 +21,27 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
+import com.amazonaws.AmazonServiceException;
+import org.junit.After;
 import org.junit.Test;
+import org.springframework.aop.framework.Advised;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import org.finra.dm.dao.StsOperations;
+import org.finra.dm.dao.impl.MockAwsOperationsHelper;
+import org.finra.dm.dao.impl.MockStsOperationsImpl;
 import org.finra.dm.model.ObjectNotFoundException;
+import org.finra.dm.model.dto.ConfigurationValue;
+import org.finra.dm.model.jpa.BusinessObjectDataEntity;
 import org.finra.dm.model.jpa.BusinessObjectDataStatusEntity;
 import org.finra.dm.model.api.xml.Attribute;
 import org.finra.dm.model.api.xml.BusinessObjectData;
+import org.finra.dm.model.api.xml.BusinessObjectFormatKey;
 import org.finra.dm.model.api.xml.DownloadSingleInitiationResponse;
 import org.finra.dm.model.api.xml.UploadSingleCredentialExtensionResponse;
 import org.finra.dm.model.api.xml.UploadSingleInitiationRequest;
@@ -42,6 +55,18 @@ public class UploadDownloadServiceTest extends AbstractServiceTest
     @Autowired
     private UploadDownloadService uploadDownloadService;
 
+    @Autowired
+    private StsOperations stsOperations;
+
+    /**
+     * Forgets the STS calls made by the test, so they don't leak into the following tests.
+     */
+    @After
+    public void cleanEnv() throws Exception
+    {
+        getMockStsOperations().resetDelayedAssumeRoleTimes();
+    }
+
     @Test
     public void testInitiateUploadSingle()
     {
@@ -57,6 +82,78 @@ public class UploadDownloadServiceTest extends AbstractServiceTest
             resultUploadSingleInitiationResponse);
     }
 
+    @Test
+    public void testInitiateUploadSingleStsFailure() throws Exception
+    {
+        // Create database entities required for testing.
+        createDatabaseEntitiesForUploadDownloadTesting();
+
+        // Make the mock STS operations throw a throttling exception that isn't retried.
+        Map<String, Object> overrideMap = new HashMap<>();
+        overrideMap.put(ConfigurationValue.AWS_LOADING_DOCK_UPLOADER_ROLE_ARN.getKey(), MockAwsOperationsHelper.AMAZON_THROTTLING_EXCEPTION);
+        overrideMap.put(ConfigurationValue.AWS_STS_EXCEPTION_MAX_RETRY_DURATION_SECS.getKey(), 0);
+        modifyPropertySourceInEnvironment(overrideMap);
+
+        try
+        {
+            uploadDownloadService.initiateUploadSingle(createUploadSingleInitiationRequest());
+            fail("Should throw an AmazonServiceException when the temporary security credentials can't be issued.");
+        }
+        catch (AmazonServiceException e)
+        {
+            assertEquals("ThrottlingException", e.getErrorCode());
+        }
+        finally
+        {
+            restorePropertySourceInEnvironment();
+        }
+
+        // Validate that the business object data created for the upload was taken out of use.
+        validateBusinessObjectDataStatus(new BusinessObjectFormatKey(NAMESPACE_CD, BOD_NAME, FORMAT_USAGE_CODE, FORMAT_FILE_TYPE_CODE, FORMAT_VERSION),
+            BusinessObjectDataStatusEntity.DELETED);
+        validateBusinessObjectDataStatus(
+            new BusinessObjectFormatKey(NAMESPACE_CD_2, BOD_NAME_2, FORMAT_USAGE_CODE_2, FORMAT_FILE_TYPE_CODE_2, FORMAT_VERSION_2),
+            BusinessObjectDataStatusEntity.INVALID);
+    }
+
+    @Test
+    public void testInitiateUploadSingleCreatesBusinessObjectDataWhileWaitingForSts() throws Exception
+    {
+        // Create database entities required for testing.
+        createDatabaseEntitiesForUploadDownloadTesting();
+
+        // Make the mock STS operations take a while to issue the temporary security credentials.
+        Map<String, Object> overrideMap = new HashMap<>();
+        overrideMap.put(ConfigurationValue.AWS_LOADING_DOCK_UPLOADER_ROLE_ARN.getKey(), MockStsOperationsImpl.MOCK_AWS_ROLE_ARN_LATENCY_PREFIX + 200);
+        modifyPropertySourceInEnvironment(overrideMap);
+
+        try
+        {
+            UploadSingleInitiationResponse resultUploadSingleInitiationResponse =
+                uploadDownloadService.initiateUploadSingle(createUploadSingleInitiationRequest());
+
+            // Validate that the STS call was made.
+            MockStsOperationsImpl mockStsOperations = getMockStsOperations();
+            long stsStartTimeMillis = mockStsOperations.getDelayedAssumeRoleStartTimeMillis();
+            long stsEndTimeMillis = mockStsOperations.getDelayedAssumeRoleEndTimeMillis();
+            assertTrue(stsStartTimeMillis > 0);
+            assertTrue(stsEndTimeMillis >= stsStartTimeMillis + 200);
+
+            // Validate that the business object data got created while the STS call was in progress rather than before it started or after it returned.
+            for (BusinessObjectData businessObjectData : Arrays.asList(resultUploadSingleInitiationResponse.getSourceBusinessObjectData(),
+                resultUploadSingleInitiationResponse.getTargetBusinessObjectData()))
+            {
+                long createdOnMillis = dmDao.findById(BusinessObjectDataEntity.class, businessObjectData.getId()).getCreatedOn().getTime();
+                assertTrue(String.format("Created at %d, STS call from %d to %d.", createdOnMillis, stsStartTimeMillis, stsEndTimeMillis),
+                    createdOnMillis >= stsStartTimeMillis && createdOnMillis < stsEndTimeMillis);
+            }
+        }
+        finally
+        {
+            restorePropertySourceInEnvironment();
+        }
+    }
+
     @Test
     public void testInitiateUploadSingleMissingRequiredParameters()
     {
@@ -737,4 +834,28 @@ public class UploadDownloadServiceTest extends AbstractServiceTest
             businessObjectData.getBusinessObjectFormatUsage(), businessObjectData.getBusinessObjectFormatFileType(),
             businessObjectData.getBusinessObjectFormatVersion(), businessObjectData.getPartitionValue(), businessObjectData.getVersion());
     }
+
+    /**
+     * Validates the status of the only business object data registered with the specified business object format.
+     *
+     * @param businessObjectFormatKey the business object format key
+     * @param expectedBusinessObjectDataStatus the expected business object data status
+     */
+    private void validateBusinessObjectDataStatus(BusinessObjectFormatKey businessObjectFormatKey, String expectedBusinessObjectDataStatus)
+    {
+        List<BusinessObjectDataEntity> businessObjectDataEntities = dmDao.findByNamedProperties(BusinessObjectDataEntity.class,
+            Collections.singletonMap("businessObjectFormat", dmDao.getBusinessObjectFormatByAltKey(businessObjectFormatKey)));
+        assertEquals(1, businessObjectDataEntities.size());
+        assertEquals(expectedBusinessObjectDataStatus, businessObjectDataEntities.get(0).getStatus().getCode());
+    }
+
+    /**
+     * Gets the mock STS operations behind the AOP proxy that wraps them.
+     *
+     * @return the mock STS operations
+     */
+    private MockStsOperationsImpl getMockStsOperations() throws Exception
+    {
+        return (MockStsOperationsImpl) (stsOperations instanceof Advised ? ((Advised) stsOperations).getTargetSource().getTarget() : stsOperations);
+    }
 }
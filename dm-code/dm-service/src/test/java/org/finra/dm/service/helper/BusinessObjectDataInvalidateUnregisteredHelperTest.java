@@ -17,11 +17,14 @@ package org.finra.dm.service.helper;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.log4j.Logger;
 import org.finra.dm.dao.S3Operations;
 import org.finra.dm.model.ObjectNotFoundException;
+import org.finra.dm.model.dto.ConfigurationValue;
 import org.finra.dm.model.jpa.BusinessObjectDataEntity;
 import org.finra.dm.model.jpa.BusinessObjectDataStatusEntity;
 import org.finra.dm.model.jpa.BusinessObjectFormatEntity;
@@ -452,6 +455,60 @@ public class BusinessObjectDataInvalidateUnregisteredHelperTest extends Abstract
         }
     }
 
+    /**
+     * Test case where S3 has versions 0, 1, and 3 and DM has no object registered, using the listing discovery mode.
+     * Expects versions 0 and 1 to be registered and version 2 to be reported as missing.
+     */
+    @Test
+    public void testInvalidateUnregisteredBusinessObjectDataListingDiscoveryModeWithGap() throws Exception
+    {
+        BusinessObjectDataInvalidateUnregisteredRequest request = getDefaultBusinessObjectDataInvalidateUnregisteredRequest();
+
+        // Given a business object format
+        // Given S3 objects for versions 0, 1, and 3
+        BusinessObjectFormatEntity businessObjectFormatEntity = createBusinessObjectFormat(request);
+        createS3Object(businessObjectFormatEntity, request, 0);
+        createS3Object(businessObjectFormatEntity, request, 1);
+        createS3Object(businessObjectFormatEntity, request, 3);
+
+        BusinessObjectDataInvalidateUnregisteredResponse actualResponse = invalidateUnregisteredBusinessObjectDataUsingListing(request);
+
+        Assert.assertEquals("response business object datas size", 2, actualResponse.getRegisteredBusinessObjectDataList().size());
+        Assert.assertEquals("response business object data[0] version", 0, actualResponse.getRegisteredBusinessObjectDataList().get(0).getVersion());
+        Assert.assertEquals("response business object data[1] version", 1, actualResponse.getRegisteredBusinessObjectDataList().get(1).getVersion());
+        Assert.assertTrue("response business object data[1] latest version", actualResponse.getRegisteredBusinessObjectDataList().get(1).isLatestVersion());
+        Assert.assertEquals("response missing business object data versions", Arrays.asList(2), actualResponse.getMissingBusinessObjectDataVersions());
+    }
+
+    /**
+     * Test case where S3 has 2 objects and DM has 1 object registered, using the listing discovery mode.
+     * Expects one new registration and no missing versions. Objects under a version prefix that only shares a sub-string with the data's S3 key prefix are
+     * ignored.
+     */
+    @Test
+    public void testInvalidateUnregisteredBusinessObjectDataListingDiscoveryModeS32DM1() throws Exception
+    {
+        BusinessObjectDataInvalidateUnregisteredRequest request = getDefaultBusinessObjectDataInvalidateUnregisteredRequest();
+
+        // Given a business object format
+        // Given 1 business object data registered
+        // Given 2 S3 objects and 1 S3 object for a partition value that starts with the requested one
+        BusinessObjectFormatEntity businessObjectFormatEntity = createBusinessObjectFormat(request);
+        createBusinessObjectData(businessObjectFormatEntity, request, 0, true);
+        createS3Object(businessObjectFormatEntity, request, 0);
+        createS3Object(businessObjectFormatEntity, request, 1);
+        BusinessObjectDataInvalidateUnregisteredRequest otherRequest = getDefaultBusinessObjectDataInvalidateUnregisteredRequest();
+        otherRequest.setPartitionValue(request.getPartitionValue() + "X");
+        createS3Object(businessObjectFormatEntity, otherRequest, 2);
+
+        BusinessObjectDataInvalidateUnregisteredResponse actualResponse = invalidateUnregisteredBusinessObjectDataUsingListing(request);
+
+        Assert.assertEquals("response business object datas size", 1, actualResponse.getRegisteredBusinessObjectDataList().size());
+        Assert.assertEquals("response business object data[0] version", 1, actualResponse.getRegisteredBusinessObjectDataList().get(0).getVersion());
+        Assert.assertEquals("response missing business object data versions", new ArrayList<Integer>(),
+            actualResponse.getMissingBusinessObjectDataVersions());
+    }
+
     /**
      * The prefix search for S3 object should match prefixed directories, not sub-strings.
      * For example:
@@ -986,6 +1043,32 @@ public class BusinessObjectDataInvalidateUnregisteredHelperTest extends Abstract
         }
     }
 
+    /**
+     * Calls the invalidate unregistered business object data API with the listing discovery mode configured.
+     *
+     * @param request {@link BusinessObjectDataInvalidateUnregisteredRequest}
+     *
+     * @return {@link BusinessObjectDataInvalidateUnregisteredResponse}
+     * @throws Exception if the environment couldn't be modified or restored.
+     */
+    private BusinessObjectDataInvalidateUnregisteredResponse invalidateUnregisteredBusinessObjectDataUsingListing(
+        BusinessObjectDataInvalidateUnregisteredRequest request) throws Exception
+    {
+        Map<String, Object> overrideMap = new HashMap<>();
+        overrideMap.put(ConfigurationValue.BUSINESS_OBJECT_DATA_INVALIDATE_UNREGISTERED_DISCOVERY_MODE.getKey(),
+            BusinessObjectDataInvalidateUnregisteredHelper.LISTING_DISCOVERY_MODE);
+        modifyPropertySourceInEnvironment(overrideMap);
+
+        try
+        {
+            return businessObjectDataInvalidateUnregisteredHelper.invalidateUnregisteredBusinessObjectData(request);
+        }
+        finally
+        {
+            restorePropertySourceInEnvironment();
+        }
+    }
+
     /**
      * Creates an object in S3 with the prefix constructed from the given parameters.
      * The object's full path will be {prefix}/{UUID}
@@ -15,6 +15,8 @@
 */
 package org.finra.dm.service.helper;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
@@ -33,6 +35,7 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.User;
 
+import org.finra.dm.core.helper.MetricsHelper;
 import org.finra.dm.dao.helper.DmDaoSecurityHelper;
 import org.finra.dm.model.dto.ConfigurationValue;
 import org.finra.dm.model.jpa.BusinessObjectDataEntity;
@@ -44,6 +47,9 @@ import org.finra.dm.service.AbstractServiceTest;
  */
 public class DefaultSqsMessageBuilderTest extends AbstractServiceTest
 {
+    @Autowired
+    private MetricsHelper metricsHelper;
+
     @Autowired
     private SqsMessageBuilder defaultSqsMessageBuilder;
 
@@ -132,6 +138,47 @@ public class DefaultSqsMessageBuilderTest extends AbstractServiceTest
         }
     }
 
+    /**
+     * Test message building when the business object data id is passed in by the caller.
+     */
+    @Test
+    public void testBuildBusinessObjectDataStatusChangeMessageWithBusinessObjectDataId()
+    {
+        BusinessObjectDataEntity businessObjectDataEntity = createTestValidBusinessObjectData(null);
+        BusinessObjectDataKey businessObjectDataKey = dmDaoHelper.getBusinessObjectDataKey(businessObjectDataEntity);
+
+        String message = defaultSqsMessageBuilder.buildBusinessObjectDataStatusChangeMessage(businessObjectDataKey, businessObjectDataEntity.getId(),
+            "testNewBusinessObjectDataStatus", "testOldBusinessObjectDataStatus");
+
+        validateBusinessObjectDataStatusChangeMessage(message, businessObjectDataKey, businessObjectDataEntity.getId(), DmDaoSecurityHelper.SYSTEM_USER,
+            "testNewBusinessObjectDataStatus", "testOldBusinessObjectDataStatus");
+    }
+
+    /**
+     * Test that the message template is parsed once and then served from the velocity template cache.
+     */
+    @Test
+    public void testBuildBusinessObjectDataStatusChangeMessageTemplateCached() throws Exception
+    {
+        BusinessObjectDataEntity businessObjectDataEntity = createTestValidBusinessObjectData(null);
+        BusinessObjectDataKey businessObjectDataKey = dmDaoHelper.getBusinessObjectDataKey(businessObjectDataEntity);
+
+        // Build a message so the template is cached no matter which tests ran before.
+        defaultSqsMessageBuilder.buildBusinessObjectDataStatusChangeMessage(businessObjectDataKey, businessObjectDataEntity.getId(), "NEW", "OLD");
+        long cacheHitCount = metricsHelper.getCounter(VelocityHelper.METRIC_TEMPLATE_CACHE_HITS).get();
+        long cacheMissCount = metricsHelper.getCounter(VelocityHelper.METRIC_TEMPLATE_CACHE_MISSES).get();
+
+        // Build the same message again and validate that the template wasn't parsed again.
+        int messageCount = 3;
+        for (int i = 0; i < messageCount; i++)
+        {
+            assertNotNull(
+                defaultSqsMessageBuilder.buildBusinessObjectDataStatusChangeMessage(businessObjectDataKey, businessObjectDataEntity.getId(), "NEW", "OLD"));
+        }
+        assertEquals(cacheHitCount + messageCount, metricsHelper.getCounter(VelocityHelper.METRIC_TEMPLATE_CACHE_HITS).get());
+        assertEquals(cacheMissCount, metricsHelper.getCounter(VelocityHelper.METRIC_TEMPLATE_CACHE_MISSES).get());
+    }
+
     /**
      * Test BuildSystemMonitorResponse. Builds the response based on a test request, then asserts the correct system monitor transformations occur.
      */
@@ -267,6 +267,52 @@ public class DmHelperTest extends AbstractServiceTest
         dmHelper.validateS3Files(storageUnit, actualS3Files, TEST_S3_KEY_PREFIX);
     }
 
+    @Test
+    public void testValidateS3FilesIterator() throws IOException
+    {
+        StorageUnit storageUnit = createStorageUnit(TEST_S3_KEY_PREFIX, LOCAL_FILES, FILE_SIZE_1_KB);
+
+        // Validate S3 files streamed through an iterator, with an unregistered S3 file coming before a registered one that is missing.
+        List<StorageFile> actualS3Files = new ArrayList<>();
+        actualS3Files.add(new StorageFile(String.format("%s/%s", TEST_S3_KEY_PREFIX, "UNREGISTERED_FILE"), FILE_SIZE_1_KB, null));
+        for (String file : LOCAL_FILES.subList(1, LOCAL_FILES.size()))
+        {
+            actualS3Files.add(new StorageFile(String.format("%s/%s", TEST_S3_KEY_PREFIX, file), FILE_SIZE_1_KB, null));
+        }
+
+        // Missing registered files are reported ahead of unregistered S3 files.
+        try
+        {
+            dmHelper.validateS3Files(storageUnit, actualS3Files.iterator(), TEST_S3_KEY_PREFIX);
+            fail("Should throw a RuntimeException when actual S3 files do not exist.");
+        }
+        catch (RuntimeException e)
+        {
+            String expectedErrMsg = String
+                .format("Registered file \"%s\" does not exist in \"%s\" storage.", storageUnit.getStorageFiles().get(0).getFilePath(),
+                    storageUnit.getStorage().getName());
+            assertEquals(expectedErrMsg, e.getMessage());
+        }
+
+        // Add the missing registered file and validate again.
+        actualS3Files.add(new StorageFile(String.format("%s/%s", TEST_S3_KEY_PREFIX, LOCAL_FILES.get(0)), FILE_SIZE_1_KB, null));
+        try
+        {
+            dmHelper.validateS3Files(storageUnit, actualS3Files.iterator(), TEST_S3_KEY_PREFIX);
+            fail("Should throw a RuntimeException when S3 contains unregistered S3 file.");
+        }
+        catch (RuntimeException e)
+        {
+            String expectedErrMsg = String.format("Found S3 file \"%s\" in \"%s\" storage not registered with this business object data.",
+                actualS3Files.get(0).getFilePath(), storageUnit.getStorage().getName());
+            assertEquals(expectedErrMsg, e.getMessage());
+        }
+
+        // Remove the unregistered S3 file and validate again.
+        actualS3Files.remove(0);
+        dmHelper.validateS3Files(storageUnit, actualS3Files.iterator(), TEST_S3_KEY_PREFIX);
+    }
+
     @Test
     public void testValidateS3FilesS3KeyPrefixMismatch() throws IOException
     {
@@ -15,9 +15,19 @@
 */
 package org.finra.dm.service.helper;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
 import java.util.List;
 
+import javax.jms.DeliveryMode;
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.Message;
+
 import com.amazonaws.services.s3.event.S3EventNotification;
 import com.amazonaws.services.s3.event.S3EventNotification.S3Entity;
 import com.amazonaws.services.s3.event.S3EventNotification.S3EventNotificationRecord;
@@ -27,6 +37,8 @@ import org.apache.log4j.Logger;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import org.finra.dm.core.Histogram;
+import org.finra.dm.core.helper.MetricsHelper;
 import org.finra.dm.dao.helper.JsonHelper;
 import org.finra.dm.dao.impl.MockS3OperationsImpl;
 import org.finra.dm.model.api.xml.UploadSingleInitiationResponse;
@@ -52,6 +64,9 @@ public class DmJmsMessageListenerTest extends AbstractServiceTest
     @Autowired
     UploadDownloadService uploadDownloadService;
 
+    @Autowired
+    MetricsHelper metricsHelper;
+
     @Test
     public void testSystemMonitorMessage() throws Exception
     {
@@ -131,4 +146,340 @@ public class DmJmsMessageListenerTest extends AbstractServiceTest
 
         dmJmsMessageListener.processMessage("WRONG_MESSAGE", null);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testProcessMessageMetrics() throws Exception
+    {
+        Logger.getLogger(UploadDownloadServiceImpl.class).setLevel(Level.OFF);
+        Logger.getLogger(DmJmsMessageListener.class).setLevel(Level.OFF);
+
+        long failureCount = metricsHelper.getCounter(DmJmsMessageListener.METRIC_FAILURES).get();
+        long s3NotificationCount = metricsHelper.getHistogram(DmJmsMessageListener.METRIC_PROCESSING_LATENCY_PREFIX + "s3Notification").getCount();
+        long systemMonitorCount = metricsHelper.getHistogram(DmJmsMessageListener.METRIC_PROCESSING_LATENCY_PREFIX + "systemMonitor").getCount();
+
+        // A JSON payload is only processed as an S3 notification.
+        dmJmsMessageListener.processMessage("{}", null);
+        assertEquals(s3NotificationCount + 1, metricsHelper.getHistogram(DmJmsMessageListener.METRIC_PROCESSING_LATENCY_PREFIX + "s3Notification").getCount());
+        assertEquals(systemMonitorCount, metricsHelper.getHistogram(DmJmsMessageListener.METRIC_PROCESSING_LATENCY_PREFIX + "systemMonitor").getCount());
+        assertEquals(failureCount + 1, metricsHelper.getCounter(DmJmsMessageListener.METRIC_FAILURES).get());
+
+        // Any other payload is processed as a system monitor message.
+        dmJmsMessageListener.processMessage("WRONG_MESSAGE", null);
+        assertEquals(systemMonitorCount + 1, metricsHelper.getHistogram(DmJmsMessageListener.METRIC_PROCESSING_LATENCY_PREFIX + "systemMonitor").getCount());
+        assertEquals(failureCount + 2, metricsHelper.getCounter(DmJmsMessageListener.METRIC_FAILURES).get());
+    }
+
+    @Test
+    public void testProcessJmsMessage() throws Exception
+    {
+        Logger.getLogger(DmJmsMessageListener.class).setLevel(Level.OFF);
+
+        Histogram.Snapshot queueLagSnapshot = metricsHelper.getHistogram(DmJmsMessageListener.METRIC_QUEUE_LAG).getSnapshot();
+
+        // Process a message that was sent to the queue a second ago.
+        StubMessage message = new StubMessage(System.currentTimeMillis() - 1000);
+        dmJmsMessageListener.processMessage(getTestSystemMonitorIncomingMessage(), null, message);
+
+        // Validate that the message got acknowledged once and its queue lag got recorded.
+        assertEquals(1, message.getAcknowledgeCount());
+        Histogram.Snapshot snapshot = metricsHelper.getHistogram(DmJmsMessageListener.METRIC_QUEUE_LAG).getSnapshot();
+        assertEquals(queueLagSnapshot.getCount() + 1, snapshot.getCount());
+        assertTrue(snapshot.getSum() - queueLagSnapshot.getSum() >= 1000);
+
+        // A message without a timestamp is acknowledged without recording a queue lag.
+        message = new StubMessage(0);
+        dmJmsMessageListener.processMessage(getTestSystemMonitorIncomingMessage(), null, message);
+        assertEquals(1, message.getAcknowledgeCount());
+        assertEquals(snapshot.getCount(), metricsHelper.getHistogram(DmJmsMessageListener.METRIC_QUEUE_LAG).getCount());
+    }
+
+    /**
+     * A JMS message stub that only has a JMS timestamp and counts its acknowledgements.
+     */
+    private static class StubMessage implements Message
+    {
+        private long jmsTimestamp;
+
+        private int acknowledgeCount;
+
+        StubMessage(long jmsTimestamp)
+        {
+            this.jmsTimestamp = jmsTimestamp;
+        }
+
+        int getAcknowledgeCount()
+        {
+            return acknowledgeCount;
+        }
+
+        @Override
+        public long getJMSTimestamp() throws JMSException
+        {
+            return jmsTimestamp;
+        }
+
+        @Override
+        public void setJMSTimestamp(long timestamp) throws JMSException
+        {
+            this.jmsTimestamp = timestamp;
+        }
+
+        @Override
+        public void acknowledge() throws JMSException
+        {
+            acknowledgeCount++;
+        }
+
+        @Override
+        public String getJMSMessageID() throws JMSException
+        {
+            return null;
+        }
+
+        @Override
+        public void setJMSMessageID(String id) throws JMSException
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public byte[] getJMSCorrelationIDAsBytes() throws JMSException
+        {
+            return null;
+        }
+
+        @Override
+        public void setJMSCorrelationIDAsBytes(byte[] correlationID) throws JMSException
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setJMSCorrelationID(String correlationID) throws JMSException
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String getJMSCorrelationID() throws JMSException
+        {
+            return null;
+        }
+
+        @Override
+        public Destination getJMSReplyTo() throws JMSException
+        {
+            return null;
+        }
+
+        @Override
+        public void setJMSReplyTo(Destination replyTo) throws JMSException
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Destination getJMSDestination() throws JMSException
+        {
+            return null;
+        }
+
+        @Override
+        public void setJMSDestination(Destination destination) throws JMSException
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int getJMSDeliveryMode() throws JMSException
+        {
+            return DeliveryMode.PERSISTENT;
+        }
+
+        @Override
+        public void setJMSDeliveryMode(int deliveryMode) throws JMSException
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean getJMSRedelivered() throws JMSException
+        {
+            return false;
+        }
+
+        @Override
+        public void setJMSRedelivered(boolean redelivered) throws JMSException
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String getJMSType() throws JMSException
+        {
+            return null;
+        }
+
+        @Override
+        public void setJMSType(String type) throws JMSException
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long getJMSExpiration() throws JMSException
+        {
+            return 0;
+        }
+
+        @Override
+        public void setJMSExpiration(long expiration) throws JMSException
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int getJMSPriority() throws JMSException
+        {
+            return Message.DEFAULT_PRIORITY;
+        }
+
+        @Override
+        public void setJMSPriority(int priority) throws JMSException
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void clearProperties() throws JMSException
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean propertyExists(String name) throws JMSException
+        {
+            return false;
+        }
+
+        @Override
+        public boolean getBooleanProperty(String name) throws JMSException
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public byte getByteProperty(String name) throws JMSException
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public short getShortProperty(String name) throws JMSException
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int getIntProperty(String name) throws JMSException
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long getLongProperty(String name) throws JMSException
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public float getFloatProperty(String name) throws JMSException
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public double getDoubleProperty(String name) throws JMSException
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String getStringProperty(String name) throws JMSException
+        {
+            return null;
+        }
+
+        @Override
+        public Object getObjectProperty(String name) throws JMSException
+        {
+            return null;
+        }
+
+        @Override
+        public Enumeration getPropertyNames() throws JMSException
+        {
+            return Collections.emptyEnumeration();
+        }
+
+        @Override
+        public void setBooleanProperty(String name, boolean value) throws JMSException
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setByteProperty(String name, byte value) throws JMSException
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setShortProperty(String name, short value) throws JMSException
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setIntProperty(String name, int value) throws JMSException
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setLongProperty(String name, long value) throws JMSException
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setFloatProperty(String name, float value) throws JMSException
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setDoubleProperty(String name, double value) throws JMSException
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setStringProperty(String name, String value) throws JMSException
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setObjectProperty(String name, Object value) throws JMSException
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void clearBody() throws JMSException
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
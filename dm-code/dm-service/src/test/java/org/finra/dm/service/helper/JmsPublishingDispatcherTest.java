@@ -0,0 +1,74 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.service.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import org.finra.dm.dao.impl.MockSqsOperationsImpl;
+import org.finra.dm.model.jpa.JmsMessageEntity;
+import org.finra.dm.service.AbstractServiceTest;
+
+/**
+ * This class tests functionality within the JmsPublishingDispatcher class.
+ */
+public class JmsPublishingDispatcherTest extends AbstractServiceTest
+{
+    @Autowired
+    private JmsPublishingDispatcher jmsPublishingDispatcher;
+
+    @Test
+    public void testDispatchAfterCommitSingleSynchronizationPerTransaction()
+    {
+        int synchronizationCount = TransactionSynchronizationManager.getSynchronizations().size();
+
+        // Adding messages to the database queue registers a single synchronization for the transaction. Since the test transaction is rolled back, nothing
+        // gets dispatched.
+        dmDaoHelper.addJmsMessageToDatabaseQueue(JMS_QUEUE_NAME, MESSAGE_TEXT);
+        dmDaoHelper.addJmsMessageToDatabaseQueue(JMS_QUEUE_NAME, MESSAGE_TEXT);
+
+        assertEquals(synchronizationCount + 1, TransactionSynchronizationManager.getSynchronizations().size());
+    }
+
+    @Test
+    public void testPublishJmsMessages()
+    {
+        JmsMessageEntity jmsMessageEntity1 = createJmsMessageEntity(JMS_QUEUE_NAME, MESSAGE_TEXT);
+        JmsMessageEntity jmsMessageEntity2 = createJmsMessageEntity(JMS_QUEUE_NAME, MESSAGE_TEXT);
+
+        // Both messages are published and removed from the database queue.
+        assertEquals(2, jmsPublishingDispatcher.publishJmsMessages(Arrays.asList(jmsMessageEntity1.getId(), jmsMessageEntity2.getId())));
+        assertNull(dmDao.findById(JmsMessageEntity.class, jmsMessageEntity1.getId()));
+        assertNull(dmDao.findById(JmsMessageEntity.class, jmsMessageEntity2.getId()));
+    }
+
+    @Test
+    public void testPublishJmsMessagesStopsOnFailure()
+    {
+        JmsMessageEntity jmsMessageEntity1 = createJmsMessageEntity(MockSqsOperationsImpl.MOCK_SQS_QUEUE_NOT_FOUND_NAME, MESSAGE_TEXT);
+        JmsMessageEntity jmsMessageEntity2 = createJmsMessageEntity(JMS_QUEUE_NAME, MESSAGE_TEXT);
+
+        // Publishing stops at the first failure and the messages are left for the JMS publishing system job.
+        assertEquals(0, jmsPublishingDispatcher.publishJmsMessages(Arrays.asList(jmsMessageEntity1.getId(), jmsMessageEntity2.getId())));
+        assertEquals(jmsMessageEntity1, dmDao.getOldestJmsMessage());
+    }
+}
@@ -0,0 +1,120 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.service.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.oozie.client.WorkflowJob;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import org.finra.dm.dao.impl.MockOozieOperationsImpl;
+import org.finra.dm.model.dto.ConfigurationValue;
+import org.finra.dm.service.AbstractServiceTest;
+
+/**
+ * This class tests functionality within the OozieWorkflowStatusPoller class.
+ */
+public class OozieWorkflowStatusPollerTest extends AbstractServiceTest
+{
+    @Autowired
+    private OozieWorkflowStatusPoller oozieWorkflowStatusPoller;
+
+    @Test
+    public void testGetEmrOozieWorkflowFromSnapshot() throws Exception
+    {
+        String emrClusterId = "TEST_CLUSTER_ID_1";
+
+        // The mock oozie operations only return this workflow from the jobs query, so reading it proves the snapshot was used.
+        WorkflowJob workflowJob = oozieWorkflowStatusPoller.getEmrOozieWorkflow(emrClusterId, "dm_wrapper_client_running_0", true);
+        assertEquals("dm_wrapper_client_running_0", workflowJob.getId());
+        assertEquals(WorkflowJob.Status.RUNNING, workflowJob.getStatus());
+        assertEquals(1, workflowJob.getActions().size());
+
+        // Reads within the interval are served from the same snapshot.
+        assertSame(workflowJob, oozieWorkflowStatusPoller.getEmrOozieWorkflow(emrClusterId, "dm_wrapper_client_running_0", false));
+    }
+
+    @Test
+    public void testGetEmrOozieWorkflowNotInSnapshot() throws Exception
+    {
+        WorkflowJob workflowJob = oozieWorkflowStatusPoller.getEmrOozieWorkflow("TEST_CLUSTER_ID_2", MockOozieOperationsImpl.CASE_1_JOB_ID, false);
+        assertEquals(MockOozieOperationsImpl.CASE_1_JOB_ID, workflowJob.getId());
+    }
+
+    @Test
+    public void testGetEmrOozieWorkflowSnapshotDisabled() throws Exception
+    {
+        Map<String, Object> overrideMap = new HashMap<>();
+        overrideMap.put(ConfigurationValue.EMR_OOZIE_WORKFLOW_STATUS_SNAPSHOT_INTERVAL_SECS.getKey(), 0);
+        modifyPropertySourceInEnvironment(overrideMap);
+
+        try
+        {
+            oozieWorkflowStatusPoller.getEmrOozieWorkflow("TEST_CLUSTER_ID_3", "dm_wrapper_client_running_0", false);
+            fail("Should throw an UnsupportedOperationException since the workflow is read from the oozie server directly.");
+        }
+        catch (UnsupportedOperationException e)
+        {
+            // Expected since the mock oozie operations don't know this workflow job id.
+        }
+        finally
+        {
+            restorePropertySourceInEnvironment();
+        }
+    }
+
+    @Test
+    public void testClientWorkflowJobId() throws Exception
+    {
+        String emrClusterId = "TEST_CLUSTER_ID_4";
+
+        assertNull(oozieWorkflowStatusPoller.getClientWorkflowJobId(emrClusterId, MockOozieOperationsImpl.CASE_1_JOB_ID));
+
+        oozieWorkflowStatusPoller.setClientWorkflowJobId(emrClusterId, MockOozieOperationsImpl.CASE_1_JOB_ID, MockOozieOperationsImpl.CASE_1_CLIENT_JOB_ID);
+        assertEquals(MockOozieOperationsImpl.CASE_1_CLIENT_JOB_ID,
+            oozieWorkflowStatusPoller.getClientWorkflowJobId(emrClusterId, MockOozieOperationsImpl.CASE_1_JOB_ID));
+        assertNull(oozieWorkflowStatusPoller.getClientWorkflowJobId("TEST_CLUSTER_ID_5", MockOozieOperationsImpl.CASE_1_JOB_ID));
+    }
+
+    @Test
+    public void testClusterCacheMaxSize() throws Exception
+    {
+        String emrClusterId = "TEST_CLUSTER_ID_6";
+        oozieWorkflowStatusPoller.setClientWorkflowJobId(emrClusterId, MockOozieOperationsImpl.CASE_1_JOB_ID, MockOozieOperationsImpl.CASE_1_CLIENT_JOB_ID);
+
+        Map<String, Object> overrideMap = new HashMap<>();
+        overrideMap.put(ConfigurationValue.EMR_OOZIE_CLUSTER_CACHE_MAX_SIZE.getKey(), 1);
+        modifyPropertySourceInEnvironment(overrideMap);
+
+        try
+        {
+            // Seeing another cluster clears the full cache, so the client workflow job id recorded for the first cluster is gone.
+            assertEquals("INSTANCE_IP_ADDRESS", oozieWorkflowStatusPoller.getEmrClusterMasterIpAddress("TEST_CLUSTER_ID_7"));
+            assertNull(oozieWorkflowStatusPoller.getClientWorkflowJobId(emrClusterId, MockOozieOperationsImpl.CASE_1_JOB_ID));
+        }
+        finally
+        {
+            restorePropertySourceInEnvironment();
+        }
+    }
+}
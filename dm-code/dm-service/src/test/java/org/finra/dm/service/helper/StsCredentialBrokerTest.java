@@ -0,0 +1,165 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.service.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Future;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.auth.policy.Policy;
+import com.amazonaws.auth.policy.Statement;
+import com.amazonaws.auth.policy.actions.S3Actions;
+import com.amazonaws.auth.policy.resources.S3ObjectResource;
+import com.amazonaws.services.securitytoken.model.Credentials;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import org.finra.dm.core.helper.MetricsHelper;
+import org.finra.dm.dao.impl.MockAwsOperationsHelper;
+import org.finra.dm.dao.impl.MockStsOperationsImpl;
+import org.finra.dm.model.dto.ConfigurationValue;
+import org.finra.dm.service.AbstractServiceTest;
+
+/**
+ * This class tests functionality within the StsCredentialBroker class.
+ */
+public class StsCredentialBrokerTest extends AbstractServiceTest
+{
+    private static final String AWS_ROLE_ARN = "arn:aws:iam::123456789012:role/testRole";
+
+    private static final int AWS_ROLE_DURATION_SECONDS = 900;
+
+    @Autowired
+    private MetricsHelper metricsHelper;
+
+    @Autowired
+    private StsCredentialBroker stsCredentialBroker;
+
+    @Test
+    public void testGetTemporarySecurityCredentialsReused()
+    {
+        String sessionName = "session" + Math.random();
+        long cacheHitCount = metricsHelper.getCounter(StsCredentialBroker.METRIC_CREDENTIALS_CACHE_HITS).get();
+
+        Credentials credentials =
+            stsCredentialBroker.getTemporarySecurityCredentials(sessionName, AWS_ROLE_ARN, AWS_ROLE_DURATION_SECONDS, createPolicy(TARGET_S3_KEY));
+        assertEquals(MockStsOperationsImpl.MOCK_AWS_ASSUMED_ROLE_ACCESS_KEY, credentials.getAccessKeyId());
+
+        // An identical request is served the same credentials.
+        assertSame(credentials,
+            stsCredentialBroker.getTemporarySecurityCredentials(sessionName, AWS_ROLE_ARN, AWS_ROLE_DURATION_SECONDS, createPolicy(TARGET_S3_KEY)));
+        assertEquals(cacheHitCount + 1, metricsHelper.getCounter(StsCredentialBroker.METRIC_CREDENTIALS_CACHE_HITS).get());
+
+        // Credentials are never shared between different objects or sessions.
+        assertNotSame(credentials,
+            stsCredentialBroker.getTemporarySecurityCredentials(sessionName, AWS_ROLE_ARN, AWS_ROLE_DURATION_SECONDS, createPolicy(TARGET_S3_KEY + "2")));
+        assertNotSame(credentials,
+            stsCredentialBroker.getTemporarySecurityCredentials(sessionName + "2", AWS_ROLE_ARN, AWS_ROLE_DURATION_SECONDS, createPolicy(TARGET_S3_KEY)));
+    }
+
+    @Test
+    public void testGetTemporarySecurityCredentialsReuseDisabled() throws Exception
+    {
+        Map<String, Object> overrideMap = new HashMap<>();
+        overrideMap.put(ConfigurationValue.AWS_STS_CREDENTIALS_CACHE_MAX_AGE_SECS.getKey(), 0);
+        modifyPropertySourceInEnvironment(overrideMap);
+
+        try
+        {
+            String sessionName = "session" + Math.random();
+            Credentials credentials =
+                stsCredentialBroker.getTemporarySecurityCredentials(sessionName, AWS_ROLE_ARN, AWS_ROLE_DURATION_SECONDS, createPolicy(TARGET_S3_KEY));
+            assertNotSame(credentials,
+                stsCredentialBroker.getTemporarySecurityCredentials(sessionName, AWS_ROLE_ARN, AWS_ROLE_DURATION_SECONDS, createPolicy(TARGET_S3_KEY)));
+        }
+        finally
+        {
+            restorePropertySourceInEnvironment();
+        }
+    }
+
+    @Test
+    public void testGetTemporarySecurityCredentialsAsync()
+    {
+        String sessionName = "session" + Math.random();
+        long assumeRoleCount = metricsHelper.getHistogram(StsCredentialBroker.METRIC_ASSUME_ROLE).getCount();
+
+        Future<Credentials> futureCredentials =
+            stsCredentialBroker.getTemporarySecurityCredentialsAsync(sessionName, AWS_ROLE_ARN, AWS_ROLE_DURATION_SECONDS, createPolicy(TARGET_S3_KEY));
+        Credentials credentials = stsCredentialBroker.awaitTemporarySecurityCredentials(futureCredentials);
+        assertNotNull(credentials.getSessionToken());
+        assertEquals(assumeRoleCount + 1, metricsHelper.getHistogram(StsCredentialBroker.METRIC_ASSUME_ROLE).getCount());
+
+        // Credentials requested asynchronously aren't kept for reuse.
+        assertNotSame(credentials,
+            stsCredentialBroker.getTemporarySecurityCredentials(sessionName, AWS_ROLE_ARN, AWS_ROLE_DURATION_SECONDS, createPolicy(TARGET_S3_KEY)));
+    }
+
+    @Test
+    public void testGetTemporarySecurityCredentialsAsyncException() throws Exception
+    {
+        Map<String, Object> overrideMap = new HashMap<>();
+        overrideMap.put(ConfigurationValue.AWS_STS_EXCEPTION_MAX_RETRY_DURATION_SECS.getKey(), 0);
+        modifyPropertySourceInEnvironment(overrideMap);
+
+        try
+        {
+            // The mock STS operations throw a throttling exception for this policy.
+            Policy policy = new Policy()
+            {
+                @Override
+                public String toJson()
+                {
+                    return MockAwsOperationsHelper.AMAZON_THROTTLING_EXCEPTION;
+                }
+            };
+
+            Future<Credentials> futureCredentials =
+                stsCredentialBroker.getTemporarySecurityCredentialsAsync("session" + Math.random(), AWS_ROLE_ARN, AWS_ROLE_DURATION_SECONDS, policy);
+            stsCredentialBroker.awaitTemporarySecurityCredentials(futureCredentials);
+            fail("Should throw an AmazonServiceException when STS throttles the request.");
+        }
+        catch (AmazonServiceException e)
+        {
+            // The exception thrown by STS is rethrown as is.
+            assertEquals("ThrottlingException", e.getErrorCode());
+        }
+        finally
+        {
+            restorePropertySourceInEnvironment();
+        }
+    }
+
+    /**
+     * Creates a policy that allows reading the specified S3 object.
+     *
+     * @param s3Key the S3 object key.
+     *
+     * @return the policy.
+     */
+    private Policy createPolicy(String s3Key)
+    {
+        return new Policy().withStatements(
+            new Statement(Statement.Effect.Allow).withActions(S3Actions.GetObject).withResources(new S3ObjectResource(S3_BUCKET_NAME, s3Key)));
+    }
+}
@@ -18,6 +18,7 @@ package org.finra.dm.service.helper;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.finra.dm.model.dto.ConfigurationValue;
 import org.finra.dm.service.AbstractServiceTest;
 import org.junit.Assert;
 import org.junit.Test;
@@ -34,4 +35,45 @@ public class VelocityHelperTest extends AbstractServiceTest
         String result = velocityHelper.evaluate(template, variables, logTag);
         Assert.assertEquals("result", "bar", result);
     }
+
+    @Test
+    public void testEvaluateCachesParsedTemplate()
+    {
+        String suffix = getRandomSuffix();
+        String template = "${foo}-" + suffix;
+        int cacheSize = velocityHelper.getTemplateCacheSize();
+
+        // The template is parsed once and the cached template is merged with each set of variables.
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("foo", "bar");
+        Assert.assertEquals("bar-" + suffix, velocityHelper.evaluate(template, variables, "test"));
+        variables.put("foo", "baz");
+        Assert.assertEquals("baz-" + suffix, velocityHelper.evaluate(template, variables, "test"));
+        // The cache starts over when it is full, in which case the new template is its only entry.
+        Assert.assertTrue(velocityHelper.getTemplateCacheSize() == cacheSize + 1 || velocityHelper.getTemplateCacheSize() == 1);
+
+        // A changed template gets parsed again.
+        Assert.assertEquals("baz!", velocityHelper.evaluate("${foo}!", variables, "test"));
+    }
+
+    @Test
+    public void testEvaluateCacheDisabled() throws Exception
+    {
+        Map<String, Object> overrideMap = new HashMap<>();
+        overrideMap.put(ConfigurationValue.VELOCITY_TEMPLATE_CACHE_MAX_SIZE.getKey(), 0);
+        modifyPropertySourceInEnvironment(overrideMap);
+
+        try
+        {
+            int cacheSize = velocityHelper.getTemplateCacheSize();
+            Map<String, Object> variables = new HashMap<>();
+            variables.put("foo", "bar");
+            Assert.assertEquals("bar", velocityHelper.evaluate("${foo}", variables, "test"));
+            Assert.assertEquals(cacheSize, velocityHelper.getTemplateCacheSize());
+        }
+        finally
+        {
+            restorePropertySourceInEnvironment();
+        }
+    }
 }
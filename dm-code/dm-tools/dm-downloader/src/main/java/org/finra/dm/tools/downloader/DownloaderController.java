@@ -39,6 +39,8 @@ import org.finra.dm.model.dto.DownloaderInputManifestDto;
 import org.finra.dm.model.dto.DownloaderOutputManifestDto;
 import org.finra.dm.model.dto.ManifestFile;
 import org.finra.dm.model.dto.S3FileTransferRequestParamsDto;
+import org.finra.dm.model.dto.S3FileTransferResultsDto;
+import org.finra.dm.model.dto.S3TransferredFileDto;
 import org.finra.dm.model.jpa.StorageAttributeEntity;
 import org.finra.dm.model.jpa.StorageEntity;
 import org.finra.dm.model.api.xml.Attribute;
@@ -47,7 +49,6 @@ import org.finra.dm.model.api.xml.S3KeyPrefixInformation;
 import org.finra.dm.model.api.xml.Storage;
 import org.finra.dm.model.api.xml.StorageFile;
 import org.finra.dm.model.api.xml.StorageUnit;
-import org.finra.dm.service.helper.StorageFileHelper;
 import org.finra.dm.tools.common.databridge.DataBridgeController;
 
 /**
@@ -67,9 +68,6 @@ public class DownloaderController extends DataBridgeController
     @Autowired
     private DownloaderWebClient downloaderWebClient;
 
-    @Autowired
-    private StorageFileHelper storageFileHelper;
-
     /**
      * The downloader output manifest file name.
      */
@@ -136,15 +134,10 @@ public class DownloaderController extends DataBridgeController
             // Get S3 managed bucket name.  Please note that since this value is required we pass a "true" flag.
             String s3BucketName = dmHelper.getStorageAttributeValueByName(StorageAttributeEntity.ATTRIBUTE_BUCKET_NAME, s3ManagedStorage, true);
 
-            // Get the list of S3 files matching the expected S3 key prefix.
+            // Set the S3 bucket name and the expected S3 key prefix.
             s3FileTransferRequestParamsDto.setS3BucketName(s3BucketName);
             // Since the S3 key prefix represents a directory, we add a trailing '/' character to it.
             s3FileTransferRequestParamsDto.setS3KeyPrefix(s3KeyPrefixInformation.getS3KeyPrefix() + "/");
-            // When listing S3 files, we ignore 0 byte objects that represent S3 directories.
-            List<String> actualS3Files = storageFileHelper.getFilePaths(s3Service.listDirectory(s3FileTransferRequestParamsDto, true));
-
-            // Validate S3 files before we start the download.
-            dmHelper.validateS3Files(s3ManagedStorageUnit, actualS3Files, s3KeyPrefixInformation.getS3KeyPrefix());
 
             // Special handling for the maxThreads command line option.
             s3FileTransferRequestParamsDto.setMaxThreads(adjustIntegerValue(s3FileTransferRequestParamsDto.getMaxThreads(), MIN_THREADS, MAX_THREADS));
@@ -152,7 +145,17 @@ public class DownloaderController extends DataBridgeController
             // Download S3 files to the target local directory.
             s3FileTransferRequestParamsDto.setRecursive(true);
             cleanUpTargetLocalDirectoryOnFailure = true;
-            s3Service.downloadDirectory(s3FileTransferRequestParamsDto);
+            S3FileTransferResultsDto s3FileTransferResultsDto = s3Service.downloadDirectory(s3FileTransferRequestParamsDto);
+
+            // Validate the S3 files accounted for by the download, so S3 doesn't need to be listed again. The download skips 0 byte objects that represent
+            // S3 directories. Unlike a listing before the download, this only detects a mismatch once everything is downloaded, in which case the target
+            // local directory is rolled back.
+            List<StorageFile> actualS3Files = new ArrayList<>();
+            for (S3TransferredFileDto transferredFile : s3FileTransferResultsDto.getTransferredFiles())
+            {
+                actualS3Files.add(new StorageFile(transferredFile.getS3Key(), transferredFile.getFileSizeBytes(), null));
+            }
+            dmHelper.validateS3Files(s3ManagedStorageUnit, actualS3Files.iterator(), s3KeyPrefixInformation.getS3KeyPrefix());
 
             // Validate the downloaded files.
             dmHelper.validateDownloadedS3Files(s3FileTransferRequestParamsDto.getLocalPath(), s3KeyPrefixInformation.getS3KeyPrefix(), s3ManagedStorageUnit);
@@ -168,10 +171,11 @@ public class DownloaderController extends DataBridgeController
                 createDownloaderOutputManifestDto(businessObjectData, s3ManagedStorageUnit, s3KeyPrefixInformation.getS3KeyPrefix());
             manifestWriter.writeJsonManifest(targetLocalDirectory, OUTPUT_MANIFEST_FILE_NAME, downloaderOutputManifestDto);
         }
-        catch (InterruptedException | JAXBException | IOException | URISyntaxException e)
+        catch (InterruptedException | JAXBException | IOException | URISyntaxException | IllegalStateException | IllegalArgumentException e)
         {
             // If we got to the point of validating the target local directory being empty before this failure
-            // occurred, let's rollback the data transfer by cleaning up the local target directory.
+            // occurred, let's rollback the data transfer by cleaning up the local target directory. This includes the validation failures of the
+            // transferred S3 files and of the downloaded files.
             if (cleanUpTargetLocalDirectoryOnFailure)
             {
                 LOGGER.info(String.format("Rolling back the S3 data transfer by cleaning up \"%s\" target local directory.", targetLocalDirectory));
@@ -21,9 +21,12 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.FilterType;
 
 import org.finra.dm.core.helper.ConfigurationHelper;
+import org.finra.dm.core.helper.MetricsHelper;
 import org.finra.dm.dao.S3Dao;
 import org.finra.dm.dao.helper.DmStringHelper;
 import org.finra.dm.dao.helper.JavaPropertiesHelper;
+import org.finra.dm.dao.helper.S3CopyEngine;
+import org.finra.dm.dao.helper.S3DeleteEngine;
 import org.finra.dm.dao.impl.S3DaoImpl;
 import org.finra.dm.service.S3Service;
 import org.finra.dm.service.helper.DmHelper;
@@ -84,4 +87,25 @@ public class DataBridgeSpringModuleConfig
     {
         return new JavaPropertiesHelper();
     }
+
+    // This dependency is required when S3Dao is used.
+    @Bean
+    public S3CopyEngine s3CopyEngine()
+    {
+        return new S3CopyEngine();
+    }
+
+    // This dependency is required when S3Dao is used.
+    @Bean
+    public S3DeleteEngine s3DeleteEngine()
+    {
+        return new S3DeleteEngine();
+    }
+
+    // This dependency is required when S3CopyEngine or S3DeleteEngine is used.
+    @Bean
+    public MetricsHelper metricsHelper()
+    {
+        return new MetricsHelper();
+    }
 }
\ No newline at end of file
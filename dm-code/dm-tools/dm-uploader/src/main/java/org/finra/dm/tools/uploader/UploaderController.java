@@ -33,6 +33,7 @@ import org.springframework.stereotype.Component;
 
 import org.finra.dm.core.DmFileUtils;
 import org.finra.dm.core.helper.DmThreadHelper;
+import org.finra.dm.dao.StorageFileIterator;
 import org.finra.dm.model.dto.DmRegServerAccessParamsDto;
 import org.finra.dm.model.dto.ManifestFile;
 import org.finra.dm.model.dto.S3FileTransferRequestParamsDto;
@@ -123,9 +124,15 @@ public class UploaderController extends DataBridgeController
             params.setS3KeyPrefix(s3KeyPrefixInformation.getS3KeyPrefix() + "/");
             params.setFiles(sourceFiles);
 
-            // Check if the destination S3 key prefix is empty.
+            // Check if the destination S3 key prefix is empty. Only the first page of the listing is needed for that.
             // When listing S3 files, by default, we do not ignore 0 byte objects that represent S3 directories.
-            if (s3Service.listDirectory(params).isEmpty())
+            boolean s3KeyPrefixEmpty;
+            try (StorageFileIterator storageFileIterator = s3Service.getDirectoryIterator(params, false))
+            {
+                s3KeyPrefixEmpty = !storageFileIterator.hasNext();
+            }
+
+            if (s3KeyPrefixEmpty)
             {
                 cleanUpS3KeyPrefixOnFailure = true;
             }
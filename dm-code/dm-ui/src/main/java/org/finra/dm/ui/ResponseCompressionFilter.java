@@ -0,0 +1,515 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.ui;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.support.WebApplicationContextUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import org.finra.dm.core.helper.ConfigurationHelper;
+import org.finra.dm.core.helper.MetricsHelper;
+import org.finra.dm.model.dto.ConfigurationValue;
+
+/**
+ * A servlet filter that compresses responses with gzip or deflate when the client accepts it and the response is larger than the configured threshold. The
+ * response is only buffered until the threshold is reached, after which it is compressed and streamed to the client as it is written. The filter also records
+ * the request and response sizes per REST endpoint.
+ */
+public class ResponseCompressionFilter extends OncePerRequestFilter
+{
+    public static final String GZIP_ENCODING = "gzip";
+    public static final String DEFLATE_ENCODING = "deflate";
+
+    public static final String METRIC_REQUEST_BYTES_PREFIX = "rest.requestBytes.";
+    public static final String METRIC_RESPONSE_BYTES_PREFIX = "rest.responseBytes.";
+    public static final String METRIC_RESPONSE_WIRE_BYTES_PREFIX = "rest.responseWireBytes.";
+
+    private ConfigurationHelper configurationHelper;
+
+    private MetricsHelper metricsHelper;
+
+    /**
+     * Sets the configuration helper. When not set, it is obtained from the web application context when the filter is initialized.
+     */
+    public void setConfigurationHelper(ConfigurationHelper configurationHelper)
+    {
+        this.configurationHelper = configurationHelper;
+    }
+
+    /**
+     * Sets the metrics helper. When not set, it is obtained from the web application context when the filter is initialized.
+     */
+    public void setMetricsHelper(MetricsHelper metricsHelper)
+    {
+        this.metricsHelper = metricsHelper;
+    }
+
+    @Override
+    protected void initFilterBean() throws ServletException
+    {
+        // The filter is created by the WAR initializer rather than by Spring so get the helpers from the root application context.
+        if (configurationHelper == null || metricsHelper == null)
+        {
+            WebApplicationContext webApplicationContext = WebApplicationContextUtils.getRequiredWebApplicationContext(getServletContext());
+            configurationHelper = webApplicationContext.getBean(ConfigurationHelper.class);
+            metricsHelper = webApplicationContext.getBean(MetricsHelper.class);
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException
+    {
+        String contentEncoding = Boolean.valueOf(configurationHelper.getProperty(ConfigurationValue.REST_RESPONSE_COMPRESSION_ENABLED)) ?
+            getAcceptedContentEncoding(request.getHeader(HttpHeaders.ACCEPT_ENCODING)) : null;
+        int threshold = configurationHelper.getProperty(ConfigurationValue.REST_RESPONSE_COMPRESSION_THRESHOLD_BYTES, Integer.class);
+
+        CompressingResponseWrapper responseWrapper = new CompressingResponseWrapper(response, contentEncoding, threshold);
+        try
+        {
+            filterChain.doFilter(request, responseWrapper);
+        }
+        finally
+        {
+            // Write out anything that is still buffered and complete the compressed stream.
+            responseWrapper.finish();
+        }
+
+        // Record the request and response sizes against the endpoint that handled the request.
+        String endpoint = getEndpointName(request);
+        if (request.getContentLength() >= 0)
+        {
+            metricsHelper.recordValue(METRIC_REQUEST_BYTES_PREFIX + endpoint, request.getContentLength());
+        }
+        metricsHelper.recordValue(METRIC_RESPONSE_BYTES_PREFIX + endpoint, responseWrapper.getResponseByteCount());
+        metricsHelper.recordValue(METRIC_RESPONSE_WIRE_BYTES_PREFIX + endpoint, responseWrapper.getWireByteCount());
+    }
+
+    /**
+     * Gets the preferred content encoding from an Accept-Encoding header. Gzip is preferred over deflate and encodings with a quality value of 0 are ignored.
+     *
+     * @param acceptEncodingHeader the Accept-Encoding header value which may be null.
+     *
+     * @return the content encoding to use or null if the response shouldn't be compressed.
+     */
+    protected String getAcceptedContentEncoding(String acceptEncodingHeader)
+    {
+        if (acceptEncodingHeader == null)
+        {
+            return null;
+        }
+
+        boolean deflateAccepted = false;
+        for (String token : acceptEncodingHeader.split(","))
+        {
+            String[] parts = token.trim().split(";");
+            String encoding = parts[0].trim();
+            if (parts.length > 1 && parts[1].trim().matches("q\\s*=\\s*0(\\.0*)?"))
+            {
+                continue;
+            }
+
+            if (GZIP_ENCODING.equalsIgnoreCase(encoding) || "*".equals(encoding))
+            {
+                return GZIP_ENCODING;
+            }
+            if (DEFLATE_ENCODING.equalsIgnoreCase(encoding))
+            {
+                deflateAccepted = true;
+            }
+        }
+
+        return deflateAccepted ? DEFLATE_ENCODING : null;
+    }
+
+    /**
+     * Gets the name of the endpoint that handled the request. This is the HTTP method followed by the Spring MVC request mapping pattern so that requests for
+     * different resources of the same endpoint are grouped together.
+     *
+     * @param request the request.
+     *
+     * @return the endpoint name.
+     */
+    protected String getEndpointName(HttpServletRequest request)
+    {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern == null ? "unmapped" : pattern.toString());
+    }
+
+    /**
+     * A response wrapper that buffers the response body until the compression threshold is reached and compresses it from there on.
+     */
+    public static class CompressingResponseWrapper extends HttpServletResponseWrapper
+    {
+        private final String contentEncoding;
+        private final int threshold;
+
+        private CompressingServletOutputStream outputStream;
+        private PrintWriter writer;
+        private Integer contentLength;
+
+        /**
+         * Constructs the wrapper.
+         *
+         * @param response the response to wrap.
+         * @param contentEncoding the content encoding to compress with or null to never compress.
+         * @param threshold the response size in bytes above which the response is compressed.
+         */
+        public CompressingResponseWrapper(HttpServletResponse response, String contentEncoding, int threshold)
+        {
+            super(response);
+            this.contentEncoding = contentEncoding;
+            this.threshold = threshold;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException
+        {
+            if (writer != null)
+            {
+                throw new IllegalStateException("getWriter() has already been called on this response.");
+            }
+            return getCompressingOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException
+        {
+            if (writer == null)
+            {
+                if (outputStream != null)
+                {
+                    throw new IllegalStateException("getOutputStream() has already been called on this response.");
+                }
+                writer = new PrintWriter(new OutputStreamWriter(getCompressingOutputStream(), getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int length)
+        {
+            holdContentLength(length);
+        }
+
+        @Override
+        public void setHeader(String name, String value)
+        {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name))
+            {
+                holdContentLength(Integer.parseInt(value));
+            }
+            else
+            {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value)
+        {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name))
+            {
+                holdContentLength(Integer.parseInt(value));
+            }
+            else
+            {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void setIntHeader(String name, int value)
+        {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name))
+            {
+                holdContentLength(value);
+            }
+            else
+            {
+                super.setIntHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addIntHeader(String name, int value)
+        {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name))
+            {
+                holdContentLength(value);
+            }
+            else
+            {
+                super.addIntHeader(name, value);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException
+        {
+            if (writer != null)
+            {
+                writer.flush();
+            }
+            if (outputStream != null)
+            {
+                outputStream.flush();
+            }
+            if (outputStream == null || !outputStream.isBuffering())
+            {
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void reset()
+        {
+            super.reset();
+            resetState();
+        }
+
+        @Override
+        public void resetBuffer()
+        {
+            super.resetBuffer();
+            resetState();
+        }
+
+        /**
+         * Writes out anything still buffered, or completes the compressed stream if the response was compressed.
+         *
+         * @throws IOException if the response couldn't be written.
+         */
+        public void finish() throws IOException
+        {
+            if (writer != null)
+            {
+                writer.flush();
+            }
+            if (outputStream != null)
+            {
+                outputStream.finish();
+            }
+            else if (contentLength != null)
+            {
+                super.setContentLength(contentLength);
+            }
+        }
+
+        /**
+         * Gets the number of uncompressed response body bytes written by the application.
+         *
+         * @return the number of bytes.
+         */
+        public long getResponseByteCount()
+        {
+            return outputStream == null ? 0 : outputStream.responseByteCount;
+        }
+
+        /**
+         * Gets the number of response body bytes sent to the client after compression.
+         *
+         * @return the number of bytes.
+         */
+        public long getWireByteCount()
+        {
+            return outputStream == null ? 0 : outputStream.wireByteCount;
+        }
+
+        /**
+         * Holds on to the content length until we know whether the response gets compressed. When the response is never compressed, the content length is
+         * passed straight through.
+         *
+         * @param length the content length.
+         */
+        private void holdContentLength(int length)
+        {
+            if (contentEncoding == null)
+            {
+                super.setContentLength(length);
+            }
+            else
+            {
+                contentLength = length;
+            }
+        }
+
+        private CompressingServletOutputStream getCompressingOutputStream() throws IOException
+        {
+            if (outputStream == null)
+            {
+                outputStream = new CompressingServletOutputStream();
+            }
+            return outputStream;
+        }
+
+        private void resetState()
+        {
+            outputStream = null;
+            writer = null;
+            contentLength = null;
+        }
+
+        /**
+         * The servlet output stream that buffers, compresses and counts the response body.
+         */
+        private class CompressingServletOutputStream extends ServletOutputStream
+        {
+            private ByteArrayOutputStream buffer = contentEncoding == null ? null : new ByteArrayOutputStream(Math.max(threshold, 0) + 1);
+            private OutputStream target;
+            private long responseByteCount;
+            private long wireByteCount;
+
+            @Override
+            public void write(int b) throws IOException
+            {
+                write(new byte[] {(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException
+            {
+                responseByteCount += length;
+                if (isBuffering())
+                {
+                    buffer.write(bytes, offset, length);
+                    if (buffer.size() > threshold)
+                    {
+                        startCompression();
+                    }
+                }
+                else
+                {
+                    getTarget().write(bytes, offset, length);
+                }
+            }
+
+            @Override
+            public void flush() throws IOException
+            {
+                // Flushing while buffering would force the compression decision too early so only flush once the decision has been made.
+                if (!isBuffering())
+                {
+                    getTarget().flush();
+                }
+            }
+
+            boolean isBuffering()
+            {
+                return buffer != null;
+            }
+
+            /**
+             * Switches from buffering to compressing and writes the buffered bytes to the compressed stream.
+             */
+            private void startCompression() throws IOException
+            {
+                byte[] bufferedBytes = buffer.toByteArray();
+                buffer = null;
+
+                if (CompressingResponseWrapper.this.containsHeader(HttpHeaders.CONTENT_ENCODING))
+                {
+                    // The response is already encoded so send it as is.
+                    target = getCountingResponseStream();
+                }
+                else
+                {
+                    CompressingResponseWrapper.super.setHeader(HttpHeaders.CONTENT_ENCODING, contentEncoding);
+                    CompressingResponseWrapper.super.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                    target = GZIP_ENCODING.equals(contentEncoding) ? new GZIPOutputStream(getCountingResponseStream(), 8192) :
+                        new DeflaterOutputStream(getCountingResponseStream(), 8192);
+                }
+                target.write(bufferedBytes);
+            }
+
+            /**
+             * Completes the response body.
+             */
+            void finish() throws IOException
+            {
+                if (isBuffering())
+                {
+                    // The threshold was never reached so send the response uncompressed with its actual length.
+                    byte[] bufferedBytes = buffer.toByteArray();
+                    buffer = null;
+                    CompressingResponseWrapper.super.setContentLength(bufferedBytes.length);
+                    target = getCountingResponseStream();
+                    target.write(bufferedBytes);
+                }
+                else if (target instanceof DeflaterOutputStream)
+                {
+                    ((DeflaterOutputStream) target).finish();
+                }
+                getTarget().flush();
+            }
+
+            private OutputStream getTarget() throws IOException
+            {
+                if (target == null)
+                {
+                    target = getCountingResponseStream();
+                }
+                return target;
+            }
+
+            /**
+             * Gets an output stream that writes to the wrapped response and counts the bytes that go on the wire.
+             */
+            private OutputStream getCountingResponseStream() throws IOException
+            {
+                final ServletOutputStream responseOutputStream = CompressingResponseWrapper.super.getOutputStream();
+                return new OutputStream()
+                {
+                    @Override
+                    public void write(int b) throws IOException
+                    {
+                        wireByteCount++;
+                        responseOutputStream.write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] bytes, int offset, int length) throws IOException
+                    {
+                        wireByteCount += length;
+                        responseOutputStream.write(bytes, offset, length);
+                    }
+
+                    @Override
+                    public void flush() throws IOException
+                    {
+                        responseOutputStream.flush();
+                    }
+                };
+            }
+        }
+    }
+}
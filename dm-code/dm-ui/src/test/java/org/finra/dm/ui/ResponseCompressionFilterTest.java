@@ -0,0 +1,165 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.ui;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import org.finra.dm.core.helper.MetricsHelper;
+
+/**
+ * Test driver for the ResponseCompressionFilter class.
+ */
+public class ResponseCompressionFilterTest extends AbstractUiTest
+{
+    private static final String ENDPOINT_PATTERN = "/test/endpoint/{name}";
+
+    @Autowired
+    private MetricsHelper metricsHelper;
+
+    @Test
+    public void testDoFilterGzip() throws Exception
+    {
+        byte[] body = StringUtils.repeat("<partitionValue>2015-01-01</partitionValue>", 1000).getBytes(StandardCharsets.UTF_8);
+        MockHttpServletResponse response = runFilter("gzip, deflate", body);
+
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(body, IOUtils.toByteArray(new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))));
+        assertTrue(response.getContentAsByteArray().length < body.length);
+    }
+
+    @Test
+    public void testDoFilterDeflate() throws Exception
+    {
+        byte[] body = StringUtils.repeat("<partitionValue>2015-01-01</partitionValue>", 1000).getBytes(StandardCharsets.UTF_8);
+        MockHttpServletResponse response = runFilter("deflate, gzip;q=0", body);
+
+        assertEquals("deflate", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(body, IOUtils.toByteArray(new InflaterInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))));
+    }
+
+    @Test
+    public void testDoFilterBelowThreshold() throws Exception
+    {
+        byte[] body = "<small/>".getBytes(StandardCharsets.UTF_8);
+        MockHttpServletResponse response = runFilter("gzip", body);
+
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(body, response.getContentAsByteArray());
+        assertEquals(body.length, response.getContentLength());
+    }
+
+    @Test
+    public void testDoFilterNotAccepted() throws Exception
+    {
+        byte[] body = StringUtils.repeat("<partitionValue>2015-01-01</partitionValue>", 1000).getBytes(StandardCharsets.UTF_8);
+        MockHttpServletResponse response = runFilter(null, body);
+
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(body, response.getContentAsByteArray());
+    }
+
+    @Test
+    public void testDoFilterRecordsMetrics() throws Exception
+    {
+        String endpoint = "GET " + ENDPOINT_PATTERN;
+        long responseCount = metricsHelper.getHistogram(ResponseCompressionFilter.METRIC_RESPONSE_BYTES_PREFIX + endpoint).getCount();
+
+        byte[] body = StringUtils.repeat("x", 100000).getBytes(StandardCharsets.UTF_8);
+        runFilter("gzip", body);
+
+        assertEquals(responseCount + 1, metricsHelper.getHistogram(ResponseCompressionFilter.METRIC_RESPONSE_BYTES_PREFIX + endpoint).getCount());
+        assertEquals(body.length,
+            metricsHelper.getHistogram(ResponseCompressionFilter.METRIC_RESPONSE_BYTES_PREFIX + endpoint).getSnapshot().getValueAtPercentile(100), 0.07 *
+                body.length);
+        assertTrue(metricsHelper.getHistogram(ResponseCompressionFilter.METRIC_RESPONSE_WIRE_BYTES_PREFIX + endpoint).getSnapshot().getMax() < body.length);
+    }
+
+    @Test
+    public void testGetAcceptedContentEncoding()
+    {
+        ResponseCompressionFilter filter = new ResponseCompressionFilter();
+        assertNull(filter.getAcceptedContentEncoding(null));
+        assertNull(filter.getAcceptedContentEncoding("identity"));
+        assertNull(filter.getAcceptedContentEncoding("gzip;q=0, deflate;q=0.0"));
+        assertEquals("gzip", filter.getAcceptedContentEncoding("deflate, gzip;q=0.5"));
+        assertEquals("gzip", filter.getAcceptedContentEncoding("*"));
+        assertEquals("deflate", filter.getAcceptedContentEncoding("deflate"));
+    }
+
+    /**
+     * Runs the filter with a filter chain that writes the specified body to the response.
+     *
+     * @param acceptEncoding the Accept-Encoding request header or null for none.
+     * @param body the response body.
+     *
+     * @return the response.
+     * @throws Exception if the filter fails.
+     */
+    private MockHttpServletResponse runFilter(String acceptEncoding, final byte[] body) throws Exception
+    {
+        ResponseCompressionFilter filter = new ResponseCompressionFilter();
+        filter.setConfigurationHelper(configurationHelper);
+        filter.setMetricsHelper(metricsHelper);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/rest/test/endpoint/value");
+        if (acceptEncoding != null)
+        {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new FilterChain()
+        {
+            @Override
+            public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse) throws IOException, ServletException
+            {
+                // Simulate Spring MVC exposing the matched request mapping and writing the body in chunks.
+                servletRequest.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, ENDPOINT_PATTERN);
+                servletResponse.setContentLength(body.length);
+                for (int offset = 0; offset < body.length; offset += 1000)
+                {
+                    servletResponse.getOutputStream().write(body, offset, Math.min(1000, body.length - offset));
+                }
+                servletResponse.getOutputStream().flush();
+            }
+        });
+
+        return response;
+    }
+}